@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+#
+# Gera um arquivo AppCDS (Java 13 ou superior) de uma inicialização completa da aplicação e compara o tempo até a
+# primeira requisição com e sem o arquivo.
+#
+# Uso: scripts/appcds.sh [argumentos da aplicação]
+#   ex.: scripts/appcds.sh --spring.profiles.active=prod --spring.datasource.url=jdbc:postgresql://db:5432/Senior
+#
+# Variáveis: PORT (porta usada na medição, 8080) e EXTRA_CLASSPATH (jars adicionais, ex.: outro driver JDBC).
+# Em produção, inicie com o mesmo classpath e -XX:SharedArchiveFile=target/appcds/app.jsa.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-8080}
+OUT=target/appcds
+MAIN=br.com.guest.GuestApplication
+
+mvn -B -q package -DskipTests
+JAR=$(ls target/guest-*.jar | grep -v '\.original$' | head -1)
+
+#O AppCDS só arquiva classes de jars no classpath, e não do jar executável do Spring Boot: o jar é extraído e as
+#classes da aplicação são empacotadas em um jar simples.
+rm -rf "$OUT" && mkdir -p "$OUT/exploded"
+unzip -q "$JAR" -d "$OUT/exploded"
+jar cf "$OUT/application.jar" -C "$OUT/exploded/BOOT-INF/classes" .
+CP="$OUT/application.jar:$(ls "$OUT"/exploded/BOOT-INF/lib/*.jar | tr '\n' ':')${EXTRA_CLASSPATH:-}"
+
+echo "Gravando $OUT/app.jsa..."
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -cp "$CP" "$MAIN" --hotel.startup.exit-on-ready=true "$@" > "$OUT/training.log" 2>&1
+
+measure() {
+	local label=$1; shift
+	java "$@" -cp "$CP" "$MAIN" --server.port="$PORT" "${APP_ARGS[@]}" > "$OUT/$label.log" 2>&1 &
+	local pid=$! start
+	start=$(date +%s%N)
+	until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")" != "000" ]; do
+		kill -0 "$pid" 2>/dev/null || { echo "$label: a aplicação terminou, veja $OUT/$label.log"; return 1; }
+		sleep 0.05
+	done
+	echo "$label: primeira resposta $(( ($(date +%s%N) - start) / 1000000 )) ms após o comando java"
+	grep -E "StartupReport" "$OUT/$label.log" | sed 's/.*: /    /'
+	kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+APP_ARGS=("$@")
+measure sem-appcds
+measure com-appcds -XX:SharedArchiveFile="$OUT/app.jsa"
@@ -0,0 +1,102 @@
+package br.com.guest.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import br.com.guest.config.WireFormatConfig;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Benchmark da serialização das listagens de hóspedes e check-ins, com o {@link ObjectMapper} configurado como no Spring,
+ * em JSON e nos formatos binários de {@link WireFormatConfig}, com e sem o acesso aos campos por código gerado
+ * (Afterburner no Java 8, Blackbird a partir do Java 9) no lugar de reflexão.
+ * O tamanho de cada listagem em cada formato é impresso no início da execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+	@Param({ "10", "1000" })
+	int size;
+
+	@Param({ "json", "smile", "cbor" })
+	String format;
+
+	@Param({ "false", "true" })
+	boolean propertyAccessors;
+
+	private ObjectMapper objectMapper;
+	private List<Guest> guests;
+	private List<CheckIn> checkIns;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if(format.equals("smile"))
+			builder.factory(new SmileFactory());
+		else if(format.equals("cbor"))
+			builder.factory(new CBORFactory());
+		if(propertyAccessors)
+			builder.modulesToInstall(System.getProperty("java.specification.version").startsWith("1.") ? new AfterburnerModule() : new BlackbirdModule());
+		objectMapper = builder.build();
+
+		guests = new ArrayList<>(size);
+		checkIns = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			Guest guest = new Guest();
+			guest.setId(i + 1);
+			guest.setName("Hóspede Número " + i);
+			guest.setDocument(String.format("%011d", i));
+			guest.setTelephone(String.format("319%08d", i));
+			guests.add(guest);
+
+			CheckIn checkIn = new CheckIn();
+			checkIn.setId(i + 1);
+			checkIn.setGuest(guest);
+			checkIn.setEntryDate(new Timestamp(1622556000000L + i * 86400000L));
+			checkIn.setDepartureDate(new Timestamp(1622556000000L + (i + 3) * 86400000L));
+			checkIn.setAdditionalVehicle(i % 2 == 0);
+			checkIn.setTotalCost(new BigDecimal("405.00"));
+			checkIns.add(checkIn);
+		}
+		System.out.printf("%s, %d itens: hóspedes %d bytes, check-ins %d bytes%n", format, size, guests().length, checkIns().length);
+	}
+
+	@Benchmark
+	public byte[] guests() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(guests);
+	}
+
+	@Benchmark
+	public byte[] checkIns() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(checkIns);
+	}
+}
@@ -0,0 +1,64 @@
+package br.com.guest.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.service.PricingEngine;
+import br.com.guest.service.RateTable;
+import br.com.guest.service.RateTableDefinition;
+
+/**
+ * Benchmark do cálculo das diárias por tamanho de hospedagem, dentro e fora do horizonte pré-calculado da tabela de tarifas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+	@Param({ "1", "7", "30", "365" })
+	int nights;
+
+	@Param({ "true", "false" })
+	boolean insideHorizon;
+
+	private PricingEngine pricingEngine;
+	private CheckIn checkIn;
+
+	@Setup
+	public void setUp() {
+		LocalDate today = LocalDate.of(2021, 6, 1);
+		RateTable rates = RateTable.of(new RateTableDefinition(), today, 366, 731);
+		pricingEngine = new PricingEngine(() -> rates, ZoneId.systemDefault());
+
+		LocalDateTime entry = (insideHorizon ? today : today.plusYears(10)).atTime(14, 0);
+		checkIn = new CheckIn();
+		checkIn.setEntryDate(Timestamp.valueOf(entry));
+		checkIn.setDepartureDate(Timestamp.valueOf(entry.plusDays(nights).withHour(17)));	//SAÍDA TARDIA, PARA INCLUIR A DIÁRIA EXTRA.
+		checkIn.setAdditionalVehicle(true);
+	}
+
+	@Benchmark
+	public BigDecimal dailyTotals() {
+		return pricingEngine.dailyTotals(checkIn);
+	}
+}
@@ -0,0 +1,133 @@
+package br.com.guest.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.guest.GuestApplication;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Benchmark das consultas dos repositórios em um banco H2 em memória, populado com {@value #GUESTS} hóspedes e
+ * {@value #CHECK_INS_PER_GUEST} check-ins por hóspede.
+ * <p>
+ * Para medir em outro banco, informe a conexão ao JVM do benchmark, por exemplo:
+ * <code>-Djmh.args="-jvmArgsAppend -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/Bench"</code>
+ * (e também <code>benchmark.datasource.username</code> e <code>benchmark.datasource.password</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	static final int GUESTS = 10_000;
+	static final int CHECK_INS_PER_GUEST = 5;
+	private static final long DAY = 86_400_000L;
+	private static final long ORIGIN = 1609502400000L;										//01/01/2021 12:00 UTC.
+
+	private ConfigurableApplicationContext context;
+	private GuestRepository guestRepository;
+	private CheckInRepository checkInRepository;
+	private List<Long> someGuests;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(GuestApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+						"--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+						"--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--logging.level.root=WARN");
+		guestRepository = context.getBean(GuestRepository.class);
+		checkInRepository = context.getBean(CheckInRepository.class);
+		populate(context.getBean(JdbcTemplate.class));
+		someGuests = Arrays.asList(1L, 2500L, 5000L, 7500L, (long) GUESTS);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	/*
+	 * Insere os dados por JDBC em lote, sem passar pelos eventos e índices em memória da aplicação.
+	 */
+	static void populate(JdbcTemplate jdbcTemplate) {
+		List<Object[]> guests = new ArrayList<>(GUESTS);
+		List<Object[]> checkIns = new ArrayList<>(GUESTS * CHECK_INS_PER_GUEST);
+		long checkInId = 0;
+		for(long id = 1; id <= GUESTS; id++) {
+			String name = "Hóspede " + id;
+			guests.add(new Object[] { id, name, String.format("%011d", id), String.format("319%08d", id), Guest.normalizeName(name) });
+			for(int c = 0; c < CHECK_INS_PER_GUEST; c++) {
+				long entry = ORIGIN + ((id * 7 + c * 73) % 365) * DAY;
+				checkIns.add(new Object[] { ++checkInId, id, new Timestamp(entry), new Timestamp(entry + (1 + c) * DAY), c % 2 == 0, new BigDecimal("270.00") });
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_guest (id, name, document, telephone, name_search) VALUES (?, ?, ?, ?, ?)", guests);
+		jdbcTemplate.batchUpdate("INSERT INTO tb_check_in (id, guest, entry_date, departure_date, additional_vehicle, total_cost) VALUES (?, ?, ?, ?, ?, ?)", checkIns);
+	}
+
+	@Benchmark
+	public List<CheckIn> checkInKeysetPage() {
+		return checkInRepository.findByIdGreaterThanOrderByIdAsc(GUESTS, PageRequest.of(0, 100));
+	}
+
+	@Benchmark
+	public List<CheckIn> checkInsByGuest() {
+		return checkInRepository.findByGuestIdIn(someGuests);
+	}
+
+	@Benchmark
+	public CheckIn checkInById() {
+		return checkInRepository.findById(GUESTS);
+	}
+
+	@Benchmark
+	public List<Guest> guestByName() {
+		return guestRepository.findByNameSearch("hospede 4321");
+	}
+
+	@Benchmark
+	public List<Guest> guestByDocumentOrTelephone() {
+		return guestRepository.findByDocumentOrTelephone("31900004321");
+	}
+
+	@Benchmark
+	public List<Guest> guestsInHouse() {
+		return guestRepository.findByCheckinCurrent(new Timestamp(ORIGIN + 180 * DAY));
+	}
+
+	@Benchmark
+	public List<CheckInRepository.BookingTotals> bookingTotals() {
+		return checkInRepository.findBookingTotals(someGuests);
+	}
+}
@@ -0,0 +1,113 @@
+package br.com.guest.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.guest.GuestApplication;
+
+/**
+ * Teste de carga HTTP comparando o modo padrão (uma thread do Tomcat por requisição) com o modo de threads virtuais
+ * (<code>hotel.web.virtual-threads</code>), com {@value #CLIENTS} clientes simultâneos na mesma máquina.
+ * <p>
+ * O modo de threads virtuais exige Java 21 ou superior no JVM do benchmark; em versões anteriores os dois modos
+ * medem o mesmo executor (a versão do Java fica registrada no resultado). A espera no JDBC só é representativa
+ * em um banco real, informado como no {@link RepositoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(RequestExecutionBenchmark.CLIENTS)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+	static final int CLIENTS = 256;
+
+	@Param({ "false", "true" })
+	public boolean virtualThreads;
+
+	/*
+	 * Threads do Tomcat no modo padrão; abaixo da quantidade de clientes para reproduzir a fila nos picos.
+	 */
+	@Param({ "50" })
+	public int tomcatThreads;
+
+	private ConfigurableApplicationContext context;
+	private String baseUrl;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(GuestApplication.class)
+				.run("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url", "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+						"--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+						"--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--server.port=0",
+						"--server.tomcat.threads.max=" + tomcatThreads,
+						"--hotel.web.virtual-threads=" + virtualThreads,
+						"--logging.level.root=WARN");
+		RepositoryBenchmark.populate(context.getBean(JdbcTemplate.class));
+		baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort() + "/api";
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int checkInById() throws IOException {
+		return get("/checkin/" + (1 + ThreadLocalRandom.current().nextInt(RepositoryBenchmark.GUESTS * RepositoryBenchmark.CHECK_INS_PER_GUEST)));
+	}
+
+	@Benchmark
+	public int checkInPage() throws IOException {
+		return get("/checkins?limite=100&apos=" + ThreadLocalRandom.current().nextInt(RepositoryBenchmark.GUESTS));
+	}
+
+	@Benchmark
+	public int guestSearch() throws IOException {
+		return get("/hospedes/" + String.format("319%08d", 1 + ThreadLocalRandom.current().nextInt(RepositoryBenchmark.GUESTS)));
+	}
+
+	/*
+	 * Lê a resposta inteira para que a conexão volte ao keep-alive do HttpURLConnection.
+	 */
+	private int get(String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		int status = connection.getResponseCode();
+		InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		if(body != null) {
+			byte[] buffer = new byte[8192];
+			while(body.read(buffer) != -1);
+			body.close();
+		}
+		if(status != 200)
+			throw new IllegalStateException("HTTP " + status + " em " + path);
+		return status;
+	}
+}
@@ -0,0 +1,261 @@
+package br.com.guest.load;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import br.com.guest.model.Guest;
+import br.com.guest.service.PricingEngine;
+
+/**
+ * Carga em massa de hóspedes e check-ins sintéticos ({@link SyntheticHotel}) em <code>tb_guest</code> e
+ * <code>tb_check_in</code>, após os maiores códigos existentes.
+ * <p>
+ * Os hóspedes são divididos em faixas gravadas em paralelo, cada uma em uma transação: primeiro os hóspedes da faixa,
+ * depois os check-ins deles, de modo que as chaves estrangeiras já valem durante a carga. No Postgres, as linhas vão pelo
+ * <code>COPY ... FROM STDIN</code> do driver; nos demais bancos, por <code>INSERT</code> em lotes JDBC. Os valores dos
+ * check-ins vêm do {@link PricingEngine} da aplicação. A carga não passa pelos eventos: os resumos de reservas e os totais
+ * de receita são recalculados em seguida pelo {@link LoadTool}, os índices em memória são montados na próxima
+ * inicialização da aplicação, e o journal de alterações não recebe as linhas geradas.
+ */
+final class DataGenerator {
+
+	private static final int GUESTS_PER_RANGE = 20_000;
+	private static final int BATCH_SIZE = 1000;
+	private static final int COPY_BUFFER = 1 << 20;
+
+	private static final String GUEST_COLUMNS = "id, name, document, telephone, name_search, version";
+	private static final String CHECK_IN_COLUMNS = "id, guest, entry_date, departure_date, additional_vehicle, total_cost, version";
+
+	private final DataSource dataSource;
+	private final PricingEngine pricingEngine;
+	private final SyntheticHotel hotel;
+	private final int threads;
+
+	/**
+	 * Faixa de códigos gerada.
+	 */
+	static final class Result {
+
+		final long firstGuest, lastGuest, firstCheckIn, lastCheckIn;
+
+		Result(long firstGuest, long lastGuest, long firstCheckIn, long lastCheckIn) {
+			this.firstGuest = firstGuest;
+			this.lastGuest = lastGuest;
+			this.firstCheckIn = firstCheckIn;
+			this.lastCheckIn = lastCheckIn;
+		}
+	}
+
+	/*
+	 * Destino das linhas de uma tabela.
+	 */
+	private interface RowWriter extends AutoCloseable {
+
+		void row(Object... values) throws SQLException;
+
+		@Override
+		void close() throws SQLException;
+	}
+
+	DataGenerator(DataSource dataSource, PricingEngine pricingEngine, SyntheticHotel hotel, int threads) {
+		this.dataSource = dataSource;
+		this.pricingEngine = pricingEngine;
+		this.hotel = hotel;
+		this.threads = threads;
+	}
+
+	/**
+	 * Método responsável por gerar e gravar hóspedes e as hospedagens de cada um.
+	 * @param guests Quantidade de hóspedes.
+	 * @return {@link Result} com os códigos gravados.
+	 * @throws SQLException Caso ocorra erro no banco.
+	 * @throws InterruptedException Caso a carga seja interrompida.
+	 */
+	Result generate(long guests) throws SQLException, InterruptedException {
+		long firstGuest = maxId("tb_guest") + 1, firstCheckIn = maxId("tb_check_in") + 1;
+		long lastGuest = firstGuest + guests - 1;
+		List<long[]> ranges = new ArrayList<>();													//PRIMEIRO HÓSPEDE, ÚLTIMO E PRIMEIRO CHECK-IN.
+		long nextCheckIn = firstCheckIn;
+		for(long from = firstGuest; from <= lastGuest; from += GUESTS_PER_RANGE) {
+			long to = Math.min(lastGuest, from + GUESTS_PER_RANGE - 1);
+			ranges.add(new long[] { from, to, nextCheckIn });
+			for(long id = from; id <= to; id++)
+				nextCheckIn += hotel.visits(id);
+		}
+		boolean copy = isPostgres();
+		System.out.printf("Gerando %d hóspedes e %d check-ins (%s, %d threads)...%n", guests, nextCheckIn - firstCheckIn,
+				copy ? "COPY" : "lotes JDBC", threads);
+
+		long start = System.nanoTime();
+		AtomicLong done = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> loads = new ArrayList<>();
+			for(long[] range : ranges) {
+				loads.add(executor.submit(() -> {
+					load(range[0], range[1], range[2], copy);
+					long total = done.addAndGet(range[1] - range[0] + 1);
+					System.out.printf("  %d/%d hóspedes (%.0f/s)%n", total, guests, total / ((System.nanoTime() - start) / 1e9));
+					return null;
+				}));
+			}
+			for(Future<?> load : loads)
+				load.get();
+		}catch (ExecutionException e) {
+			if(e.getCause() instanceof SQLException)
+				throw (SQLException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}finally {
+			executor.shutdownNow();
+		}
+		if(copy) {
+			try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+				statement.execute("ANALYZE tb_guest");													//ESTATÍSTICAS PARA O PLANEJADOR APÓS A CARGA.
+				statement.execute("ANALYZE tb_check_in");
+			}
+		}
+		System.out.printf("Carga concluída em %.1f s.%n", (System.nanoTime() - start) / 1e9);
+		return new Result(firstGuest, lastGuest, firstCheckIn, nextCheckIn - 1);
+	}
+
+	/*
+	 * Grava uma faixa de hóspedes e, em seguida, os check-ins deles, na mesma transação.
+	 */
+	private void load(long fromGuest, long toGuest, long firstCheckIn, boolean copy) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			try (RowWriter guests = writer(connection, "tb_guest", GUEST_COLUMNS, copy)) {
+				for(long id = fromGuest; id <= toGuest; id++) {
+					SyntheticHotel.GuestRow guest = hotel.guest(id);
+					guests.row(id, guest.name, guest.document, guest.telephone, Guest.normalizeName(guest.name), 0);
+				}
+			}
+			long checkInId = firstCheckIn;
+			try (RowWriter checkIns = writer(connection, "tb_check_in", CHECK_IN_COLUMNS, copy)) {
+				for(long id = fromGuest; id <= toGuest; id++) {
+					for(int visit = 0, visits = hotel.visits(id); visit < visits; visit++) {
+						SyntheticHotel.StayRow stay = hotel.stay(id, visit);
+						BigDecimal cost = pricingEngine.dailyTotals(stay.entryDate, stay.departureDate, stay.additionalVehicle);
+						checkIns.row(checkInId++, id, stay.entryDate, stay.departureDate, stay.additionalVehicle, cost, 0);
+					}
+				}
+			}
+			connection.commit();
+		}
+	}
+
+	private RowWriter writer(Connection connection, String table, String columns, boolean copy) throws SQLException {
+		return copy ? new CopyWriter(connection, table, columns) : new BatchWriter(connection, table, columns);
+	}
+
+	private boolean isPostgres() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.isWrapperFor(PGConnection.class);
+		}
+	}
+
+	private long maxId(String table) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+
+	/**
+	 * Linhas em CSV pelo <code>COPY</code> do Postgres, enviadas em blocos de até 1 MB.
+	 */
+	private static final class CopyWriter implements RowWriter {
+
+		private final CopyIn copyIn;
+		private final StringBuilder buffer = new StringBuilder(COPY_BUFFER + 4096);
+
+		CopyWriter(Connection connection, String table, String columns) throws SQLException {
+			copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)");
+		}
+
+		@Override
+		public void row(Object... values) throws SQLException {
+			for(int i = 0; i < values.length; i++) {
+				if(i > 0)
+					buffer.append(',');
+				Object value = values[i];
+				if(value instanceof String)
+					buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+				else if(value instanceof BigDecimal)
+					buffer.append(((BigDecimal) value).toPlainString());
+				else if(value != null)
+					buffer.append(value);															//NULO: CAMPO VAZIO SEM ASPAS.
+			}
+			buffer.append('\n');
+			if(buffer.length() >= COPY_BUFFER)
+				flush();
+		}
+
+		private void flush() throws SQLException {
+			byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+			copyIn.writeToCopy(bytes, 0, bytes.length);
+			buffer.setLength(0);
+		}
+
+		@Override
+		public void close() throws SQLException {
+			if(!copyIn.isActive())
+				return;
+			flush();
+			copyIn.endCopy();
+		}
+	}
+
+	/**
+	 * Linhas por <code>INSERT</code> em lotes JDBC, para os bancos sem <code>COPY</code>.
+	 */
+	private static final class BatchWriter implements RowWriter {
+
+		private final PreparedStatement statement;
+		private int pending;
+
+		BatchWriter(Connection connection, String table, String columns) throws SQLException {
+			String parameters = columns.replaceAll("[^,]+", "?");
+			statement = connection.prepareStatement("INSERT INTO " + table + " (" + columns + ") VALUES (" + parameters + ")");
+		}
+
+		@Override
+		public void row(Object... values) throws SQLException {
+			for(int i = 0; i < values.length; i++)
+				statement.setObject(i + 1, values[i]);
+			statement.addBatch();
+			if(++pending == BATCH_SIZE) {
+				statement.executeBatch();
+				pending = 0;
+			}
+		}
+
+		@Override
+		public void close() throws SQLException {
+			try {
+				if(pending > 0)
+					statement.executeBatch();
+			}finally {
+				statement.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,425 @@
+package br.com.guest.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Teste de carga HTTP com uma mistura de operações sobre todos os endpoints de hóspedes e check-ins, contra uma instância
+ * já em execução e populada pelo {@link DataGenerator}.
+ * <p>
+ * Cada cliente sorteia a próxima operação pelos pesos da mistura. Sem taxa definida, cada cliente envia a próxima
+ * requisição assim que recebe a resposta; com taxa, as requisições seguem uma agenda fixa e a latência é medida a partir
+ * do horário agendado, de modo que as esperas na fila do servidor entram nos percentis (sem omissão coordenada). Os
+ * códigos consultados vêm das faixas gravadas pelo gerador, com os mais recentes consultados com mais frequência; os
+ * nomes, documentos e telefones buscados são refeitos pelo {@link SyntheticHotel}.
+ */
+final class LoadTest {
+
+	private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(10);
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final String baseUrl;
+	private final SyntheticHotel hotel;
+	private final long firstGuest, lastGuest, firstCheckIn, lastCheckIn;
+	private final LocalDate reference;
+	private final List<Operation> operations = new ArrayList<>();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Queue<JsonNode> createdGuests = new ConcurrentLinkedQueue<>();
+	private final AtomicLong newGuests = new AtomicLong();
+	private double[] cumulative;
+
+	/*
+	 * Requisição de uma operação; retorna o status HTTP.
+	 */
+	private interface Call {
+
+		int execute(ThreadLocalRandom random) throws IOException;
+	}
+
+	/**
+	 * Operação da mistura, com os tempos e os status das suas requisições.
+	 */
+	private static final class Operation {
+
+		final String name;
+		final Call call;
+		double weight;
+		final Recorder recorder = new Recorder(MAX_LATENCY, 3);
+		final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+		Histogram histogram;
+
+		Operation(String name, double weight, Call call) {
+			this.name = name;
+			this.weight = weight;
+			this.call = call;
+		}
+
+		long errors() {
+			long errors = 0;
+			for(Map.Entry<Integer, LongAdder> status : statuses.entrySet()) {
+				if(status.getKey() < 0 || status.getKey() >= 400)
+					errors += status.getValue().sum();
+			}
+			return errors;
+		}
+	}
+
+	LoadTest(String baseUrl, SyntheticHotel hotel, LocalDate reference, long firstGuest, long lastGuest, long firstCheckIn, long lastCheckIn) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.hotel = hotel;
+		this.reference = reference;
+		this.firstGuest = firstGuest;
+		this.lastGuest = lastGuest;
+		this.firstCheckIn = firstCheckIn;
+		this.lastCheckIn = lastCheckIn;
+
+		//HÓSPEDES (GuestResource). AS LISTAGENS COMPLETAS FICAM FORA DA MISTURA PADRÃO: COM MILHÕES DE LINHAS, DOMINARIAM O TESTE.
+		operations.add(new Operation("listarHospedes", 0, r -> get("/hospedes")));
+		operations.add(new Operation("paginaHospedes", 5, r -> get("/hospedes?limite=100&apos=" + (guestId(r) - 1))));
+		operations.add(new Operation("streamHospedes", 1, r -> get("/hospedes-stream?apos=" + Math.max(0, lastGuest - 1000))));
+		operations.add(new Operation("hospedePorCodigo", 15, r -> get("/hospede/" + guestId(r))));
+		operations.add(new Operation("buscarHospede", 12, r -> get("/hospedes/" + searchTerm(r))));
+		operations.add(new Operation("sugestoes", 10, r -> get("/hospedes-sugestoes?limite=10&q=" + encode(prefix(r)))));
+		operations.add(new Operation("hospedesAtuais", 6, r -> get("/hospedes-atuais")));
+		operations.add(new Operation("hospedesPassado", 1, r -> get("/hospedes-passado")));
+		operations.add(new Operation("salvarHospede", 3, this::saveGuest));
+		operations.add(new Operation("excluirHospede", 1, this::deleteGuest));
+
+		//CHECK-INS (CheckInResource).
+		operations.add(new Operation("listarCheckins", 0, r -> get("/checkins")));
+		operations.add(new Operation("paginaCheckins", 5, r -> get("/checkins?limite=100&apos=" + (checkInId(r) - 1))));
+		operations.add(new Operation("streamCheckins", 1, r -> get("/checkins-stream?apos=" + Math.max(0, lastCheckIn - 1000))));
+		operations.add(new Operation("exportarCheckins", 1, r -> {
+			long from = checkInId(r) - 1;
+			return get("/checkins-export?apos=" + from + "&ate=" + (from + 1000));
+		}));
+		operations.add(new Operation("checkinPorCodigo", 15, r -> get("/checkin/" + checkInId(r))));
+		operations.add(new Operation("checkinsDoHospede", 5, r -> get("/checkin_hospede/" + searchTerm(r))));
+		operations.add(new Operation("salvarCheckin", 4, r -> post("/checkin", "application/json", newCheckIn(r), null)));
+		operations.add(new Operation("checkinAssincrono", 2, r -> post("/checkin-assincrono", "application/json", newCheckIn(r), null)));
+		operations.add(new Operation("situacaoAssincrono", 1, r -> get("/checkin-assincrono/situacao")));
+		operations.add(new Operation("cotacoes", 2, r -> post("/checkin/quotes", "application/x-ndjson", ndjson(r, 20), null)));
+		operations.add(new Operation("importarLote", 1, r -> post("/checkins/batch", "application/x-ndjson", ndjson(r, 50), null)));
+		operations.add(new Operation("valorUltimaReserva", 4, r -> get("/valor_ultima_reserva/" + guestId(r))));
+		operations.add(new Operation("totalReservas", 4, r -> get("/total_reservas/" + guestId(r))));
+		operations.add(new Operation("recalcularTotais", 0, r -> post("/total_reservas/recalcular", "application/json", "", null)));
+	}
+
+	/**
+	 * Método responsável por alterar os pesos da mistura.
+	 * @param mix Pesos no formato operação=peso, separados por vírgula; as operações não informadas mantêm o peso padrão.
+	 */
+	void mix(String mix) {
+		for(String entry : mix.split(",")) {
+			if(entry.trim().isEmpty())
+				continue;
+			String[] parts = entry.split("=");
+			Operation operation = operations.stream().filter(o -> o.name.equals(parts[0].trim())).findFirst().orElseThrow(() ->
+					new IllegalArgumentException("Operação desconhecida: " + parts[0] + ". Operações: " + names()));
+			operation.weight = Double.parseDouble(parts[1].trim());
+		}
+	}
+
+	/**
+	 * Método responsável por executar o teste e imprimir o resultado.
+	 * @param clients Clientes simultâneos.
+	 * @param warmup Aquecimento, em segundos, cujas requisições não entram no resultado.
+	 * @param duration Duração da medição, em segundos.
+	 * @param rate Requisições por segundo somando todos os clientes, ou 0 para enviar sem pausa.
+	 * @param output Arquivo JSON do resultado, ou null.
+	 * @throws InterruptedException Caso o teste seja interrompido.
+	 * @throws IOException Caso ocorra erro ao gravar o resultado.
+	 */
+	void run(int clients, int warmup, int duration, double rate, File output) throws InterruptedException, IOException {
+		cumulative = new double[operations.size()];
+		double total = 0;
+		for(int i = 0; i < operations.size(); i++)
+			cumulative[i] = total += operations.get(i).weight;
+		if(total <= 0)
+			throw new IllegalArgumentException("Nenhuma operação com peso positivo.");
+
+		long start = System.nanoTime();
+		long measureStart = start + TimeUnit.SECONDS.toNanos(warmup);
+		long end = measureStart + TimeUnit.SECONDS.toNanos(duration);
+		long interval = rate > 0 ? (long) (clients * 1e9 / rate) : 0;
+		LongAdder done = new LongAdder();
+		System.out.printf("%d clientes em %s por %d s (+%d s de aquecimento), %s.%n", clients, baseUrl, duration, warmup,
+				rate > 0 ? String.format("%.0f req/s", rate) : "sem pausa entre requisições");
+
+		List<Thread> workers = new ArrayList<>();
+		for(int c = 0; c < clients; c++) {
+			long offset = interval * c / clients;													//AGENDAS DESENCONTRADAS ENTRE OS CLIENTES.
+			Thread worker = new Thread(() -> work(start + offset, interval, measureStart, end, done), "carga-" + c);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+		long previous = 0, previousTime = start;
+		while(System.nanoTime() < end) {
+			Thread.sleep(Math.min(10_000, Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()))));
+			long count = done.sum(), now = System.nanoTime();
+			System.out.printf("  %5.0f s: %.0f req/s%s%n", (now - start) / 1e9, (count - previous) / ((now - previousTime) / 1e9),
+					now < measureStart ? " (aquecimento)" : "");
+			previous = count;
+			previousTime = now;
+		}
+		for(Thread worker : workers)
+			worker.join(TimeUnit.MINUTES.toMillis(1));
+		report(duration, output);
+	}
+
+	private void work(long firstSend, long interval, long measureStart, long end, LongAdder done) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long scheduled = firstSend;
+		while(true) {
+			if(interval > 0) {
+				long wait = scheduled - System.nanoTime();
+				if(wait > 0)
+					sleep(wait);
+			}else {
+				scheduled = System.nanoTime();
+			}
+			if(scheduled >= end)
+				return;
+			Operation operation = pick(random);
+			int status;
+			try {
+				status = operation.call.execute(random);
+			}catch (IOException e) {
+				status = -1;																		//FALHA DE CONEXÃO OU TEMPO ESGOTADO.
+			}
+			long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+			if(scheduled >= measureStart) {
+				operation.recorder.recordValue(Math.min(latency, MAX_LATENCY));
+				operation.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+			}
+			done.increment();
+			if(interval > 0)
+				scheduled += interval;
+		}
+	}
+
+	private void report(int duration, File output) throws IOException {
+		Histogram all = new Histogram(MAX_LATENCY, 3);
+		List<Map<String, Object>> results = new ArrayList<>();
+		System.out.printf("%n%-20s %9s %9s %7s %9s %9s %9s %9s %9s%n", "Operação", "Req.", "Req./s", "Erros", "p50", "p90", "p99",
+				"p99,9", "Máx. (ms)");
+		long errors = 0;
+		for(Operation operation : operations) {
+			operation.histogram = operation.recorder.getIntervalHistogram();
+			if(operation.histogram.getTotalCount() == 0)
+				continue;
+			all.add(operation.histogram);
+			errors += operation.errors();
+			results.add(line(operation.name, operation.histogram, operation.errors(), duration, operation.statuses));
+		}
+		Map<String, Object> total = line("total", all, errors, duration, null);
+		results.add(total);
+		if(output != null) {
+			output.getAbsoluteFile().getParentFile().mkdirs();
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, results);
+			System.out.println("\nResultado gravado em " + output.getPath() + ".");
+		}
+	}
+
+	private static Map<String, Object> line(String name, Histogram histogram, long errors, int duration, Map<Integer, LongAdder> statuses) {
+		Map<String, Object> line = new LinkedHashMap<>();
+		line.put("operacao", name);
+		line.put("requisicoes", histogram.getTotalCount());
+		line.put("porSegundo", histogram.getTotalCount() / (double) duration);
+		line.put("erros", errors);
+		for(double percentile : PERCENTILES)
+			line.put("p" + percentile, histogram.getValueAtPercentile(percentile) / 1000.0);
+		line.put("maximo", histogram.getMaxValue() / 1000.0);
+		if(statuses != null) {
+			Map<String, Long> byStatus = new LinkedHashMap<>();
+			statuses.forEach((status, count) -> byStatus.put(status < 0 ? "falha" : String.valueOf(status), count.sum()));
+			line.put("status", byStatus);
+		}
+		System.out.printf("%-20s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+				histogram.getTotalCount() / (double) duration, errors, histogram.getValueAtPercentile(50) / 1000.0,
+				histogram.getValueAtPercentile(90) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+				histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+		return line;
+	}
+
+	private Operation pick(ThreadLocalRandom random) {
+		double draw = random.nextDouble(cumulative[cumulative.length - 1]);
+		for(int i = 0; i < cumulative.length; i++) {
+			if(draw < cumulative[i])
+				return operations.get(i);
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	/*
+	 * Hóspedes recentes são consultados com mais frequência: metade das consultas cai nos 20% mais novos.
+	 */
+	private long guestId(ThreadLocalRandom random) {
+		return lastGuest - (long) ((lastGuest - firstGuest) * Math.pow(random.nextDouble(), 3));
+	}
+
+	private long checkInId(ThreadLocalRandom random) {
+		return lastCheckIn - (long) ((lastCheckIn - firstCheckIn) * Math.pow(random.nextDouble(), 3));
+	}
+
+	/*
+	 * Nome completo, documento ou telefone de um hóspede existente, como digitado na recepção.
+	 */
+	private String searchTerm(ThreadLocalRandom random) {
+		SyntheticHotel.GuestRow guest = hotel.guest(guestId(random));
+		double draw = random.nextDouble();
+		if(draw < 0.35 && guest.document != null)
+			return guest.document;
+		if(draw < 0.6 && guest.telephone != null)
+			return guest.telephone;
+		return encode(guest.name);
+	}
+
+	/*
+	 * Início do nome e, às vezes, do sobrenome, como enquanto o nome é digitado.
+	 */
+	private String prefix(ThreadLocalRandom random) {
+		String[] words = hotel.guest(guestId(random)).name.split(" ");
+		String prefix = words[0].substring(0, Math.min(words[0].length(), 2 + random.nextInt(4)));
+		if(random.nextBoolean())
+			prefix += " " + words[words.length - 1].substring(0, Math.min(words[words.length - 1].length(), 1 + random.nextInt(3)));
+		return prefix;
+	}
+
+	private int saveGuest(ThreadLocalRandom random) throws IOException {
+		SyntheticHotel.GuestRow row = hotel.guest(lastGuest + newGuests.incrementAndGet());				//NOVO HÓSPEDE COM DADOS REALISTAS.
+		Map<String, Object> guest = new LinkedHashMap<>();
+		guest.put("name", row.name);
+		guest.put("document", row.document);
+		guest.put("telephone", row.telephone);
+		return post("/hospede", "application/json", objectMapper.writeValueAsString(guest), body -> {
+			try {
+				createdGuests.add(objectMapper.readTree(body));
+			}catch (IOException e) {
+				//RESPOSTA SEM HÓSPEDE: NADA A EXCLUIR DEPOIS.
+			}
+		});
+	}
+
+	/*
+	 * Exclui somente hóspedes criados pelo próprio teste; sem nenhum disponível, cria um.
+	 */
+	private int deleteGuest(ThreadLocalRandom random) throws IOException {
+		JsonNode guest = createdGuests.poll();
+		if(guest == null)
+			return saveGuest(random);
+		return send("DELETE", "/hospede", "application/json", objectMapper.writeValueAsBytes(guest), null);
+	}
+
+	private String newCheckIn(ThreadLocalRandom random) {
+		LocalDateTime entry = reference.plusDays(random.nextInt(60)).atTime(14, 0);
+		int nights = 1 + (int) (-Math.log(1 - random.nextDouble()) * 2);								//MAIORIA DE UMA A TRÊS DIÁRIAS.
+		return String.format("{\"guest\":{\"id\":%d},\"entryDate\":\"%s\",\"departureDate\":\"%s\",\"additionalVehicle\":%b}",
+				guestId(random), entry, entry.plusDays(nights).withHour(12), random.nextDouble() < 0.35);
+	}
+
+	private String ndjson(ThreadLocalRandom random, int size) {
+		StringBuilder body = new StringBuilder();
+		for(int i = 0; i < size; i++)
+			body.append(newCheckIn(random)).append('\n');
+		return body.toString();
+	}
+
+	private int get(String path) throws IOException {
+		return send("GET", path, null, null, null);
+	}
+
+	private int post(String path, String contentType, String body, ResponseHandler handler) throws IOException {
+		return send("POST", path, contentType, body.getBytes(StandardCharsets.UTF_8), handler);
+	}
+
+	/*
+	 * Recebe o corpo de uma resposta 2xx.
+	 */
+	private interface ResponseHandler {
+
+		void accept(byte[] body);
+	}
+
+	/*
+	 * Lê a resposta inteira para que a conexão volte ao keep-alive do HttpURLConnection.
+	 */
+	private int send(String method, String path, String contentType, byte[] body, ResponseHandler handler) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(120_000);
+		if(body != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", contentType);
+			try (OutputStream output = connection.getOutputStream()) {
+				output.write(body);
+			}
+		}
+		int status = connection.getResponseCode();
+		InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		if(input != null) {
+			ByteArrayOutputStream content = handler != null && status < 300 ? new ByteArrayOutputStream() : null;
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = input.read(buffer)) != -1) {
+				if(content != null)
+					content.write(buffer, 0, read);
+			}
+			input.close();
+			if(content != null)
+				handler.accept(content.toByteArray());
+		}
+		return status;
+	}
+
+	private String names() {
+		StringBuilder names = new StringBuilder();
+		operations.forEach(o -> names.append(names.length() == 0 ? "" : ", ").append(o.name));
+		return names.toString();
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+		}catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void sleep(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package br.com.guest.load;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.guest.GuestApplication;
+import br.com.guest.service.GuestBookingSummaryService;
+import br.com.guest.service.PricingEngine;
+import br.com.guest.service.RevenueReportService;
+
+/**
+ * Ponto de entrada do perfil <code>load</code>:
+ * <ul>
+ * <li><code>gerar</code>: popula o banco de <code>spring.datasource.*</code> com hóspedes e check-ins sintéticos
+ * ({@link DataGenerator}), recalcula os resumos de reservas e os totais de receita e grava as faixas de códigos em
+ * <code>--dados</code>;</li>
+ * <li><code>carga --url=...</code>: executa o {@link LoadTest} contra uma instância em execução, populada pelo
+ * <code>gerar</code>;</li>
+ * <li><code>carga</code> sem <code>--url</code>: gera os dados e sobe a aplicação no próprio JVM (H2 em <code>target</code>, salvo
+ * outro <code>spring.datasource.url</code>) antes do teste.</li>
+ * </ul>
+ * As opções têm o formato <code>--nome=valor</code>; as demais (<code>--spring.*</code>, <code>--hotel.*</code>) são
+ * repassadas à aplicação.
+ */
+public final class LoadTool {
+
+	/*
+	 * Em arquivo, e não em memória: o Spring Boot encerra bancos em memória junto com o contexto da geração.
+	 */
+	private static final String EMBEDDED_DATABASE = "target/carga";
+
+	private LoadTool() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("spring.devtools.restart.enabled", "false");							//O DEVTOOLS REEXECUTARIA ESTE MAIN SEM O COMANDO.
+		String command = args.length == 0 ? "" : args[0];
+		List<String> rest = new ArrayList<>(Arrays.asList(args).subList(Math.min(1, args.length), args.length));
+		Map<String, String> options = options(rest);
+		if("gerar".equals(command)) {
+			generate(rest, options);
+		}else if("carga".equals(command)) {
+			if(options.containsKey("url"))
+				load(options.get("url"), options);
+			else
+				embedded(rest, options);
+		}else {
+			System.err.println("Uso: gerar [--hospedes=100000] [--semente=42] [--dias=730] [--threads=4] [--spring.datasource.*=...]");
+			System.err.println("     carga [--url=http://localhost:8080/api] [--clientes=32] [--duracao=60] [--aquecimento=10] "
+					+ "[--taxa=0] [--mistura=operacao=peso,...]");
+			System.exit(2);
+		}
+		System.exit(0);																		//THREADS DO HTTPURLCONNECTION E DA APLICAÇÃO.
+	}
+
+	/*
+	 * Popula o banco em um contexto sem servidor web e grava as faixas geradas.
+	 */
+	private static void generate(List<String> springArgs, Map<String, String> options) throws Exception {
+		long seed = Long.parseLong(options.getOrDefault("semente", "42"));
+		LocalDate reference = LocalDate.parse(options.getOrDefault("referencia", LocalDate.now().toString()));
+		int days = Integer.parseInt(options.getOrDefault("dias", "730"));
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GuestApplication.class)
+				.web(WebApplicationType.NONE).run(withDefaults(springArgs, "--logging.level.root=WARN"))) {
+			DataGenerator generator = new DataGenerator(context.getBean(DataSource.class), context.getBean(PricingEngine.class),
+					new SyntheticHotel(seed, reference, days), Integer.parseInt(options.getOrDefault("threads", "4")));
+			DataGenerator.Result result = generator.generate(Long.parseLong(options.getOrDefault("hospedes", "100000")));
+			context.getBean(GuestBookingSummaryService.class).rebuild();							//A CARGA NÃO PASSA PELOS EVENTOS QUE OS ATUALIZAM.
+			context.getBean(RevenueReportService.class).rebuild();
+			Properties data = new Properties();
+			data.setProperty("semente", String.valueOf(seed));
+			data.setProperty("referencia", reference.toString());
+			data.setProperty("dias", String.valueOf(days));
+			data.setProperty("primeiroHospede", String.valueOf(result.firstGuest));
+			data.setProperty("ultimoHospede", String.valueOf(result.lastGuest));
+			data.setProperty("primeiroCheckin", String.valueOf(result.firstCheckIn));
+			data.setProperty("ultimoCheckin", String.valueOf(result.lastCheckIn));
+			File file = dataFile(options);
+			file.getAbsoluteFile().getParentFile().mkdirs();
+			try (OutputStream output = new FileOutputStream(file)) {
+				data.store(output, "Faixas geradas pelo perfil load");
+			}
+			System.out.println("Faixas gravadas em " + file.getPath() + ".");
+		}
+	}
+
+	/*
+	 * Gera os dados antes de subir a aplicação, para que os índices em memória sejam montados com eles.
+	 */
+	private static void embedded(List<String> springArgs, Map<String, String> options) throws Exception {
+		List<String> args = new ArrayList<>(springArgs);
+		if(!options.containsKey("spring.datasource.url")) {
+			new File(EMBEDDED_DATABASE + ".mv.db").delete();										//RECRIADO A CADA EXECUÇÃO.
+			args.add("--spring.datasource.url=jdbc:h2:file:./" + EMBEDDED_DATABASE);
+			args.add("--spring.datasource.username=sa");
+			args.add("--spring.datasource.password=");
+		}
+		options.putIfAbsent("hospedes", "10000");
+		generate(args, options);
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GuestApplication.class)
+				.run(withDefaults(args, "--logging.level.root=WARN", "--server.port=0"))) {
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			load("http://localhost:" + port + "/api", options);
+		}
+	}
+
+	private static void load(String url, Map<String, String> options) throws Exception {
+		Properties data = new Properties();
+		File file = dataFile(options);
+		if(!file.exists())
+			throw new IllegalStateException("Arquivo " + file.getPath() + " não encontrado: popule o banco com o comando gerar.");
+		try (InputStream input = new FileInputStream(file)) {
+			data.load(input);
+		}
+		LocalDate reference = LocalDate.parse(data.getProperty("referencia"));
+		LoadTest test = new LoadTest(url, new SyntheticHotel(Long.parseLong(data.getProperty("semente")), reference,
+				Integer.parseInt(data.getProperty("dias"))), reference, Long.parseLong(data.getProperty("primeiroHospede")),
+				Long.parseLong(data.getProperty("ultimoHospede")), Long.parseLong(data.getProperty("primeiroCheckin")),
+				Long.parseLong(data.getProperty("ultimoCheckin")));
+		test.mix(options.getOrDefault("mistura", ""));
+		String output = options.getOrDefault("resultado", "target/load-result.json");
+		test.run(Integer.parseInt(options.getOrDefault("clientes", "32")), Integer.parseInt(options.getOrDefault("aquecimento", "10")),
+				Integer.parseInt(options.getOrDefault("duracao", "60")), Double.parseDouble(options.getOrDefault("taxa", "0")),
+				output.isEmpty() ? null : new File(output));
+	}
+
+	private static File dataFile(Map<String, String> options) {
+		return new File(options.getOrDefault("dados", "target/load-data.properties"));
+	}
+
+	/*
+	 * Acrescenta valores padrão que não tenham sido informados na linha de comando.
+	 */
+	private static String[] withDefaults(List<String> args, String... defaults) {
+		List<String> all = new ArrayList<>(args);
+		Map<String, String> given = options(args);
+		for(String option : defaults) {
+			if(!given.containsKey(option.substring(2, option.indexOf('='))))
+				all.add(option);
+		}
+		return all.toArray(new String[0]);
+	}
+
+	private static Map<String, String> options(List<String> args) {
+		Map<String, String> options = new LinkedHashMap<>();
+		for(String arg : args) {
+			if(!arg.startsWith("--") || arg.indexOf('=') < 0)
+				throw new IllegalArgumentException("Opção inválida (use --nome=valor): " + arg);
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		return options;
+	}
+}
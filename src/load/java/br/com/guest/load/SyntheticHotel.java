@@ -0,0 +1,231 @@
+package br.com.guest.load;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador determinístico de hóspedes e hospedagens sintéticos: os dados de cada hóspede dependem somente da semente e do
+ * código, de modo que o teste de carga consegue refazer nomes, documentos e telefones existentes sem consultar o banco.
+ * <p>
+ * As distribuições imitam a recepção de um hotel brasileiro: nomes e sobrenomes mais comuns com pesos próximos aos do
+ * registro civil (muitos homônimos), CPF válido (com alguns hóspedes sem documento), celulares com DDD concentrado nas
+ * capitais, a maioria dos hóspedes com uma única visita e poucos frequentes com dezenas, estadias de uma ou duas
+ * diárias com cauda longa, e mais entradas nas sextas, sábados, férias de verão e julho.
+ */
+final class SyntheticHotel {
+
+	private static final String[] FIRST_NAMES = { "Maria", "José", "Ana", "João", "Antônio", "Francisco", "Carlos", "Paulo",
+			"Pedro", "Lucas", "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Francisca", "Daniel", "Marcelo", "Bruno", "Eduardo",
+			"Juliana", "Márcia", "Fernanda", "Patrícia", "Aline", "Adriana", "Sandra", "Camila", "Amanda", "Bruna", "Jéssica",
+			"Letícia", "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela", "Vera", "Vitória", "Larissa", "Conceição",
+			"Raimundo", "Sebastião", "Thiago", "Felipe", "Rodrigo", "Matheus", "Leonardo", "Gustavo", "Heloísa" };
+	private static final String[] SURNAMES = { "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+			"Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes",
+			"Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes",
+			"Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Conceição", "Tostes", "Assunção", "Brandão" };
+	private static final String[] PARTICLES = { "da", "de", "dos" };
+
+	/*
+	 * DDDs e pesos aproximados da população atendida.
+	 */
+	private static final int[] AREA_CODES = { 11, 21, 31, 41, 51, 61, 71, 81, 85, 19, 27, 48, 62, 91, 92, 13, 34, 47, 83, 98 };
+	private static final double[] AREA_WEIGHTS = { 22, 10, 8, 5, 5, 4, 4, 4, 3, 4, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1 };
+
+	private static final double[] FIRST_NAME_CUMULATIVE = zipf(FIRST_NAMES.length, 1.0);
+	private static final double[] SURNAME_CUMULATIVE = zipf(SURNAMES.length, 0.9);
+	private static final double[] AREA_CUMULATIVE = cumulative(AREA_WEIGHTS);
+
+	static final int MAX_VISITS = 40;
+
+	private final long seed;
+	private final LocalDate reference;
+	private final int historyDays;
+
+	/**
+	 * Hóspede gerado.
+	 */
+	static final class GuestRow {
+
+		final long id;
+		final String name, document, telephone;
+
+		GuestRow(long id, String name, String document, String telephone) {
+			this.id = id;
+			this.name = name;
+			this.document = document;
+			this.telephone = telephone;
+		}
+	}
+
+	/**
+	 * Hospedagem gerada, ainda sem código e sem valor.
+	 */
+	static final class StayRow {
+
+		final Timestamp entryDate, departureDate;
+		final boolean additionalVehicle;
+
+		StayRow(Timestamp entryDate, Timestamp departureDate, boolean additionalVehicle) {
+			this.entryDate = entryDate;
+			this.departureDate = departureDate;
+			this.additionalVehicle = additionalVehicle;
+		}
+	}
+
+	SyntheticHotel(long seed, LocalDate reference, int historyDays) {
+		this.seed = seed;
+		this.reference = reference;
+		this.historyDays = historyDays;
+	}
+
+	/**
+	 * Método responsável por gerar os dados cadastrais de um hóspede.
+	 * @param id Código do hóspede.
+	 * @return {@link GuestRow} do código.
+	 */
+	GuestRow guest(long id) {
+		SplittableRandom random = random(id, 1);
+		StringBuilder name = new StringBuilder(FIRST_NAMES[pick(random, FIRST_NAME_CUMULATIVE)]);
+		if(random.nextDouble() < 0.25)
+			name.append(' ').append(FIRST_NAMES[pick(random, FIRST_NAME_CUMULATIVE)]);						//NOME COMPOSTO.
+		int surnames = random.nextDouble() < 0.6 ? 2 : 1;
+		for(int i = 0; i < surnames; i++) {
+			if(random.nextDouble() < 0.15)
+				name.append(' ').append(PARTICLES[random.nextInt(PARTICLES.length)]);
+			name.append(' ').append(SURNAMES[pick(random, SURNAME_CUMULATIVE)]);
+		}
+		String document = random.nextDouble() < 0.03 ? null : cpf(random);								//ESTRANGEIROS E CADASTROS INCOMPLETOS.
+		String telephone = random.nextDouble() < 0.05 ? null : telephone(random);
+		return new GuestRow(id, name.toString(), document, telephone);
+	}
+
+	/**
+	 * Método responsável por informar quantas hospedagens um hóspede tem: a maioria uma, alguns poucos frequentes com dezenas.
+	 * @param id Código do hóspede.
+	 * @return Quantidade de hospedagens, de 1 a {@value #MAX_VISITS}.
+	 */
+	int visits(long id) {
+		SplittableRandom random = random(id, 2);
+		if(random.nextDouble() < 0.02)
+			return 5 + random.nextInt(MAX_VISITS - 4);													//VIAJANTES A TRABALHO.
+		int visits = 1;
+		while(visits < MAX_VISITS && random.nextDouble() < 0.35)
+			visits++;
+		return visits;
+	}
+
+	/**
+	 * Método responsável por gerar uma hospedagem de um hóspede.
+	 * @param id Código do hóspede.
+	 * @param visit Número da hospedagem, de 0 a {@link #visits(long)} - 1.
+	 * @return {@link StayRow} da hospedagem.
+	 */
+	StayRow stay(long id, int visit) {
+		SplittableRandom random = random(id, 3 + visit);
+		boolean frequent = visits(id) >= 5;
+		LocalDate entry = entryDay(random);
+		int nights = frequent ? 1 + random.nextInt(2) : nights(random);
+		LocalDateTime entryTime = entry.atTime(12 + random.nextInt(10), random.nextInt(60));
+		LocalDateTime departureTime = entry.plusDays(nights).atTime(random.nextDouble() < 0.06 ? 17 : 9 + random.nextInt(3), random.nextInt(60));
+		return new StayRow(Timestamp.valueOf(entryTime), Timestamp.valueOf(departureTime), random.nextDouble() < 0.35);
+	}
+
+	/*
+	 * Dia de entrada no histórico, por rejeição: sextas, sábados, dezembro a fevereiro e julho têm mais entradas. As últimas
+	 * entradas ficam perto da data de referência, para que haja hóspedes no hotel.
+	 */
+	private LocalDate entryDay(SplittableRandom random) {
+		while(true) {
+			LocalDate day = reference.minusDays(random.nextInt(historyDays));
+			double weight = 0.55;
+			if(day.getDayOfWeek() == DayOfWeek.FRIDAY || day.getDayOfWeek() == DayOfWeek.SATURDAY)
+				weight += 0.3;
+			int month = day.getMonthValue();
+			if(month == 12 || month <= 2 || month == 7)
+				weight += 0.15;
+			if(random.nextDouble() < weight)
+				return day;
+		}
+	}
+
+	/*
+	 * Diárias: 35% uma, 25% duas, 15% três, e o restante decrescendo até 30.
+	 */
+	private static int nights(SplittableRandom random) {
+		double draw = random.nextDouble();
+		if(draw < 0.35)
+			return 1;
+		if(draw < 0.60)
+			return 2;
+		if(draw < 0.75)
+			return 3;
+		int nights = 4;
+		while(nights < 30 && random.nextDouble() < 0.7)
+			nights++;
+		return nights;
+	}
+
+	private static String cpf(SplittableRandom random) {
+		int[] digits = new int[11];
+		for(int i = 0; i < 9; i++)
+			digits[i] = random.nextInt(10);
+		digits[9] = cpfDigit(digits, 9);
+		digits[10] = cpfDigit(digits, 10);
+		StringBuilder cpf = new StringBuilder(11);
+		for(int digit : digits)
+			cpf.append(digit);
+		return cpf.toString();
+	}
+
+	private static int cpfDigit(int[] digits, int length) {
+		int sum = 0;
+		for(int i = 0; i < length; i++)
+			sum += digits[i] * (length + 1 - i);
+		int rest = sum * 10 % 11;
+		return rest == 10 ? 0 : rest;
+	}
+
+	/*
+	 * Celular (9 + 8 dígitos) na maioria; fixo (8 dígitos começando em 2 a 5) nos demais.
+	 */
+	private static String telephone(SplittableRandom random) {
+		int areaCode = AREA_CODES[pick(random, AREA_CUMULATIVE)];
+		if(random.nextDouble() < 0.85)
+			return String.format("%d9%08d", areaCode, random.nextInt(100_000_000));
+		return String.format("%d%d%07d", areaCode, 2 + random.nextInt(4), random.nextInt(10_000_000));
+	}
+
+	private SplittableRandom random(long id, int stream) {
+		return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + id * 0xBF58476D1CE4E5B9L + stream);
+	}
+
+	private static int pick(SplittableRandom random, double[] cumulative) {
+		double draw = random.nextDouble();
+		for(int i = 0; i < cumulative.length - 1; i++) {
+			if(draw < cumulative[i])
+				return i;
+		}
+		return cumulative.length - 1;
+	}
+
+	private static double[] zipf(int size, double exponent) {
+		double[] weights = new double[size];
+		for(int i = 0; i < size; i++)
+			weights[i] = 1 / Math.pow(i + 1, exponent);
+		return cumulative(weights);
+	}
+
+	private static double[] cumulative(double[] weights) {
+		double total = 0;
+		for(double weight : weights)
+			total += weight;
+		double[] cumulative = new double[weights.length];
+		double sum = 0;
+		for(int i = 0; i < weights.length; i++)
+			cumulative[i] = (sum += weights[i]) / total;
+		return cumulative;
+	}
+}
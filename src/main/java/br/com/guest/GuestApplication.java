@@ -1,12 +1,42 @@
 package br.com.guest;
 
+import java.lang.reflect.Method;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
 
 @SpringBootApplication
+@EnableScheduling
 public class GuestApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(GuestApplication.class, args);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Método responsável por manter a criação imediata dos beans com tarefas agendadas quando
+	 * <code>spring.main.lazy-initialization</code> está ativo (perfil <code>prod</code>), pois os agendamentos só são
+	 * registrados na criação do bean.
+	 * @return {@link LazyInitializationExcludeFilter} dos beans com métodos {@link Scheduled}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter scheduledBeans() {
+		return (beanName, definition, beanType) -> {
+			if(beanType == null)
+				return false;
+			for(Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+				if(method.isAnnotationPresent(Scheduled.class))
+					return true;
+			}
+			return false;
+		};
+	}
+}
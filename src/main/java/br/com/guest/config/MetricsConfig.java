@@ -0,0 +1,54 @@
+package br.com.guest.config;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe responsável pelas métricas por requisição que o Spring Boot não registra: a quantidade de comandos SQL
+ * preparados em cada endpoint (<code>hotel.http.statements</code>).
+ * <p>
+ * O tempo dos endpoints, dos métodos dos repositórios e da espera por conexão vêm do Actuator
+ * (<code>http.server.requests</code>, <code>spring.data.repository.invocations</code> e
+ * <code>hikaricp.connections.acquire</code>). As respostas em streaming gravam em outra thread e não entram na contagem.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				StatementCounter.reset();
+				return true;
+			}
+
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+				Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);	//PADRÃO DO ENDPOINT, SEM OS VALORES DOS PARÂMETROS.
+				DistributionSummary.builder("hotel.http.statements")
+						.description("Comandos SQL preparados por requisição")
+						.tag("method", request.getMethod())
+						.tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+						.register(meterRegistry)
+						.record(StatementCounter.count());
+			}
+		}).addPathPatterns("/api/**");
+	}
+}
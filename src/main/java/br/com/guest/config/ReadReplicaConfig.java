@@ -0,0 +1,189 @@
+package br.com.guest.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe responsável pelas réplicas de leitura do banco, ativa quando <code>hotel.datasource.replicas</code> é informado.
+ * <p>
+ * O pool do banco principal continua configurado por <code>spring.datasource.*</code>; cada réplica ganha um pool próprio,
+ * com o mesmo usuário e senha salvo indicação contrária. O {@link DataSource} usado pelo JPA, pelo JDBC e pelo Flyway
+ * passa a ser o {@link ReplicaRoutingDataSource}, que decide a cada transação entre o principal e as réplicas.
+ * <p>
+ * A decisão só vale se cada transação obtiver a própria conexão: com <code>spring.jpa.open-in-view=true</code>, o
+ * EntityManager da requisição guarda a conexão da primeira transação, e uma gravação depois de uma leitura seria feita na
+ * réplica. Por isso a aplicação não inicia com réplicas e <code>spring.jpa.open-in-view</code> diferente de
+ * <code>false</code>.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty("hotel.datasource.replicas")
+public class ReadReplicaConfig {
+
+	/*
+	 * Atraso na aplicação das alterações já recebidas pela réplica (Postgres em standby). Uma réplica sem alterações a
+	 * aplicar está em dia, mesmo que a última transação replicada seja antiga.
+	 */
+	static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+			+ "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+	/*
+	 * EntityManager aberto durante toda a requisição, com a conexão da primeira transação.
+	 */
+	@Value("${spring.jpa.open-in-view:true}")
+	boolean openInView;
+
+	@PostConstruct
+	void start() {
+		if(openInView)
+			throw new IllegalStateException("hotel.datasource.replicas exige spring.jpa.open-in-view=false: com o EntityManager aberto "
+					+ "durante a requisição, a conexão da primeira leitura seria usada pelas gravações seguintes, na réplica.");
+	}
+
+	/**
+	 * Método responsável por criar o pool do banco principal, como o Spring Boot faria sem réplicas.
+	 * @param properties Propriedades <code>spring.datasource.*</code>.
+	 * @return Pool do banco principal.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+		return dataSource;
+	}
+
+	/**
+	 * Método responsável por criar os pools das réplicas e o direcionamento entre eles e o principal.
+	 * @param primaryDataSource Pool do banco principal.
+	 * @param properties Propriedades <code>spring.datasource.*</code>, de onde vem o driver.
+	 * @param urls Endereços JDBC das réplicas.
+	 * @param username Usuário das réplicas.
+	 * @param password Senha das réplicas.
+	 * @param poolSize Conexões por réplica, ou 0 para o mesmo tamanho do pool principal.
+	 * @param maxStaleness Atraso máximo, em ms, aceito nas leituras de uma réplica.
+	 * @param lagQuery Consulta que retorna, em ms, o atraso de uma réplica.
+	 * @param meterRegistry Registro das métricas, quando disponível.
+	 * @return {@link ReplicaRoutingDataSource} entre o principal e as réplicas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+			@Value("${hotel.datasource.replicas}") String[] urls,
+			@Value("${hotel.datasource.replica-username:${spring.datasource.username:}}") String username,
+			@Value("${hotel.datasource.replica-password:${spring.datasource.password:}}") String password,
+			@Value("${hotel.datasource.replica-pool-size:0}") int poolSize,
+			@Value("${hotel.datasource.max-staleness:1000}") long maxStaleness,
+			@Value("${hotel.datasource.replica-lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for(String url : urls) {
+			if(!StringUtils.hasText(url))
+				continue;
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + (replicas.size() + 1));
+			replica.setJdbcUrl(url.trim());
+			replica.setDriverClassName(properties.determineDriverClassName());
+			replica.setUsername(username);
+			replica.setPassword(password);
+			int size = poolSize > 0 ? poolSize : primaryDataSource.getMaximumPoolSize();
+			if(size > 0)
+				replica.setMaximumPoolSize(size);									//SEM VALOR NO PRINCIPAL, O PADRÃO DO HIKARICP.
+			replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+			replica.setReadOnly(true);
+			if(registry != null)
+				replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));	//hikaricp.* COM pool=replica-N.
+			replicas.add(replica);
+		}
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxStaleness, lagQuery);
+		if(registry != null)
+			routing.registerMetrics(registry);
+		return routing;
+	}
+
+	/**
+	 * Método responsável pelo {@link DataSource} usado pela aplicação, que só obtém a conexão no primeiro comando da
+	 * transação, quando já se sabe se ela é somente leitura.
+	 * @param routing Direcionamento entre o principal e as réplicas.
+	 * @return {@link LazyConnectionDataSourceProxy} do direcionamento.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource routing) {
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+
+	/**
+	 * Método responsável por iniciar, em cada requisição, o direcionamento das leituras do cliente.
+	 * @param routing Direcionamento entre o principal e as réplicas.
+	 * @return Filtro das requisições.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public OncePerRequestFilter readYourWritesFilter(ReplicaRoutingDataSource routing) {
+		return new OncePerRequestFilter() {
+			@Override
+			protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+					throws ServletException, IOException {
+				routing.open(request, response);
+				try {
+					chain.doFilter(request, response);
+				}finally {
+					ReplicaRoutingDataSource.close();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Método responsável por manter o direcionamento da requisição nas tarefas do executor do Spring, onde são escritas
+	 * as respostas em streaming (NDJSON e CSV).
+	 * @return {@link TaskDecorator} aplicado ao executor.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public TaskDecorator replicaSessionPropagation() {
+		return ReplicaRoutingDataSource::propagate;
+	}
+}
@@ -0,0 +1,297 @@
+package br.com.guest.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe responsável por escolher, a cada conexão, entre o banco principal e as réplicas de leitura.
+ * <p>
+ * Vão para uma réplica somente as transações somente leitura (<code>@Transactional(readOnly = true)</code>) iniciadas
+ * durante uma requisição HTTP, e somente se o último atraso medido da réplica estiver dentro de
+ * <code>hotel.datasource.max-staleness</code>. Depois de uma transação de gravação, as leituras do mesmo cliente voltam ao
+ * principal por esse mesmo tempo, marcado no cookie {@value #COOKIE}, para que ele veja o que acabou de gravar. Cada
+ * requisição lê sempre da mesma réplica, de modo que leituras seguidas nunca voltam no tempo. Tarefas agendadas, a
+ * montagem dos índices em memória e demais leituras fora de requisições continuam no principal.
+ * <p>
+ * Deve ser usado atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que só pede a
+ * conexão no primeiro comando, quando a transação já foi marcada como somente leitura.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	/**
+	 * Cookie com o instante da última gravação do cliente, em milissegundos.
+	 */
+	public static final String COOKIE = "hotel-gravacao";
+	static final String PRIMARY = "primario";
+
+	private static final ThreadLocal<Session> SESSION = new ThreadLocal<>();
+	private static final Replica NONE = new Replica(PRIMARY, null);
+
+	private final List<Replica> replicas = new ArrayList<>();
+	private final AtomicInteger next = new AtomicInteger();
+	private final long maxStaleness;
+	private final String lagQuery;
+
+	/**
+	 * Réplica de leitura e o último atraso medido, em ms.
+	 */
+	static final class Replica {
+
+		final String name;
+		final HikariDataSource dataSource;
+		volatile long lag = Long.MAX_VALUE;													//DESCONHECIDO ATÉ A PRIMEIRA MEDIÇÃO.
+
+		Replica(String name, HikariDataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+	}
+
+	/**
+	 * Estado da requisição em andamento: até quando ler do principal e a réplica já escolhida.
+	 */
+	static final class Session {
+
+		private final HttpServletResponse response;
+		private volatile long primaryUntil;
+		private volatile Replica replica;
+		private volatile boolean cookieSent;
+
+		Session(HttpServletResponse response, long primaryUntil) {
+			this.response = response;
+			this.primaryUntil = primaryUntil;
+		}
+
+		private void wrote(long maxStaleness) {
+			long now = System.currentTimeMillis();
+			primaryUntil = now + maxStaleness;
+			if(cookieSent || response == null || response.isCommitted())
+				return;
+			Cookie cookie = new Cookie(COOKIE, String.valueOf(now));
+			cookie.setPath("/");
+			cookie.setHttpOnly(true);
+			cookie.setMaxAge((int) Math.max(1, (maxStaleness + 999) / 1000));
+			response.addCookie(cookie);
+			cookieSent = true;
+		}
+	}
+
+	/**
+	 * Construtor responsável por registrar o banco principal e as réplicas.
+	 * @param primary Banco principal, que recebe as gravações e as leituras sem réplica disponível.
+	 * @param replicaPools Pools das réplicas, na ordem de configuração.
+	 * @param maxStaleness Atraso máximo, em ms, aceito nas leituras de uma réplica.
+	 * @param lagQuery Consulta que retorna, em ms, o atraso de uma réplica.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, long maxStaleness, String lagQuery) {
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for(HikariDataSource pool : replicaPools) {
+			Replica replica = new Replica(pool.getPoolName(), pool);
+			replicas.add(replica);
+			targets.put(replica.name, pool);
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		this.maxStaleness = maxStaleness;
+		this.lagQuery = lagQuery;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Session session = SESSION.get();
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if(session != null && TransactionSynchronizationManager.isActualTransactionActive())
+				session.wrote(maxStaleness);
+			return PRIMARY;
+		}
+		if(session == null || session.primaryUntil > System.currentTimeMillis())
+			return PRIMARY;
+		Replica replica = session.replica;
+		if(replica == null)
+			session.replica = replica = choose();
+		if(replica.lag > maxStaleness) {
+			session.replica = NONE;															//O PRINCIPAL ESTÁ À FRENTE DE QUALQUER RÉPLICA.
+			return PRIMARY;
+		}
+		return replica.name;
+	}
+
+	/*
+	 * Alterna entre as réplicas dentro do atraso aceito.
+	 */
+	private Replica choose() {
+		int start = next.getAndIncrement();
+		for(int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+			if(replica.lag <= maxStaleness)
+				return replica;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Método responsável por medir o atraso das réplicas; uma réplica inacessível fica fora de uso até a próxima medição
+	 * bem-sucedida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(fixedDelayString = "${hotel.datasource.replica-check-interval:1000}")
+	public void check() {
+		for(Replica replica : replicas) {
+			long lag;
+			try (Connection connection = replica.dataSource.getConnection(); Statement statement = connection.createStatement();
+					ResultSet result = statement.executeQuery(lagQuery)) {
+				lag = result.next() ? Math.max(0, Math.round(result.getDouble(1))) : Long.MAX_VALUE;
+			}catch (SQLException e) {
+				lag = Long.MAX_VALUE;
+				LOGGER.debug("Falha ao medir o atraso da réplica {}: {}", replica.name, e.getMessage());
+			}
+			boolean usable = lag <= maxStaleness;
+			if(usable != replica.lag <= maxStaleness)
+				LOGGER.info("Réplica {} {} (atraso: {}).", replica.name, usable ? "em uso" : "fora de uso",
+						lag == Long.MAX_VALUE ? "indisponível" : lag + " ms");
+			replica.lag = lag;
+		}
+	}
+
+	/**
+	 * Método responsável por registrar o atraso de cada réplica (<code>hotel.datasource.replica.lag</code>, em ms; vazio
+	 * enquanto a réplica estiver inacessível).
+	 * @param registry Registro das métricas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void registerMetrics(MeterRegistry registry) {
+		for(Replica replica : replicas) {
+			Gauge.builder("hotel.datasource.replica.lag", replica, r -> r.lag == Long.MAX_VALUE ? Double.NaN : r.lag)
+					.description("Atraso medido da réplica de leitura, em ms")
+					.tag("replica", replica.name)
+					.register(registry);
+		}
+	}
+
+	/**
+	 * Método responsável por iniciar o direcionamento das leituras de uma requisição, considerando a última gravação do
+	 * cliente informada no cookie {@value #COOKIE}.
+	 * @param request Requisição recebida.
+	 * @param response Resposta, que recebe o cookie caso a requisição grave.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void open(HttpServletRequest request, HttpServletResponse response) {
+		long primaryUntil = 0;
+		if(request.getCookies() != null) {
+			for(Cookie cookie : request.getCookies()) {
+				if(!COOKIE.equals(cookie.getName()))
+					continue;
+				try {
+					primaryUntil = Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis()) + maxStaleness;
+				}catch (NumberFormatException e) {
+					primaryUntil = System.currentTimeMillis() + maxStaleness;					//COOKIE ADULTERADO: PRINCIPAL, POR SEGURANÇA.
+				}
+			}
+		}
+		SESSION.set(new Session(response, primaryUntil));
+	}
+
+	/**
+	 * Método responsável por encerrar o direcionamento das leituras da requisição na thread atual.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static void close() {
+		SESSION.remove();
+	}
+
+	/**
+	 * Método responsável por levar o direcionamento da requisição a uma tarefa executada em outra thread, como as
+	 * respostas em streaming.
+	 * @param task Tarefa criada durante a requisição.
+	 * @return Tarefa que lê das mesmas fontes que a requisição.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static Runnable propagate(Runnable task) {
+		Session session = SESSION.get();
+		if(session == null)
+			return task;
+		return () -> {
+			Session previous = SESSION.get();
+			SESSION.set(session);
+			try {
+				task.run();
+			}finally {
+				if(previous == null)
+					SESSION.remove();
+				else
+					SESSION.set(previous);
+			}
+		};
+	}
+
+	/**
+	 * Método responsável por executar leituras no banco principal, fora do direcionamento da requisição, para resultados
+	 * que serão compartilhados com outros clientes.
+	 * @param <T> Tipo do resultado.
+	 * @param task Leitura executada na thread atual.
+	 * @return Resultado da leitura.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static <T> T onPrimary(Supplier<T> task) {
+		Session session = SESSION.get();
+		SESSION.remove();																		//SEM SESSÃO, AS LEITURAS VÃO AO PRINCIPAL.
+		try {
+			return task.get();
+		}finally {
+			if(session != null)
+				SESSION.set(session);
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		replicas.forEach(r -> r.dataSource.close());
+	}
+}
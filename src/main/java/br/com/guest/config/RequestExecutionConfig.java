@@ -0,0 +1,135 @@
+package br.com.guest.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Classe responsável pelo modo de execução das requisições REST.
+ * <p>
+ * No modo padrão cada requisição ocupa uma thread do Tomcat (<code>server.tomcat.threads.max</code>) enquanto espera o
+ * JDBC. Com <code>hotel.web.virtual-threads=true</code>, em Java 21 ou superior, as requisições rodam em threads
+ * virtuais: o limite de concorrência passa a ser o pool de conexões, que é dimensionado por
+ * <code>hotel.web.db-pool-size</code> e espera no máximo <code>hotel.web.db-acquire-timeout</code> por uma conexão,
+ * respondendo 503 no lugar de acumular requisições paradas. Em versões anteriores do Java o modo padrão é mantido.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Configuration
+public class RequestExecutionConfig {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RequestExecutionConfig.class);
+
+	static final String VIRTUAL_THREADS = "hotel.web.virtual-threads";
+	static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+	static final String CONNECTION_TIMEOUT = "spring.datasource.hikari.connection-timeout";
+
+	/*
+	 * Executor das requisições no modo de threads virtuais; nulo no modo padrão ou quando o Java não oferece threads virtuais.
+	 */
+	private final ExecutorService virtualExecutor;
+
+	public RequestExecutionConfig(@Value("${" + VIRTUAL_THREADS + ":false}") boolean virtualThreads) {
+		virtualExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+	}
+
+	/**
+	 * Método responsável por trocar o executor do Tomcat pelo executor de threads virtuais, quando ativo.
+	 * @return {@link TomcatProtocolHandlerCustomizer} aplicado ao conector HTTP.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorCustomizer() {
+		return handler -> {
+			if(virtualExecutor != null) {
+				handler.setExecutor(virtualExecutor);
+				LOGGER.info("Requisições REST executadas em threads virtuais.");
+			}
+		};
+	}
+
+	/**
+	 * Método responsável por dimensionar o pool de conexões no modo de threads virtuais.
+	 * <p>
+	 * Valores informados em <code>spring.datasource.hikari.*</code> têm precedência.
+	 * @param environment Configuração da aplicação.
+	 * @return {@link BeanPostProcessor} aplicado ao {@link HikariDataSource}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public static BeanPostProcessor connectionPoolSizing(Environment environment) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if(!(bean instanceof HikariDataSource) || !environment.getProperty(VIRTUAL_THREADS, Boolean.class, false)
+						|| !virtualThreadsAvailable())
+					return bean;
+				HikariDataSource dataSource = (HikariDataSource) bean;
+				if(!environment.containsProperty(POOL_SIZE))
+					dataSource.setMaximumPoolSize(environment.getProperty("hotel.web.db-pool-size", Integer.class,
+							Runtime.getRuntime().availableProcessors() * 2 + 1));			//FÓRMULA SUGERIDA PELO HIKARICP.
+				if(!environment.containsProperty(CONNECTION_TIMEOUT))
+					dataSource.setConnectionTimeout(environment.getProperty("hotel.web.db-acquire-timeout", Long.class, 2000L));
+				LOGGER.info("Pool de conexões com {} conexão(ões) e espera máxima de {} ms.", dataSource.getMaximumPoolSize(),
+						dataSource.getConnectionTimeout());
+				return bean;
+			}
+		};
+	}
+
+	@PreDestroy
+	void stop() {
+		if(virtualExecutor != null)
+			virtualExecutor.shutdown();
+	}
+
+	/**
+	 * Método responsável por verificar se o Java em execução oferece threads virtuais (Java 21 ou superior).
+	 * @return <code>true</code> caso ofereça.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static boolean virtualThreadsAvailable() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		}catch(NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Criado por reflexão, pois o projeto compila para Java 8.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		if(!virtualThreadsAvailable()) {
+			LOGGER.warn("{}=true ignorado: threads virtuais exigem Java 21 ou superior (em uso: {}).", VIRTUAL_THREADS,
+					System.getProperty("java.version"));
+			return null;
+		}
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("Não foi possível criar o executor de threads virtuais.", e);
+		}
+	}
+}
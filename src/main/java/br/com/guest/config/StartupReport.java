@@ -0,0 +1,95 @@
+package br.com.guest.config;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Classe responsável por medir o tempo de inicialização: do início da JVM até a aplicação ficar pronta
+ * (<code>hotel.startup.ready</code>) e até a primeira requisição respondida (<code>hotel.startup.first-request</code>).
+ * <p>
+ * Com <code>hotel.startup.exit-on-ready=true</code> a aplicação é encerrada assim que fica pronta, o que permite gravar
+ * o arquivo de classes (AppCDS) de uma inicialização completa; veja <code>scripts/appcds.sh</code>.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class StartupReport extends OncePerRequestFilter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupReport.class);
+
+	private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+	private volatile long readyMillis, firstRequestMillis;
+
+	@Autowired
+	ApplicationContext applicationContext;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	@Value("${hotel.startup.exit-on-ready:false}")
+	boolean exitOnReady;
+
+	/**
+	 * Método responsável por registrar o tempo até a aplicação ficar pronta e, se configurado, encerrá-la.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ready() {
+		readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+		LOGGER.info("Aplicação pronta {} ms após o início da JVM.", readyMillis);
+		if(meterRegistry != null) {
+			TimeGauge.builder("hotel.startup.ready", this, TimeUnit.MILLISECONDS, report -> report.readyMillis)
+					.description("Tempo do início da JVM até a aplicação ficar pronta").register(meterRegistry);
+			TimeGauge.builder("hotel.startup.first-request", this, TimeUnit.MILLISECONDS, report -> report.firstRequestMillis)
+					.description("Tempo do início da JVM até a primeira requisição respondida").register(meterRegistry);
+		}
+		if(exitOnReady)
+			System.exit(SpringApplication.exit(applicationContext));
+	}
+
+	/**
+	 * Método responsável por registrar o tempo até a primeira requisição respondida, incluindo os beans criados sob demanda.
+	 * @param request Requisição recebida.
+	 * @param response Resposta da requisição.
+	 * @param filterChain Demais filtros e o servlet.
+	 * @throws ServletException Caso ocorra erro no processamento.
+	 * @throws IOException Caso ocorra erro na leitura ou escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		filterChain.doFilter(request, response);
+		if(firstRequest.get() && firstRequest.compareAndSet(true, false)) {
+			firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+			LOGGER.info("Primeira requisição ({} {}) respondida {} ms após o início da JVM.", request.getMethod(),
+					request.getRequestURI(), firstRequestMillis);
+		}
+	}
+}
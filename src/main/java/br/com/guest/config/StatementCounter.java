@@ -0,0 +1,46 @@
+package br.com.guest.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Classe responsável por contar os comandos SQL preparados pelo Hibernate na thread atual.
+ * <p>
+ * Registrada em <code>hibernate.session_factory.statement_inspector</code>; a contagem é zerada e lida a cada
+ * requisição por {@link MetricsConfig}.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class StatementCounter implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+	@Override
+	public String inspect(String sql) {
+		COUNT.get()[0]++;
+		return sql;																			//O COMANDO NÃO É ALTERADO.
+	}
+
+	/**
+	 * Método responsável por zerar a contagem da thread atual.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static void reset() {
+		COUNT.get()[0] = 0;
+	}
+
+	/**
+	 * Método responsável por retornar a contagem da thread atual.
+	 * @return Quantidade de comandos preparados desde o último {@link #reset()}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static int count() {
+		return COUNT.get()[0];
+	}
+}
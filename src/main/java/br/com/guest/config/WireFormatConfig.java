@@ -0,0 +1,57 @@
+package br.com.guest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Classe responsável pelos formatos das respostas e requisições REST.
+ * <p>
+ * Além do JSON, os endpoints aceitam e respondem em Smile (<code>application/x-jackson-smile</code>) e CBOR
+ * (<code>application/cbor</code>), escolhidos pelos cabeçalhos <code>Accept</code> e <code>Content-Type</code>; sem
+ * eles, a resposta continua em JSON. Os três formatos usam o mesmo {@link Jackson2ObjectMapperBuilder} do Spring Boot,
+ * com as mesmas datas e valores, e o Smile reaproveita os nomes de campos repetidos das listagens.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Configuration
+public class WireFormatConfig {
+
+	/**
+	 * Tipo de conteúdo do Smile.
+	 */
+	public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	/**
+	 * Método responsável por criar o conversor Smile.
+	 * @param builder Construtor do Spring Boot, com os módulos e configurações do JSON.
+	 * @return {@link MappingJackson2SmileHttpMessageConverter} usado pelo Spring MVC.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
+	/**
+	 * Método responsável por criar o conversor CBOR.
+	 * @param builder Construtor do Spring Boot, com os módulos e configurações do JSON.
+	 * @return {@link MappingJackson2CborHttpMessageConverter} usado pelo Spring MVC.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+}
@@ -0,0 +1,61 @@
+package br.com.guest.event;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Evento publicado, dentro da transação, quando um check-in é criado ou alterado.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class CheckInSavedEvent {
+
+	private final CheckIn checkIn;
+	private final CheckIn previous;
+
+	/**
+	 * Construtor do evento.
+	 * @param checkIn {@link CheckIn} que foi salvo.
+	 * @param previous Cópia do {@link CheckIn} antes da alteração, ou <code>null</code> caso tenha sido criado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInSavedEvent(CheckIn checkIn, CheckIn previous) {
+		this.checkIn = checkIn;
+		this.previous = previous;
+	}
+
+	/**
+	 * Método responsável por retornar o check-in que foi salvo.
+	 * @return {@link CheckIn} que foi salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckIn getCheckIn() {
+		return checkIn;
+	}
+
+	/**
+	 * Método responsável por retornar o check-in como estava antes da alteração.
+	 * @return Cópia do {@link CheckIn} anterior, ou <code>null</code> caso tenha sido criado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckIn getPrevious() {
+		return previous;
+	}
+
+	/**
+	 * Método responsável por informar se o check-in foi criado.
+	 * @return <code>true</code> caso tenha sido criado e <code>false</code> caso tenha sido alterado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isCreated() {
+		return previous == null;
+	}
+}
@@ -0,0 +1,65 @@
+package br.com.guest.event;
+
+import java.util.List;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Evento publicado, dentro da transação, quando um bloco de check-ins novos é importado de uma só vez.
+ * <p>
+ * Substitui um {@link CheckInSavedEvent} por check-in, para que quem grava outras tabelas também possa fazê-lo em lote.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class CheckInsImportedEvent {
+
+	private final List<CheckIn> checkIns;
+	private final boolean reserved;
+
+	/**
+	 * Construtor do evento.
+	 * @param checkIns Lista de {@link CheckIn} criados, todos com hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInsImportedEvent(List<CheckIn> checkIns) {
+		this(checkIns, false);
+	}
+
+	/**
+	 * Construtor do evento.
+	 * @param checkIns Lista de {@link CheckIn} criados, todos com hóspede.
+	 * @param reserved <code>true</code> caso as noites dos check-ins já tenham sido ocupadas no aceite, antes da gravação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInsImportedEvent(List<CheckIn> checkIns, boolean reserved) {
+		this.checkIns = checkIns;
+		this.reserved = reserved;
+	}
+
+	/**
+	 * Método responsável por retornar os check-ins importados.
+	 * @return Lista de {@link CheckIn} criados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<CheckIn> getCheckIns() {
+		return checkIns;
+	}
+
+	/**
+	 * Método responsável por informar se as noites dos check-ins já foram ocupadas no aceite.
+	 * @return <code>true</code> para check-ins aceitos sem gravação imediata.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isReserved() {
+		return reserved;
+	}
+}
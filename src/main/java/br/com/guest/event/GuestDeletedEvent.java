@@ -0,0 +1,59 @@
+package br.com.guest.event;
+
+/**
+ * Evento publicado, dentro da transação, quando um hóspede é excluído.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class GuestDeletedEvent {
+
+	private final long guestId;
+	private final Long version;
+
+	/**
+	 * Construtor do evento, sem a versão do hóspede.
+	 * @param guestId Código do hóspede que foi excluído.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public GuestDeletedEvent(long guestId) {
+		this(guestId, null);
+	}
+
+	/**
+	 * Construtor do evento.
+	 * @param guestId Código do hóspede que foi excluído.
+	 * @param version Versão do hóspede excluído.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public GuestDeletedEvent(long guestId, Long version) {
+		this.guestId = guestId;
+		this.version = version;
+	}
+
+	/**
+	 * Método responsável por retornar o código do hóspede que foi excluído.
+	 * @return Código do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getGuestId() {
+		return guestId;
+	}
+
+	/**
+	 * Método responsável por retornar a versão do hóspede que foi excluído.
+	 * @return Versão do hóspede, ou null caso não seja conhecida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getVersion() {
+		return version;
+	}
+}
@@ -0,0 +1,36 @@
+package br.com.guest.event;
+
+import br.com.guest.model.Guest;
+
+/**
+ * Evento publicado, dentro da transação, quando um hóspede é criado ou alterado.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class GuestSavedEvent {
+
+	private final Guest guest;
+
+	/**
+	 * Construtor do evento.
+	 * @param guest {@link Guest} que foi salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public GuestSavedEvent(Guest guest) {
+		this.guest = guest;
+	}
+
+	/**
+	 * Método responsável por retornar o hóspede que foi salvo.
+	 * @return {@link Guest} que foi salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Guest getGuest() {
+		return guest;
+	}
+}
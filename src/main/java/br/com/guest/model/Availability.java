@@ -0,0 +1,76 @@
+package br.com.guest.model;
+
+import java.time.LocalDate;
+
+/**
+ * Classe responsável por representar a disponibilidade de quartos em um período.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class Availability {
+
+	private final LocalDate firstNight;
+	private final int[] freeRooms;
+
+	/**
+	 * Construtor da disponibilidade.
+	 * @param firstNight Primeira noite do período.
+	 * @param freeRooms Quartos livres em cada noite do período, a partir da primeira.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Availability(LocalDate firstNight, int[] freeRooms) {
+		this.firstNight = firstNight;
+		this.freeRooms = freeRooms;
+	}
+
+	/**
+	 * Método responsável por retornar a primeira noite do período.
+	 * @return Primeira noite.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public LocalDate getFirstNight() {
+		return firstNight;
+	}
+
+	/**
+	 * Método responsável por retornar os quartos livres em cada noite do período.
+	 * @return Quartos livres por noite, a partir da primeira.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public int[] getFreeRooms() {
+		return freeRooms;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de noites do período com ao menos um quarto livre.
+	 * @return Quantidade de noites livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public int getFreeNights() {
+		int nights = 0;
+		for(int rooms : freeRooms)
+			if(rooms > 0)
+				nights++;
+		return nights;
+	}
+
+	/**
+	 * Método responsável por informar se há quarto livre em todas as noites do período.
+	 * @return <code>true</code> caso o período inteiro esteja disponível.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isAvailable() {
+		return getFreeNights() == freeRooms.length;
+	}
+}
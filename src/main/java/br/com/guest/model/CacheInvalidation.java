@@ -0,0 +1,83 @@
+package br.com.guest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe responsável por representar os códigos que devem ser removidos do cache de entidades, enviados entre as instâncias da aplicação.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class CacheInvalidation {
+
+	private List<Long> guests = new ArrayList<>();
+	private List<Long> checkIns = new ArrayList<>();
+	private List<Long> bookingSummaries = new ArrayList<>();
+
+	/**
+	 * Método responsável por retornar os códigos dos hóspedes alterados.
+	 * @return Códigos dos hóspedes, cujos check-ins também são removidos do cache.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Long> getGuests() {
+		return guests;
+	}
+
+	/**
+	 * Método responsável por alterar os códigos dos hóspedes alterados.
+	 * @param guests Códigos dos hóspedes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setGuests(List<Long> guests) {
+		this.guests = guests;
+	}
+
+	/**
+	 * Método responsável por retornar os códigos dos check-ins alterados.
+	 * @return Códigos dos check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Long> getCheckIns() {
+		return checkIns;
+	}
+
+	/**
+	 * Método responsável por alterar os códigos dos check-ins alterados.
+	 * @param checkIns Códigos dos check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setCheckIns(List<Long> checkIns) {
+		this.checkIns = checkIns;
+	}
+
+	/**
+	 * Método responsável por retornar os códigos dos hóspedes cujo resumo de reservas mudou.
+	 * @return Códigos dos hóspedes, removidos somente do cache de resumos.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Long> getBookingSummaries() {
+		return bookingSummaries;
+	}
+
+	/**
+	 * Método responsável por alterar os códigos dos hóspedes cujo resumo de reservas mudou.
+	 * @param bookingSummaries Códigos dos hóspedes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setBookingSummaries(List<Long> bookingSummaries) {
+		this.bookingSummaries = bookingSummaries;
+	}
+}
@@ -0,0 +1,163 @@
+package br.com.guest.model;
+
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Classe responsável por persistir uma alteração de hóspede ou check-in no journal de alterações (outbox).
+ * <p>
+ * O registro é gravado na mesma transação da alteração, sem posição. A posição no feed é atribuída depois do commit
+ * pelo relay, em ordem crescente e sem lacunas, e é o deslocamento a partir do qual os consumidores retomam a leitura.
+ * <p>
+ * Alterações confirmadas no mesmo intervalo do relay são numeradas pela ordem de gravação, que entre instâncias não é a
+ * ordem de commit: duas alterações da mesma entidade podem chegar invertidas. O consumidor usa a versão da entidade para
+ * descartar a mais antiga.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@Table(name="TB_CHANGE_EVENT", indexes = {
+		@Index(name = "UX_CHANGE_EVENT_POSITION", columnList = "feed_position", unique = true) })
+public class ChangeEvent {
+
+	/** Entidade alterada: hóspede. */
+	public static final String GUEST = "hospede";
+	/** Entidade alterada: check-in. */
+	public static final String CHECK_IN = "checkin";
+	/** Operação: criação. */
+	public static final String CREATED = "criado";
+	/** Operação: alteração. */
+	public static final String UPDATED = "alterado";
+	/** Operação: exclusão. */
+	public static final String DELETED = "excluido";
+
+	/*
+	 * Ordem de gravação, usada somente pelo relay; transações concorrentes podem confirmar fora desta ordem.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_CHANGE_EVENT")
+	@SequenceGenerator(name = "SQ_CHANGE_EVENT", sequenceName = "SQ_CHANGE_EVENT", allocationSize = 50)
+	@JsonIgnore
+	private long id;
+
+	@Column(name = "feed_position")
+	private Long position;
+
+	@Column(length = 20, nullable = false)
+	private String entityType;
+	private long entityId;
+
+	/*
+	 * Versão da entidade gravada, ou a versão excluída nas exclusões.
+	 */
+	private Long entityVersion;
+
+	@Column(length = 10, nullable = false)
+	private String operation;
+
+	/*
+	 * Entidade em JSON como gravada, ou nulo nas exclusões.
+	 */
+	@Column(length = 4000)
+	private String payload;
+	private Timestamp createdAt;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected ChangeEvent() {
+	}
+
+	/**
+	 * Construtor responsável por criar o registro de uma alteração.
+	 * @param entityType Entidade alterada ({@value #GUEST} ou {@value #CHECK_IN}).
+	 * @param entityId Código da entidade.
+	 * @param entityVersion Versão da entidade, ou <code>null</code> caso não seja conhecida.
+	 * @param operation Operação ({@value #CREATED}, {@value #UPDATED} ou {@value #DELETED}).
+	 * @param payload Entidade em JSON, ou <code>null</code> nas exclusões.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public ChangeEvent(String entityType, long entityId, Long entityVersion, String operation, String payload) {
+		this.entityType = entityType;
+		this.entityId = entityId;
+		this.entityVersion = entityVersion;
+		this.operation = operation;
+		this.payload = payload;
+		this.createdAt = new Timestamp(System.currentTimeMillis());
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Método responsável por retornar a posição da alteração no feed.
+	 * @return Posição, ou <code>null</code> enquanto não for publicada pelo relay.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getPosition() {
+		return position;
+	}
+
+	public void setPosition(Long position) {
+		this.position = position;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public long getEntityId() {
+		return entityId;
+	}
+
+	/**
+	 * Método responsável por retornar a versão da entidade, que ordena as alterações de uma mesma entidade.
+	 * @return Versão da entidade, ou <code>null</code> caso não seja conhecida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getEntityVersion() {
+		return entityVersion;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Método responsável por retornar a entidade alterada, escrita no feed como objeto JSON e não como texto.
+	 * @return Entidade em JSON, ou <code>null</code> nas exclusões.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@JsonRawValue
+	public String getPayload() {
+		return payload;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,73 @@
+package br.com.guest.model;
+
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Classe responsável por persistir a última posição do feed de alterações entregue a um assinante.
+ * <p>
+ * O relay retoma o envio a partir dela, inclusive após reiniciar ou quando o assinante fica fora do ar.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@Table(name="TB_CHANGE_SUBSCRIPTION")
+public class ChangeSubscription {
+
+	@Id
+	@Column(length = 50)
+	private String name;
+
+	@Column(name = "feed_position")
+	private long position;
+	private Timestamp updatedAt;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected ChangeSubscription() {
+	}
+
+	/**
+	 * Construtor responsável por criar um assinante que ainda não recebeu alterações.
+	 * @param name Nome do assinante.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public ChangeSubscription(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Método responsável por registrar a entrega das alterações até uma posição.
+	 * @param position Última posição entregue.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setPosition(long position) {
+		this.position = position;
+		this.updatedAt = new Timestamp(System.currentTimeMillis());
+	}
+
+	public Timestamp getUpdatedAt() {
+		return updatedAt;
+	}
+}
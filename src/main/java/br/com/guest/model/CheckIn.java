@@ -3,26 +3,38 @@ package br.com.guest.model;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name="TB_CHECK_IN")
+@Table(name="TB_CHECK_IN", indexes = {
+		@Index(name = "IX_CHECK_IN_GUEST", columnList = "guest"),
+		@Index(name = "IX_CHECK_IN_ENTRY_DEPARTURE", columnList = "entryDate, departureDate"),
+		@Index(name = "IX_CHECK_IN_DEPARTURE", columnList = "departureDate") })
 public class CheckIn {
 
+	/*
+	 * Códigos reservados em blocos da sequência, permitindo que o Hibernate agrupe os inserts em lotes JDBC.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_CHECK_IN")
+	@SequenceGenerator(name = "SQ_CHECK_IN", sequenceName = "SQ_CHECK_IN", allocationSize = 50)
 	private long id;
 
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +47,15 @@ public class CheckIn {
 	private boolean additionalVehicle;
 	private BigDecimal totalCost;
 
+	/*
+	 * Versão para o bloqueio otimista: a alteração feita sobre uma versão antiga é recusada, e a enviada sem versão é feita
+	 * sobre a atual. Linhas anteriores à coluna recebem 0.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	/**
 	 * Método responsável por o código do check-in.
 	 * @return Código do check-in.
@@ -167,6 +188,28 @@ public class CheckIn {
 		this.totalCost = totalCost;
 	}
 
+	/**
+	 * Método responsável por retornar a versão do check-in, incrementada a cada alteração.
+	 * @return Versão do check-in, ou null caso ainda não tenha sido gravado ou a versão não tenha sido informada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Método responsável por alterar a versão do check-in, informando em uma alteração a versão que foi lida.
+	 * @param version Versão lida pelo cliente, ou null para gravar sobre a versão atual, sem verificação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	/**
 	 * Sobreposição do método responsável por retornar o objeto.
 	 * @return Objeto criado e pré-formatado para impressão.
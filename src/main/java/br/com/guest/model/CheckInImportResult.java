@@ -0,0 +1,98 @@
+package br.com.guest.model;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Classe responsável por representar o resultado da importação de um item de um lote de check-ins.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@JsonInclude(Include.NON_NULL)
+public class CheckInImportResult {
+
+	private final long index;
+	private final Long id;
+	private final BigDecimal totalCost;
+	private final String error;
+
+	private CheckInImportResult(long index, Long id, BigDecimal totalCost, String error) {
+		this.index = index;
+		this.id = id;
+		this.totalCost = totalCost;
+		this.error = error;
+	}
+
+	/**
+	 * Método responsável por criar o resultado de um item gravado.
+	 * @param index Posição do item na entrada, começando em 0.
+	 * @param checkIn {@link CheckIn} gravado.
+	 * @return {@link CheckInImportResult} com o código e o custo total.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static CheckInImportResult saved(long index, CheckIn checkIn) {
+		return new CheckInImportResult(index, checkIn.getId(), checkIn.getTotalCost(), null);
+	}
+
+	/**
+	 * Método responsável por criar o resultado de um item rejeitado.
+	 * @param index Posição do item na entrada, começando em 0.
+	 * @param error Motivo da rejeição.
+	 * @return {@link CheckInImportResult} com o erro.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static CheckInImportResult rejected(long index, String error) {
+		return new CheckInImportResult(index, null, null, error);
+	}
+
+	/**
+	 * Método responsável por retornar a posição do item na entrada.
+	 * @return Posição do item, começando em 0.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Método responsável por retornar o código do check-in gravado.
+	 * @return Código do check-in, ou <code>null</code> caso tenha sido rejeitado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Método responsável por retornar o custo total calculado.
+	 * @return Custo total da hospedagem, ou <code>null</code> caso tenha sido rejeitado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getTotalCost() {
+		return totalCost;
+	}
+
+	/**
+	 * Método responsável por retornar o motivo da rejeição.
+	 * @return Motivo da rejeição, ou <code>null</code> caso tenha sido gravado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public String getError() {
+		return error;
+	}
+}
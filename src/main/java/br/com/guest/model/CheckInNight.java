@@ -0,0 +1,139 @@
+package br.com.guest.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+/**
+ * Classe responsável por persistir uma diária de um check-in exatamente como foi somada aos totais de receita.
+ * <p>
+ * Na alteração do check-in, os valores gravados aqui são subtraídos dos totais, em vez de recalculados com a tabela de
+ * tarifas vigente, para que cada período perca exatamente o que ganhou.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@IdClass(CheckInNight.Key.class)
+@Table(name="TB_CHECK_IN_NIGHT")
+public class CheckInNight {
+
+	/**
+	 * Chave de uma diária: check-in e dia.
+	 */
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private long checkIn;
+		private LocalDate night;
+
+		protected Key() {
+		}
+
+		public Key(long checkIn, LocalDate night) {
+			this.checkIn = checkIn;
+			this.night = night;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return checkIn == other.checkIn && Objects.equals(night, other.night);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(checkIn, night);
+		}
+	}
+
+	@Id
+	private long checkIn;
+
+	@Id
+	private LocalDate night;
+
+	private boolean weekend;
+	private boolean additionalVehicle;
+
+	@Column(nullable = false)
+	private BigDecimal room;
+
+	@Column(nullable = false)
+	private BigDecimal vehicle;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected CheckInNight() {
+	}
+
+	/**
+	 * Construtor responsável por criar uma diária.
+	 * @param checkIn Código do check-in.
+	 * @param night Dia da diária.
+	 * @param weekend <code>true</code> caso seja sábado ou domingo e <code>false</code> caso contrário.
+	 * @param additionalVehicle <code>true</code> caso a diária tenha adicional de veículos e <code>false</code> caso contrário.
+	 * @param room Receita do quarto, já com a diferença para o custo gravado quando for a última diária.
+	 * @param vehicle Receita da garagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInNight(long checkIn, LocalDate night, boolean weekend, boolean additionalVehicle, BigDecimal room, BigDecimal vehicle) {
+		this.checkIn = checkIn;
+		this.night = night;
+		this.weekend = weekend;
+		this.additionalVehicle = additionalVehicle;
+		this.room = room;
+		this.vehicle = vehicle;
+	}
+
+	/**
+	 * Método responsável por somar a receita do quarto de outra cobrança do mesmo dia, como a diferença para o custo gravado.
+	 * @param amount Valor somado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void addRoom(BigDecimal amount) {
+		room = room.add(amount);
+	}
+
+	public long getCheckIn() {
+		return checkIn;
+	}
+
+	public LocalDate getNight() {
+		return night;
+	}
+
+	public boolean isWeekend() {
+		return weekend;
+	}
+
+	public boolean isAdditionalVehicle() {
+		return additionalVehicle;
+	}
+
+	public BigDecimal getRoom() {
+		return room;
+	}
+
+	public BigDecimal getVehicle() {
+		return vehicle;
+	}
+}
@@ -0,0 +1,74 @@
+package br.com.guest.model;
+
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Classe responsável por persistir a recusa, pelo banco, de um check-in já aceito sem gravação imediata, para que o
+ * cliente que recebeu o código possa consultar o motivo.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@Table(name="TB_CHECK_IN_REJECTION")
+public class CheckInRejection {
+
+	/*
+	 * Código entregue ao cliente no aceite.
+	 */
+	@Id
+	private long id;
+	private long guestId;
+
+	@Column(length = 1000, nullable = false)
+	private String reason;
+
+	@Column(nullable = false)
+	private Timestamp rejectedAt;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected CheckInRejection() {
+	}
+
+	/**
+	 * Construtor responsável por criar o registro de uma recusa.
+	 * @param id Código do check-in aceito.
+	 * @param guestId Código do hóspede.
+	 * @param reason Motivo informado pelo banco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInRejection(long id, long guestId, String reason) {
+		this.id = id;
+		this.guestId = guestId;
+		this.reason = reason == null || reason.length() <= 1000 ? reason : reason.substring(0, 1000);
+		this.rejectedAt = new Timestamp(System.currentTimeMillis());
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public long getGuestId() {
+		return guestId;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public Timestamp getRejectedAt() {
+		return rejectedAt;
+	}
+}
@@ -1,12 +1,25 @@
 package br.com.guest.model;
 
 import java.io.Serializable;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Classe responsável por persistir hospedes.
@@ -15,16 +28,40 @@ import javax.persistence.Table;
  * @since 1.0.0
  */
 @Entity
-@Table(name="TB_GUEST")
+@Table(name="TB_GUEST", indexes = {
+		@Index(name = "IX_GUEST_DOCUMENT", columnList = "document"),
+		@Index(name = "IX_GUEST_TELEPHONE", columnList = "telephone"),
+		@Index(name = "IX_GUEST_NAME_SEARCH", columnList = "name_search") })
 public class Guest implements Serializable{
 
 	private static final long serialVersionUID = 1L;
+	private static final Pattern MARKS = Pattern.compile("\\p{M}");
+	private static final Pattern SPACES = Pattern.compile("\\s+");
 
+	/*
+	 * Mesma alocação em blocos de {@link CheckIn}.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_GUEST")
+	@SequenceGenerator(name = "SQ_GUEST", sequenceName = "SQ_GUEST", allocationSize = 50)
 	private long id;
 	private String name, document, telephone;
-	
+
+	/*
+	 * Nome normalizado (sem acentos, em minúsculas e com espaços simples), usado nas buscas indexadas.
+	 */
+	@JsonIgnore
+	@Column(name = "name_search")
+	private String nameSearch;
+
+	/*
+	 * Mesmo bloqueio otimista de {@link CheckIn}.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	/**
 	 * Método responsável por retornar o código do hóspede.
 	 * @return Código do hospede.
@@ -113,6 +150,66 @@ public class Guest implements Serializable{
 		this.telephone = telephone;
 	}
 
+	/**
+	 * Método responsável por retornar a versão do hóspede, incrementada a cada alteração.
+	 * @return Versão do hóspede, ou null caso ainda não tenha sido gravado ou a versão não tenha sido informada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Método responsável por alterar a versão do hóspede, informando em uma alteração a versão que foi lida.
+	 * @param version Versão lida pelo cliente, ou null para gravar sobre a versão atual, sem verificação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	/**
+	 * Método responsável por retornar o nome normalizado do hóspede.
+	 * @return Nome normalizado do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public String getNameSearch() {
+		return nameSearch;
+	}
+
+	/**
+	 * Método responsável por atualizar o nome normalizado a partir do nome, antes de cada insert ou update.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PrePersist
+	@PreUpdate
+	public void updateNameSearch() {
+		this.nameSearch = normalizeName(name);
+	}
+
+	/**
+	 * Método responsável por normalizar um nome para busca, removendo acentos, colocando em minúsculas e reduzindo os espaços.
+	 * @param name Nome que será normalizado.
+	 * @return Nome normalizado, <code>null</code> caso o nome seja <code>null</code>.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static String normalizeName(String name) {
+		if(name == null)
+			return null;
+		String normalized = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");	//REMOVE OS ACENTOS.
+		return SPACES.matcher(normalized.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+	}
+
 	/**
 	 * Sobreposição do método responsável por retornar o objeto.
 	 * @return Objeto criado e pré-formatado para impressão.
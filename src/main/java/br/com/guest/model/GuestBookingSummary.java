@@ -0,0 +1,171 @@
+package br.com.guest.model;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+/**
+ * Classe responsável por persistir o resumo das reservas de um hóspede (valor da última reserva, valor total e quantidade de hospedagens).
+ * <p>
+ * É mantida na mesma transação que grava os check-ins, evitando percorrer todos os check-ins do hóspede a cada consulta.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@Table(name="TB_GUEST_BOOKING_SUMMARY")
+public class GuestBookingSummary {
+
+	@Id
+	@Column(name = "guest")
+	private long guestId;
+
+	@Column(name = "last_check_in")
+	private long lastCheckInId;
+	private BigDecimal lastBookingAmount, totalAmount;
+	private long stayCount;
+
+	/*
+	 * Incrementada a cada alteração, define qual leitura é a mais recente no cache.
+	 */
+	@Version
+	private Long version;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected GuestBookingSummary() {
+	}
+
+	/**
+	 * Construtor responsável por criar o resumo vazio de um hóspede.
+	 * @param guestId Código do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public GuestBookingSummary(long guestId) {
+		this.guestId = guestId;
+	}
+
+	/**
+	 * Método responsável por somar um novo check-in ao resumo.
+	 * @param checkInId Código do check-in.
+	 * @param amount Custo total da hospedagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void add(long checkInId, BigDecimal amount) {
+		stayCount++;
+		if(amount != null)																		//O SUM DO BANCO IGNORA VALORES NULOS.
+			totalAmount = totalAmount == null ? amount : totalAmount.add(amount);
+		if(checkInId > lastCheckInId) {
+			lastCheckInId = checkInId;
+			lastBookingAmount = amount;
+		}
+	}
+
+	/**
+	 * Método responsável por substituir o resumo pelos valores recalculados do banco.
+	 * @param stayCount Quantidade de hospedagens.
+	 * @param totalAmount Valor total das reservas.
+	 * @param lastCheckInId Código do último check-in.
+	 * @param lastBookingAmount Valor da última reserva.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void reset(long stayCount, BigDecimal totalAmount, long lastCheckInId, BigDecimal lastBookingAmount) {
+		this.stayCount = stayCount;
+		this.totalAmount = totalAmount;
+		this.lastCheckInId = lastCheckInId;
+		this.lastBookingAmount = lastBookingAmount;
+	}
+
+	/**
+	 * Método responsável por retornar o código do hóspede.
+	 * @return Código do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getGuestId() {
+		return guestId;
+	}
+
+	/**
+	 * Método responsável por retornar o código do último check-in do hóspede.
+	 * @return Código do último check-in.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getLastCheckInId() {
+		return lastCheckInId;
+	}
+
+	/**
+	 * Método responsável por retornar o valor da última reserva do hóspede.
+	 * @return Valor da última reserva.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getLastBookingAmount() {
+		return lastBookingAmount;
+	}
+
+	/**
+	 * Método responsável por retornar o valor total das reservas do hóspede.
+	 * @return Valor total das reservas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de hospedagens do hóspede.
+	 * @return Quantidade de hospedagens.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getStayCount() {
+		return stayCount;
+	}
+
+	/**
+	 * Método responsável por retornar a versão do resumo.
+	 * @return Versão do resumo, ou <code>null</code> caso ainda não tenha sido gravado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Sobreposição do método responsável por retornar o objeto.
+	 * @return Objeto criado e pré-formatado para impressão.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Override
+	public String toString() {
+		return "GuestBookingSummary [guestId=" + guestId + ", lastCheckInId=" + lastCheckInId + ", lastBookingAmount="
+				+ lastBookingAmount + ", totalAmount=" + totalAmount + ", stayCount=" + stayCount + ", version=" + version + "]";
+	}
+}
@@ -0,0 +1,71 @@
+package br.com.guest.model;
+
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Classe responsável por persistir uma chave de idempotência já usada, com o conteúdo enviado e o resultado da gravação.
+ * <p>
+ * A chave primária impede que duas instâncias executem a mesma chave: o registro é incluído na transação da gravação, e
+ * uma repetição concorrente aguarda o commit dela para então ler o resultado.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@Table(name="TB_IDEMPOTENCY_KEY", indexes = {
+		@Index(name = "IX_IDEMPOTENCY_KEY_CREATED_AT", columnList = "createdAt") })
+public class IdempotencyKey {
+
+	/*
+	 * Resumo (SHA-256, em Base64) do endpoint e da chave enviada, com tamanho fixo para qualquer chave do cliente.
+	 */
+	@Id
+	@Column(length = 44)
+	private String id;
+
+	/*
+	 * Resumo do conteúdo enviado, comparado ao das repetições.
+	 */
+	@Column(length = 44, nullable = false)
+	private String fingerprint;
+
+	/*
+	 * Resultado da gravação em JSON.
+	 */
+	@Column(length = 4000)
+	private String result;
+
+	@Column(nullable = false)
+	private Timestamp createdAt;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected IdempotencyKey() {
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,51 @@
+package br.com.guest.model;
+
+import java.util.List;
+
+/**
+ * Classe responsável por representar uma página de uma listagem paginada pelo código (keyset).
+ * @param <T> Tipo dos itens da página.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class KeysetPage<T> {
+
+	private final List<T> items;
+	private final Long next;
+
+	/**
+	 * Construtor da página.
+	 * @param items Itens da página.
+	 * @param next Código que deve ser informado para buscar a próxima página, <code>null</code> caso seja a última.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public KeysetPage(List<T> items, Long next) {
+		this.items = items;
+		this.next = next;
+	}
+
+	/**
+	 * Método responsável por retornar os itens da página.
+	 * @return Itens da página.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<T> getItems() {
+		return items;
+	}
+
+	/**
+	 * Método responsável por retornar o código que deve ser informado para buscar a próxima página.
+	 * @return Código do último item da página, <code>null</code> caso seja a última.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Long getNext() {
+		return next;
+	}
+}
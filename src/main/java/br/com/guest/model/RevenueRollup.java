@@ -0,0 +1,384 @@
+package br.com.guest.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Classe responsável por persistir o total de um período (dia, semana ou mês) de receita, diárias e adicionais de veículo,
+ * separado em dias úteis e finais de semana como no cálculo das diárias.
+ * <p>
+ * Cada diária cobrada é somada ao dia, à semana e ao mês em que ocorre, na mesma transação do check-in.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Entity
+@IdClass(RevenueRollup.Key.class)
+@Table(name="TB_REVENUE_ROLLUP")
+public class RevenueRollup {
+
+	/**
+	 * Agrupamentos mantidos, com o primeiro dia do período que contém cada dia.
+	 */
+	public enum Granularity {
+		/** Um dia. */
+		DAY {
+			@Override
+			public LocalDate periodStart(LocalDate day) {
+				return day;
+			}
+		},
+		/** Semana de segunda-feira a domingo. */
+		WEEK {
+			@Override
+			public LocalDate periodStart(LocalDate day) {
+				return day.minusDays(day.getDayOfWeek().getValue() - 1);
+			}
+		},
+		/** Mês do calendário. */
+		MONTH {
+			@Override
+			public LocalDate periodStart(LocalDate day) {
+				return day.withDayOfMonth(1);
+			}
+		};
+
+		/**
+		 * Método responsável por retornar o primeiro dia do período que contém um dia.
+		 * @param day Dia.
+		 * @return Primeiro dia do período.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public abstract LocalDate periodStart(LocalDate day);
+	}
+
+	/**
+	 * Chave de um período: agrupamento e primeiro dia.
+	 */
+	public static class Key implements Serializable, Comparable<Key> {
+
+		private static final long serialVersionUID = 1L;
+		private static final Comparator<Key> ORDER = Comparator.<Key, Granularity>comparing(key -> key.granularity)
+				.thenComparing(key -> key.periodStart);
+
+		private Granularity granularity;
+		private LocalDate periodStart;
+
+		protected Key() {
+		}
+
+		public Key(Granularity granularity, LocalDate periodStart) {
+			this.granularity = granularity;
+			this.periodStart = periodStart;
+		}
+
+		public Granularity getGranularity() {
+			return granularity;
+		}
+
+		public LocalDate getPeriodStart() {
+			return periodStart;
+		}
+
+		/*
+		 * Ordem única de bloqueio das linhas, evitando deadlocks entre gravações simultâneas.
+		 */
+		@Override
+		public int compareTo(Key other) {
+			return ORDER.compare(this, other);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return granularity == other.granularity && Objects.equals(periodStart, other.periodStart);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(granularity, periodStart);
+		}
+	}
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 5)
+	private Granularity granularity;
+
+	@Id
+	private LocalDate periodStart;
+
+	private long roomNightsWeekday, roomNightsWeekend;
+	private long vehicleNightsWeekday, vehicleNightsWeekend;
+	private BigDecimal roomRevenueWeekday = BigDecimal.ZERO, roomRevenueWeekend = BigDecimal.ZERO;
+	private BigDecimal vehicleRevenueWeekday = BigDecimal.ZERO, vehicleRevenueWeekend = BigDecimal.ZERO;
+
+	/**
+	 * Construtor padrão, usado pelo JPA.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	protected RevenueRollup() {
+	}
+
+	/**
+	 * Construtor responsável por criar o total vazio de um período.
+	 * @param granularity Agrupamento do período; <code>null</code> para totais de intervalos livres.
+	 * @param periodStart Primeiro dia do período.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public RevenueRollup(Granularity granularity, LocalDate periodStart) {
+		this.granularity = granularity;
+		this.periodStart = periodStart;
+	}
+
+	/**
+	 * Método responsável por somar (ou subtrair) uma diária ao total.
+	 * @param weekend <code>true</code> caso a diária seja em final de semana e <code>false</code> caso contrário.
+	 * @param sign 1 para somar e -1 para subtrair.
+	 * @param room Valor da diária do quarto.
+	 * @param vehicle Valor da garagem.
+	 * @param additionalVehicle <code>true</code> caso a diária tenha adicional de veículos e <code>false</code> caso contrário.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void addNight(boolean weekend, int sign, BigDecimal room, BigDecimal vehicle, boolean additionalVehicle) {
+		int vehicleNights = additionalVehicle ? sign : 0;
+		if(sign < 0) {
+			room = room.negate();
+			vehicle = vehicle.negate();
+		}
+		if(weekend) {
+			roomNightsWeekend += sign;
+			vehicleNightsWeekend += vehicleNights;
+			roomRevenueWeekend = roomRevenueWeekend.add(room);
+			vehicleRevenueWeekend = vehicleRevenueWeekend.add(vehicle);
+		}else {
+			roomNightsWeekday += sign;
+			vehicleNightsWeekday += vehicleNights;
+			roomRevenueWeekday = roomRevenueWeekday.add(room);
+			vehicleRevenueWeekday = vehicleRevenueWeekday.add(vehicle);
+		}
+	}
+
+	/**
+	 * Método responsável por somar outro total a este.
+	 * @param other Total somado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void add(RevenueRollup other) {
+		roomNightsWeekday += other.roomNightsWeekday;
+		roomNightsWeekend += other.roomNightsWeekend;
+		vehicleNightsWeekday += other.vehicleNightsWeekday;
+		vehicleNightsWeekend += other.vehicleNightsWeekend;
+		roomRevenueWeekday = roomRevenueWeekday.add(other.roomRevenueWeekday);
+		roomRevenueWeekend = roomRevenueWeekend.add(other.roomRevenueWeekend);
+		vehicleRevenueWeekday = vehicleRevenueWeekday.add(other.vehicleRevenueWeekday);
+		vehicleRevenueWeekend = vehicleRevenueWeekend.add(other.vehicleRevenueWeekend);
+	}
+
+	/**
+	 * Método responsável por verificar se o total não altera nenhum valor, como na alteração de um check-in sem mudança de datas.
+	 * @return <code>true</code> caso todos os valores sejam zero e <code>false</code> caso contrário.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@JsonIgnore
+	public boolean isZero() {
+		return roomNightsWeekday == 0 && roomNightsWeekend == 0 && vehicleNightsWeekday == 0 && vehicleNightsWeekend == 0
+				&& roomRevenueWeekday.signum() == 0 && roomRevenueWeekend.signum() == 0
+				&& vehicleRevenueWeekday.signum() == 0 && vehicleRevenueWeekend.signum() == 0;
+	}
+
+	/**
+	 * Método responsável por retornar o agrupamento do período.
+	 * @return {@link Granularity} do período, ou <code>null</code> em totais de intervalos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Granularity getGranularity() {
+		return granularity;
+	}
+
+	/**
+	 * Método responsável por retornar o primeiro dia do período.
+	 * @return Primeiro dia do período.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public LocalDate getPeriodStart() {
+		return periodStart;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de dias do período.
+	 * @return Quantidade de dias, ou zero em totais de intervalos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getDays() {
+		if(granularity == null)
+			return 0;
+		switch(granularity) {
+		case WEEK:
+			return 7;
+		case MONTH:
+			return ChronoUnit.DAYS.between(periodStart, periodStart.plusMonths(1));
+		default:
+			return 1;
+		}
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de diárias em dias úteis do período.
+	 * @return Diárias em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getRoomNightsWeekday() {
+		return roomNightsWeekday;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de diárias em finais de semana do período.
+	 * @return Diárias em finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getRoomNightsWeekend() {
+		return roomNightsWeekend;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de diárias com adicional de veículos em dias úteis do período.
+	 * @return Diárias com garagem em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getVehicleNightsWeekday() {
+		return vehicleNightsWeekday;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de diárias com adicional de veículos em finais de semana do período.
+	 * @return Diárias com garagem em finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getVehicleNightsWeekend() {
+		return vehicleNightsWeekend;
+	}
+
+	/**
+	 * Método responsável por retornar a receita dos quartos em dias úteis do período.
+	 * @return Receita dos quartos em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getRoomRevenueWeekday() {
+		return roomRevenueWeekday;
+	}
+
+	/**
+	 * Método responsável por retornar a receita dos quartos em finais de semana do período.
+	 * @return Receita dos quartos em finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getRoomRevenueWeekend() {
+		return roomRevenueWeekend;
+	}
+
+	/**
+	 * Método responsável por retornar a receita da garagem em dias úteis do período.
+	 * @return Receita da garagem em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getVehicleRevenueWeekday() {
+		return vehicleRevenueWeekday;
+	}
+
+	/**
+	 * Método responsável por retornar a receita da garagem em finais de semana do período.
+	 * @return Receita da garagem em finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getVehicleRevenueWeekend() {
+		return vehicleRevenueWeekend;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade total de diárias do período.
+	 * @return Diárias em dias úteis e finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getRoomNights() {
+		return roomNightsWeekday + roomNightsWeekend;
+	}
+
+	/**
+	 * Método responsável por retornar a receita total do período, com os adicionais de veículo.
+	 * @return Receita dos quartos e da garagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getRevenue() {
+		return roomRevenueWeekday.add(roomRevenueWeekend).add(vehicleRevenueWeekday).add(vehicleRevenueWeekend);
+	}
+
+	/**
+	 * Sobreposição do método responsável por retornar o objeto.
+	 * @return Objeto criado e pré-formatado para impressão.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Override
+	public String toString() {
+		return "RevenueRollup [granularity=" + granularity + ", periodStart=" + periodStart + ", roomNightsWeekday=" + roomNightsWeekday
+				+ ", roomNightsWeekend=" + roomNightsWeekend + ", vehicleNightsWeekday=" + vehicleNightsWeekday + ", vehicleNightsWeekend="
+				+ vehicleNightsWeekend + ", roomRevenueWeekday=" + roomRevenueWeekday + ", roomRevenueWeekend=" + roomRevenueWeekend
+				+ ", vehicleRevenueWeekday=" + vehicleRevenueWeekday + ", vehicleRevenueWeekend=" + vehicleRevenueWeekend + "]";
+	}
+}
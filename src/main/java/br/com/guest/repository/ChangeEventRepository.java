@@ -0,0 +1,78 @@
+package br.com.guest.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.ChangeEvent;
+
+/**
+ * Interface responsável pelo journal de alterações de hóspedes e check-ins.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long>{
+
+	/**
+	 * Método responsável por buscar os códigos das alterações ainda não publicadas, na ordem em que foram gravadas.
+	 * @param pageable Quantidade de alterações que será retornada.
+	 * @return Lista de códigos de {@link ChangeEvent} sem posição.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("select c.id from ChangeEvent c where c.position is null order by c.id")
+	List<Long> findUnpublishedIds(Pageable pageable);
+
+	/**
+	 * Método responsável por buscar as alterações publicadas a partir de uma posição do feed.
+	 * @param position Posição a partir da qual as alterações serão retornadas (exclusiva).
+	 * @param pageable Quantidade de alterações que será retornada.
+	 * @return Lista de {@link ChangeEvent} em ordem de posição.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	List<ChangeEvent> findByPositionGreaterThanOrderByPositionAsc(long position, Pageable pageable);
+
+	/**
+	 * Método responsável por retornar a última posição publicada.
+	 * @return Maior posição, ou <code>null</code> caso nenhuma alteração tenha sido publicada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("select max(c.position) from ChangeEvent c")
+	Long findMaxPosition();
+
+	/**
+	 * Método responsável por retornar a posição mais antiga ainda guardada.
+	 * @return Menor posição, ou <code>null</code> caso nenhuma alteração publicada esteja guardada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("select min(c.position) from ChangeEvent c")
+	Long findMinPosition();
+
+	/**
+	 * Método responsável por remover as alterações publicadas antigas.
+	 * @param position Última posição que pode ser removida (inclusiva).
+	 * @param before Instante a partir do qual as alterações são mantidas.
+	 * @return Quantidade de alterações removidas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from ChangeEvent c where c.position <= :position and c.createdAt < :before")
+	int deletePublished(@Param("position") long position, @Param("before") Timestamp before);
+}
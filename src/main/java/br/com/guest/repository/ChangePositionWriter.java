@@ -0,0 +1,51 @@
+package br.com.guest.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Classe responsável por atribuir as posições do feed às alterações com <code>UPDATE ... WHERE feed_position IS NULL</code>,
+ * para que uma alteração já numerada por outra instância nunca seja numerada de novo.
+ * <p>
+ * Enquanto a outra transação não termina, o update da mesma alteração aguarda; depois do commit, ele não altera nenhuma
+ * linha, e o lote inteiro é recusado.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Repository
+public class ChangePositionWriter {
+
+	private static final String UPDATE = "UPDATE tb_change_event SET feed_position = ? WHERE id = ? AND feed_position IS NULL";
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Método responsável por numerar as alterações em sequência, dentro da transação atual, com updates em lotes JDBC.
+	 * @param ids Códigos das alterações, na ordem em que serão numeradas.
+	 * @param firstPosition Posição da primeira alteração.
+	 * @return <code>true</code> caso todas tenham sido numeradas e <code>false</code> caso alguma já tivesse posição;
+	 * nesse caso, a transação deve ser desfeita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean assign(List<Long> ids, long firstPosition) {
+		List<Object[]> updates = new ArrayList<>(ids.size());
+		for(int i = 0; i < ids.size(); i++)
+			updates.add(new Object[] {firstPosition + i, ids.get(i)});
+		for(int count : jdbcTemplate.batchUpdate(UPDATE, updates)) {
+			if(count == 0)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,14 @@
+package br.com.guest.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.guest.model.ChangeSubscription;
+
+/**
+ * Interface responsável pela última posição do feed confirmada por cada assinante.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public interface ChangeSubscriptionRepository extends JpaRepository<ChangeSubscription, String>{
+}
@@ -0,0 +1,29 @@
+package br.com.guest.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.guest.model.CheckInNight;
+
+/**
+ * Interface responsável pelas diárias de cada check-in somadas aos totais de receita.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public interface CheckInNightRepository extends JpaRepository<CheckInNight, CheckInNight.Key>{
+
+	/**
+	 * Método responsável por listar as diárias somadas de um check-in.
+	 * @param checkIn Código do check-in.
+	 * @return Lista de {@link CheckInNight}, vazia caso o check-in não tenha sido somado pela aplicação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("select n from CheckInNight n where n.checkIn = :checkIn order by n.night")
+	List<CheckInNight> findByCheckIn(@Param("checkIn") long checkIn);
+}
@@ -0,0 +1,14 @@
+package br.com.guest.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.guest.model.CheckInRejection;
+
+/**
+ * Interface responsável pelas recusas de check-ins aceitos sem gravação imediata.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public interface CheckInRejectionRepository extends JpaRepository<CheckInRejection, Long>{
+}
@@ -1,15 +1,30 @@
 package br.com.guest.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.guest.model.CheckIn;
 
 public interface CheckInRepository extends JpaRepository<CheckIn, Long>{
+
+	/**
+	 * Método responsável por listar todos os check-ins, carregando os hóspedes na mesma consulta.
+	 * @return Lista de {@link CheckIn} que foi retornardo do banco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Override
+	@EntityGraph(attributePaths = "guest")
+	List<CheckIn> findAll();
 	
 	/**
 	 * Método que realizará a busca por um determinado id.
@@ -19,42 +34,75 @@ public interface CheckInRepository extends JpaRepository<CheckIn, Long>{
 	 * @version 1
 	 * @since 1.0.0
 	 */
+	@EntityGraph(attributePaths = "guest")
 	CheckIn findById(long id);
 	
 	/**
-	 * Método responsável por buscar todos os check-ins que atendam ao parâmetro informado, referente ao hóspede.
-	 * @param data Valor que será usado para pesquisar, seja ele o nome, documento ou telefone do hóspede.
+	 * Método responsável por buscar os check-ins a partir de um código, em ordem crescente de código.
+	 * @param id Código a partir do qual os check-ins serão retornados (exclusivo).
+	 * @param pageable Quantidade de check-ins que será retornada.
 	 * @return Lista de {@link CheckIn} que foi retornardo do banco.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT c.id, c.additional_vehicle, c.departure_date, c.entry_date, c.guest "
-			+ "FROM tb_check_in c JOIN tb_guest g ON g.id = c.guest "
-			+ "WHERE g.name = :data "
-			+ "OR g.document = :data "
-			+ "OR g.telephone = :data ", nativeQuery = true)
-	List<CheckIn> findByNameGuest(@Param("data") String data);
+	@Transactional(readOnly = true)
+	@EntityGraph(attributePaths = "guest")
+	List<CheckIn> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 	
 	/**
-	 * Método responsável por buscar o valor da última reserva de um determinado hóspede.
-	 * @param id Código do hóspede que será pesquisado.
-	 * @return Valor da última reserva do usuário.
+	 * Método responsável por buscar todos os check-ins de um conjunto de hóspedes.
+	 * @param guestIds Códigos dos hóspedes.
+	 * @return Lista de {@link CheckIn} que foi retornardo do banco.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT total_cost FROM tb_check_in WHERE id = (SELECT MAX(id) FROM tb_check_in WHERE guest = :id) ", nativeQuery = true)
-	BigDecimal findLastBookingAmount(@Param("id") long id);
+	@Transactional(readOnly = true)
+	@EntityGraph(attributePaths = "guest")
+	List<CheckIn> findByGuestIdIn(Collection<Long> guestIds);
 	
 	/**
-	 * Método responsável por buscar o valor da última reserva de um determinado hóspede.
-	 * @param id Código do hóspede que será pesquisado.
-	 * @return Valor da última reserva do usuário.
+	 * Método responsável por retornar o maior código de check-in gravado.
+	 * @return Maior código, ou 0 caso não existam check-ins.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT SUM(total_cost) FROM tb_check_in WHERE guest = :id ", nativeQuery = true)
-	BigDecimal findTotalAmountReservations(@Param("id") long id);
+	@Transactional(readOnly = true)
+	@Query("SELECT COALESCE(MAX(c.id), 0) FROM CheckIn c")
+	long findMaxId();
+
+	/**
+	 * Método responsável por verificar quais códigos de um conjunto pertencem a check-ins gravados.
+	 * @param ids Códigos dos check-ins.
+	 * @return Lista dos códigos encontrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("SELECT c.id FROM CheckIn c WHERE c.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Método responsável por recalcular, direto dos check-ins, a quantidade, o valor total e o último check-in de um conjunto de hóspedes.
+	 * @param guestIds Códigos dos hóspedes.
+	 * @return Lista de {@link BookingTotals}, uma por hóspede que possui check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("SELECT c.guest.id AS guestId, COUNT(c) AS stayCount, SUM(c.totalCost) AS totalAmount, MAX(c.id) AS lastCheckInId "
+			+ "FROM CheckIn c WHERE c.guest.id IN :guestIds GROUP BY c.guest.id")
+	List<BookingTotals> findBookingTotals(@Param("guestIds") Collection<Long> guestIds);
+
+	/**
+	 * Totais das reservas de um hóspede, calculados com <code>GROUP BY</code>.
+	 */
+	interface BookingTotals {
+		Long getGuestId();
+		Long getStayCount();
+		BigDecimal getTotalAmount();
+		Long getLastCheckInId();
+	}
 }
@@ -0,0 +1,84 @@
+package br.com.guest.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Classe responsável por gravar, com inserts em lote JDBC, check-ins cujo código já foi definido antes da gravação.
+ * <p>
+ * O Hibernate gera um novo código para toda entidade persistida; os check-ins aceitos sem gravação imediata precisam
+ * manter o código informado ao cliente. Os códigos são reservados em blocos da mesma sequência usada pela entidade,
+ * do mesmo tamanho e com o mesmo otimizador (pooled-lo), sem repetir os códigos gerados pelo Hibernate.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Repository
+public class CheckInWriter {
+
+	/*
+	 * Códigos por valor da sequência, igual ao allocationSize de CheckIn.
+	 */
+	private static final int ID_BLOCK_SIZE = 50;
+	private static final String INSERT = "INSERT INTO tb_check_in (id, guest, entry_date, departure_date, additional_vehicle, "
+			+ "total_cost, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	private String nextValue;
+	private long nextId, blockEnd;
+
+	@PostConstruct
+	void start() {
+		nextValue = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+				.getSequenceNextValString("sq_check_in");
+	}
+
+	/**
+	 * Método responsável por reservar o código de um novo check-in; a sequência é lida uma vez a cada bloco.
+	 * @return Código reservado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public synchronized long nextId() {
+		if(nextId >= blockEnd) {
+			nextId = jdbcTemplate.queryForObject(nextValue, Long.class);
+			blockEnd = nextId + ID_BLOCK_SIZE;
+		}
+		return nextId++;
+	}
+
+	/**
+	 * Método responsável por inserir check-ins com os códigos já definidos, dentro da transação atual.
+	 * @param checkIns Check-ins novos, com código, hóspede e custo total.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void insert(List<CheckIn> checkIns) {
+		List<Object[]> rows = new ArrayList<>(checkIns.size());
+		for(CheckIn checkIn : checkIns) {
+			rows.add(new Object[] { checkIn.getId(), checkIn.getGuest().getId(), checkIn.getEntryDate(), checkIn.getDepartureDate(),
+				checkIn.isAdditionalVehicle(), checkIn.getTotalCost() });
+		}
+		jdbcTemplate.batchUpdate(INSERT, rows);
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.guest.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Classe responsável por percorrer tabelas inteiras com um cursor JDBC, sem carregar todas as linhas em memória.
+ * <p>
+ * As linhas são lidas em blocos de <code>hotel.streaming.fetch-size</code> e entregues uma a uma, sem passar pelo
+ * contexto de persistência do Hibernate. Os métodos precisam de uma transação para que o PostgreSQL use um cursor
+ * em vez de trazer o resultado inteiro.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Repository
+public class CursorRepository {
+
+	private static final String GUEST_COLUMNS = "g.id AS guest_id, g.name AS guest_name, g.document AS guest_document, g.telephone AS guest_telephone, g.version AS guest_version";
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Value("${hotel.streaming.fetch-size:500}")
+	int fetchSize;
+
+	/**
+	 * Método responsável por percorrer os hóspedes em ordem crescente de código.
+	 * @param afterId Código a partir do qual os hóspedes serão lidos (exclusivo).
+	 * @param consumer Quem receberá cada {@link Guest}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	public void forEachGuest(long afterId, Consumer<Guest> consumer) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement("SELECT " + GUEST_COLUMNS
+					+ " FROM tb_guest g WHERE g.id > ? ORDER BY g.id");
+			statement.setFetchSize(fetchSize);
+			statement.setLong(1, afterId);
+			return statement;
+		}, (RowCallbackHandler) rs -> {
+			consumer.accept(mapGuest(rs));
+		});
+	}
+
+	/**
+	 * Método responsável por percorrer os check-ins, com os respectivos hóspedes, em ordem crescente de código.
+	 * @param afterId Código a partir do qual os check-ins serão lidos (exclusivo).
+	 * @param toId Último código que será lido (inclusivo).
+	 * @param consumer Quem receberá cada {@link CheckIn}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	public void forEachCheckIn(long afterId, long toId, Consumer<CheckIn> consumer) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement("SELECT c.id, c.entry_date, c.departure_date, "
+					+ "c.additional_vehicle, c.total_cost, c.version, " + GUEST_COLUMNS
+					+ " FROM tb_check_in c LEFT JOIN tb_guest g ON g.id = c.guest WHERE c.id > ? AND c.id <= ? ORDER BY c.id");
+			statement.setFetchSize(fetchSize);
+			statement.setLong(1, afterId);
+			statement.setLong(2, toId);
+			return statement;
+		}, (RowCallbackHandler) rs -> {
+			CheckIn checkIn = new CheckIn();
+			checkIn.setId(rs.getLong("id"));
+			checkIn.setEntryDate(rs.getTimestamp("entry_date"));
+			checkIn.setDepartureDate(rs.getTimestamp("departure_date"));
+			checkIn.setAdditionalVehicle(rs.getBoolean("additional_vehicle"));
+			checkIn.setTotalCost(rs.getBigDecimal("total_cost"));
+			checkIn.setVersion(rs.getObject("version", Long.class));
+			rs.getLong("guest_id");
+			if(!rs.wasNull())
+				checkIn.setGuest(mapGuest(rs));
+			consumer.accept(checkIn);
+		});
+	}
+
+	private static Guest mapGuest(ResultSet rs) throws SQLException {
+		Guest guest = new Guest();
+		guest.setId(rs.getLong("guest_id"));
+		guest.setName(rs.getString("guest_name"));
+		guest.setDocument(rs.getString("guest_document"));
+		guest.setTelephone(rs.getString("guest_telephone"));
+		guest.setVersion(rs.getObject("guest_version", Long.class));
+		return guest;
+	}
+}
@@ -0,0 +1,8 @@
+package br.com.guest.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.guest.model.GuestBookingSummary;
+
+public interface GuestBookingSummaryRepository extends JpaRepository<GuestBookingSummary, Long>{
+}
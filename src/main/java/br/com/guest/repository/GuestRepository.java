@@ -1,9 +1,17 @@
 package br.com.guest.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.guest.model.Guest;
 
@@ -26,41 +34,119 @@ public interface GuestRepository extends JpaRepository<Guest, Long>{
 	Guest findById(long id);
 	
 	/**
-	 * Método que realizará a busca por um nome, documento ou telefone.
-	 * @param name Nome do hóspede que será consultado.
+	 * Método que realizará a busca pelo nome normalizado, usando o índice da coluna <code>name_search</code>.
+	 * @param nameSearch Nome normalizado do hóspede que será consultado.
+	 * @return {@link Guest} retornado do banco de dados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	List<Guest> findByNameSearch(String nameSearch);
+
+	/**
+	 * Método que realizará a busca pelo documento, usando o índice da coluna <code>document</code>.
+	 * @param document Documento do hóspede que será consultado.
+	 * @return {@link Guest} retornado do banco de dados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	List<Guest> findByDocument(String document);
+
+	/**
+	 * Método que realizará a busca por documento ou telefone, como uma união de duas buscas indexadas.
+	 * @param data Documento ou telefone do hóspede que será consultado.
+	 * @return {@link Guest} retornado do banco de dados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	@Query(value = "SELECT g.* FROM tb_guest g WHERE g.document = :data "
+			+ "UNION "
+			+ "SELECT g.* FROM tb_guest g WHERE g.telephone = :data ", nativeQuery = true)
+	List<Guest> findByDocumentOrTelephone(@Param("data") String data);
+
+	/**
+	 * Método que realizará a busca dos hóspedes a partir de um código, em ordem crescente de código.
+	 * @param id Código a partir do qual os hóspedes serão retornados (exclusivo).
+	 * @param pageable Quantidade de hóspedes que será retornada.
+	 * @return {@link Guest} retornado do banco de dados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	List<Guest> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+	
+	/**
+	 * Método responsável por buscar somente os códigos dos hóspedes a partir de um código, em ordem crescente.
+	 * @param id Código a partir do qual os hóspedes serão retornados (exclusivo).
+	 * @param pageable Quantidade de códigos que será retornada.
+	 * @return Lista de códigos dos hóspedes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("SELECT g.id FROM Guest g WHERE g.id > :id ORDER BY g.id")
+	List<Long> findIdsAfter(@Param("id") long id, Pageable pageable);
+	
+	/**
+	 * Método responsável por verificar quais códigos de um conjunto pertencem a hóspedes cadastrados.
+	 * @param ids Códigos dos hóspedes.
+	 * @return Lista dos códigos encontrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Query("SELECT g.id FROM Guest g WHERE g.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * Método responsável por buscar um conjunto de hóspedes, bloqueando-os até o fim da transação.
+	 * @param ids Códigos dos hóspedes.
+	 * @return Lista de {@link Guest} bloqueados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT g FROM Guest g WHERE g.id IN :ids")
+	List<Guest> findForUpdate(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Método que realizará a busca dos hóspedes que ainda não têm o nome normalizado preenchido.
+	 * @param pageable Página que será retornada.
 	 * @return {@link Guest} retornado do banco de dados.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT id, name, document, telephone "
-			+ "FROM tb_guest "
-			+ "WHERE name = :data "
-			+ "OR document = :data "
-			+ "OR telephone = :data ", nativeQuery = true)
-	List<Guest> findByData(String data);
+	List<Guest> findByNameSearchIsNullAndNameIsNotNull(Pageable pageable);
 	
 	/**
 	 * Método que realizará a busca de hóspedes que já fizeram reserva mas não estão mais no hotel.
+	 * @param instant Instante consultado.
 	 * @return {@link Guest} retornado do banco de dados.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT distinct g.id, g.name, g.document, g.telephone "
-			+ "FROM tb_check_in c JOIN tb_guest g ON g.id = c.guest "
-			+ "WHERE c.departure_date < getdate() ", nativeQuery = true)
-	List<Guest> findByCheckinOld();
+	@Transactional(readOnly = true)
+	@Query("SELECT DISTINCT c.guest FROM CheckIn c WHERE c.departureDate < :instant")
+	List<Guest> findByCheckinOld(@Param("instant") Timestamp instant);
 	
 	/**
 	 * Método que realizará a busca de hóspedes que estão no hotel.
+	 * @param instant Instante consultado.
 	 * @return {@link Guest} retornado do banco de dados.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	@Query(value = "SELECT distinct g.id, g.name, g.document, g.telephone "
-			+ "FROM tb_check_in c JOIN tb_guest g ON g.id = c.guest "
-			+ "WHERE c.entry_date < getdate() AND c.departure_date > getdate()", nativeQuery = true)
-	List<Guest> findByCheckinCurrent();
+	@Transactional(readOnly = true)
+	@Query("SELECT DISTINCT c.guest FROM CheckIn c WHERE c.entryDate < :instant AND c.departureDate > :instant")
+	List<Guest> findByCheckinCurrent(@Param("instant") Timestamp instant);
 }
@@ -0,0 +1,59 @@
+package br.com.guest.repository;
+
+import java.sql.Timestamp;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.IdempotencyKey;
+
+/**
+ * Interface responsável pelas chaves de idempotência já usadas.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String>{
+
+	/**
+	 * Método responsável por registrar o uso de uma chave, na transação da gravação. Enquanto a transação não termina,
+	 * a inclusão da mesma chave em outra transação aguarda; depois do commit, ela falha pela chave primária.
+	 * @param id Resumo do endpoint e da chave.
+	 * @param fingerprint Resumo do conteúdo enviado.
+	 * @param createdAt Instante do uso.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO tb_idempotency_key (id, fingerprint, created_at) VALUES (:id, :fingerprint, :createdAt)", nativeQuery = true)
+	void insert(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("createdAt") Timestamp createdAt);
+
+	/**
+	 * Método responsável por guardar o resultado da gravação de uma chave, na mesma transação.
+	 * @param id Resumo do endpoint e da chave.
+	 * @param result Resultado em JSON.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Modifying
+	@Query("update IdempotencyKey k set k.result = :result where k.id = :id")
+	void complete(@Param("id") String id, @Param("result") String result);
+
+	/**
+	 * Método responsável por remover as chaves vencidas.
+	 * @param before Instante a partir do qual as chaves são mantidas.
+	 * @return Quantidade de chaves removidas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from IdempotencyKey k where k.createdAt < :before")
+	int deleteExpired(@Param("before") Timestamp before);
+}
@@ -0,0 +1,26 @@
+package br.com.guest.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.RevenueRollup;
+import br.com.guest.model.RevenueRollup.Granularity;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollup.Key>{
+
+	/**
+	 * Método responsável por listar os totais de um agrupamento cujos períodos começam em um intervalo, pela chave primária.
+	 * @param granularity Agrupamento dos totais.
+	 * @param from Primeiro dia do intervalo (inclusivo).
+	 * @param to Último dia do intervalo (inclusivo).
+	 * @return Lista de {@link RevenueRollup} em ordem de período; períodos sem diárias não têm registro.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(readOnly = true)
+	List<RevenueRollup> findByGranularityAndPeriodStartBetweenOrderByPeriodStart(Granularity granularity, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,154 @@
+package br.com.guest.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckInNight;
+import br.com.guest.model.RevenueRollup;
+
+/**
+ * Classe responsável por somar valores aos totais de receita com <code>UPDATE ... SET coluna = coluna + ?</code>,
+ * para que gravações simultâneas no mesmo período não percam valores.
+ * <p>
+ * As linhas são atualizadas sempre na ordem da chave, e períodos ainda sem registro são inseridos dentro de um savepoint:
+ * se outra transação inseriu o mesmo período antes, o insert é desfeito e o valor é somado à linha existente.
+ * <p>
+ * Também grava as diárias de cada check-in somadas aos totais ({@link CheckInNight}), usadas para subtraí-las depois.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Repository
+public class RevenueRollupWriter {
+
+	private static final String UPDATE = "UPDATE tb_revenue_rollup SET room_nights_weekday = room_nights_weekday + ?, "
+			+ "room_nights_weekend = room_nights_weekend + ?, vehicle_nights_weekday = vehicle_nights_weekday + ?, "
+			+ "vehicle_nights_weekend = vehicle_nights_weekend + ?, room_revenue_weekday = room_revenue_weekday + ?, "
+			+ "room_revenue_weekend = room_revenue_weekend + ?, vehicle_revenue_weekday = vehicle_revenue_weekday + ?, "
+			+ "vehicle_revenue_weekend = vehicle_revenue_weekend + ? WHERE granularity = ? AND period_start = ?";
+	private static final String INSERT = "INSERT INTO tb_revenue_rollup (room_nights_weekday, room_nights_weekend, "
+			+ "vehicle_nights_weekday, vehicle_nights_weekend, room_revenue_weekday, room_revenue_weekend, vehicle_revenue_weekday, "
+			+ "vehicle_revenue_weekend, granularity, period_start) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_NIGHT = "INSERT INTO tb_check_in_night (check_in, night, weekend, additional_vehicle, room, vehicle) "
+			+ "VALUES (?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Método responsável por somar as diferenças aos totais dos períodos, dentro da transação atual.
+	 * @param deltas Diferenças por período, em ordem de chave.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void add(SortedMap<RevenueRollup.Key, RevenueRollup> deltas) {
+		List<Object[]> updates = new ArrayList<>(deltas.size());
+		List<RevenueRollup> rollups = new ArrayList<>(deltas.size());
+		for(Map.Entry<RevenueRollup.Key, RevenueRollup> entry : deltas.entrySet()) {
+			if(!entry.getValue().isZero()) {
+				updates.add(parameters(entry.getValue()));
+				rollups.add(entry.getValue());
+			}
+		}
+		if(updates.isEmpty())
+			return;
+		int[] counts = jdbcTemplate.batchUpdate(UPDATE, updates);
+		for(int i = 0; i < counts.length; i++) {
+			if(counts[i] == 0 && !insert(updates.get(i)))
+				jdbcTemplate.update(UPDATE, updates.get(i));										//INSERIDO POR OUTRA TRANSAÇÃO NESSE MEIO TEMPO.
+		}
+	}
+
+	/**
+	 * Método responsável por gravar as diárias somadas aos totais, dentro da transação atual.
+	 * @param nights Diárias somadas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void addNights(List<CheckInNight> nights) {
+		if(nights.isEmpty())
+			return;
+		List<Object[]> inserts = new ArrayList<>(nights.size());
+		for(CheckInNight night : nights)
+			inserts.add(new Object[] {night.getCheckIn(), Date.valueOf(night.getNight()), night.isWeekend(), night.isAdditionalVehicle(),
+					night.getRoom(), night.getVehicle()});
+		jdbcTemplate.batchUpdate(INSERT_NIGHT, inserts);
+	}
+
+	/**
+	 * Método responsável por remover as diárias gravadas de um check-in, dentro da transação atual.
+	 * @param checkIn Código do check-in.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void removeNights(long checkIn) {
+		jdbcTemplate.update("DELETE FROM tb_check_in_night WHERE check_in = ?", checkIn);
+	}
+
+	/**
+	 * Método responsável por remover as diárias gravadas de todos os check-ins, no recálculo dos totais.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void removeAllNights() {
+		jdbcTemplate.update("DELETE FROM tb_check_in_night");
+	}
+
+	/**
+	 * Método responsável por inserir o total de um período dentro de um savepoint.
+	 * @param parameters Valores e chave do período.
+	 * @return <code>true</code> caso tenha sido inserido e <code>false</code> caso o período já exista.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private boolean insert(Object[] parameters) {
+		return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			Savepoint savepoint = connection.setSavepoint();
+			try(PreparedStatement statement = connection.prepareStatement(INSERT)) {
+				for(int i = 0; i < parameters.length; i++)
+					statement.setObject(i + 1, parameters[i]);
+				statement.executeUpdate();
+			}catch(SQLException e) {
+				if(!(jdbcTemplate.getExceptionTranslator().translate("insert", INSERT, e) instanceof DuplicateKeyException))
+					throw e;
+				connection.rollback(savepoint);													//NO POSTGRESQL, O ERRO INVALIDARIA A TRANSAÇÃO INTEIRA.
+				return false;
+			}
+			connection.releaseSavepoint(savepoint);
+			return true;
+		});
+	}
+
+	/*
+	 * Valores na ordem das colunas de UPDATE e INSERT, seguidos da chave.
+	 */
+	private static Object[] parameters(RevenueRollup rollup) {
+		return new Object[] {rollup.getRoomNightsWeekday(), rollup.getRoomNightsWeekend(), rollup.getVehicleNightsWeekday(),
+				rollup.getVehicleNightsWeekend(), rollup.getRoomRevenueWeekday(), rollup.getRoomRevenueWeekend(),
+				rollup.getVehicleRevenueWeekday(), rollup.getVehicleRevenueWeekend(), rollup.getGranularity().name(),
+				Date.valueOf(rollup.getPeriodStart())};
+	}
+}
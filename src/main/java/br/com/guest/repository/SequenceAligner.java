@@ -0,0 +1,86 @@
+package br.com.guest.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classe responsável por posicionar as sequências de códigos após o maior código já gravado em cada tabela.
+ * <p>
+ * Os códigos eram gerados pela sequência única do Hibernate; ao passar para uma sequência por tabela, a nova sequência
+ * começaria em 1 e repetiria códigos existentes. A verificação roda na inicialização, antes de qualquer gravação.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class SequenceAligner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SequenceAligner.class);
+
+	/*
+	 * Tabela e sequência dos seus códigos.
+	 */
+	private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+	static {
+		SEQUENCES.put("tb_guest", "sq_guest");
+		SEQUENCES.put("tb_check_in", "sq_check_in");
+	}
+
+	/*
+	 * Incremento das sequências (allocationSize das entidades). O otimizador pooled do Hibernate entrega, a partir do valor
+	 * lido, os códigos do valor menos 49 até o próprio valor.
+	 */
+	static final int ALLOCATION_SIZE = 50;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Método responsável por verificar e, se preciso, reiniciar as sequências.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostConstruct
+	public void align() {
+		Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+		SEQUENCES.forEach((table, sequence) -> align(table, sequence, dialect));
+	}
+
+	/**
+	 * Método responsável por reiniciar uma sequência caso o próximo bloco de códigos alcance algum já usado na tabela.
+	 * @param table Tabela cujos códigos vêm da sequência.
+	 * @param sequence Nome da sequência.
+	 * @param dialect Dialeto do banco, usado para ler o próximo valor.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void align(String table, String sequence, Dialect dialect) {
+		Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+		if(max == null)
+			return;
+		long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);	//CONSOME UM BLOCO, SEM EFEITO NOS CÓDIGOS.
+		if(next - ALLOCATION_SIZE >= max)
+			return;
+		long restart = max + ALLOCATION_SIZE;														//PRIMEIRO BLOCO COMEÇA EM max + 1.
+		jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+		LOGGER.info("Sequência {} reiniciada em {}, para que o primeiro bloco de códigos comece após o maior código de {} ({}).",
+				sequence, restart, table, max);
+	}
+}
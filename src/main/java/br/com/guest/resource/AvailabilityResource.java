@@ -0,0 +1,59 @@
+package br.com.guest.resource;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.guest.model.Availability;
+import br.com.guest.service.AvailabilityIndex;
+
+/**
+ * Classe responsável por consultar a disponibilidade de quartos.
+ * <p>
+ * As respostas vêm dos contadores desta instância ({@link AvailabilityIndex}) e só são exatas com uma única instância.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping(value="/api")
+public class AvailabilityResource {
+
+	private static final int MAX_NIGHTS = 366;
+
+	/*
+	 * Contadores em memória das noites ocupadas.
+	 */
+	@Autowired
+	AvailabilityIndex availabilityIndex;
+
+	/**
+	 * Método responsável por retornar os quartos livres em cada noite de uma hospedagem.
+	 * @param entry Data de entrada (primeira noite).
+	 * @param departure Data de saída; a última noite é a anterior, ou a própria entrada caso sejam iguais.
+	 * @return {@link Availability} com os quartos livres por noite, as noites livres e se o período inteiro está disponível.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/disponibilidade")
+	public Availability findAvailability(@RequestParam(value="entrada") @DateTimeFormat(iso = ISO.DATE) LocalDate entry,
+			@RequestParam(value="saida") @DateTimeFormat(iso = ISO.DATE) LocalDate departure) {
+		if(departure.isBefore(entry) || entry.plusDays(MAX_NIGHTS).isBefore(departure))
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período inválido ou maior que " + MAX_NIGHTS + " noites.");
+		if(!availabilityIndex.isReady())
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Disponibilidade sendo calculada, tente novamente.");
+		LocalDate lastNight = departure.isAfter(entry) ? departure.minusDays(1) : entry;
+		return availabilityIndex.availability(entry, lastNight);
+	}
+}
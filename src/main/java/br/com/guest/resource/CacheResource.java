@@ -0,0 +1,72 @@
+package br.com.guest.resource;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.guest.model.CacheInvalidation;
+import br.com.guest.service.EntityCache;
+import br.com.guest.service.GuestBookingSummaryService;
+
+/**
+ * Classe responsável por consultar e invalidar o cache de hóspedes e check-ins.
+ * <p>
+ * Somente a consulta aceita chamadas de outras origens (CORS); a invalidação é chamada apenas pelas demais instâncias.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping(value="/api")
+public class CacheResource {
+
+	/*
+	 * Serviço que será consumido.
+	 */
+	@Autowired
+	EntityCache entityCache;
+
+	/*
+	 * Resumos de reservas, invalidados pelo mesmo aviso.
+	 */
+	@Autowired
+	GuestBookingSummaryService bookingSummaryService;
+
+	/**
+	 * Método responsável por retornar as estatísticas do cache.
+	 * @return Acertos, falhas, taxa de acerto, remoções e quantidade de entradas de cada cache.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@CrossOrigin(origins = "*")
+	@GetMapping(value="/cache/estatisticas")
+	public Map<String, Map<String, Object>> stats() {
+		return entityCache.stats();
+	}
+
+	/**
+	 * Método responsável por receber de outra instância os códigos alterados e removê-los do cache local.
+	 * @param token Token compartilhado entre as instâncias, igual a <code>hotel.cache.peer-token</code>; sem ele configurado, os avisos são recusados.
+	 * @param invalidation Códigos dos hóspedes, check-ins e resumos de reservas alterados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value="/cache/invalidacao")
+	public void invalidate(@RequestHeader(value=EntityCache.TOKEN_HEADER, required=false) String token, @RequestBody CacheInvalidation invalidation) {
+		if(!entityCache.acceptsToken(token))
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Token inválido.");
+		entityCache.invalidate(invalidation);
+		bookingSummaryService.invalidate(invalidation.getBookingSummaries());
+	}
+}
@@ -0,0 +1,54 @@
+package br.com.guest.resource;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.model.KeysetPage;
+import br.com.guest.service.ChangeJournal;
+
+/**
+ * Classe responsável pelo feed de alterações de hóspedes e check-ins, lido de forma incremental pelos sistemas externos.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping(value="/api")
+public class ChangeFeedResource {
+
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	/*
+	 * Journal das alterações gravadas junto com hóspedes e check-ins.
+	 */
+	@Autowired
+	ChangeJournal changeJournal;
+
+	/**
+	 * Método responsável por listar as alterações publicadas após a última posição lida pelo consumidor.
+	 * <p>
+	 * O consumidor guarda a posição da última alteração processada e a informa na leitura seguinte; responde 410 quando
+	 * as alterações seguintes a essa posição já foram removidas pela retenção. A primeira leitura, com 0, nunca é recusada.
+	 * @param afterPosition Última posição já lida, ou 0 para ler desde a alteração mais antiga guardada.
+	 * @param limit Quantidade máxima de alterações.
+	 * @return {@link KeysetPage} de {@link ChangeEvent}, com a posição da próxima leitura caso a página esteja cheia.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/alteracoes")
+	public KeysetPage<ChangeEvent> findChanges(@RequestParam(value="apos", defaultValue="0") long afterPosition,
+			@RequestParam(value="limite", defaultValue="500") int limit) {
+		int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		List<ChangeEvent> items = changeJournal.read(afterPosition, size);
+		return new KeysetPage<>(items, items.size() == size ? items.get(size - 1).getPosition() : null);
+	}
+}
@@ -1,39 +1,126 @@
 package br.com.guest.resource;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInRejection;
+import br.com.guest.model.KeysetPage;
 import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.service.CheckInCsvExporter;
+import br.com.guest.service.CheckInImportService;
+import br.com.guest.service.CheckInRejectedException;
+import br.com.guest.service.CheckInService;
+import br.com.guest.service.CheckInWriteBehind;
+import br.com.guest.service.EntityCache;
+import br.com.guest.service.GuestBookingSummaryService;
+import br.com.guest.service.GuestSearchService;
+import br.com.guest.service.IdempotencyStore;
+import br.com.guest.service.NdjsonWriter;
+import br.com.guest.service.QuoteService;
 
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping(value="/api")
 public class CheckInResource {
 
-	private BigDecimal dailyWorkingDays = new BigDecimal("120");
-	private BigDecimal dailyWeekends = new BigDecimal("150");
-	private BigDecimal garageWorkingDays = new BigDecimal("15");
-	private BigDecimal garageWeekends = new BigDecimal("20"); 
-	
+	private static final int MAX_PAGE_SIZE = 1000;
+
 	/*
 	 * Interface que será consumida.
 	 */
 	@Autowired
 	CheckInRepository checkInRepository;
+
+	/*
+	 * Serviço responsável por calcular e gravar os check-ins.
+	 */
+	@Autowired
+	CheckInService checkInService;
+
+	/*
+	 * Cache das buscas de check-ins pelo código.
+	 */
+	@Autowired
+	EntityCache entityCache;
+
+	/*
+	 * Controle das gravações repetidas pelo cliente.
+	 */
+	@Autowired
+	IdempotencyStore idempotencyStore;
+
+	/*
+	 * Resumo das reservas de cada hóspede.
+	 */
+	@Autowired
+	GuestBookingSummaryService bookingSummaryService;
+
+	/*
+	 * Serviço responsável pelas cotações em lote.
+	 */
+	@Autowired
+	QuoteService quoteService;
+
+	/*
+	 * Serviço responsável pela importação em lote.
+	 */
+	@Autowired
+	CheckInImportService checkInImportService;
+
+	/*
+	 * Serviço responsável pela busca de hóspedes.
+	 */
+	@Autowired
+	GuestSearchService guestSearchService;
+
+	/*
+	 * Leitura com cursor das listagens completas.
+	 */
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	NdjsonWriter ndjsonWriter;
+
+	@Autowired
+	CheckInCsvExporter checkInCsvExporter;
+
+	/*
+	 * Aceite de check-ins gravados no banco em segundo plano.
+	 */
+	@Autowired
+	CheckInWriteBehind checkInWriteBehind;
 	
 	/**
 	 * Método responsável por listar todos os check-in salvos no banco de dados.
@@ -47,22 +134,81 @@ public class CheckInResource {
 		return checkInRepository.findAll();
 	}
 	
+	/**
+	 * Método responsável por listar os check-ins em páginas, usando o código como cursor (keyset).
+	 * @param afterId Código do último item da página anterior, ou 0 para a primeira página.
+	 * @param limit Quantidade máxima de itens da página.
+	 * @return {@link KeysetPage} de {@link CheckIn}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/checkins", params="limite")
+	public KeysetPage<CheckIn> findPage(@RequestParam(value="apos", defaultValue="0") long afterId, @RequestParam(value="limite") int limit){
+		int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		List<CheckIn> items = checkInRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+		return new KeysetPage<>(items, items.size() == size ? items.get(size - 1).getId() : null);
+	}
+	
+	/**
+	 * Método responsável por enviar os check-ins em NDJSON (um por linha), lidos do banco com um cursor, com uso de memória constante.
+	 * @param afterId Código a partir do qual os itens serão enviados (exclusivo), permitindo retomar uma leitura interrompida.
+	 * @return Conteúdo que será escrito na resposta, com o tipo NDJSON.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/checkins-stream", produces=NdjsonWriter.MEDIA_TYPE)
+	public ResponseEntity<StreamingResponseBody> stream(@RequestParam(value="apos", defaultValue="0") long afterId){
+		StreamingResponseBody body = output -> ndjsonWriter.<CheckIn>write(output, consumer -> cursorRepository.forEachCheckIn(afterId, Long.MAX_VALUE, consumer));
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);			//O TIPO NÃO É PREENCHIDO NAS RESPOSTAS EM STREAMING.
+	}
+	
+	/**
+	 * Método responsável por exportar os check-ins de uma faixa de códigos, com os dados dos hóspedes, em CSV compactado com gzip.
+	 * @param afterId Código a partir do qual os check-ins serão exportados (exclusivo), permitindo retomar uma exportação interrompida.
+	 * @param toId Último código exportado (inclusivo); sem ele, o maior código existente no início da exportação.
+	 * @param response Resposta onde o arquivo será escrito, à medida que as linhas forem lidas.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/checkins-export")
+	public void export(@RequestParam(value="apos", defaultValue="0") long afterId, @RequestParam(value="ate", required=false) Long toId,
+			HttpServletResponse response) throws IOException {
+		long lastId = toId != null ? toId : checkInRepository.findMaxId();						//CHECK-INS CRIADOS DURANTE A EXPORTAÇÃO FICAM PARA A PRÓXIMA FAIXA.
+		response.setContentType(CheckInCsvExporter.MEDIA_TYPE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"checkins-" + afterId + "-" + lastId + ".csv.gz\"");
+		checkInCsvExporter.export(response.getOutputStream(), afterId, lastId);
+	}
+	
 	/**
 	 * Método responsável por buscar um determinado check-in.
 	 * @param id Código do check-in que será buscado no banco de dados.
-	 * @return {@link CheckIn} que o banco de dados retornou.
+	 * @param request Requisição, cujo <code>If-None-Match</code> é comparado à ETag (versões do check-in e do hóspede).
+	 * @return {@link CheckIn} que o banco de dados retornou, ou null com 304 caso não tenha sido alterado.
+	 * @throws CheckInRejectedException Caso o check-in tenha sido aceito sem gravação imediata e depois recusado pelo banco (410).
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@GetMapping(value="/checkin/{id}")
-	public CheckIn findById(@PathVariable(value="id") long id){
-		return checkInRepository.findById(id);
+	public CheckIn findById(@PathVariable(value="id") long id, WebRequest request){
+		CheckIn checkIn = entityCache.findCheckIn(id);
+		if(checkIn == null) {
+			CheckInRejection rejection = checkInWriteBehind.findRejection(id);
+			if(rejection != null)
+				throw new CheckInRejectedException(id, rejection.getReason());
+		}
+		if(checkIn != null && request.checkNotModified(ETags.of(checkIn)))
+			return null;																		//304, SEM CORPO.
+		return checkIn;
 	}
 	
 	/**
 	 * Método responsável por buscar um determinado check-in.
-	 * @param name Nome do hóspede que realizou o check-in.
+	 * @param data Nome, documento ou telefone do hóspede que realizou o check-in.
 	 * @return {@link CheckIn} que o banco de dados retornou.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
@@ -70,21 +216,103 @@ public class CheckInResource {
 	 */
 	@GetMapping(value="/checkin_hospede/{data}")
 	public List<CheckIn> findByNameGuest(@PathVariable(value="data") String data) {
-		return checkInRepository.findByNameGuest(data);
+		return guestSearchService.searchCheckIns(data);
 	}
 
 	/**
 	 * Método responsável por salvar um determinado check-in no banco de dados.
 	 * @param checkIn {@link CheckIn} que será salvo.
+	 * @param idempotencyKey Chave que identifica a gravação, para que as repetições do cliente retornem o mesmo resultado.
+	 * @param ifMatch ETag lida pelo cliente, usada como versão do check-in no lugar da enviada no corpo; sem nenhuma das duas, a
+	 * alteração é feita sobre a versão atual.
 	 * @return Item que foi salvo no banco de dados, null caso nenhum seja salvo.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@PostMapping(value = "/checkin")
-	public CheckIn save(@RequestBody CheckIn checkIn) {
-		checkIn.setTotalCost(dailyTotals(checkIn));
-		return checkInRepository.save(checkIn);
+	public CheckIn save(@RequestBody CheckIn checkIn, @RequestHeader(value=IdempotencyStore.HEADER, required=false) String idempotencyKey,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch) {
+		Long version = ETags.version(ifMatch);
+		if(version != null)
+			checkIn.setVersion(version);
+		return idempotencyStore.execute("checkin", idempotencyKey, checkIn, CheckIn.class, () -> checkInService.save(checkIn));
+	}
+
+	/**
+	 * Método responsável por aceitar um check-in novo sem esperar a gravação no banco de dados.
+	 * <p>
+	 * O check-in é validado, calculado e registrado em um arquivo local, e a resposta 202 traz o código definitivo; a
+	 * gravação no banco ocorre em segundo plano, acompanhada em <code>/checkin-assincrono/situacao</code>. Com o aceite
+	 * desativado ou a fila cheia, o check-in é gravado na própria requisição, com resposta 200. As duas formas usam a
+	 * mesma chave de idempotência, então a repetição de um check-in aceito retorna o mesmo código mesmo que a fila tenha
+	 * enchido nesse meio tempo. A falta de quartos é respondida com 409 antes do aceite.
+	 * @param checkIn {@link CheckIn} novo, com o código do hóspede.
+	 * @param idempotencyKey Chave que identifica a gravação, para que as repetições do cliente retornem o mesmo resultado.
+	 * @return {@link CheckIn} aceito ou gravado, com código e custo total.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value = "/checkin-assincrono")
+	public ResponseEntity<CheckIn> accept(@RequestBody CheckIn checkIn,
+			@RequestHeader(value=IdempotencyStore.HEADER, required=false) String idempotencyKey) {
+		AtomicBoolean executed = new AtomicBoolean(), queued = new AtomicBoolean();
+		CheckIn result = idempotencyStore.execute("checkin-assincrono", idempotencyKey, checkIn, CheckIn.class, () -> {
+			executed.set(true);
+			if(!checkInWriteBehind.isAccepting())
+				return checkInService.save(checkIn);
+			String error = checkInWriteBehind.validate(checkIn);
+			if(error != null)
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+			queued.set(true);
+			return checkInWriteBehind.accept(checkIn);
+		});
+		if(executed.get() ? !queued.get() : checkInRepository.existsById(result.getId()))	//REPETIÇÃO: 200 SE JÁ ESTIVER NO BANCO.
+			return ResponseEntity.ok(result);
+		return ResponseEntity.accepted().location(URI.create("/api/checkin/" + result.getId())).body(result);
+	}
+
+	/**
+	 * Método responsável por retornar o andamento da gravação dos check-ins aceitos sem gravação imediata.
+	 * @return Quantidades de aceitos, gravados, pendentes e recusados, atraso e posições do arquivo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value = "/checkin-assincrono/situacao")
+	public Map<String, Object> findWriteBehindStatus() {
+		return checkInWriteBehind.status();
+	}
+
+	/**
+	 * Método responsável por cotar várias hospedagens em uma única chamada, sem salvá-las no banco de dados.
+	 * @param body Array JSON ou sequência NDJSON de {@link CheckIn} que serão cotados.
+	 * @param response Resposta onde será escrito, à medida que forem cotados, o array de {@link CheckIn} com o custo total.
+	 * @throws IOException Caso ocorra erro na leitura ou escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value = "/checkin/quotes")
+	public void quotes(InputStream body, HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		quoteService.quote(body, response.getOutputStream());
+	}
+
+	/**
+	 * Método responsável por importar vários check-ins em uma única chamada, gravando-os em lotes.
+	 * @param body Array JSON ou sequência NDJSON de {@link CheckIn} novos, com o código do hóspede.
+	 * @param response Resposta onde será escrito, à medida que os blocos forem gravados, o resultado de cada item.
+	 * @throws IOException Caso ocorra erro na leitura ou escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value = "/checkins/batch")
+	public void importBatch(InputStream body, HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		checkInImportService.importCheckIns(body, response.getOutputStream());
 	}
 
 	/**
@@ -97,7 +325,7 @@ public class CheckInResource {
 	 */
 	@GetMapping(value = "/valor_ultima_reserva/{id}")
 	public BigDecimal findLastBookingAmount(@PathVariable(value="id") long id) {
-		return checkInRepository.findLastBookingAmount(id);
+		return bookingSummaryService.find(id).getLastBookingAmount();
 	}
 
 	/**
@@ -110,77 +338,21 @@ public class CheckInResource {
 	 */
 	@GetMapping(value = "/total_reservas/{id}")
 	public BigDecimal findTotalAmountReservations(@PathVariable(value="id") long id) {
-		return checkInRepository.findTotalAmountReservations(id);
-	}
-	
-	/**
-	 * Método responsável por retornar o custo das diárias.
-	 * @param checkIn check-in que será calculado o custo.
-	 * @return Custo total da hospedagem.
-	 * @author Alysson Júnio da Silva Tostes
-	 * @version 1
-	 * @since 18.0.0
-	 */
-	private BigDecimal dailyTotals(CheckIn checkIn) {
-		int workingDays = 0;																	//QUANTIDADE DE DIAS ÚTEIS DAS DIÁRIAS.
-		int weekends = 0;																		//QUANTIDADE DE DIAS DE FINAIS DE SEMANAS DAS DIÁRIAS.
-		
-		Timestamp startDate = cleanDate(checkIn.getEntryDate());								//DEFINE A DATA INICIAL PARA O LOOP.
-		Timestamp finalDate = cleanDate(checkIn.getDepartureDate());							//DEFINE A DATA FINAL PARA O LOOP.
-		
-		do {
-			int dayWeek = getDayWeek(startDate);												//VERIFICA O DIA DA SEMANA.
-			workingDays = (dayWeek >= 2 && dayWeek <= 6) ? (workingDays + 1) : workingDays;		//SE O DIA FOR DE SEGUNDA A SEXTA, ADICIONA UM.
-			weekends = (dayWeek == 1 || dayWeek == 7) ? (weekends + 1) : weekends;				//SE O DIA FOR SÁBADO OU DOMINGO, ADICIONA UM.
-			
-			startDate = addTimestamp(startDate, 24, Calendar.HOUR);								//ADICIONA 24 HORAS NA DATA.
-		}while(startDate.before(finalDate));													//ENQUANTO A DATA FOR MENOR QUE A SAIDA, FAÇA:
-		
-		Calendar calendar = Calendar.getInstance(new Locale("pt", "BR"));						//CRIA UM CALENDAR. 
-		calendar.setTime(checkIn.getDepartureDate());											//SETA A DATA DE SAÍDA NO CALENDÁRIO.
-		calendar.set(Calendar.HOUR_OF_DAY, 16);													//SETA A HORA MÁXIMA NO CALENDAR.
-		calendar.set(Calendar.MINUTE, 30);														//SETA OS MINUTOS MÁXIMOS NO CALIENDAR.
-		calendar.set(Calendar.SECOND, 0);														//SETA OS SEGUNDOS MÁXIMOS NO CALIENDAR.
-		calendar.set(Calendar.MILLISECOND, 0);													//SETA OS MILISEGUNDOS MÁXIMOS NO CALIENDAR.		
-
-		if(checkIn.getDepartureDate().after(new Timestamp(calendar.getTimeInMillis()))) {
-			startDate = addTimestamp(startDate, 24, Calendar.HOUR);								//ADICIONA 24 HORAS NA DATA.
-			int dayWeek = getDayWeek(startDate);												//VERIFICA O DIA DA SEMANA.
-			workingDays = (dayWeek >= 2 && dayWeek <= 6) ? (workingDays + 1) : workingDays;		//SE O DIA FOR DE SEGUNDA A SEXTA, ADICIONA UM.
-			weekends = (dayWeek == 1 || dayWeek == 7) ? (weekends + 1) : weekends;				//SE O DIA FOR SÁBADO OU DOMINGO, ADICIONA UM.
-		}
-		
-		BigDecimal totalDailyWorkingDays = dailyWorkingDays.multiply(new BigDecimal(workingDays));	//VALOR DAS DIÁRIAS NOS DIAS ÚTEIS
-		BigDecimal totalDailyWeekends = dailyWeekends.multiply(new BigDecimal(weekends));		//VALOR DAS DIÁRIAS NOS FINAIS DE SEMANA.
-		BigDecimal totalGarageWorkingDays = BigDecimal.ZERO;									//VARIÁVEL PARA TOTAL DA GARAGEM NOS DIAS ÚTEIS
-		BigDecimal totalGarageWeekends = BigDecimal.ZERO; 										//VARIÁVEL PARA TOTAL DA GARAGEM NOS FINAIS DE SEMANA
-		
-		if(checkIn.isAdditionalVehicle()) {
-			totalGarageWorkingDays = garageWorkingDays.multiply(new BigDecimal(workingDays));	//CUSTO DA GARAGEM NOS DIAS ÚTEIS
-			totalGarageWeekends = garageWeekends.multiply(new BigDecimal(weekends)); 			//CUSTO DA GARAGEM NOS FINAIS DE SEMANA.
-		}
-		
-		return totalDailyWorkingDays.add(totalDailyWeekends).add(totalGarageWorkingDays).add(totalGarageWeekends);	//RETORNA A SOMATÓRIA DOS 4 VALORES.
+		return bookingSummaryService.find(id).getTotalAmount();
 	}
 
 	/**
-	 * Método responsável por pegar uma data e limpar o horário.
-	 * @param timestamp Data que será manipulado.
-	 * @return Data tratada.
+	 * Método responsável por recalcular o resumo das reservas de todos os hóspedes a partir dos check-ins salvos.
+	 * @return Quantidade de hóspedes com reservas.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
-	private Timestamp cleanDate(Timestamp timestamp) {
-		Calendar calendar = Calendar.getInstance(new Locale("pt", "BR"));						//CRIA UM CALENDAR.
-		calendar.setTime(timestamp);															//SETA A DATA DE ENTRADA NO CALENDÁRIO.
-		calendar.set(Calendar.HOUR_OF_DAY, 0);													//SETA A HORA NO CALENDAR.
-		calendar.set(Calendar.MINUTE, 0);														//SETA OS MINUTOS NO CALIENDAR.
-		calendar.set(Calendar.SECOND, 0);														//SETA OS SEGUNDOS NO CALIENDAR.
-		calendar.set(Calendar.MILLISECOND, 0);													//SETA OS MILISEGUNDOS NO CALIENDAR.
-		return new Timestamp(calendar.getTimeInMillis());
+	@PostMapping(value = "/total_reservas/recalcular")
+	public int rebuildBookingSummaries() {
+		return bookingSummaryService.rebuild();
 	}
-
+	
 	/**
 	 * Método responsável por retornar o dia da semana de uma data.
 	 * @param timestamp {@link Date} que será estraido o dia da semana.
@@ -0,0 +1,63 @@
+package br.com.guest.resource;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Classe responsável por gerar e ler as ETags dos hóspedes e check-ins, formadas pelas versões do bloqueio otimista.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+final class ETags {
+
+	private ETags() {
+	}
+
+	/**
+	 * Método responsável por gerar a ETag de um hóspede.
+	 * @param guest Hóspede.
+	 * @return ETag com a versão do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static String of(Guest guest) {
+		return "\"" + guest.getVersion() + "\"";
+	}
+
+	/**
+	 * Método responsável por gerar a ETag de um check-in, que muda também quando o hóspede incluído na resposta é alterado.
+	 * @param checkIn Check-in.
+	 * @return ETag com a versão do check-in e a do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static String of(CheckIn checkIn) {
+		return "\"" + checkIn.getVersion() + (checkIn.getGuest() == null ? "" : "-" + checkIn.getGuest().getVersion()) + "\"";
+	}
+
+	/**
+	 * Método responsável por ler a versão do registro de uma ETag enviada em <code>If-Match</code>.
+	 * @param etag ETag gerada por esta classe.
+	 * @return Versão do hóspede ou do check-in, ou null caso não seja informada ou não seja uma ETag desta classe.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static Long version(String etag) {
+		if(etag == null)
+			return null;
+		String value = etag.trim();
+		if(value.startsWith("W/"))
+			value = value.substring(2);
+		value = value.replace("\"", "");
+		int separator = value.indexOf('-');
+		try {
+			return Long.valueOf(separator < 0 ? value : value.substring(0, separator));
+		}catch(NumberFormatException e) {
+			return null;																		//EX.: "*", QUE NÃO INFORMA VERSÃO.
+		}
+	}
+}
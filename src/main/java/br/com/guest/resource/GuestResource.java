@@ -1,19 +1,42 @@
 package br.com.guest.resource;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.guest.model.Guest;
+import br.com.guest.model.KeysetPage;
+import br.com.guest.repository.CursorRepository;
 import br.com.guest.repository.GuestRepository;
+import br.com.guest.service.EntityCache;
+import br.com.guest.service.GuestSearchService;
+import br.com.guest.service.GuestService;
+import br.com.guest.service.GuestTypeaheadIndex;
+import br.com.guest.service.IdempotencyStore;
+import br.com.guest.service.NdjsonWriter;
+import br.com.guest.service.OccupancyIndex;
+import br.com.guest.service.OccupancySnapshot;
 
 /**
  * Classe responsável por manipular hóspedes.
@@ -26,11 +49,64 @@ import br.com.guest.repository.GuestRepository;
 @RequestMapping(value="/api")
 public class GuestResource {
 
+	private static final int MAX_PAGE_SIZE = 1000;
+
 	/*
 	 * Interface que será consumida.
 	 */
 	@Autowired
 	GuestRepository guestRepository;
+
+	/*
+	 * Serviço responsável pela busca de hóspedes.
+	 */
+	@Autowired
+	GuestSearchService guestSearchService;
+
+	/*
+	 * Serviço responsável por gravar hóspedes.
+	 */
+	@Autowired
+	GuestService guestService;
+
+	/*
+	 * Controle das gravações repetidas pelo cliente.
+	 */
+	@Autowired
+	IdempotencyStore idempotencyStore;
+
+	/*
+	 * Cache das buscas de hóspedes pelo código.
+	 */
+	@Autowired
+	EntityCache entityCache;
+
+	/*
+	 * Índice em memória usado nas sugestões de busca.
+	 */
+	@Autowired
+	GuestTypeaheadIndex guestTypeaheadIndex;
+
+	/*
+	 * Índice em memória dos períodos de hospedagem.
+	 */
+	@Autowired
+	OccupancyIndex occupancyIndex;
+
+	/*
+	 * Listas atuais de ocupação, compartilhadas entre os terminais.
+	 */
+	@Autowired
+	OccupancySnapshot occupancySnapshot;
+
+	/*
+	 * Leitura com cursor das listagens completas.
+	 */
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	NdjsonWriter ndjsonWriter;
 	
 	/**
 	 * Método responsável por listar todos os hóspedes salvos no banco de dados.
@@ -44,17 +120,51 @@ public class GuestResource {
 		return guestRepository.findAll();
 	}
 	
+	/**
+	 * Método responsável por listar os hóspedes em páginas, usando o código como cursor (keyset).
+	 * @param afterId Código do último item da página anterior, ou 0 para a primeira página.
+	 * @param limit Quantidade máxima de itens da página.
+	 * @return {@link KeysetPage} de {@link Guest}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/hospedes", params="limite")
+	public KeysetPage<Guest> findPage(@RequestParam(value="apos", defaultValue="0") long afterId, @RequestParam(value="limite") int limit){
+		int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		List<Guest> items = guestRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+		return new KeysetPage<>(items, items.size() == size ? items.get(size - 1).getId() : null);
+	}
+	
+	/**
+	 * Método responsável por enviar os hóspedes em NDJSON (um por linha), lidos do banco com um cursor, com uso de memória constante.
+	 * @param afterId Código a partir do qual os itens serão enviados (exclusivo), permitindo retomar uma leitura interrompida.
+	 * @return Conteúdo que será escrito na resposta, com o tipo NDJSON.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/hospedes-stream", produces=NdjsonWriter.MEDIA_TYPE)
+	public ResponseEntity<StreamingResponseBody> stream(@RequestParam(value="apos", defaultValue="0") long afterId){
+		StreamingResponseBody body = output -> ndjsonWriter.<Guest>write(output, consumer -> cursorRepository.forEachGuest(afterId, consumer));
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);			//O TIPO NÃO É PREENCHIDO NAS RESPOSTAS EM STREAMING.
+	}
+	
 	/**
 	 * Método responsável por buscar um determinado hóspede.
 	 * @param id Código do hóspede que será buscado no banco de dados.
-	 * @return Hóspede que o banco de dados retornou.
+	 * @param request Requisição, cujo <code>If-None-Match</code> é comparado à ETag (versão) do hóspede.
+	 * @return Hóspede que o banco de dados retornou, ou null com 304 caso não tenha sido alterado.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@GetMapping(value="/hospede/{id}")
-	public Guest findById(@PathVariable(value="id") long id){
-		return guestRepository.findById(id);
+	public Guest findById(@PathVariable(value="id") long id, WebRequest request){
+		Guest guest = entityCache.findGuest(id);
+		if(guest != null && request.checkNotModified(ETags.of(guest)))
+			return null;																		//304, SEM CORPO.
+		return guest;
 	}
 	
 	/**
@@ -67,44 +177,79 @@ public class GuestResource {
 	 */
 	@GetMapping(value="/hospedes/{data}")
 	public List<Guest> findByData(@PathVariable(value="data") String data){
-		return guestRepository.findByData(data);
+		return guestSearchService.search(data);
+	}
+	
+	/**
+	 * Método responsável por sugerir hóspedes enquanto o nome, documento ou telefone é digitado, sem consultar o banco de dados.
+	 * @param query Texto digitado, sendo que cada palavra deve estar contida no nome, documento ou telefone do hóspede.
+	 * @param limit Quantidade máxima de sugestões.
+	 * @return Lista de hóspedes sugeridos.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/hospedes-sugestoes")
+	public List<Guest> suggest(@RequestParam(value="q") String query, @RequestParam(value="limite", defaultValue="10") int limit){
+		return guestTypeaheadIndex.suggest(query, Math.min(limit, 100));
 	}
 	
 	/**
 	 * Método responsável por buscar os hóspedes que já fizeram check-in mas não estão mais no hotel.
-	 * @return Lista de hóspedes que o banco de dados retornou.
+	 * @param instant Instante consultado, ou o instante atual caso não seja informado.
+	 * @param accept Formatos aceitos pelo cliente.
+	 * @return Lista de hóspedes; sem instante, a lista atual já serializada por {@link OccupancySnapshot}.
+	 * @throws HttpMediaTypeNotAcceptableException Caso o cliente não aceite JSON, Smile nem CBOR.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@GetMapping(value="/hospedes-passado")
-	public List<Guest> findByCheckinOld(){
-		return guestRepository.findByCheckinOld();
+	public ResponseEntity<?> findByCheckinOld(@RequestParam(value="instante", required=false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime instant,
+			@RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept) throws HttpMediaTypeNotAcceptableException {
+		if(instant != null)
+			return ResponseEntity.ok(occupancyIndex.findCheckedOut(Timestamp.valueOf(instant)));
+		MediaType mediaType = occupancySnapshot.negotiate(accept);
+		return ResponseEntity.ok().contentType(mediaType).body(occupancySnapshot.checkedOut(mediaType));
 	}
 	
 	/**
 	 * Método responsável por buscar os hóspedes que estão no hotel.
-	 * @return Lista de hóspedes que o banco de dados retornou.
+	 * @param instant Instante consultado, ou o instante atual caso não seja informado.
+	 * @param accept Formatos aceitos pelo cliente.
+	 * @return Lista de hóspedes; sem instante, a lista atual já serializada por {@link OccupancySnapshot}.
+	 * @throws HttpMediaTypeNotAcceptableException Caso o cliente não aceite JSON, Smile nem CBOR.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@GetMapping(value="/hospedes-atuais")
-	public List<Guest> findByCheckinCurrent(){
-		return guestRepository.findByCheckinCurrent();
+	public ResponseEntity<?> findByCheckinCurrent(@RequestParam(value="instante", required=false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime instant,
+			@RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept) throws HttpMediaTypeNotAcceptableException {
+		if(instant != null)
+			return ResponseEntity.ok(occupancyIndex.findInHouse(Timestamp.valueOf(instant)));
+		MediaType mediaType = occupancySnapshot.negotiate(accept);
+		return ResponseEntity.ok().contentType(mediaType).body(occupancySnapshot.inHouse(mediaType));
 	}
 	
 	/**
 	 * Método responsável por salvar um hóspede.
 	 * @param guest Hóspede que será salvo, caso o id exista, será realizado o update, e caso não exista, será executado insert com id auto incremento.
+	 * @param idempotencyKey Chave que identifica a gravação, para que as repetições do cliente retornem o mesmo resultado.
+	 * @param ifMatch ETag lida pelo cliente, usada como versão do hóspede no lugar da enviada no corpo; sem nenhuma das duas, a
+	 * alteração é feita sobre a versão atual.
 	 * @return {@link Guest} que foi criado/modificado.
 	 * @author Alysson Júnio da Silva Tostes
 	 * @version 1
 	 * @since 1.0.0
 	 */
 	@PostMapping(value="/hospede")
-	public Guest save(@RequestBody Guest guest) {
-		return guestRepository.save(guest);
+	public Guest save(@RequestBody Guest guest, @RequestHeader(value=IdempotencyStore.HEADER, required=false) String idempotencyKey,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch) {
+		Long version = ETags.version(ifMatch);
+		if(version != null)
+			guest.setVersion(version);
+		return idempotencyStore.execute("hospede", idempotencyKey, guest, Guest.class, () -> guestService.save(guest));
 	}
 	
 	/**
@@ -117,6 +262,6 @@ public class GuestResource {
 	@CrossOrigin(origins = "*")
 	@DeleteMapping(value="/hospede")
 	public void delete(@RequestBody Guest guest) {
-		guestRepository.delete(guest);
+		guestService.delete(guest);
 	}
 }
@@ -0,0 +1,74 @@
+package br.com.guest.resource;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.guest.service.EntityCache;
+import br.com.guest.service.RateTableDefinition;
+import br.com.guest.service.RateTableService;
+
+/**
+ * Classe responsável por consultar e recarregar a tabela de tarifas.
+ * <p>
+ * Somente a consulta aceita chamadas de outras origens (CORS); a recarga exige o token compartilhado entre as instâncias.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping(value="/api")
+public class RateTableResource {
+
+	/*
+	 * Serviço que será consumido.
+	 */
+	@Autowired
+	RateTableService rateTableService;
+
+	/*
+	 * Verificação do token compartilhado entre as instâncias.
+	 */
+	@Autowired
+	EntityCache entityCache;
+
+	/**
+	 * Método responsável por retornar a tabela de tarifas vigente.
+	 * @return {@link RateTableDefinition} vigente.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@CrossOrigin(origins = "*")
+	@GetMapping(value="/tarifas")
+	public RateTableDefinition findCurrent() {
+		return rateTableService.get().getDefinition();
+	}
+
+	/**
+	 * Método responsável por recarregar a tabela de tarifas do arquivo configurado.
+	 * @param token Token compartilhado entre as instâncias, igual a <code>hotel.cache.peer-token</code>; sem ele configurado, a recarga é recusada.
+	 * @return {@link RateTableDefinition} carregada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value="/tarifas/recarregar")
+	public RateTableDefinition reload(@RequestHeader(value=EntityCache.TOKEN_HEADER, required=false) String token) {
+		if(!entityCache.acceptsToken(token))
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Token inválido.");
+		try {
+			return rateTableService.reload().getDefinition();
+		}catch (IOException | IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+}
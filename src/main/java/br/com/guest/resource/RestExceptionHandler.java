@@ -0,0 +1,104 @@
+package br.com.guest.resource;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import br.com.guest.service.ChangeFeedExpiredException;
+import br.com.guest.service.CheckInRejectedException;
+import br.com.guest.service.IdempotencyKeyReusedException;
+import br.com.guest.service.OverbookingException;
+
+/**
+ * Classe responsável por converter em respostas HTTP os erros comuns aos recursos REST.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+	/**
+	 * Método responsável por responder 503 quando não há conexão disponível com o banco dentro da espera configurada.
+	 * @param e Erro ao obter a conexão.
+	 * @return Resposta 503 com <code>Retry-After</code>.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler({ CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class })
+	public ResponseEntity<String> connectionUnavailable(Exception e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body("Banco de dados indisponível no momento, tente novamente.");
+	}
+
+	/**
+	 * Método responsável por responder 409 quando o check-in ocuparia uma noite sem quartos livres.
+	 * @param e Erro de disponibilidade.
+	 * @return Resposta 409 com a noite sem quartos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler(OverbookingException.class)
+	public ResponseEntity<String> overbooking(OverbookingException e) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+	}
+
+	/**
+	 * Método responsável por responder 409 quando o registro foi alterado por outra gravação desde a versão enviada.
+	 * @param e Erro do bloqueio otimista.
+	 * @return Resposta 409.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<String> staleVersion(ObjectOptimisticLockingFailureException e) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body("O registro foi alterado por outra gravação; busque a versão atual e tente novamente.");
+	}
+
+	/**
+	 * Método responsável por responder 422 quando a chave de idempotência é reutilizada com outro conteúdo.
+	 * @param e Erro da chave reutilizada.
+	 * @return Resposta 422.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler(IdempotencyKeyReusedException.class)
+	public ResponseEntity<String> idempotencyKeyReused(IdempotencyKeyReusedException e) {
+		return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+	}
+
+	/**
+	 * Método responsável por responder 410 quando o consumidor do feed de alterações está atrás da retenção.
+	 * @param e Erro da posição removida.
+	 * @return Resposta 410.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler(ChangeFeedExpiredException.class)
+	public ResponseEntity<String> changeFeedExpired(ChangeFeedExpiredException e) {
+		return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+	}
+
+	/**
+	 * Método responsável por responder 410 na busca de um check-in aceito e depois recusado pelo banco.
+	 * @param e Erro com o motivo da recusa.
+	 * @return Resposta 410 com o motivo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@ExceptionHandler(CheckInRejectedException.class)
+	public ResponseEntity<String> checkInRejected(CheckInRejectedException e) {
+		return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+	}
+}
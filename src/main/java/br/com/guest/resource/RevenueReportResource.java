@@ -0,0 +1,120 @@
+package br.com.guest.resource;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.guest.model.RevenueRollup;
+import br.com.guest.model.RevenueRollup.Granularity;
+import br.com.guest.service.RevenueReportService;
+
+/**
+ * Classe responsável pelos relatórios de receita e ocupação.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping(value="/api")
+public class RevenueReportResource {
+
+	private static final int MAX_PERIODS = 1000;
+
+	/*
+	 * Totais de receita por dia, semana e mês.
+	 */
+	@Autowired
+	RevenueReportService revenueReportService;
+
+	/**
+	 * Método responsável por listar a receita, as diárias e os adicionais de veículo de cada período de um intervalo.
+	 * @param from Primeiro dia do intervalo; o período que o contém é incluído inteiro.
+	 * @param to Último dia do intervalo.
+	 * @param grouping Agrupamento: <code>dia</code>, <code>semana</code> ou <code>mes</code>.
+	 * @return Lista de {@link RevenueRollup} dos períodos com diárias.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/relatorios/receita")
+	public List<RevenueRollup> findRevenue(@RequestParam(value="inicio") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(value="fim") @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(value="agrupamento", defaultValue="dia") String grouping) {
+		Granularity granularity = granularity(grouping);
+		if(to.isBefore(from) || periods(granularity, from, to) > MAX_PERIODS)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período inválido ou com mais de " + MAX_PERIODS + " agrupamentos.");
+		return revenueReportService.find(granularity, from, to);
+	}
+
+	/**
+	 * Método responsável por retornar a soma da receita, das diárias e dos adicionais de veículo de um intervalo qualquer.
+	 * @param from Primeiro dia do intervalo.
+	 * @param to Último dia do intervalo.
+	 * @return {@link RevenueRollup} com a soma do intervalo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@GetMapping(value="/relatorios/receita/total")
+	public RevenueRollup findRevenueTotal(@RequestParam(value="inicio") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(value="fim") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+		if(to.isBefore(from))
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período inválido.");
+		return revenueReportService.total(from, to);
+	}
+
+	/**
+	 * Método responsável por recalcular os totais de receita a partir dos check-ins.
+	 * @return Quantidade de períodos gravados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostMapping(value="/relatorios/receita/recalcular")
+	public int rebuildRevenue() {
+		return revenueReportService.rebuild();
+	}
+
+	/*
+	 * Agrupamento informado na requisição.
+	 */
+	private static Granularity granularity(String grouping) {
+		switch(grouping) {
+		case "dia":
+			return Granularity.DAY;
+		case "semana":
+			return Granularity.WEEK;
+		case "mes":
+			return Granularity.MONTH;
+		default:
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Agrupamento inválido: use dia, semana ou mes.");
+		}
+	}
+
+	/*
+	 * Quantidade aproximada de períodos do intervalo, para limitar o tamanho da resposta.
+	 */
+	private static long periods(Granularity granularity, LocalDate from, LocalDate to) {
+		switch(granularity) {
+		case WEEK:
+			return ChronoUnit.WEEKS.between(from, to);
+		case MONTH:
+			return ChronoUnit.MONTHS.between(from, to);
+		default:
+			return ChronoUnit.DAYS.between(from, to);
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package br.com.guest.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.model.Availability;
+import br.com.guest.model.CheckIn;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+
+/**
+ * Classe responsável por manter em memória a quantidade de quartos ocupados em cada noite, para responder se um
+ * período está disponível sem consultar a tabela de check-ins.
+ * <p>
+ * As noites ficam em blocos de {@value #BLOCK_SIZE} contadores ({@link AtomicIntegerArray}) indexados pelo dia desde
+ * 01/01/1970, criados sob demanda. Cada check-in ocupa da noite da entrada à noite anterior à saída (no mínimo uma),
+ * e também a noite da saída quando ela ocorre após {@link PricingEngine#LATE_CHECKOUT}. Essas são as noites em que o
+ * quarto fica de fato ocupado, e não as diárias cobradas: na saída tardia, o {@link PricingEngine} cobra a diária extra
+ * no dia seguinte ao da saída, regra herdada do cálculo original. As gravações atualizam os
+ * contadores dentro da transação, com compare-and-set noite a noite, e os desfazem caso a transação não seja confirmada;
+ * as consultas apenas leem os contadores, sem bloqueio. Com <code>hotel.availability.enforce=true</code>, a gravação que
+ * ocuparia uma noite sem quartos livres é recusada com {@link OverbookingException}.
+ * <p>
+ * Os contadores são desta instância e só veem as gravações feitas nela: com várias instâncias, cada uma responde com
+ * as próprias gravações desde a sua inicialização, e a recusa não impede que duas instâncias vendam o último quarto.
+ * Por isso a aplicação não inicia com <code>hotel.availability.enforce=true</code> e <code>hotel.cache.peers</code>
+ * configurados juntos.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class AvailabilityIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+	static final int BLOCK_BITS = 10;
+	static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+	/*
+	 * Retorno de reserve quando todas as noites foram ocupadas.
+	 */
+	static final long RESERVED = Long.MIN_VALUE;
+
+	private final ConcurrentMap<Long, AtomicIntegerArray> blocks = new ConcurrentHashMap<>();
+	private final ZoneId zone = ZoneId.systemDefault();
+
+	/*
+	 * Estado da montagem inicial: check-ins gravados antes de o cursor lê-los são contados pelo evento, e o cursor os ignora.
+	 */
+	private final Object buildLock = new Object();
+	private final Set<Long> countedDuringBuild = new HashSet<>();
+	private long buildPosition, buildLastId = Long.MAX_VALUE;								//ANTES DA MONTAGEM, TODO CHECK-IN É MARCADO.
+	private volatile boolean ready;
+
+	@Value("${hotel.availability.rooms:50}")
+	int rooms;
+
+	@Value("${hotel.availability.enforce:false}")
+	boolean enforce;
+
+	/*
+	 * Demais instâncias da aplicação, cujas gravações estes contadores não veem.
+	 */
+	@Value("${hotel.cache.peers:}")
+	String[] peers;
+
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@PostConstruct
+	void start() {
+		if(enforce && Arrays.stream(peers).anyMatch(StringUtils::hasText))
+			throw new IllegalStateException("hotel.availability.enforce=true exige uma única instância, mas hotel.cache.peers está configurado: "
+					+ "os contadores de cada instância não veem as gravações das demais.");
+	}
+
+	/**
+	 * Método responsável por contar as noites ocupadas pelos check-ins cadastrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		long start = System.currentTimeMillis();
+		synchronized(buildLock) {
+			buildLastId = checkInRepository.findMaxId();									//CÓDIGOS MAIORES SÃO CONTADOS SOMENTE PELOS EVENTOS.
+		}
+		cursorRepository.forEachCheckIn(0, buildLastId, checkIn -> {
+			synchronized(buildLock) {
+				buildPosition = checkIn.getId();
+				if(!countedDuringBuild.contains(checkIn.getId()))
+					reserve(checkIn, false);
+			}
+		});
+		synchronized(buildLock) {
+			ready = true;
+			countedDuringBuild.clear();
+		}
+		LOGGER.info("Disponibilidade de {} quarto(s) montada até o check-in {} em {} ms.", rooms, buildLastId,
+				System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Método responsável por ocupar as noites do check-in salvo e liberar as do período anterior, dentro da transação.
+	 * @param event {@link CheckInSavedEvent} com o check-in salvo e o estado anterior.
+	 * @throws OverbookingException Caso a verificação esteja ativa e alguma noite nova não tenha quartos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		CheckIn previous = event.getPrevious(), current = event.getCheckIn();
+		if(!ready)
+			skipInCursor(current.getId(), previous);
+		if(previous != null)
+			release(previous);
+		long full = reserve(current, enforce && ready);
+		if(full != RESERVED) {
+			if(previous != null)
+				reserve(previous, false);														//DEVOLVE O PERÍODO ANTERIOR ANTES DE RECUSAR.
+			throw new OverbookingException(LocalDate.ofEpochDay(full));
+		}
+		afterRollback(() -> {
+			release(current);
+			if(previous != null)
+				reserve(previous, false);
+		});
+	}
+
+	/**
+	 * Método responsável por ocupar as noites dos check-ins importados, dentro da transação do bloco.
+	 * @param event {@link CheckInsImportedEvent} com os check-ins criados.
+	 * @throws OverbookingException Caso a verificação esteja ativa e algum check-in não caiba, recusando o bloco inteiro.
+	 * Check-ins já ocupados no aceite ({@link CheckInsImportedEvent#isReserved()}) não são contados de novo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInsImported(CheckInsImportedEvent event) {
+		boolean check = enforce && ready;
+		if(!ready)
+			event.getCheckIns().forEach(checkIn -> skipInCursor(checkIn.getId(), null));
+		if(event.isReserved())
+			return;																				//NOITES OCUPADAS NO ACEITE, POR hold.
+		for(int i = 0; i < event.getCheckIns().size(); i++) {
+			long full = reserve(event.getCheckIns().get(i), check);
+			if(full != RESERVED) {
+				for(int j = 0; j < i; j++)
+					release(event.getCheckIns().get(j));
+				throw new OverbookingException(LocalDate.ofEpochDay(full));
+			}
+		}
+		afterRollback(() -> event.getCheckIns().forEach(this::release));
+	}
+
+	/**
+	 * Método responsável por ocupar as noites de um check-in aceito antes da gravação no banco, para que a falta de
+	 * quartos seja informada ao cliente no aceite, e não depois dele.
+	 * <p>
+	 * As noites ficam ocupadas até o check-in ser gravado, quando o evento da gravação não as conta de novo, ou até ser
+	 * recusado pelo banco, quando são liberadas por {@link #release(CheckIn)}.
+	 * @param checkIn Check-in validado, ainda não gravado.
+	 * @throws OverbookingException Caso a verificação esteja ativa e alguma noite não tenha quartos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void hold(CheckIn checkIn) {
+		long full = reserve(checkIn, enforce && ready);
+		if(full != RESERVED)
+			throw new OverbookingException(LocalDate.ofEpochDay(full));
+	}
+
+	/**
+	 * Método responsável por retornar os quartos livres em cada noite de um período.
+	 * @param firstNight Primeira noite do período.
+	 * @param lastNight Última noite do período (inclusiva).
+	 * @return {@link Availability} do período.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Availability availability(LocalDate firstNight, LocalDate lastNight) {
+		long first = firstNight.toEpochDay();
+		int[] free = new int[(int) Math.max(0, lastNight.toEpochDay() - first + 1)];
+		for(int i = 0; i < free.length; i++)
+			free[i] = Math.max(0, rooms - occupied(first + i));
+		return new Availability(firstNight, free);
+	}
+
+	/**
+	 * Método responsável por informar se há quarto livre em todas as noites de um período.
+	 * @param firstNight Primeira noite do período.
+	 * @param lastNight Última noite do período (inclusiva).
+	 * @return <code>true</code> caso o período inteiro esteja disponível.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isAvailable(LocalDate firstNight, LocalDate lastNight) {
+		for(long day = firstNight.toEpochDay(); day <= lastNight.toEpochDay(); day++)
+			if(occupied(day) >= rooms)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de quartos ocupados em uma noite.
+	 * @param epochDay Noite, em dias desde 01/01/1970.
+	 * @return Quantidade de quartos ocupados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public int occupied(long epochDay) {
+		AtomicIntegerArray block = blocks.get(epochDay >> BLOCK_BITS);
+		return block == null ? 0 : block.get((int) (epochDay & (BLOCK_SIZE - 1)));
+	}
+
+	/**
+	 * Método responsável por informar se a contagem inicial já terminou.
+	 * @return <code>true</code> caso os contadores incluam todos os check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Método responsável por ocupar as noites de um check-in, uma a uma com compare-and-set.
+	 * @param checkIn Check-in cujas noites serão ocupadas.
+	 * @param checkRooms <code>true</code> para recusar caso alguma noite não tenha quartos livres.
+	 * @return {@value #RESERVED} caso as noites tenham sido ocupadas, ou a noite sem quartos livres, sem alterar os contadores.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	long reserve(CheckIn checkIn, boolean checkRooms) {
+		long[] nights = nights(checkIn);
+		if(nights == null)
+			return RESERVED;
+		for(long day = nights[0]; day <= nights[1]; day++) {
+			AtomicIntegerArray block = blocks.computeIfAbsent(day >> BLOCK_BITS, key -> new AtomicIntegerArray(BLOCK_SIZE));
+			int index = (int) (day & (BLOCK_SIZE - 1));
+			int current;
+			do {
+				current = block.get(index);
+				if(checkRooms && current >= rooms) {
+					release(nights[0], day - 1);											//DESFAZ AS NOITES JÁ OCUPADAS.
+					return day;
+				}
+			}while(!block.compareAndSet(index, current, current + 1));
+		}
+		return RESERVED;
+	}
+
+	/**
+	 * Método responsável por liberar as noites de um check-in.
+	 * @param checkIn Check-in cujas noites serão liberadas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	void release(CheckIn checkIn) {
+		long[] nights = nights(checkIn);
+		if(nights != null)
+			release(nights[0], nights[1]);
+	}
+
+	private void release(long firstDay, long lastDay) {
+		for(long day = firstDay; day <= lastDay; day++)
+			blocks.get(day >> BLOCK_BITS).decrementAndGet((int) (day & (BLOCK_SIZE - 1)));
+	}
+
+	/*
+	 * Primeira e última noite ocupadas pelo check-in, ou null caso não tenha datas.
+	 */
+	private long[] nights(CheckIn checkIn) {
+		Timestamp entryDate = checkIn.getEntryDate(), departureDate = checkIn.getDepartureDate();
+		if(entryDate == null || departureDate == null)
+			return null;
+		long entryDay = LocalDateTime.ofInstant(entryDate.toInstant(), zone).toLocalDate().toEpochDay();
+		LocalDateTime departure = LocalDateTime.ofInstant(departureDate.toInstant(), zone);
+		long departureDay = departure.toLocalDate().toEpochDay();
+		long lastNight = Math.max(entryDay, departureDay - 1);
+		if(departureDay > lastNight && departure.toLocalTime().isAfter(PricingEngine.LATE_CHECKOUT))
+			lastNight = departureDay;															//O QUARTO FICA OCUPADO NA NOITE DA SAÍDA.
+		return new long[] { entryDay, lastNight };
+	}
+
+	/*
+	 * Durante a montagem, marca para o cursor ignorar um check-in que ele ainda não leu, pois o evento já o conta;
+	 * em uma alteração, o estado anterior é contado como se o cursor já o tivesse lido.
+	 */
+	private void skipInCursor(long checkInId, CheckIn previous) {
+		synchronized(buildLock) {
+			if(ready || checkInId <= buildPosition || checkInId > buildLastId || !countedDuringBuild.add(checkInId))
+				return;
+			if(previous != null)
+				reserve(previous, false);
+		}
+	}
+
+	/*
+	 * Executa a ação caso a transação atual não seja confirmada.
+	 */
+	private static void afterRollback(Runnable action) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive())
+			return;
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if(status != STATUS_COMMITTED)
+					action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,39 @@
+package br.com.guest.service;
+
+/**
+ * Exceção lançada quando um consumidor retoma o feed de alterações de uma posição cujas alterações seguintes já foram
+ * removidas pela retenção; o consumidor precisa recarregar as listagens completas antes de voltar ao feed.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class ChangeFeedExpiredException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long oldestPosition;
+
+	/**
+	 * Construtor da exceção.
+	 * @param afterPosition Posição informada pelo consumidor.
+	 * @param oldestPosition Posição mais antiga ainda guardada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public ChangeFeedExpiredException(long afterPosition, long oldestPosition) {
+		super("As alterações após a posição " + afterPosition + " já foram removidas; a mais antiga guardada é " + oldestPosition + ".");
+		this.oldestPosition = oldestPosition;
+	}
+
+	/**
+	 * Método responsável por retornar a posição mais antiga ainda guardada.
+	 * @return Posição mais antiga.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long getOldestPosition() {
+		return oldestPosition;
+	}
+}
@@ -0,0 +1,122 @@
+package br.com.guest.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.repository.ChangeEventRepository;
+
+/**
+ * Classe responsável por gravar o journal de alterações de hóspedes e check-ins, lido pelos sistemas externos (faturamento,
+ * governança) no lugar das listagens completas.
+ * <p>
+ * Cada alteração é gravada na mesma transação que a originou: uma gravação desfeita não gera alteração, e uma alteração
+ * confirmada nunca é perdida. A publicação, em ordem de commit, fica a cargo de {@link ChangeRelay}.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class ChangeJournal {
+
+	@Autowired
+	ChangeEventRepository changeEventRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Método responsável por gravar a criação ou alteração de um hóspede, dentro da transação que o gravou.
+	 * @param event Evento do hóspede salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onGuestSaved(GuestSavedEvent event) {
+		changeEventRepository.save(new ChangeEvent(ChangeEvent.GUEST, event.getGuest().getId(), event.getGuest().getVersion(),
+				event.getGuest().getVersion() == 0 ? ChangeEvent.CREATED : ChangeEvent.UPDATED, toJson(event.getGuest())));
+	}
+
+	/**
+	 * Método responsável por gravar a exclusão de um hóspede, dentro da transação que o excluiu.
+	 * @param event Evento do hóspede deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onGuestDeleted(GuestDeletedEvent event) {
+		changeEventRepository.save(new ChangeEvent(ChangeEvent.GUEST, event.getGuestId(), event.getVersion(), ChangeEvent.DELETED, null));
+	}
+
+	/**
+	 * Método responsável por gravar a criação ou alteração de um check-in, dentro da transação que o gravou.
+	 * @param event Evento do check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		changeEventRepository.save(new ChangeEvent(ChangeEvent.CHECK_IN, event.getCheckIn().getId(), event.getCheckIn().getVersion(),
+				event.isCreated() ? ChangeEvent.CREATED : ChangeEvent.UPDATED, toJson(event.getCheckIn())));
+	}
+
+	/**
+	 * Método responsável por gravar os check-ins importados, em lotes JDBC junto com os próprios check-ins.
+	 * @param event Evento dos check-ins importados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInsImported(CheckInsImportedEvent event) {
+		List<ChangeEvent> changes = new ArrayList<>(event.getCheckIns().size());
+		event.getCheckIns().forEach(c -> changes.add(new ChangeEvent(ChangeEvent.CHECK_IN, c.getId(), c.getVersion(), ChangeEvent.CREATED, toJson(c))));
+		changeEventRepository.saveAll(changes);
+	}
+
+	/**
+	 * Método responsável por ler as alterações publicadas a partir de uma posição do feed.
+	 * @param afterPosition Última posição já lida pelo consumidor, ou 0 para ler desde a alteração mais antiga guardada.
+	 * @param limit Quantidade máxima de alterações.
+	 * @return Lista de {@link ChangeEvent} em ordem de posição.
+	 * @throws ChangeFeedExpiredException Caso alterações posteriores a uma posição já lida tenham sido removidas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<ChangeEvent> read(long afterPosition, int limit) {
+		List<ChangeEvent> changes = changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(afterPosition, PageRequest.of(0, limit));
+		if(afterPosition > 0 && (changes.isEmpty() || changes.get(0).getPosition() != afterPosition + 1)) {	//POSIÇÕES SEM LACUNAS: FALTA A SEGUINTE SOMENTE SE FOI REMOVIDA.
+			Long oldest = changeEventRepository.findMinPosition();
+			if(oldest != null && oldest > afterPosition + 1)
+				throw new ChangeFeedExpiredException(afterPosition, oldest);
+		}
+		return changes;
+	}
+
+	/*
+	 * Entidade como é retornada pela API.
+	 */
+	private String toJson(Object entity) {
+		try {
+			return objectMapper.writeValueAsString(entity);
+		}catch (JsonProcessingException e) {
+			throw new IllegalStateException("Falha ao converter a alteração em JSON.", e);
+		}
+	}
+}
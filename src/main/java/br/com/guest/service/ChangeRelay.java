@@ -0,0 +1,195 @@
+package br.com.guest.service;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.model.ChangeSubscription;
+import br.com.guest.repository.ChangeEventRepository;
+import br.com.guest.repository.ChangePositionWriter;
+import br.com.guest.repository.ChangeSubscriptionRepository;
+
+/**
+ * Classe responsável por publicar o journal de alterações gravado por {@link ChangeJournal}.
+ * <p>
+ * A cada ciclo, as alterações confirmadas e ainda sem posição recebem posições seguidas, em lotes, na ordem em que o relay
+ * as encontra; como só alterações confirmadas são vistas, um consumidor que leu até uma posição nunca recebe depois uma
+ * alteração anterior a ela. Em seguida, os lotes novos são enviados (POST de uma lista em JSON) aos assinantes de
+ * <code>hotel.outbox.subscribers</code>, cada um a partir da última posição que confirmou com 2xx. A entrega é "pelo menos
+ * uma vez": o consumidor deve ignorar posições que já processou.
+ * <p>
+ * Com mais de uma instância, duas podem tentar numerar ao mesmo tempo. Cada alteração só recebe posição se ainda não
+ * tiver uma ({@link ChangePositionWriter}), e o índice único da posição recusa a mesma posição em alterações diferentes;
+ * nos dois casos o lote da segunda é desfeito, e ela tenta novamente no ciclo seguinte.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class ChangeRelay {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChangeRelay.class);
+
+	@Autowired
+	ChangeEventRepository changeEventRepository;
+
+	@Autowired
+	ChangePositionWriter changePositionWriter;
+
+	@Autowired
+	ChangeSubscriptionRepository subscriptionRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${hotel.outbox.batch-size:500}")
+	int batchSize;
+
+	/*
+	 * Tempo mínimo, em ms, que uma alteração publicada fica disponível no feed.
+	 */
+	@Value("${hotel.outbox.retention:604800000}")
+	long retention;
+
+	/*
+	 * Assinantes no formato nome=endereço, separados por vírgula.
+	 */
+	@Value("${hotel.outbox.subscribers:}")
+	String[] subscriberList;
+
+	private final Map<String, String> subscribers = new LinkedHashMap<>();
+	private RestTemplate restTemplate;
+
+	@PostConstruct
+	void start() {
+		for(String subscriber : subscriberList) {
+			if(!StringUtils.hasText(subscriber))
+				continue;
+			int separator = subscriber.indexOf('=');
+			if(separator <= 0 || !StringUtils.hasText(subscriber.substring(separator + 1)))
+				throw new IllegalArgumentException("Assinante inválido em hotel.outbox.subscribers (use nome=endereço): " + subscriber);
+			subscribers.put(subscriber.substring(0, separator).trim(), subscriber.substring(separator + 1).trim());
+		}
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(1000);
+		requestFactory.setReadTimeout(10000);
+		restTemplate = new RestTemplate(requestFactory);
+	}
+
+	/**
+	 * Método responsável por numerar as alterações confirmadas e enviá-las aos assinantes.
+	 * @return Quantidade de alterações numeradas no ciclo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(fixedDelayString = "${hotel.outbox.relay-interval:1000}")
+	public synchronized int relay() {
+		int published = 0, count;
+		try {
+			do {
+				count = transactionTemplate.execute(status -> assignPositions());
+				published += count;
+			}while(count == batchSize);
+		}catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+			LOGGER.debug("Lote numerado por outra instância; nova tentativa no próximo ciclo.");
+		}
+		subscribers.forEach(this::push);
+		return published;
+	}
+
+	/**
+	 * Método responsável por remover as alterações publicadas há mais tempo que a retenção e já entregues a todos os assinantes.
+	 * @return Quantidade de alterações removidas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(cron = "${hotel.outbox.prune-cron:0 15 * * * *}")
+	public int prune() {
+		Long last = changeEventRepository.findMaxPosition();
+		if(last == null)
+			return 0;
+		long position = last - 1;																//A ÚLTIMA FICA, POIS É A BASE DA PRÓXIMA NUMERAÇÃO.
+		for(String name : subscribers.keySet())
+			position = Math.min(position, subscriptionRepository.findById(name).map(ChangeSubscription::getPosition).orElse(0L));
+		int removed = changeEventRepository.deletePublished(position, new Timestamp(System.currentTimeMillis() - retention));
+		if(removed > 0)
+			LOGGER.info("{} alteração(ões) publicada(s) removida(s) do journal.", removed);
+		return removed;
+	}
+
+	/**
+	 * Método responsável por numerar, na transação atual, um lote de alterações ainda sem posição.
+	 * @return Quantidade de alterações numeradas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private int assignPositions() {
+		List<Long> pending = changeEventRepository.findUnpublishedIds(PageRequest.of(0, batchSize));
+		if(pending.isEmpty())
+			return 0;
+		Long last = changeEventRepository.findMaxPosition();
+		if(!changePositionWriter.assign(pending, (last == null ? 0 : last) + 1))					//A POSIÇÃO REPETIDA FALHA NO ÍNDICE ÚNICO.
+			throw new ConcurrencyFailureException("Alterações já numeradas por outra instância.");
+		return pending.size();
+	}
+
+	/**
+	 * Método responsável por enviar a um assinante as alterações posteriores à última posição que ele confirmou.
+	 * @param name Nome do assinante.
+	 * @param url Endereço que recebe os lotes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void push(String name, String url) {
+		ChangeSubscription subscription = subscriptionRepository.findById(name).orElseGet(() -> new ChangeSubscription(name));
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		List<ChangeEvent> changes;
+		do {
+			changes = changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(subscription.getPosition(), PageRequest.of(0, batchSize));
+			if(changes.isEmpty())
+				return;
+			try {
+				restTemplate.postForLocation(url, new HttpEntity<>(objectMapper.writeValueAsBytes(changes), headers));
+			}catch (RestClientException | JsonProcessingException e) {
+				LOGGER.warn("Falha ao enviar alterações a {} após a posição {}; nova tentativa no próximo ciclo: {}", name,
+						subscription.getPosition(), e.getMessage());
+				return;
+			}
+			subscription.setPosition(changes.get(changes.size() - 1).getPosition());
+			subscription = subscriptionRepository.save(subscription);
+		}while(changes.size() == batchSize);
+	}
+}
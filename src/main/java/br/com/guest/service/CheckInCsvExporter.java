@@ -0,0 +1,161 @@
+package br.com.guest.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CursorRepository;
+
+/**
+ * Classe responsável por exportar o histórico de check-ins, com os dados dos hóspedes, em CSV compactado com gzip.
+ * <p>
+ * As linhas são lidas com o cursor de {@link CursorRepository} e escritas à medida que chegam, com uso de memória constante.
+ * Os check-ins saem em ordem crescente de código, que é a primeira coluna: uma exportação interrompida é retomada a partir
+ * do último código recebido, e exportações grandes podem ser divididas em faixas de códigos.
+ * <p>
+ * Textos que começam com <code>=</code>, <code>+</code>, <code>-</code>, <code>@</code>, tabulação ou retorno de carro
+ * recebem um apóstrofo na frente, para que planilhas não os executem como fórmulas.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class CheckInCsvExporter {
+
+	/**
+	 * Tipo de conteúdo das exportações.
+	 */
+	public static final String MEDIA_TYPE = "application/gzip";
+
+	private static final String HEADER = "id,entry_date,departure_date,additional_vehicle,total_cost,version,"
+			+ "guest_id,guest_name,guest_document,guest_telephone,guest_version\n";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	@Autowired
+	CursorRepository cursorRepository;
+
+	/*
+	 * Nível de compressão do gzip: 1 prioriza a velocidade, 9 o tamanho do arquivo.
+	 */
+	@Value("${hotel.export.compression-level:1}")
+	int compressionLevel;
+
+	/**
+	 * Método responsável por escrever os check-ins de uma faixa de códigos em CSV compactado.
+	 * @param output Saída onde o arquivo será escrito.
+	 * @param afterId Código a partir do qual os check-ins serão exportados (exclusivo).
+	 * @param toId Último código exportado (inclusivo).
+	 * @return Quantidade de check-ins exportados.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long export(OutputStream output, long afterId, long toId) throws IOException {
+		GZIPOutputStream gzip = new GZIPOutputStream(output, BUFFER_SIZE) {
+			{
+				def.setLevel(compressionLevel);
+			}
+		};
+		long[] count = new long[1];
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			writer.write(HEADER);
+			cursorRepository.forEachCheckIn(afterId, toId, checkIn -> {
+				try {
+					writeRow(writer, checkIn);
+				}catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				count[0]++;
+			});
+		}catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return count[0];
+	}
+
+	/**
+	 * Método responsável por escrever a linha de um check-in.
+	 * @param writer Saída do CSV.
+	 * @param checkIn Check-in lido do cursor.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static void writeRow(Writer writer, CheckIn checkIn) throws IOException {
+		writer.write(Long.toString(checkIn.getId()));
+		writer.write(',');
+		writeTimestamp(writer, checkIn.getEntryDate());
+		writer.write(',');
+		writeTimestamp(writer, checkIn.getDepartureDate());
+		writer.write(',');
+		writer.write(checkIn.isAdditionalVehicle() ? "true" : "false");
+		writer.write(',');
+		if(checkIn.getTotalCost() != null)
+			writer.write(checkIn.getTotalCost().toPlainString());
+		writer.write(',');
+		if(checkIn.getVersion() != null)
+			writer.write(checkIn.getVersion().toString());
+		writer.write(',');
+		Guest guest = checkIn.getGuest();
+		if(guest != null) {																		//CHECK-INS SEM HÓSPEDE FICAM COM AS COLUNAS VAZIAS.
+			writer.write(Long.toString(guest.getId()));
+			writer.write(',');
+			writeText(writer, guest.getName());
+			writer.write(',');
+			writeText(writer, guest.getDocument());
+			writer.write(',');
+			writeText(writer, guest.getTelephone());
+			writer.write(',');
+			if(guest.getVersion() != null)
+				writer.write(guest.getVersion().toString());
+		}else {
+			writer.write(",,,,");
+		}
+		writer.write('\n');
+	}
+
+	/*
+	 * Data/hora no formato ISO-8601, sem fuso (como gravada no banco).
+	 */
+	private static void writeTimestamp(Writer writer, Timestamp timestamp) throws IOException {
+		if(timestamp != null)
+			writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime()));
+	}
+
+	/*
+	 * Texto entre aspas somente quando contém vírgula, aspas ou quebra de linha, com aspas duplicadas (RFC 4180).
+	 */
+	private static void writeText(Writer writer, String text) throws IOException {
+		if(text == null)
+			return;
+		if(!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0)
+			text = "'" + text;																	//INÍCIO DE FÓRMULA NAS PLANILHAS.
+		boolean quote = false;
+		for(int i = 0; i < text.length() && !quote; i++) {
+			char c = text.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if(!quote) {
+			writer.write(text);
+			return;
+		}
+		writer.write('"');
+		writer.write(text.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
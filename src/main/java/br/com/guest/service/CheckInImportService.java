@@ -0,0 +1,292 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInImportResult;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por importar check-ins em lote (reservas de grupo e canais de venda).
+ * <p>
+ * A entrada é lida em blocos. Enquanto um bloco é gravado no banco, em uma única transação com inserts em lote, o
+ * bloco seguinte já é lido, validado e calculado, e o resultado de cada item é escrito na saída na ordem da entrada.
+ * Quando o banco ou a disponibilidade recusam um bloco, os seus itens são gravados um a um e somente os recusados são
+ * rejeitados; outros erros na gravação rejeitam somente os itens do seu bloco.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class CheckInImportService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CheckInImportService.class);
+
+	/*
+	 * Quantidade de check-ins gravados por transação, múltiplo do tamanho do lote JDBC.
+	 */
+	static final int CHUNK_SIZE = 500;
+
+	@Autowired
+	PricingEngine pricingEngine;
+
+	@Autowired
+	CheckInService checkInService;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/*
+	 * Quantidade de importações que podem gravar no banco ao mesmo tempo.
+	 */
+	@Value("${hotel.import.writer-threads:2}")
+	int writerThreads;
+
+	private ExecutorService writers;
+
+	@PostConstruct
+	void start() {
+		AtomicInteger sequence = new AtomicInteger();
+		writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "importacao-checkin-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	void stop() {
+		writers.shutdown();
+	}
+
+	/**
+	 * Método responsável por importar os check-ins lidos da entrada e escrever o resultado de cada um na saída.
+	 * @param input Entrada contendo um array JSON ou uma sequência de objetos JSON (NDJSON) de {@link CheckIn}.
+	 * @param output Saída onde será escrito o array JSON de {@link CheckInImportResult}, na mesma ordem da entrada.
+	 * @throws IOException Caso ocorra erro na leitura ou escrita, inclusive JSON inválido.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void importCheckIns(InputStream input, OutputStream output) throws IOException {
+		long start = System.currentTimeMillis();
+		long index = 0;
+		try (MappingIterator<CheckIn> iterator = objectMapper.readerFor(CheckIn.class).readValues(input);
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+			generator.writeStartArray();
+			Future<CheckInImportResult[]> pending = null;
+			List<CheckIn> chunk = new ArrayList<>(CHUNK_SIZE);
+			while(iterator.hasNextValue()) {
+				chunk.add(iterator.nextValue());
+				if(chunk.size() == CHUNK_SIZE) {
+					pending = pipeline(chunk, index, pending, generator);
+					index += chunk.size();
+					chunk = new ArrayList<>(CHUNK_SIZE);
+				}
+			}
+			if(!chunk.isEmpty()) {
+				pending = pipeline(chunk, index, pending, generator);
+				index += chunk.size();
+			}
+			if(pending != null)
+				write(pending, generator);
+			generator.writeEndArray();
+		}
+		LOGGER.info("Importação de {} check-in(s) concluída em {} ms.", index, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Método responsável por preparar um bloco, escrever o resultado do bloco anterior e enviar o bloco para gravação.
+	 * @param chunk Bloco de check-ins lidos.
+	 * @param firstIndex Posição do primeiro item do bloco na entrada.
+	 * @param previous Gravação do bloco anterior, ou <code>null</code> caso seja o primeiro.
+	 * @param generator Gerador JSON da saída.
+	 * @return Gravação do bloco.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private Future<CheckInImportResult[]> pipeline(List<CheckIn> chunk, long firstIndex, Future<CheckInImportResult[]> previous,
+			JsonGenerator generator) throws IOException {
+		CheckInImportResult[] results = prepare(chunk, firstIndex);							//EM PARALELO COM A GRAVAÇÃO DO BLOCO ANTERIOR.
+		if(previous != null)
+			write(previous, generator);														//NO MÁXIMO UM BLOCO GRAVANDO POR IMPORTAÇÃO.
+		return writers.submit(() -> persist(chunk, firstIndex, results));
+	}
+
+	/**
+	 * Método responsável por validar e calcular o custo dos check-ins de um bloco.
+	 * @param chunk Bloco de check-ins lidos.
+	 * @param firstIndex Posição do primeiro item do bloco na entrada.
+	 * @return Resultados do bloco, preenchidos somente para os itens rejeitados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private CheckInImportResult[] prepare(List<CheckIn> chunk, long firstIndex) {
+		CheckInImportResult[] results = new CheckInImportResult[chunk.size()];
+		IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+			CheckIn checkIn = chunk.get(i);
+			String error = validate(checkIn);
+			if(error != null)
+				results[i] = CheckInImportResult.rejected(firstIndex + i, error);
+			else
+				checkIn.setTotalCost(pricingEngine.dailyTotals(checkIn));
+		});
+
+		Set<Long> guestIds = new HashSet<>();
+		for(int i = 0; i < results.length; i++) {
+			if(results[i] == null)
+				guestIds.add(chunk.get(i).getGuest().getId());
+		}
+		if(!guestIds.isEmpty()) {
+			Set<Long> existing = new HashSet<>(guestRepository.findExistingIds(guestIds));		//UMA CONSULTA POR BLOCO.
+			for(int i = 0; i < results.length; i++) {
+				if(results[i] == null && !existing.contains(chunk.get(i).getGuest().getId()))
+					results[i] = CheckInImportResult.rejected(firstIndex + i, "Hóspede " + chunk.get(i).getGuest().getId() + " não encontrado.");
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Método responsável por validar os dados obrigatórios de um check-in importado.
+	 * @param checkIn Check-in lido.
+	 * @return Motivo da rejeição, ou <code>null</code> caso seja válido.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static String validate(CheckIn checkIn) {
+		if(checkIn == null)
+			return "Check-in vazio.";
+		if(checkIn.getId() != 0)
+			return "O código do check-in não deve ser informado na importação.";
+		if(checkIn.getGuest() == null || checkIn.getGuest().getId() <= 0)
+			return "O código do hóspede é obrigatório.";
+		if(checkIn.getEntryDate() == null || checkIn.getDepartureDate() == null)
+			return "As datas de entrada e saída são obrigatórias.";
+		return null;
+	}
+
+	/**
+	 * Método responsável por gravar os itens válidos de um bloco e completar os resultados.
+	 * @param chunk Bloco de check-ins preparados.
+	 * @param firstIndex Posição do primeiro item do bloco na entrada.
+	 * @param results Resultados do bloco, preenchidos para os itens rejeitados.
+	 * @return Resultados de todos os itens do bloco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private CheckInImportResult[] persist(List<CheckIn> chunk, long firstIndex, CheckInImportResult[] results) {
+		List<CheckIn> valid = new ArrayList<>(chunk.size());
+		for(int i = 0; i < results.length; i++) {
+			if(results[i] == null)
+				valid.add(chunk.get(i));
+		}
+		if(valid.isEmpty())
+			return results;
+		try {
+			checkInService.importAll(valid);
+			for(int i = 0; i < results.length; i++) {
+				if(results[i] == null)
+					results[i] = CheckInImportResult.saved(firstIndex + i, chunk.get(i));
+			}
+		}catch (DataIntegrityViolationException | OverbookingException e) {
+			LOGGER.warn("Bloco iniciado na posição {} da importação recusado; gravando os itens um a um.", firstIndex, e);
+			for(int i = 0; i < results.length; i++) {
+				if(results[i] == null)
+					results[i] = persist(chunk.get(i), firstIndex + i);						//SOMENTE OS ITENS RECUSADOS FICAM DE FORA.
+			}
+		}catch (RuntimeException e) {
+			LOGGER.warn("Falha ao gravar o bloco iniciado na posição {} da importação.", firstIndex, e);
+			String error = "Falha ao gravar o bloco: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+			for(int i = 0; i < results.length; i++) {
+				if(results[i] == null)
+					results[i] = CheckInImportResult.rejected(firstIndex + i, error);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Método responsável por gravar sozinho um item de um bloco recusado pelo banco ou pela disponibilidade.
+	 * @param checkIn Check-in preparado, com o código e a versão atribuídos na tentativa do bloco.
+	 * @param index Posição do item na entrada.
+	 * @return Resultado do item.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private CheckInImportResult persist(CheckIn checkIn, long index) {
+		checkIn.setId(0);																	//O CÓDIGO DO BLOCO DESFEITO NÃO FOI GRAVADO.
+		checkIn.setVersion(null);
+		try {
+			checkInService.importAll(Collections.singletonList(checkIn));
+			return CheckInImportResult.saved(index, checkIn);
+		}catch (DataIntegrityViolationException | OverbookingException e) {
+			return CheckInImportResult.rejected(index, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+		}catch (RuntimeException e) {
+			LOGGER.warn("Falha ao gravar o item {} da importação.", index, e);
+			return CheckInImportResult.rejected(index, "Falha ao gravar o item: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+		}
+	}
+
+	/**
+	 * Método responsável por aguardar a gravação de um bloco e escrever os resultados na saída.
+	 * @param pending Gravação do bloco.
+	 * @param generator Gerador JSON da saída.
+	 * @throws IOException Caso ocorra erro na escrita ou a gravação seja interrompida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static void write(Future<CheckInImportResult[]> pending, JsonGenerator generator) throws IOException {
+		CheckInImportResult[] results;
+		try {
+			results = pending.get();
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Importação interrompida.", e);
+		}catch (ExecutionException e) {
+			throw new IOException("Falha na gravação da importação.", e.getCause());
+		}
+		for(CheckInImportResult result : results)
+			generator.writeObject(result);
+		generator.flush();
+	}
+}
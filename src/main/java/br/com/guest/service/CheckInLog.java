@@ -0,0 +1,233 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Classe responsável pelo arquivo local onde os check-ins aceitos sem gravação no banco ficam até serem gravados.
+ * <p>
+ * Cada registro é gravado como tamanho, CRC32 e conteúdo. Vários aceites simultâneos são confirmados no disco por um
+ * único <code>fsync</code> (commit em grupo). Um segundo arquivo guarda a posição até onde os registros já estão no
+ * banco; na inicialização, os registros a partir dela são relidos, e um registro final incompleto (queda durante a
+ * escrita, antes do <code>fsync</code> e portanto sem confirmação ao cliente) é descartado.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+final class CheckInLog implements AutoCloseable {
+
+	private static final int HEADER_SIZE = 8;
+
+	private final FileChannel channel;
+	private final Path checkpointFile;
+	private final Object syncLock = new Object();
+	private long written, checkpoint;
+	private volatile long synced;
+
+	/**
+	 * Registro lido do arquivo.
+	 */
+	static final class Record {
+
+		final byte[] content;
+		final long end;
+
+		Record(byte[] content, long end) {
+			this.content = content;
+			this.end = end;
+		}
+	}
+
+	/**
+	 * Construtor responsável por abrir, ou criar, o arquivo em um diretório.
+	 * @param directory Diretório do arquivo e da posição gravada.
+	 * @throws IOException Caso ocorra erro ao abrir os arquivos.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	CheckInLog(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		channel = FileChannel.open(directory.resolve("checkins.log"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		checkpointFile = directory.resolve("checkins.checkpoint");
+		if(Files.exists(checkpointFile))
+			checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+		checkpoint = Math.min(checkpoint, channel.size());										//POSIÇÃO ALÉM DO FIM DE UM ARQUIVO SUBSTITUÍDO.
+	}
+
+	/**
+	 * Método responsável por ler os registros ainda não gravados no banco, descartando um registro final incompleto.
+	 * @return Registros a partir da posição gravada, na ordem do arquivo.
+	 * @throws IOException Caso ocorra erro na leitura.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	synchronized List<Record> replay() throws IOException {
+		List<Record> records = new ArrayList<>();
+		long position = checkpoint, size = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while(position + HEADER_SIZE <= size) {
+			header.clear();
+			readFully(header, position);
+			header.flip();
+			int length = header.getInt();
+			long crc = header.getInt() & 0xFFFFFFFFL;
+			if(length < 0 || position + HEADER_SIZE + length > size)
+				break;
+			ByteBuffer content = ByteBuffer.allocate(length);
+			readFully(content, position + HEADER_SIZE);
+			if(crc(content.array()) != crc)
+				break;
+			position += HEADER_SIZE + length;
+			records.add(new Record(content.array(), position));
+		}
+		channel.truncate(position);
+		written = synced = position;
+		return records;
+	}
+
+	/**
+	 * Método responsável por acrescentar um registro ao final do arquivo, sem esperar a confirmação no disco.
+	 * @param content Conteúdo do registro.
+	 * @return Posição do final do registro, a ser passada para {@link #sync(long)}.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	synchronized long append(byte[] content) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + content.length);
+		buffer.putInt(content.length).putInt((int) crc(content)).put(content).flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer, written + buffer.position());
+		written += HEADER_SIZE + content.length;
+		return written;
+	}
+
+	/**
+	 * Método responsável por esperar que o arquivo esteja confirmado no disco até uma posição.
+	 * <p>
+	 * Quem chega enquanto outro <code>fsync</code> está em andamento espera por ele e, se ainda preciso, faz um único
+	 * <code>fsync</code> cobrindo todos os registros escritos até então.
+	 * @param end Posição do final do registro.
+	 * @throws IOException Caso ocorra erro na confirmação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	void sync(long end) throws IOException {
+		if(synced >= end)
+			return;
+		synchronized(syncLock) {
+			if(synced >= end)
+				return;
+			long target;
+			synchronized(this) {
+				target = written;
+			}
+			channel.force(false);
+			synced = target;
+		}
+	}
+
+	/**
+	 * Método responsável por retornar a posição até onde o arquivo está confirmado no disco.
+	 * @return Posição confirmada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	long synced() {
+		return synced;
+	}
+
+	/**
+	 * Método responsável por registrar que os registros até uma posição já estão no banco e, caso todos estejam e o arquivo
+	 * tenha passado do tamanho máximo, esvaziá-lo.
+	 * @param end Posição do final do último registro gravado no banco.
+	 * @param maxSize Tamanho a partir do qual o arquivo é esvaziado.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	void checkpoint(long end, long maxSize) throws IOException {
+		synchronized(syncLock) {																//NENHUM FSYNC EM ANDAMENTO DURANTE O ESVAZIAMENTO.
+			synchronized(this) {
+				if(end == written && written >= maxSize) {
+					writeCheckpoint(0);															//ANTES DE ESVAZIAR: UMA QUEDA NO MEIO RELÊ REGISTROS JÁ GRAVADOS.
+					channel.truncate(0);
+					channel.force(false);
+					written = synced = checkpoint = 0;
+					return;
+				}
+				checkpoint = end;
+			}
+		}
+		writeCheckpoint(end);
+	}
+
+	/*
+	 * Grava a posição em um arquivo temporário e o renomeia, para que a posição anterior seja mantida em caso de queda.
+	 */
+	private void writeCheckpoint(long end) throws IOException {
+		Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+		try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(end);
+			buffer.flip();
+			while(buffer.hasRemaining())
+				file.write(buffer);
+			file.force(true);
+		}
+		Files.move(temporary, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Método responsável por retornar o tamanho do arquivo.
+	 * @return Bytes escritos, inclusive os já gravados no banco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	synchronized long size() {
+		return written;
+	}
+
+	/**
+	 * Método responsável por retornar a posição até onde os registros já estão no banco.
+	 * @return Posição gravada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	synchronized long checkpoint() {
+		return checkpoint;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Fim inesperado do arquivo de check-ins.");
+		}
+	}
+
+	private static long crc(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content, 0, content.length);
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,24 @@
+package br.com.guest.service;
+
+/**
+ * Exceção lançada na busca de um check-in aceito sem gravação imediata e depois recusado pelo banco.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class CheckInRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 * @param id Código do check-in aceito.
+	 * @param reason Motivo da recusa.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInRejectedException(long id, String reason) {
+		super("O check-in " + id + " foi aceito e depois recusado na gravação: " + reason);
+	}
+}
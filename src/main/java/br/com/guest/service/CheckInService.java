@@ -0,0 +1,113 @@
+package br.com.guest.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por calcular, gravar check-ins e avisar os demais componentes sobre as alterações.
+ * <p>
+ * Os eventos são publicados dentro da transação, como em {@link GuestService}: quem grava outras tabelas os ouve com
+ * {@link org.springframework.context.event.EventListener} e quem mantém estruturas em memória com
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class CheckInService {
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	PricingEngine pricingEngine;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Método responsável por calcular o custo e salvar um check-in.
+	 * @param checkIn Check-in que será salvo, caso o id exista, será realizado o update, e caso não exista, será executado insert.
+	 * Sem versão informada, o update é feito sobre a versão atual.
+	 * @return {@link CheckIn} que foi criado/modificado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	public CheckIn save(CheckIn checkIn) {
+		CheckIn stored = checkIn.getId() > 0 ? checkInRepository.findById(checkIn.getId()) : null;
+		CheckIn previous = stored == null ? null : copyOf(stored);								//CÓPIA, POIS O MERGE SOBRESCREVE A ENTIDADE GERENCIADA.
+		if(checkIn.getVersion() == null && checkIn.getId() > 0)
+			checkIn.setVersion(stored == null ? 0L : stored.getVersion());						//SEM VERSÃO INFORMADA, A ÚLTIMA GRAVAÇÃO PREVALECE.
+		useGuestReference(checkIn);
+		checkIn.setTotalCost(pricingEngine.dailyTotals(checkIn));
+		CheckIn saved = checkInRepository.saveAndFlush(checkIn);								//FLUSH PARA O ID ESTAR PREENCHIDO NO EVENTO.
+		eventPublisher.publishEvent(new CheckInSavedEvent(saved, previous));
+		return saved;
+	}
+
+	/**
+	 * Método responsável por gravar, em uma única transação, check-ins novos já calculados.
+	 * <p>
+	 * Os inserts são enviados em lotes JDBC no flush, e os demais componentes recebem um único {@link CheckInsImportedEvent}.
+	 * @param checkIns Check-ins novos, com o custo total e o hóspede já definidos.
+	 * @return Lista de {@link CheckIn} gravados, com os códigos preenchidos.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	public List<CheckIn> importAll(List<CheckIn> checkIns) {
+		checkIns.forEach(this::useGuestReference);
+		List<CheckIn> saved = checkInRepository.saveAll(checkIns);
+		eventPublisher.publishEvent(new CheckInsImportedEvent(saved));
+		checkInRepository.flush();
+		return saved;
+	}
+
+	/**
+	 * Método responsável por trocar o hóspede enviado só com o id por uma referência gerenciada, pois sem versão ele
+	 * seria tratado como um hóspede novo.
+	 * @param checkIn Check-in que será gravado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void useGuestReference(CheckIn checkIn) {
+		if(checkIn.getGuest() != null && checkIn.getGuest().getVersion() == null)
+			checkIn.setGuest(guestRepository.getById(checkIn.getGuest().getId()));				//SEM CONSULTA, APENAS A CHAVE ESTRANGEIRA.
+	}
+
+	/**
+	 * Método responsável por copiar os dados de um check-in.
+	 * @param checkIn Check-in que será copiado.
+	 * @return Cópia do {@link CheckIn}, com a mesma referência de hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static CheckIn copyOf(CheckIn checkIn) {
+		CheckIn copy = new CheckIn();
+		copy.setId(checkIn.getId());
+		copy.setGuest(checkIn.getGuest());
+		copy.setEntryDate(checkIn.getEntryDate());
+		copy.setDepartureDate(checkIn.getDepartureDate());
+		copy.setAdditionalVehicle(checkIn.isAdditionalVehicle());
+		copy.setTotalCost(checkIn.getTotalCost());
+		return copy;
+	}
+}
@@ -0,0 +1,406 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInRejection;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRejectionRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CheckInWriter;
+
+/**
+ * Classe responsável pelo aceite de check-ins novos sem esperar a gravação no banco (write-behind).
+ * <p>
+ * O check-in é validado, calculado, recebe o código definitivo e é acrescentado a um arquivo local ({@link CheckInLog});
+ * o cliente recebe a resposta assim que o arquivo está confirmado no disco. Uma thread grava os check-ins aceitos no
+ * banco em lotes, cada um em uma transação, e os demais componentes recebem um {@link CheckInsImportedEvent} por lote.
+ * Se a aplicação cair, os check-ins aceitos e ainda não gravados são relidos do arquivo na inicialização seguinte.
+ * <p>
+ * As noites do check-in são ocupadas no {@link AvailabilityIndex} antes do aceite, então a falta de quartos é respondida
+ * ao cliente e não descarta um check-in já aceito. Um lote recusado pelo banco (hóspede excluído depois do aceite) é
+ * regravado item a item, e somente os itens recusados são descartados, com o motivo gravado em {@link CheckInRejection}
+ * para a consulta pelo código. Erros de conexão mantêm o lote para nova tentativa.
+ * <p>
+ * Ativo somente com <code>hotel.write-behind.directory</code> definido; o arquivo é local, então cada instância
+ * precisa de um diretório próprio e persistente.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class CheckInWriteBehind {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CheckInWriteBehind.class);
+	private static final long RETRY_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	@Autowired
+	CheckInWriter checkInWriter;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	CheckInRejectionRepository checkInRejectionRepository;
+
+	@Autowired
+	PricingEngine pricingEngine;
+
+	@Autowired
+	AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	EntityCache entityCache;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	/*
+	 * Diretório do arquivo de check-ins aceitos; vazio desativa o aceite sem gravação.
+	 */
+	@Value("${hotel.write-behind.directory:}")
+	String directory;
+
+	@Value("${hotel.write-behind.batch-size:500}")
+	int batchSize;
+
+	/*
+	 * Check-ins aguardando gravação a partir dos quais os novos voltam a ser gravados na requisição.
+	 */
+	@Value("${hotel.write-behind.max-pending:100000}")
+	int maxPending;
+
+	/*
+	 * Tamanho, em bytes, a partir do qual o arquivo é esvaziado quando todos os check-ins já estão no banco.
+	 */
+	@Value("${hotel.write-behind.max-log-size:67108864}")
+	long maxLogSize;
+
+	private final Deque<Entry> pending = new ConcurrentLinkedDeque<>();
+	private final AtomicLong accepted = new AtomicLong(), persisted = new AtomicLong(), failed = new AtomicLong();
+	private volatile long lastPersistedId;
+	private volatile CheckInLog log;
+	private volatile boolean running;
+	private Thread persister;
+
+	/**
+	 * Check-in aceito e a posição do final do seu registro no arquivo.
+	 */
+	private static final class Entry {
+
+		final CheckIn checkIn;
+		final long end;
+		final long acceptedAt = System.currentTimeMillis();
+
+		Entry(CheckIn checkIn, long end) {
+			this.checkIn = checkIn;
+			this.end = end;
+		}
+	}
+
+	/**
+	 * Método responsável por abrir o arquivo, reler os check-ins ainda não gravados e iniciar a gravação em segundo plano.
+	 * @throws IOException Caso ocorra erro ao abrir ou ler o arquivo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() throws IOException {
+		if(!StringUtils.hasText(directory) || log != null)
+			return;
+		CheckInLog opened = new CheckInLog(Paths.get(directory));
+		for(CheckInLog.Record record : opened.replay()) {
+			CheckIn checkIn = objectMapper.readValue(record.content, CheckIn.class);
+			availabilityIndex.reserve(checkIn, false);										//JÁ ACEITO: OCUPA SEM VERIFICAR.
+			pending.add(new Entry(checkIn, record.end));
+		}
+		if(!pending.isEmpty())
+			LOGGER.info("{} check-in(s) aceito(s) e ainda não gravado(s) relido(s) de {}.", pending.size(), directory);
+		if(meterRegistry != null)
+			Gauge.builder("hotel.write-behind.pending", pending, Deque::size).description("Check-ins aceitos aguardando gravação")
+					.register(meterRegistry);
+		persister = new Thread(this::drain, "gravacao-checkin");
+		persister.setDaemon(true);
+		log = opened;
+		running = true;
+		persister.start();
+	}
+
+	@PreDestroy
+	synchronized void stop() throws IOException, InterruptedException {
+		if(log == null)
+			return;
+		running = false;
+		LockSupport.unpark(persister);
+		persister.join(TimeUnit.SECONDS.toMillis(30));										//O QUE FALTAR GRAVAR É RELIDO NA PRÓXIMA INICIALIZAÇÃO.
+		log.close();
+		log = null;
+		pending.clear();
+	}
+
+	/**
+	 * Método responsável por informar se novos check-ins podem ser aceitos sem gravação imediata.
+	 * @return <code>true</code> caso o aceite esteja ativo e a fila abaixo do limite.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean isAccepting() {
+		return log != null && running && pending.size() < maxPending;
+	}
+
+	/**
+	 * Método responsável por validar um check-in novo antes do aceite, substituindo o hóspede enviado pelo cadastrado.
+	 * @param checkIn Check-in recebido.
+	 * @return Motivo da recusa, ou <code>null</code> caso seja válido.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public String validate(CheckIn checkIn) {
+		if(checkIn.getId() != 0)
+			return "Somente check-ins novos, sem código, são aceitos sem gravação imediata.";
+		if(checkIn.getGuest() == null || checkIn.getGuest().getId() <= 0)
+			return "O código do hóspede é obrigatório.";
+		if(checkIn.getEntryDate() == null || checkIn.getDepartureDate() == null)
+			return "As datas de entrada e saída são obrigatórias.";
+		Guest guest = entityCache.findGuest(checkIn.getGuest().getId());
+		if(guest == null)
+			return "Hóspede " + checkIn.getGuest().getId() + " não encontrado.";
+		checkIn.setGuest(guest);
+		return null;
+	}
+
+	/**
+	 * Método responsável por calcular, ocupar as noites, definir o código e registrar no arquivo um check-in já validado.
+	 * @param checkIn Check-in validado por {@link #validate(CheckIn)}.
+	 * @return {@link CheckIn} aceito, com código e custo total; a gravação no banco ocorre depois.
+	 * @throws OverbookingException Caso a verificação de disponibilidade esteja ativa e alguma noite não tenha quartos livres.
+	 * @throws UncheckedIOException Caso o arquivo não possa ser escrito ou confirmado no disco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckIn accept(CheckIn checkIn) {
+		checkIn.setTotalCost(pricingEngine.dailyTotals(checkIn));
+		checkIn.setId(checkInWriter.nextId());
+		checkIn.setVersion(0L);																//VERSÃO DO INSERT DO CheckInWriter.
+		CheckInLog current = log;
+		if(current == null)
+			throw new IllegalStateException("Aceite de check-ins sem gravação imediata desativado.");
+		availabilityIndex.hold(checkIn);
+		boolean queued = false;
+		try {
+			byte[] content = objectMapper.writeValueAsBytes(checkIn);
+			long end;
+			synchronized(current) {																//FILA NA MESMA ORDEM DO ARQUIVO.
+				end = current.append(content);
+				pending.add(new Entry(checkIn, end));
+				queued = true;
+			}
+			current.sync(end);
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}finally {
+			if(!queued)
+				availabilityIndex.release(checkIn);											//NA FILA, SERÁ GRAVADO MESMO SEM O fsync.
+		}
+		accepted.incrementAndGet();
+		LockSupport.unpark(persister);
+		return checkIn;
+	}
+
+	/**
+	 * Método responsável por retornar o andamento da gravação dos check-ins aceitos.
+	 * @return Quantidades de aceitos, gravados, pendentes e recusados desde a inicialização, atraso do mais antigo pendente,
+	 * último código gravado e posições do arquivo. O motivo de cada recusa é consultado por {@link #findRejection(long)}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Map<String, Object> status() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		CheckInLog current = log;
+		Entry oldest = pending.peekFirst();
+		values.put("ativo", current != null);
+		values.put("aceitos", accepted.get());
+		values.put("gravados", persisted.get());
+		values.put("pendentes", pending.size());
+		values.put("recusados", failed.get());
+		values.put("atrasoMs", oldest == null ? 0 : System.currentTimeMillis() - oldest.acceptedAt);
+		values.put("ultimoCodigoGravado", lastPersistedId);
+		values.put("tamanhoArquivo", current == null ? 0 : current.size());
+		values.put("posicaoGravada", current == null ? 0 : current.checkpoint());
+		return values;
+	}
+
+	/**
+	 * Método responsável por buscar a recusa de um check-in aceito e descartado na gravação.
+	 * @param id Código do check-in aceito.
+	 * @return {@link CheckInRejection} com o motivo, ou <code>null</code> caso o check-in não tenha sido recusado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckInRejection findRejection(long id) {
+		return checkInRejectionRepository.findById(id).orElse(null);
+	}
+
+	/**
+	 * Método responsável por gravar no banco, enquanto a aplicação estiver ativa, os check-ins aceitos e confirmados no disco.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void drain() {
+		while(running) {
+			List<Entry> batch = nextBatch();
+			if(batch.isEmpty()) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+				continue;
+			}
+			try {
+				persist(batch);
+			}catch (RuntimeException e) {
+				LOGGER.warn("Falha ao gravar {} check-in(s) aceito(s); nova tentativa em instantes: {}", batch.size(), e.getMessage());
+				LockSupport.parkNanos(RETRY_INTERVAL);
+			}
+		}
+	}
+
+	/*
+	 * Primeiros check-ins da fila já confirmados no disco, sem removê-los.
+	 */
+	private List<Entry> nextBatch() {
+		long synced = log.synced();
+		List<Entry> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+		for(Iterator<Entry> iterator = pending.iterator(); iterator.hasNext() && batch.size() < batchSize;) {
+			Entry entry = iterator.next();
+			if(entry.end > synced)
+				break;
+			batch.add(entry);
+		}
+		return batch;
+	}
+
+	/**
+	 * Método responsável por gravar um lote, registrar a posição gravada no arquivo e retirá-lo da fila.
+	 * @param batch Check-ins do início da fila.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void persist(List<Entry> batch) {
+		List<CheckIn> checkIns = new ArrayList<>(batch.size());
+		batch.forEach(entry -> checkIns.add(entry.checkIn));
+		int inserted;
+		try {
+			inserted = insert(checkIns);
+		}catch (DataIntegrityViolationException e) {
+			inserted = 0;
+			for(CheckIn checkIn : checkIns) {
+				try {
+					inserted += insert(Collections.singletonList(checkIn));
+				}catch (DataIntegrityViolationException rejection) {
+					reject(checkIn, rejection);
+				}
+			}
+		}
+		try {
+			log.checkpoint(batch.get(batch.size() - 1).end, maxLogSize);
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);												//O LOTE FICA NA FILA; NA NOVA TENTATIVA, OS GRAVADOS SÃO IGNORADOS.
+		}
+		for(int i = 0; i < batch.size(); i++)
+			pending.pollFirst();
+		persisted.addAndGet(inserted);
+		lastPersistedId = batch.get(batch.size() - 1).checkIn.getId();
+	}
+
+	/**
+	 * Método responsável por inserir, em uma transação, os check-ins cujo código ainda não está gravado.
+	 * @param checkIns Check-ins aceitos.
+	 * @return Quantidade de check-ins inseridos; os já gravados antes de uma queda são ignorados e as noites ocupadas
+	 * na releitura do arquivo são liberadas, pois a montagem do {@link AvailabilityIndex} já as contou.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private int insert(List<CheckIn> checkIns) {
+		return transactionTemplate.execute(status -> {
+			Set<Long> ids = new HashSet<>();
+			checkIns.forEach(c -> ids.add(c.getId()));
+			Set<Long> existing = new HashSet<>(checkInRepository.findExistingIds(ids));
+			List<CheckIn> inserted = new ArrayList<>(checkIns.size());
+			for(CheckIn checkIn : checkIns) {
+				if(!existing.contains(checkIn.getId()))
+					inserted.add(checkIn);
+			}
+			if(!inserted.isEmpty()) {
+				checkInWriter.insert(inserted);
+				eventPublisher.publishEvent(new CheckInsImportedEvent(inserted, true));
+			}
+			for(CheckIn checkIn : checkIns) {
+				if(existing.contains(checkIn.getId()))
+					availabilityIndex.release(checkIn);
+			}
+			return inserted.size();
+		});
+	}
+
+	/*
+	 * Registra um check-in aceito que o banco recusou e libera as noites ocupadas no aceite.
+	 */
+	private void reject(CheckIn checkIn, DataIntegrityViolationException e) {
+		failed.incrementAndGet();
+		String reason = e.getMostSpecificCause().getMessage();
+		LOGGER.error("Check-in {} do hóspede {} aceito e recusado na gravação: {}", checkIn.getId(), checkIn.getGuest().getId(), reason);
+		availabilityIndex.release(checkIn);
+		checkInRejectionRepository.save(new CheckInRejection(checkIn.getId(), checkIn.getGuest().getId(), reason));
+	}
+}
@@ -0,0 +1,303 @@
+package br.com.guest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.CacheInvalidation;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável pelo cache em memória das buscas de hóspedes e check-ins pelo código.
+ * <p>
+ * As entradas são limitadas em quantidade e expiram após um tempo fixo. As alterações removem as entradas após o commit,
+ * inclusive os check-ins do hóspede alterado, que levam os seus dados; as demais instâncias da aplicação, informadas em
+ * <code>hotel.cache.peers</code>, recebem os mesmos códigos. Uma instância que perca o aviso fica desatualizada no
+ * máximo até a expiração. Check-ins importados têm códigos novos e buscas sem resultado não são guardadas, então a
+ * importação não remove entradas. O mesmo aviso leva os hóspedes cujo resumo de reservas mudou
+ * ({@link GuestBookingSummaryService}).
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class EntityCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EntityCache.class);
+
+	/**
+	 * Cabeçalho com o token compartilhado entre as instâncias.
+	 */
+	public static final String TOKEN_HEADER = "X-Cache-Token";
+
+	static final String PEER_PATH = "/api/cache/invalidacao";
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Value("${hotel.cache.maximum-size:10000}")
+	long maximumSize;
+
+	@Value("${hotel.cache.ttl:600000}")
+	long ttl;
+
+	/*
+	 * Endereços base das demais instâncias (ex.: http://app2:8080), separados por vírgula.
+	 */
+	@Value("${hotel.cache.peers:}")
+	String[] peers;
+
+	@Value("${hotel.cache.peer-token:}")
+	String peerToken;
+
+	/*
+	 * Registro de métricas, onde os caches publicam acertos, falhas e remoções.
+	 */
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	private Cache<Long, Guest> guests;
+	private Cache<Long, CheckIn> checkIns;
+	private ExecutorService notifier;
+	private RestTemplate restTemplate;
+
+	@PostConstruct
+	void start() {
+		guests = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).recordStats().build();
+		checkIns = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).recordStats().build();
+		if(meterRegistry != null) {
+			CaffeineCacheMetrics.monitor(meterRegistry, guests, "hospedes");
+			CaffeineCacheMetrics.monitor(meterRegistry, checkIns, "checkins");
+		}
+		peers = Arrays.stream(peers).map(String::trim).filter(StringUtils::hasText).toArray(String[]::new);
+		if(peers.length > 0 && !StringUtils.hasText(peerToken))
+			throw new IllegalStateException("hotel.cache.peers configurado sem hotel.cache.peer-token: o aviso de invalidação ficaria aberto a qualquer cliente.");
+		if(peers.length > 0) {
+			SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+			requestFactory.setConnectTimeout(1000);
+			requestFactory.setReadTimeout(2000);
+			restTemplate = new RestTemplate(requestFactory);
+			notifier = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "invalidacao-cache");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		if(notifier != null)
+			notifier.shutdown();
+	}
+
+	/**
+	 * Método responsável por buscar um hóspede pelo código, consultando o banco somente quando não está no cache.
+	 * @param id Código do hóspede.
+	 * @return {@link Guest} encontrado, ou null caso não exista.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Guest findGuest(long id) {
+		return guests.get(id, key -> guestRepository.findById(id));								//NULO NÃO É GUARDADO.
+	}
+
+	/**
+	 * Método responsável por buscar um check-in pelo código, com o hóspede, consultando o banco somente quando não está no cache.
+	 * @param id Código do check-in.
+	 * @return {@link CheckIn} encontrado, ou null caso não exista.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public CheckIn findCheckIn(long id) {
+		return checkIns.get(id, key -> checkInRepository.findById(id));
+	}
+
+	/**
+	 * Método responsável por retornar as estatísticas de uso dos caches.
+	 * @return Estatísticas de cada cache (acertos, falhas, remoções por limite ou expiração e quantidade de entradas).
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Map<String, Map<String, Object>> stats() {
+		Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+		stats.put("hospedes", stats(guests));
+		stats.put("checkins", stats(checkIns));
+		return stats;
+	}
+
+	/**
+	 * Método responsável por remover entradas do cache desta instância, sem avisar as demais.
+	 * @param invalidation Códigos dos hóspedes e check-ins alterados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void invalidate(CacheInvalidation invalidation) {
+		if(!invalidation.getGuests().isEmpty()) {
+			Set<Long> guestIds = new HashSet<>(invalidation.getGuests());
+			guests.invalidateAll(guestIds);
+			checkIns.asMap().values().removeIf(checkIn -> checkIn.getGuest() != null && guestIds.contains(checkIn.getGuest().getId()));
+		}
+		checkIns.invalidateAll(invalidation.getCheckIns());
+	}
+
+	/**
+	 * Método responsável por remover do cache o hóspede salvo, após o commit.
+	 * @param event Evento do hóspede salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestSaved(GuestSavedEvent event) {
+		invalidateEverywhere(Arrays.asList(event.getGuest().getId()), new ArrayList<>());
+	}
+
+	/**
+	 * Método responsável por remover do cache o hóspede deletado, após o commit.
+	 * @param event Evento do hóspede deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestDeleted(GuestDeletedEvent event) {
+		invalidateEverywhere(Arrays.asList(event.getGuestId()), new ArrayList<>());
+	}
+
+	/**
+	 * Método responsável por remover do cache o check-in salvo, após o commit.
+	 * @param event Evento do check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		if(!event.isCreated())																//CÓDIGO NOVO NÃO ESTÁ EM CACHE.
+			invalidateEverywhere(new ArrayList<>(), Arrays.asList(event.getCheckIn().getId()));
+	}
+
+	/**
+	 * Método responsável por avisar as demais instâncias de que o resumo de reservas de hóspedes mudou; o cache desta
+	 * instância é atualizado pelo próprio {@link GuestBookingSummaryService}.
+	 * @param guestIds Códigos dos hóspedes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void bookingSummariesChanged(Collection<Long> guestIds) {
+		if(notifier == null || guestIds.isEmpty())
+			return;
+		CacheInvalidation invalidation = new CacheInvalidation();
+		invalidation.setBookingSummaries(new ArrayList<>(guestIds));
+		notifier.execute(() -> notifyPeers(invalidation));
+	}
+
+	/**
+	 * Método responsável por remover as entradas desta instância e avisar as demais.
+	 * @param guestIds Códigos dos hóspedes alterados.
+	 * @param checkInIds Códigos dos check-ins alterados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void invalidateEverywhere(List<Long> guestIds, List<Long> checkInIds) {
+		CacheInvalidation invalidation = new CacheInvalidation();
+		invalidation.setGuests(guestIds);
+		invalidation.setCheckIns(checkInIds);
+		invalidate(invalidation);
+		if(notifier != null)
+			notifier.execute(() -> notifyPeers(invalidation));
+	}
+
+	/**
+	 * Método responsável por enviar os códigos alterados às demais instâncias.
+	 * @param invalidation Códigos dos hóspedes e check-ins alterados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void notifyPeers(CacheInvalidation invalidation) {
+		HttpHeaders headers = new HttpHeaders();
+		if(StringUtils.hasText(peerToken))
+			headers.set(TOKEN_HEADER, peerToken);
+		for(String peer : peers) {
+			try {
+				restTemplate.postForLocation(peer + PEER_PATH, new HttpEntity<>(invalidation, headers));
+			}catch(RestClientException e) {
+				LOGGER.warn("Falha ao avisar {} da alteração; a entrada expira em até {} ms: {}", peer, ttl, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Método responsável por verificar o token enviado por outra instância.
+	 * @param token Valor do cabeçalho {@value #TOKEN_HEADER}.
+	 * @return <code>true</code> somente caso seja igual ao token configurado; sem token configurado, nenhum aviso é aceito.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public boolean acceptsToken(String token) {
+		return StringUtils.hasText(peerToken)
+				&& (token != null && MessageDigest.isEqual(peerToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Map<String, Object> stats(Cache<Long, ?> cache) {
+		CacheStats stats = cache.stats();
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("acertos", stats.hitCount());
+		values.put("falhas", stats.missCount());
+		values.put("taxaAcerto", stats.hitRate());
+		values.put("remocoes", stats.evictionCount());
+		values.put("entradas", cache.estimatedSize());
+		return values;
+	}
+}
@@ -0,0 +1,370 @@
+package br.com.guest.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.GuestBookingSummary;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CheckInRepository.BookingTotals;
+import br.com.guest.repository.GuestBookingSummaryRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por manter o resumo das reservas de cada hóspede (valor da última reserva, valor total e quantidade de hospedagens).
+ * <p>
+ * O resumo é gravado na mesma transação do check-in, com o registro do hóspede bloqueado, e lido de um cache em memória
+ * preenchido sob demanda e atualizado após o commit. Entre duas leituras do mesmo hóspede prevalece a de maior versão,
+ * para que uma leitura antiga não sobrescreva uma alteração mais recente.
+ * <p>
+ * O cache tem os mesmos limites de quantidade e expiração do {@link EntityCache} (<code>hotel.cache.maximum-size</code> e
+ * <code>hotel.cache.ttl</code>), e as demais instâncias recebem os hóspedes alterados pelo mesmo aviso de invalidação.
+ * Uma instância que perca o aviso, ou cujos resumos tenham sido recalculados por outra, fica desatualizada no máximo
+ * até a expiração.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class GuestBookingSummaryService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GuestBookingSummaryService.class);
+	private static final int REBUILD_PAGE_SIZE = 500;
+
+	/*
+	 * Resumo de hóspedes sem check-ins, com versão menor que a de qualquer registro gravado.
+	 */
+	private static final Summary EMPTY = new Summary(null, null, 0, -1);
+
+	@Autowired
+	GuestBookingSummaryRepository summaryRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	EntityCache entityCache;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	@Value("${hotel.cache.maximum-size:10000}")
+	long maximumSize;
+
+	@Value("${hotel.cache.ttl:600000}")
+	long ttl;
+
+	private Cache<Long, Summary> cache;
+
+	@PostConstruct
+	void start() {
+		cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).recordStats().build();
+		if(meterRegistry != null)
+			CaffeineCacheMetrics.monitor(meterRegistry, cache, "resumos");
+	}
+
+	/**
+	 * Valores do resumo de um hóspede mantidos em cache.
+	 */
+	public static final class Summary {
+
+		private final BigDecimal lastBookingAmount, totalAmount;
+		private final long stayCount, version;
+
+		Summary(BigDecimal lastBookingAmount, BigDecimal totalAmount, long stayCount, long version) {
+			this.lastBookingAmount = lastBookingAmount;
+			this.totalAmount = totalAmount;
+			this.stayCount = stayCount;
+			this.version = version;
+		}
+
+		static Summary of(GuestBookingSummary summary) {
+			return new Summary(summary.getLastBookingAmount(), summary.getTotalAmount(), summary.getStayCount(), summary.getVersion());
+		}
+
+		public BigDecimal getLastBookingAmount() {
+			return lastBookingAmount;
+		}
+
+		public BigDecimal getTotalAmount() {
+			return totalAmount;
+		}
+
+		public long getStayCount() {
+			return stayCount;
+		}
+	}
+
+	/**
+	 * Método responsável por retornar o resumo das reservas de um hóspede.
+	 * @param guestId Código do hóspede.
+	 * @return {@link Summary} do hóspede, com valores nulos caso não tenha check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Summary find(long guestId) {
+		Summary summary = cache.getIfPresent(guestId);
+		return summary != null ? summary : load(guestId);
+	}
+
+	/**
+	 * Método responsável por somar o check-in ao resumo do hóspede, dentro da transação que o gravou.
+	 * <p>
+	 * Check-ins novos são somados diretamente; alterações recalculam o resumo dos hóspedes envolvidos, já que podem
+	 * mudar o valor ou o hóspede de qualquer check-in.
+	 * @param event Evento do check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		if(event.isCreated())
+			add(Collections.singletonList(event.getCheckIn()));
+		else
+			recompute(affectedGuests(event));
+	}
+
+	/**
+	 * Método responsável por somar os check-ins importados aos resumos dos hóspedes, dentro da transação que os gravou.
+	 * @param event Evento dos check-ins importados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInsImported(CheckInsImportedEvent event) {
+		add(event.getCheckIns());
+	}
+
+	/**
+	 * Método responsável por atualizar o cache após o commit dos check-ins importados.
+	 * @param event Evento dos check-ins importados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void afterCheckInsImported(CheckInsImportedEvent event) {
+		Set<Long> guestIds = new HashSet<>();
+		event.getCheckIns().forEach(c -> guestIds.add(c.getGuest().getId()));
+		summaryRepository.findAllById(guestIds).forEach(summary -> merge(summary.getGuestId(), Summary.of(summary)));
+		entityCache.bookingSummariesChanged(guestIds);
+	}
+
+	/**
+	 * Método responsável por atualizar o cache após o commit do check-in.
+	 * @param event Evento do check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void afterCheckInSaved(CheckInSavedEvent event) {
+		Set<Long> guestIds = affectedGuests(event);
+		guestIds.forEach(this::load);
+		entityCache.bookingSummariesChanged(guestIds);
+	}
+
+	/**
+	 * Método responsável por remover o resumo de um hóspede deletado, dentro da mesma transação.
+	 * @param event Evento do hóspede deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onGuestDeleted(GuestDeletedEvent event) {
+		if(summaryRepository.existsById(event.getGuestId()))
+			summaryRepository.deleteById(event.getGuestId());
+	}
+
+	/**
+	 * Método responsável por remover do cache o resumo de um hóspede deletado, após o commit.
+	 * @param event Evento do hóspede deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void afterGuestDeleted(GuestDeletedEvent event) {
+		cache.invalidate(event.getGuestId());
+		entityCache.bookingSummariesChanged(Collections.singletonList(event.getGuestId()));
+	}
+
+	/**
+	 * Método responsável por remover do cache desta instância os resumos alterados em outra instância.
+	 * @param guestIds Códigos dos hóspedes, recebidos no aviso de invalidação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void invalidate(Collection<Long> guestIds) {
+		cache.invalidateAll(guestIds);
+	}
+
+	/**
+	 * Método responsável por recalcular o resumo de todos os hóspedes a partir da tabela de check-ins.
+	 * <p>
+	 * Os hóspedes são processados em páginas, cada uma em sua própria transação, com os hóspedes bloqueados antes do recálculo.
+	 * @return Quantidade de hóspedes com resumo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(cron = "${hotel.booking-summary.rebuild-cron:-}")
+	public synchronized int rebuild() {
+		long start = System.currentTimeMillis();
+		int total = 0;
+		long lastId = 0;
+		List<Long> guestIds;
+		do {
+			guestIds = guestRepository.findIdsAfter(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+			if(guestIds.isEmpty())
+				break;
+			List<Long> page = guestIds;
+			total += transactionTemplate.execute(status -> recompute(page));
+			lastId = guestIds.get(guestIds.size() - 1);
+		}while(guestIds.size() == REBUILD_PAGE_SIZE);
+		cache.invalidateAll();																	//DESCARTA VERSÕES DE RESUMOS RECRIADOS FORA DA APLICAÇÃO.
+		LOGGER.info("Resumo de reservas recalculado para {} hóspede(s) em {} ms.", total, System.currentTimeMillis() - start);
+		return total;
+	}
+
+	/**
+	 * Método responsável por somar check-ins novos aos resumos dos seus hóspedes.
+	 * @param checkIns Check-ins criados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void add(List<CheckIn> checkIns) {
+		Set<Long> guestIds = new HashSet<>();
+		for(CheckIn checkIn : checkIns) {
+			if(checkIn.getGuest() != null)
+				guestIds.add(checkIn.getGuest().getId());
+		}
+		if(guestIds.isEmpty())
+			return;
+		guestRepository.findForUpdate(guestIds);												//SERIALIZA AS GRAVAÇÕES DO MESMO HÓSPEDE, MESMO SEM RESUMO CRIADO.
+		Map<Long, GuestBookingSummary> summaries = new HashMap<>();
+		summaryRepository.findAllById(guestIds).forEach(s -> summaries.put(s.getGuestId(), s));
+		for(CheckIn checkIn : checkIns) {
+			if(checkIn.getGuest() != null)
+				summaries.computeIfAbsent(checkIn.getGuest().getId(), GuestBookingSummary::new).add(checkIn.getId(), checkIn.getTotalCost());
+		}
+		summaryRepository.saveAll(summaries.values());
+	}
+
+	/**
+	 * Método responsável por recalcular, com <code>GROUP BY</code>, o resumo de um conjunto de hóspedes.
+	 * @param guestIds Códigos dos hóspedes.
+	 * @return Quantidade de hóspedes com check-ins.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private int recompute(Collection<Long> guestIds) {
+		if(guestIds.isEmpty())
+			return 0;
+		Map<Long, GuestBookingSummary> summaries = new HashMap<>();
+		guestRepository.findForUpdate(guestIds);												//BLOQUEIA OS HÓSPEDES ANTES DE LER OS CHECK-INS.
+		summaryRepository.findAllById(guestIds).forEach(s -> summaries.put(s.getGuestId(), s));
+
+		List<BookingTotals> totals = checkInRepository.findBookingTotals(guestIds);
+		List<Long> lastIds = new ArrayList<>(totals.size());
+		totals.forEach(t -> lastIds.add(t.getLastCheckInId()));
+		Map<Long, BigDecimal> lastAmounts = new HashMap<>();
+		checkInRepository.findAllById(lastIds).forEach(c -> lastAmounts.put(c.getId(), c.getTotalCost()));
+
+		List<GuestBookingSummary> changed = new ArrayList<>(guestIds.size());
+		for(BookingTotals t : totals) {
+			GuestBookingSummary summary = summaries.remove(t.getGuestId());
+			if(summary == null)
+				summary = new GuestBookingSummary(t.getGuestId());
+			summary.reset(t.getStayCount(), t.getTotalAmount(), t.getLastCheckInId(), lastAmounts.get(t.getLastCheckInId()));
+			changed.add(summary);
+		}
+		for(GuestBookingSummary summary : summaries.values()) {								//HÓSPEDES QUE NÃO TÊM MAIS CHECK-INS.
+			summary.reset(0, null, 0, null);													//ZERADO EM VEZ DE REMOVIDO, PARA A VERSÃO CONTINUAR CRESCENDO.
+			changed.add(summary);
+		}
+		summaryRepository.saveAll(changed);
+		summaryRepository.flush();
+		return totals.size();
+	}
+
+	/**
+	 * Método responsável por ler o resumo gravado de um hóspede e colocá-lo no cache, caso seja mais recente.
+	 * @param guestId Código do hóspede.
+	 * @return {@link Summary} mais recente do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private Summary load(long guestId) {
+		return merge(guestId, summaryRepository.findById(guestId).map(Summary::of).orElse(EMPTY));
+	}
+
+	/*
+	 * Coloca a leitura no cache, caso seja mais recente que a existente.
+	 */
+	private Summary merge(long guestId, Summary loaded) {
+		return cache.asMap().merge(guestId, loaded, (cached, read) -> read.version >= cached.version ? read : cached);
+	}
+
+	/**
+	 * Método responsável por retornar os hóspedes cujo resumo é afetado por um check-in salvo.
+	 * @param event Evento do check-in salvo.
+	 * @return Códigos dos hóspedes atual e anterior do check-in.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static Set<Long> affectedGuests(CheckInSavedEvent event) {
+		Set<Long> guestIds = new LinkedHashSet<>(2);
+		if(event.getCheckIn().getGuest() != null)
+			guestIds.add(event.getCheckIn().getGuest().getId());
+		if(event.getPrevious() != null && event.getPrevious().getGuest() != null)
+			guestIds.add(event.getPrevious().getGuest().getId());
+		return guestIds;
+	}
+}
@@ -0,0 +1,132 @@
+package br.com.guest.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável pela busca de hóspedes pelo nome, documento ou telefone.
+ * <p>
+ * O dado informado é classificado antes da consulta, para que cada busca use somente os índices das colunas
+ * que podem conter aquele tipo de dado, em vez de comparar todas as colunas com <code>OR</code>.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class GuestSearchService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GuestSearchService.class);
+	private static final int BACKFILL_PAGE_SIZE = 500;
+
+	/**
+	 * Tipos de dado reconhecidos na busca.
+	 */
+	public enum DataType {
+		/** Somente letras e espaços: busca pelo nome normalizado. */
+		NAME,
+		/** Somente números e pontuação: busca pelo documento ou telefone. */
+		NUMBER,
+		/** Letras e números: busca pelo documento (ex.: RG com sigla do estado) e, sem resultado, pelo nome. */
+		DOCUMENT
+	}
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	/**
+	 * Método responsável por classificar o dado informado na busca.
+	 * @param data Nome, documento ou telefone do hóspede.
+	 * @return {@link DataType} do dado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static DataType classify(String data) {
+		boolean letters = false, digits = false;
+		for(int i = 0; i < data.length(); i++) {
+			char c = data.charAt(i);
+			letters |= Character.isLetter(c);
+			digits |= Character.isDigit(c);
+		}
+		if(letters && digits)
+			return DataType.DOCUMENT;
+		return letters ? DataType.NAME : DataType.NUMBER;
+	}
+
+	/**
+	 * Método responsável por buscar os hóspedes pelo nome, documento ou telefone.
+	 * @param data Nome, documento ou telefone do hóspede.
+	 * @return Lista de {@link Guest} encontrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Guest> search(String data) {
+		switch(classify(data)) {
+		case NAME:
+			return guestRepository.findByNameSearch(Guest.normalizeName(data));
+		case DOCUMENT:
+			List<Guest> guests = guestRepository.findByDocument(data);
+			return guests.isEmpty() ? guestRepository.findByNameSearch(Guest.normalizeName(data)) : guests;	//NOMES COM NÚMEROS (EX.: "JOÃO 2º").
+		default:
+			return guestRepository.findByDocumentOrTelephone(data);
+		}
+	}
+
+	/**
+	 * Método responsável por buscar os check-ins dos hóspedes encontrados pelo nome, documento ou telefone.
+	 * @param data Nome, documento ou telefone do hóspede.
+	 * @return Lista de {@link CheckIn} dos hóspedes encontrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<CheckIn> searchCheckIns(String data) {
+		List<Long> guestIds = search(data).stream().map(Guest::getId).collect(Collectors.toList());
+		if(guestIds.isEmpty())
+			return Collections.emptyList();
+		return checkInRepository.findByGuestIdIn(guestIds);
+	}
+
+	/**
+	 * Método responsável por preencher o nome normalizado dos hóspedes cadastrados antes da sua criação.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillNameSearch() {
+		int total = 0, updated;
+		do {
+			updated = transactionTemplate.execute(status -> {
+				List<Guest> guests = guestRepository.findByNameSearchIsNullAndNameIsNotNull(PageRequest.of(0, BACKFILL_PAGE_SIZE));
+				guests.forEach(Guest::updateNameSearch);										//SALVO NO COMMIT, POIS AS ENTIDADES ESTÃO GERENCIADAS.
+				return guests.size();
+			});
+			total += updated;
+		}while(updated == BACKFILL_PAGE_SIZE);
+		if(total > 0)
+			LOGGER.info("Nome normalizado preenchido para {} hóspede(s).", total);
+	}
+}
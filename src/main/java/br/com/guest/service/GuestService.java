@@ -0,0 +1,72 @@
+package br.com.guest.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por gravar hóspedes e avisar os demais componentes sobre as alterações.
+ * <p>
+ * Os eventos são publicados dentro da transação; quem mantém estruturas em memória deve ouvi-los com
+ * {@link org.springframework.transaction.event.TransactionalEventListener}, para só aplicar alterações confirmadas.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class GuestService {
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Método responsável por salvar um hóspede.
+	 * @param guest Hóspede que será salvo, caso o id exista, será realizado o update, e caso não exista, será executado insert.
+	 * Sem versão informada, o update é feito sobre a versão atual.
+	 * @return {@link Guest} que foi criado/modificado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	public Guest save(Guest guest) {
+		useStoredVersion(guest);
+		Guest saved = guestRepository.saveAndFlush(guest);									//FLUSH PARA O ID E O NOME NORMALIZADO ESTAREM PREENCHIDOS NO EVENTO.
+		eventPublisher.publishEvent(new GuestSavedEvent(saved));
+		return saved;
+	}
+
+	/**
+	 * Método responsável por deletar um hóspede.
+	 * @param guest Hóspede que será deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Transactional
+	public void delete(Guest guest) {
+		useStoredVersion(guest);
+		guestRepository.delete(guest);
+		eventPublisher.publishEvent(new GuestDeletedEvent(guest.getId(), guest.getVersion()));
+	}
+
+	/*
+	 * Sem versão informada, a gravação é feita sobre a versão atual (a última gravação prevalece). Sem ela, o Spring Data
+	 * trataria o hóspede existente como novo.
+	 */
+	private void useStoredVersion(Guest guest) {
+		if(guest.getVersion() != null || guest.getId() <= 0)
+			return;
+		Guest stored = guestRepository.findById(guest.getId());
+		guest.setVersion(stored == null ? 0L : stored.getVersion());
+	}
+}
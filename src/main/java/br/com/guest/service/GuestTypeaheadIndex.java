@@ -0,0 +1,426 @@
+package br.com.guest.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por manter em memória um índice de trigramas dos nomes, documentos e telefones dos hóspedes,
+ * usado nas sugestões de busca da recepção.
+ * <p>
+ * Cada versão de um hóspede ocupa uma posição (slot) nos arrays do índice, e cada trigrama aponta para um array
+ * ordenado de posições. Alterações criam uma nova posição e marcam a anterior como removida; quando as posições
+ * removidas passam da metade, o índice é compactado.
+ * <p>
+ * Palavras de uma ou duas letras são buscadas como prefixo, usando trigramas com marcadores de início de palavra.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class GuestTypeaheadIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GuestTypeaheadIndex.class);
+
+	/*
+	 * Marcador de início de palavra.
+	 */
+	private static final char MARK = '\u0002';
+	private static final int PAGE_SIZE = 1000;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Postings> postings = new HashMap<>();
+	private final Map<Long, Integer> slotsByGuest = new HashMap<>();
+	private final BitSet live = new BitSet();
+	private long[] guestIds = new long[1024];
+	private String[] names = new String[1024], documents = new String[1024], telephones = new String[1024];
+	private String[] keys = new String[1024];
+	private int size, dead;
+
+	private boolean building;
+	private final Set<Long> removedWhileBuilding = new HashSet<>();
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	/**
+	 * Método responsável por montar o índice a partir dos hóspedes cadastrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		long start = System.currentTimeMillis();
+		setBuilding(true);
+		try {
+			long lastId = Long.MIN_VALUE;
+			List<Guest> page;
+			do {
+				page = guestRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, PAGE_SIZE));
+				lock.writeLock().lock();
+				try {
+					for(Guest guest : page) {
+						if(!slotsByGuest.containsKey(guest.getId()) && !removedWhileBuilding.contains(guest.getId()))
+							add(guest);															//ALTERAÇÕES FEITAS DURANTE A MONTAGEM PREVALECEM.
+					}
+				}finally {
+					lock.writeLock().unlock();
+				}
+				if(!page.isEmpty())
+					lastId = page.get(page.size() - 1).getId();
+			}while(page.size() == PAGE_SIZE);
+		}finally {
+			setBuilding(false);
+		}
+		LOGGER.info("Índice de sugestões de hóspedes montado com {} hóspede(s) em {} ms.", slotsByGuest.size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Método responsável por incluir ou atualizar um hóspede no índice, após a confirmação da transação.
+	 * @param event {@link GuestSavedEvent} com o hóspede salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestSaved(GuestSavedEvent event) {
+		put(event.getGuest());
+	}
+
+	/**
+	 * Método responsável por remover um hóspede do índice, após a confirmação da transação.
+	 * @param event {@link GuestDeletedEvent} com o código do hóspede excluído.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestDeleted(GuestDeletedEvent event) {
+		remove(event.getGuestId());
+	}
+
+	/**
+	 * Método responsável por incluir ou atualizar um hóspede no índice.
+	 * @param guest {@link Guest} que será indexado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void put(Guest guest) {
+		lock.writeLock().lock();
+		try {
+			kill(guest.getId());
+			add(guest);
+			compactIfNeeded();
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por remover um hóspede do índice.
+	 * @param guestId Código do hóspede.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void remove(long guestId) {
+		lock.writeLock().lock();
+		try {
+			kill(guestId);
+			if(building)
+				removedWhileBuilding.add(guestId);
+			compactIfNeeded();
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por sugerir hóspedes cujo nome, documento ou telefone contenham todas as palavras digitadas.
+	 * @param query Texto digitado.
+	 * @param limit Quantidade máxima de sugestões.
+	 * @return Lista de {@link Guest}, as melhores entre todas as que combinam: os nomes que começam pelo texto digitado primeiro, depois
+	 * em ordem alfabética.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Guest> suggest(String query, int limit) {
+		String[] words = terms(query);
+		if(words.length == 0 || limit <= 0)
+			return new ArrayList<>();
+
+		String prefix = String.join(" ", words);
+		lock.readLock().lock();
+		try {
+			List<Postings> lists = new ArrayList<>();
+			for(String word : words) {
+				for(long trigram : queryTrigrams(word)) {
+					Postings list = postings.get(trigram);
+					if(list == null)
+						return new ArrayList<>();												//ALGUM TRIGRAMA NÃO EXISTE, NÃO HÁ RESULTADOS.
+					lists.add(list);
+				}
+			}
+			lists.sort(Comparator.comparingInt(list -> list.size));							//PERCORRE A MENOR LISTA E CONSULTA AS DEMAIS.
+
+			Postings smallest = lists.get(0);
+			int[] cursors = new int[lists.size()];
+			Comparator<Integer> ranking = Comparator.comparing((Integer slot) -> !keys[slot].startsWith(prefix))	//NOMES QUE COMEÇAM PELO TEXTO DIGITADO PRIMEIRO.
+					.thenComparing(slot -> keys[slot]).thenComparingLong(slot -> guestIds[slot]);
+			PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, 64) + 1, ranking.reversed());	//O PIOR DOS MELHORES NO TOPO.
+			for(int i = 0; i < smallest.size; i++) {
+				int slot = smallest.slots[i];
+				if(!live.get(slot) || !containsAll(lists, cursors, slot) || !matchesWords(keys[slot], words))
+					continue;
+				if(best.size() < limit)
+					best.add(slot);
+				else if(ranking.compare(slot, best.peek()) < 0) {
+					best.poll();
+					best.add(slot);
+				}
+			}
+
+			Integer[] matches = best.toArray(new Integer[0]);
+			Arrays.sort(matches, ranking);
+			List<Guest> guests = new ArrayList<>(matches.length);
+			for(int slot : matches) {
+				guests.add(toGuest(slot));
+			}
+			return guests;
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de hóspedes indexados.
+	 * @return Quantidade de hóspedes.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotsByGuest.size();
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void setBuilding(boolean building) {
+		lock.writeLock().lock();
+		try {
+			this.building = building;
+			removedWhileBuilding.clear();
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * Inclui uma nova posição para o hóspede. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private void add(Guest guest) {
+		if(size == guestIds.length)
+			grow(size * 2);
+		int slot = size++;
+		guestIds[slot] = guest.getId();
+		names[slot] = guest.getName();
+		documents[slot] = guest.getDocument();
+		telephones[slot] = guest.getTelephone();
+		List<String> terms = new ArrayList<>();
+		terms.addAll(Arrays.asList(terms(guest.getName())));
+		terms.addAll(Arrays.asList(terms(guest.getDocument())));
+		terms.addAll(Arrays.asList(terms(guest.getTelephone())));
+		keys[slot] = String.join(" ", terms);
+		live.set(slot);
+		slotsByGuest.put(guest.getId(), slot);
+		for(String term : terms) {
+			String marked = "" + MARK + MARK + term;
+			for(int i = 0; i + 3 <= marked.length(); i++) {
+				postings.computeIfAbsent(trigram(marked, i), key -> new Postings()).add(slot);
+			}
+		}
+	}
+
+	/*
+	 * Marca como removida a posição atual do hóspede. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private void kill(long guestId) {
+		Integer slot = slotsByGuest.remove(guestId);
+		if(slot != null) {
+			live.clear(slot);
+			names[slot] = documents[slot] = telephones[slot] = keys[slot] = null;
+			dead++;
+		}
+	}
+
+	/*
+	 * Recria o índice somente com as posições ativas. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private void compactIfNeeded() {
+		if(dead < 1024 || dead < size / 2)
+			return;
+		long[] oldIds = guestIds;
+		String[] oldNames = names, oldDocuments = documents, oldTelephones = telephones;
+		BitSet oldLive = (BitSet) live.clone();
+		int capacity = Math.max(1024, oldLive.cardinality() * 2);
+
+		postings.clear();
+		slotsByGuest.clear();
+		live.clear();
+		size = dead = 0;
+		guestIds = new long[capacity];
+		names = new String[capacity];
+		documents = new String[capacity];
+		telephones = new String[capacity];
+		keys = new String[capacity];
+		for(int slot = oldLive.nextSetBit(0); slot >= 0; slot = oldLive.nextSetBit(slot + 1)) {
+			Guest guest = new Guest();
+			guest.setId(oldIds[slot]);
+			guest.setName(oldNames[slot]);
+			guest.setDocument(oldDocuments[slot]);
+			guest.setTelephone(oldTelephones[slot]);
+			add(guest);
+		}
+	}
+
+	private void grow(int capacity) {
+		guestIds = Arrays.copyOf(guestIds, capacity);
+		names = Arrays.copyOf(names, capacity);
+		documents = Arrays.copyOf(documents, capacity);
+		telephones = Arrays.copyOf(telephones, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+	}
+
+	private Guest toGuest(int slot) {
+		Guest guest = new Guest();
+		guest.setId(guestIds[slot]);
+		guest.setName(names[slot]);
+		guest.setDocument(documents[slot]);
+		guest.setTelephone(telephones[slot]);
+		return guest;
+	}
+
+	/*
+	 * Verifica se a posição está em todas as listas. Como as posições são consultadas em ordem crescente,
+	 * cada lista mantém um cursor que só avança.
+	 */
+	private static boolean containsAll(List<Postings> lists, int[] cursors, int slot) {
+		for(int i = 1; i < lists.size(); i++) {
+			Postings list = lists.get(i);
+			cursors[i] = list.seek(cursors[i], slot);
+			if(cursors[i] == list.size || list.slots[cursors[i]] != slot)
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Confirma o candidato: palavras curtas precisam ser prefixo de um termo e as demais precisam estar contidas em um termo.
+	 */
+	private static boolean matchesWords(String key, String[] words) {
+		for(String word : words) {
+			boolean found = word.length() < 3 ? key.startsWith(word) || key.contains(" " + word) : key.contains(word);
+			if(!found)
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Trigramas usados na busca de uma palavra, com marcadores de início para palavras de uma ou duas letras.
+	 */
+	private static long[] queryTrigrams(String word) {
+		if(word.length() < 3) {
+			String marked = (word.length() == 1 ? "" + MARK + MARK : "" + MARK) + word;
+			return new long[] { trigram(marked, 0) };
+		}
+		long[] trigrams = new long[word.length() - 2];
+		for(int i = 0; i < trigrams.length; i++) {
+			trigrams[i] = trigram(word, i);
+		}
+		return trigrams;
+	}
+
+	private static long trigram(String text, int index) {
+		return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+	}
+
+	/*
+	 * Normaliza o texto e separa em termos compostos apenas de letras e números.
+	 */
+	static String[] terms(String text) {
+		String normalized = Guest.normalizeName(text);
+		if(normalized == null)
+			return new String[0];
+		List<String> terms = new ArrayList<>();
+		for(String word : normalized.split(" ")) {
+			StringBuilder term = new StringBuilder(word.length());
+			for(int i = 0; i < word.length(); i++) {
+				if(Character.isLetterOrDigit(word.charAt(i)))
+					term.append(word.charAt(i));
+			}
+			if(term.length() > 0)
+				terms.add(term.toString());
+		}
+		return terms.toArray(new String[0]);
+	}
+
+	/**
+	 * Lista ordenada de posições que contêm um trigrama.
+	 */
+	private static final class Postings {
+
+		private int[] slots = new int[2];
+		private int size;
+
+		private void add(int slot) {
+			if(size > 0 && slots[size - 1] == slot)
+				return;																			//O TRIGRAMA JÁ APARECEU NESTA POSIÇÃO.
+			if(size == slots.length)
+				slots = Arrays.copyOf(slots, size * 2);
+			slots[size++] = slot;
+		}
+
+		/*
+		 * Retorna o índice da primeira posição maior ou igual à informada, a partir de um índice, com busca exponencial.
+		 */
+		private int seek(int from, int slot) {
+			int step = 1, low = from, high = from;
+			while(high < size && slots[high] < slot) {
+				low = high + 1;
+				high += step;
+				step <<= 1;
+			}
+			int index = Arrays.binarySearch(slots, low, Math.min(high + 1, size), slot);
+			return index >= 0 ? index : -index - 1;
+		}
+	}
+}
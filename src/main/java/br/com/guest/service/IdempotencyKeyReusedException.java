@@ -0,0 +1,23 @@
+package br.com.guest.service;
+
+/**
+ * Exceção lançada quando uma chave de idempotência já usada é enviada com outro conteúdo.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 * @param key Chave de idempotência reutilizada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public IdempotencyKeyReusedException(String key) {
+		super("A chave " + key + " já foi usada com outro conteúdo.");
+	}
+}
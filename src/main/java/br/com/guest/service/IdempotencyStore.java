@@ -0,0 +1,147 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.config.ReplicaRoutingDataSource;
+import br.com.guest.model.IdempotencyKey;
+import br.com.guest.repository.IdempotencyKeyRepository;
+
+/**
+ * Classe responsável por executar uma única vez as gravações enviadas com o cabeçalho {@value #HEADER}.
+ * <p>
+ * As chaves ficam na tabela <code>tb_idempotency_key</code>, compartilhada entre as instâncias, e são removidas após
+ * <code>hotel.idempotency.ttl</code>. O registro da chave é incluído na mesma transação da gravação, junto com o
+ * resultado: uma repetição recebe o mesmo resultado sem gravar novamente, e uma repetição enviada enquanto a primeira
+ * ainda grava espera pelo commit dela no banco, em qualquer instância. Gravações com erro desfazem também a chave,
+ * permitindo nova tentativa.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class IdempotencyStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyStore.class);
+
+	/**
+	 * Cabeçalho com a chave escolhida pelo cliente para a gravação.
+	 */
+	public static final String HEADER = "Idempotency-Key";
+
+	/*
+	 * Tentativas quando a chave é removida por vencimento entre a inclusão recusada e a leitura.
+	 */
+	private static final int ATTEMPTS = 3;
+
+	@Autowired
+	IdempotencyKeyRepository idempotencyKeyRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${hotel.idempotency.ttl:86400000}")
+	long ttl;
+
+	/**
+	 * Método responsável por executar a gravação, ou retornar o resultado da execução anterior com a mesma chave.
+	 * @param <T> Tipo do resultado.
+	 * @param scope Endpoint da gravação, para que a mesma chave possa ser usada em endpoints diferentes.
+	 * @param key Chave enviada pelo cliente, ou null para executar sem controle.
+	 * @param request Conteúdo enviado, comparado ao da execução anterior.
+	 * @param type Classe do resultado, lido em JSON nas repetições.
+	 * @param action Gravação que será executada; participa da transação em que a chave é registrada.
+	 * @return Resultado da gravação.
+	 * @throws IdempotencyKeyReusedException Caso a chave já tenha sido usada com outro conteúdo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public <T> T execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+		if(key == null)
+			return action.get();
+		String id = digest((scope + ':' + key).getBytes(StandardCharsets.UTF_8));
+		String fingerprint = digest(toJson(request).getBytes(StandardCharsets.UTF_8));	//ANTES DA GRAVAÇÃO, QUE PODE ALTERAR O CONTEÚDO.
+		for(int attempt = 1; ; attempt++) {
+			AtomicBoolean claimed = new AtomicBoolean();
+			try {
+				return transactionTemplate.execute(status -> {
+					idempotencyKeyRepository.insert(id, fingerprint, new Timestamp(System.currentTimeMillis()));
+					claimed.set(true);
+					T result = action.get();
+					idempotencyKeyRepository.complete(id, toJson(result));
+					return result;
+				});
+			}catch(DataIntegrityViolationException e) {
+				if(claimed.get())
+					throw e;																	//ERRO DA PRÓPRIA GRAVAÇÃO.
+				IdempotencyKey previous = ReplicaRoutingDataSource.onPrimary(() -> idempotencyKeyRepository.findById(id).orElse(null));	//JÁ CONFIRMADA NO PRINCIPAL.
+				if(previous == null && attempt < ATTEMPTS)
+					continue;
+				if(previous == null)
+					throw e;
+				if(!previous.getFingerprint().equals(fingerprint))
+					throw new IdempotencyKeyReusedException(key);
+				return fromJson(previous.getResult(), type);
+			}
+		}
+	}
+
+	/**
+	 * Método responsável por remover as chaves usadas há mais de <code>hotel.idempotency.ttl</code>.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(fixedDelayString = "${hotel.idempotency.cleanup-interval:60000}")
+	public void removeExpired() {
+		int removed = idempotencyKeyRepository.deleteExpired(new Timestamp(System.currentTimeMillis() - ttl));
+		if(removed > 0)
+			LOGGER.debug("{} chave(s) de idempotência vencida(s) removida(s).", removed);
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		}catch(JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private <T> T fromJson(String json, Class<T> type) {
+		try {
+			return json == null ? null : objectMapper.readValue(json, type);
+		}catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String digest(byte[] content) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+		}catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Classe responsável por escrever itens no formato NDJSON (um objeto JSON por linha) à medida que são produzidos.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class NdjsonWriter {
+
+	/**
+	 * Tipo de conteúdo das respostas NDJSON.
+	 */
+	public static final String MEDIA_TYPE = "application/x-ndjson";
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Método responsável por escrever na saída todos os itens produzidos pela origem.
+	 * @param <T> Tipo dos itens.
+	 * @param output Saída onde os itens serão escritos.
+	 * @param source Origem que entregará cada item ao {@link Consumer} recebido.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public <T> void write(OutputStream output, Consumer<Consumer<T>> source) throws IOException {
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+			generator.setRootValueSeparator(null);
+			source.accept(item -> {
+				try {
+					generator.writeObject(item);
+					generator.writeRaw('\n');
+				}catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,601 @@
+package br.com.guest.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.ChangeEventRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Classe responsável por manter em memória os períodos de hospedagem, para responder quem está no hotel e quem já
+ * saiu em um determinado instante sem percorrer a tabela de check-ins.
+ * <p>
+ * Os períodos ficam em uma árvore de intervalos (treap ordenada pela entrada, com a maior saída de cada sub-árvore),
+ * e a primeira saída de cada hóspede fica em um conjunto ordenado. As duas consultas custam O(log n + k), sendo k a
+ * quantidade de períodos encontrados. Enquanto o índice é montado, as consultas são feitas no banco de dados.
+ * <p>
+ * As gravações desta instância entram no índice após o commit. As das demais instâncias (e as desta, de novo) são lidas
+ * do journal de alterações ({@link ChangeJournal}) a cada <code>hotel.occupancy.refresh-interval</code> ms, a partir da
+ * última posição lida, e os check-ins alterados são relidos do banco principal. Caso o journal já tenha removido
+ * alterações ainda não lidas, o índice é conferido com todos os check-ins.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class OccupancyIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OccupancyIndex.class);
+	private static final int GUEST_PAGE_SIZE = 1000;
+	private static final int FEED_PAGE_SIZE = 500;
+
+	/*
+	 * Ordem dos períodos de um hóspede e das primeiras saídas: saída, hóspede e check-in.
+	 */
+	private static final Comparator<Stay> BY_DEPARTURE = Comparator.<Stay>comparingLong(stay -> stay.departure)
+			.thenComparingLong(stay -> stay.guestId).thenComparingLong(stay -> stay.checkInId);
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Random priorities = new Random();
+	private final Map<Long, Stay> staysByCheckIn = new HashMap<>();
+	private final Map<Long, NavigableSet<Stay>> staysByGuest = new HashMap<>();
+	private final NavigableSet<Stay> firstDepartures = new TreeSet<>(BY_DEPARTURE);
+	private final Map<Long, Long> guestVersions = new HashMap<>();
+	private Stay root;
+
+	private volatile boolean ready;
+	private volatile long version;
+	private volatile long feedPosition;
+
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	ChangeJournal changeJournal;
+
+	@Autowired
+	ChangeEventRepository changeEventRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	/**
+	 * Método responsável por montar o índice a partir dos check-ins cadastrados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		long start = System.currentTimeMillis();
+		feedPosition = lastFeedPosition();													//ALTERAÇÕES POSTERIORES SÃO RELIDAS DO JOURNAL.
+		cursorRepository.forEachCheckIn(0, Long.MAX_VALUE, checkIn -> {
+			lock.writeLock().lock();
+			try {
+				if(!staysByCheckIn.containsKey(checkIn.getId())) {										//ALTERAÇÕES FEITAS DURANTE A MONTAGEM PREVALECEM.
+					add(checkIn);
+					version++;
+				}
+			}finally {
+				lock.writeLock().unlock();
+			}
+		});
+		ready = true;
+		LOGGER.info("Índice de ocupação montado com {} hospedagem(ns) em {} ms.", size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Método responsável por aplicar ao índice as alterações de check-ins e hóspedes publicadas no journal desde a última
+	 * leitura, inclusive as feitas por outras instâncias.
+	 * @return Quantidade de alterações lidas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(fixedDelayString = "${hotel.occupancy.refresh-interval:1000}")
+	public synchronized int refresh() {
+		if(!ready)
+			return 0;
+		int total = 0, read;
+		do {
+			read = transactionTemplate.execute(status -> refreshPage());					//TRANSAÇÃO DE GRAVAÇÃO: LIDA DO BANCO PRINCIPAL, NÃO DE UMA RÉPLICA.
+			total += read;
+		}while(read == FEED_PAGE_SIZE);
+		return total;
+	}
+
+	/**
+	 * Método responsável por atualizar o período de um check-in, após a confirmação da transação.
+	 * @param event {@link CheckInSavedEvent} com o check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		put(event.getCheckIn());
+	}
+
+	/**
+	 * Método responsável por registrar a versão de um hóspede gravado nesta instância, após a confirmação da transação,
+	 * para que a mesma gravação lida depois do journal não descarte de novo as listas.
+	 * @param event {@link GuestSavedEvent} com o hóspede salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestSaved(GuestSavedEvent event) {
+		lock.writeLock().lock();
+		try {
+			guestChanged(event.getGuest().getId(), event.getGuest().getVersion());
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por incluir os períodos dos check-ins importados, após a confirmação da transação.
+	 * @param event {@link CheckInsImportedEvent} com os check-ins criados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onCheckInsImported(CheckInsImportedEvent event) {
+		lock.writeLock().lock();
+		try {
+			event.getCheckIns().forEach(this::add);
+			version++;
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por incluir ou atualizar o período de um check-in.
+	 * @param checkIn {@link CheckIn} que será indexado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void put(CheckIn checkIn) {
+		lock.writeLock().lock();
+		try {
+			remove(checkIn.getId());
+			add(checkIn);
+			version++;
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por buscar os hóspedes que estão no hotel em um instante.
+	 * @param instant Instante consultado.
+	 * @return Lista de {@link Guest}, em ordem de código.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Guest> findInHouse(Timestamp instant) {
+		if(!ready)
+			return guestRepository.findByCheckinCurrent(instant);
+		return load(inHouse(instant.getTime()));
+	}
+
+	/**
+	 * Método responsável por buscar os hóspedes que já fizeram check-out até um instante.
+	 * @param instant Instante consultado.
+	 * @return Lista de {@link Guest}, em ordem de código.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Guest> findCheckedOut(Timestamp instant) {
+		if(!ready)
+			return guestRepository.findByCheckinOld(instant);
+		return load(checkedOut(instant.getTime()));
+	}
+
+	/**
+	 * Método responsável por retornar os códigos dos hóspedes com entrada antes e saída depois de um instante.
+	 * @param instant Instante consultado, em milissegundos.
+	 * @return Códigos dos hóspedes, sem repetição.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Collection<Long> inHouse(long instant) {
+		lock.readLock().lock();
+		try {
+			Collection<Long> guestIds = new LinkedHashSet<>();
+			stab(root, instant, guestIds);
+			return guestIds;
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por retornar os códigos dos hóspedes com alguma saída antes de um instante.
+	 * @param instant Instante consultado, em milissegundos.
+	 * @return Códigos dos hóspedes, sem repetição.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public Collection<Long> checkedOut(long instant) {
+		lock.readLock().lock();
+		try {
+			Collection<Long> guestIds = new ArrayList<>();
+			for(Stay stay : firstDepartures.headSet(new Stay(0, Long.MIN_VALUE, 0, instant), false))	//PRIMEIRA SAÍDA DE CADA HÓSPEDE ANTES DO INSTANTE.
+				guestIds.add(stay.guestId);
+			return guestIds;
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por retornar o primeiro instante, depois do informado, em que a lista de hóspedes no hotel pode
+	 * mudar sem nenhuma alteração nos check-ins: a próxima entrada ou a saída mais próxima de quem está no hotel.
+	 * @param instant Instante consultado, em milissegundos.
+	 * @return Instante da próxima mudança, o próprio instante enquanto o índice é montado, ou {@link Long#MAX_VALUE}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long nextInHouseChange(long instant) {
+		if(!ready)
+			return instant;
+		lock.readLock().lock();
+		try {
+			long next = Long.MAX_VALUE;
+			for(Stay node = root; node != null; ) {												//MENOR ENTRADA A PARTIR DO INSTANTE.
+				if(node.entry >= instant) {
+					next = node.entry + 1;
+					node = node.left;
+				}else {
+					node = node.right;
+				}
+			}
+			return Math.min(next, firstDeparture(root, instant, Long.MAX_VALUE));
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por retornar o primeiro instante, depois do informado, em que um novo hóspede passa a constar
+	 * entre os que já saíram.
+	 * @param instant Instante consultado, em milissegundos.
+	 * @return Instante da próxima mudança, o próprio instante enquanto o índice é montado, ou {@link Long#MAX_VALUE}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long nextCheckedOutChange(long instant) {
+		if(!ready)
+			return instant;
+		lock.readLock().lock();
+		try {
+			Stay next = firstDepartures.ceiling(new Stay(0, Long.MIN_VALUE, 0, instant));
+			return next == null ? Long.MAX_VALUE : next.departure + 1;
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Método responsável por retornar a versão do índice, incrementada a cada alteração de períodos.
+	 * @return Versão atual.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de períodos indexados.
+	 * @return Quantidade de períodos.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return staysByCheckIn.size();
+		}finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * Lê uma página do journal e aplica os check-ins alterados, relidos do banco.
+	 */
+	private int refreshPage() {
+		List<ChangeEvent> changes;
+		try {
+			changes = changeJournal.read(feedPosition, FEED_PAGE_SIZE);
+		}catch (ChangeFeedExpiredException e) {
+			LOGGER.warn("Alterações após a posição {} já removidas do journal; conferindo o índice de ocupação com todos os check-ins.", feedPosition);
+			feedPosition = lastFeedPosition();
+			cursorRepository.forEachCheckIn(0, Long.MAX_VALUE, this::apply);
+			return 0;
+		}
+		Set<Long> checkInIds = new LinkedHashSet<>();
+		List<ChangeEvent> guestChanges = new ArrayList<>();
+		for(ChangeEvent change : changes) {
+			if(ChangeEvent.CHECK_IN.equals(change.getEntityType()))
+				checkInIds.add(change.getEntityId());
+			else if(ChangeEvent.GUEST.equals(change.getEntityType()))
+				guestChanges.add(change);
+		}
+		if(!checkInIds.isEmpty())
+			checkInRepository.findAllById(checkInIds).forEach(this::apply);
+		lock.writeLock().lock();
+		try {
+			for(ChangeEvent change : guestChanges) {
+				if(guestChanged(change.getEntityId(), change.getEntityVersion()))
+					version++;																	//NOME OU DADOS DE UM HÓSPEDE LISTADO, GRAVADO EM OUTRA INSTÂNCIA.
+			}
+		}finally {
+			lock.writeLock().unlock();
+		}
+		if(!changes.isEmpty())
+			feedPosition = changes.get(changes.size() - 1).getPosition();
+		return changes.size();
+	}
+
+	/*
+	 * Atualiza o período de um check-in lido do banco, sem alterar a versão quando o período já está indexado.
+	 */
+	private void apply(CheckIn checkIn) {
+		lock.writeLock().lock();
+		try {
+			Stay stay = staysByCheckIn.get(checkIn.getId());
+			boolean indexable = checkIn.getGuest() != null && checkIn.getEntryDate() != null && checkIn.getDepartureDate() != null;
+			if(stay == null ? !indexable : indexable && stay.guestId == checkIn.getGuest().getId()
+					&& stay.entry == checkIn.getEntryDate().getTime() && stay.departure == checkIn.getDepartureDate().getTime())
+				return;
+			remove(checkIn.getId());
+			add(checkIn);
+			version++;
+		}finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * Registra a versão de um hóspede com períodos indexados. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private boolean guestChanged(long guestId, Long guestVersion) {
+		if(!staysByGuest.containsKey(guestId))
+			return false;
+		Long known = guestVersions.get(guestId);
+		if(known != null && guestVersion != null && guestVersion <= known)
+			return false;																		//JÁ VISTA NA GRAVAÇÃO FEITA NESTA INSTÂNCIA.
+		if(guestVersion != null)
+			guestVersions.put(guestId, guestVersion);
+		return true;
+	}
+
+	private long lastFeedPosition() {
+		Long position = changeEventRepository.findMaxPosition();
+		return position == null ? 0 : position;
+	}
+
+	/*
+	 * Busca os hóspedes no banco em páginas, para não passar do limite de parâmetros do IN.
+	 */
+	private List<Guest> load(Collection<Long> guestIds) {
+		List<Long> ids = new ArrayList<>(guestIds);
+		ids.sort(null);
+		List<Guest> guests = new ArrayList<>(ids.size());
+		for(int from = 0; from < ids.size(); from += GUEST_PAGE_SIZE) {
+			List<Guest> page = guestRepository.findAllById(ids.subList(from, Math.min(from + GUEST_PAGE_SIZE, ids.size())));
+			page.sort(Comparator.comparingLong(Guest::getId));
+			guests.addAll(page);
+		}
+		return guests;
+	}
+
+	/*
+	 * Inclui o período do check-in. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private void add(CheckIn checkIn) {
+		if(checkIn.getGuest() == null || checkIn.getEntryDate() == null || checkIn.getDepartureDate() == null)
+			return;																				//SEM HÓSPEDE OU DATAS, NÃO APARECE NAS CONSULTAS.
+		Stay stay = new Stay(checkIn.getId(), checkIn.getGuest().getId(), checkIn.getEntryDate().getTime(), checkIn.getDepartureDate().getTime());
+		stay.priority = priorities.nextInt();
+		staysByCheckIn.put(stay.checkInId, stay);
+		root = insert(root, stay);
+
+		NavigableSet<Stay> guestStays = staysByGuest.computeIfAbsent(stay.guestId, id -> new TreeSet<>(BY_DEPARTURE));
+		Stay first = guestStays.isEmpty() ? null : guestStays.first();
+		guestStays.add(stay);
+		if(first == null || BY_DEPARTURE.compare(stay, first) < 0) {
+			if(first != null)
+				firstDepartures.remove(first);
+			firstDepartures.add(stay);
+		}
+	}
+
+	/*
+	 * Remove o período do check-in, caso exista. Deve ser chamado com o bloqueio de escrita.
+	 */
+	private void remove(long checkInId) {
+		Stay stay = staysByCheckIn.remove(checkInId);
+		if(stay == null)
+			return;
+		root = delete(root, stay);
+
+		NavigableSet<Stay> guestStays = staysByGuest.get(stay.guestId);
+		boolean wasFirst = guestStays.first() == stay;
+		guestStays.remove(stay);
+		if(wasFirst) {
+			firstDepartures.remove(stay);
+			if(guestStays.isEmpty())
+				staysByGuest.remove(stay.guestId);
+			else
+				firstDepartures.add(guestStays.first());
+		}
+	}
+
+	/*
+	 * Percorre somente as sub-árvores que podem ter períodos contendo o instante.
+	 */
+	private static void stab(Stay node, long instant, Collection<Long> guestIds) {
+		while(node != null && node.maxDeparture > instant) {
+			stab(node.left, instant, guestIds);
+			if(node.entry >= instant)
+				return;																			//À DIREITA TODAS AS ENTRADAS SÃO POSTERIORES.
+			if(node.departure > instant)
+				guestIds.add(node.guestId);
+			node = node.right;
+		}
+	}
+
+	/*
+	 * Menor saída entre os períodos que contêm o instante, pelo mesmo caminho da consulta de quem está no hotel.
+	 */
+	private static long firstDeparture(Stay node, long instant, long min) {
+		while(node != null && node.maxDeparture > instant) {
+			min = firstDeparture(node.left, instant, min);
+			if(node.entry >= instant)
+				return min;
+			if(node.departure > instant && node.departure < min)
+				min = node.departure;
+			node = node.right;
+		}
+		return min;
+	}
+
+	private static Stay insert(Stay node, Stay stay) {
+		if(node == null)
+			return stay.update();
+		if(compareEntry(stay, node) < 0) {
+			node.left = insert(node.left, stay);
+			if(node.left.priority > node.priority)
+				node = rotateRight(node);
+		}else {
+			node.right = insert(node.right, stay);
+			if(node.right.priority > node.priority)
+				node = rotateLeft(node);
+		}
+		return node.update();
+	}
+
+	private static Stay delete(Stay node, Stay stay) {
+		if(node == null)
+			return null;
+		if(node == stay)
+			return merge(node.left, node.right);
+		if(compareEntry(stay, node) < 0)
+			node.left = delete(node.left, stay);
+		else
+			node.right = delete(node.right, stay);
+		return node.update();
+	}
+
+	private static Stay merge(Stay left, Stay right) {
+		if(left == null)
+			return right;
+		if(right == null)
+			return left;
+		if(left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			return left.update();
+		}
+		right.left = merge(left, right.left);
+		return right.update();
+	}
+
+	private static Stay rotateRight(Stay node) {
+		Stay left = node.left;
+		node.left = left.right;
+		left.right = node.update();
+		return left.update();
+	}
+
+	private static Stay rotateLeft(Stay node) {
+		Stay right = node.right;
+		node.right = right.left;
+		right.left = node.update();
+		return right.update();
+	}
+
+	private static int compareEntry(Stay a, Stay b) {
+		int compare = Long.compare(a.entry, b.entry);
+		return compare != 0 ? compare : Long.compare(a.checkInId, b.checkInId);
+	}
+
+	/**
+	 * Período de hospedagem de um check-in, também nó da árvore de intervalos.
+	 */
+	private static final class Stay {
+
+		private final long checkInId, guestId, entry, departure;
+		private int priority;
+		private long maxDeparture;
+		private Stay left, right;
+
+		private Stay(long checkInId, long guestId, long entry, long departure) {
+			this.checkInId = checkInId;
+			this.guestId = guestId;
+			this.entry = entry;
+			this.departure = departure;
+		}
+
+		/*
+		 * Recalcula a maior saída da sub-árvore.
+		 */
+		private Stay update() {
+			maxDeparture = departure;
+			if(left != null && left.maxDeparture > maxDeparture)
+				maxDeparture = left.maxDeparture;
+			if(right != null && right.maxDeparture > maxDeparture)
+				maxDeparture = right.maxDeparture;
+			return this;
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package br.com.guest.service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.guest.config.ReplicaRoutingDataSource;
+import br.com.guest.config.WireFormatConfig;
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.Guest;
+
+/**
+ * Classe responsável pelas listas atuais de hóspedes no hotel e de hóspedes que já saíram, consultadas repetidamente
+ * pelos terminais da recepção e painéis do saguão.
+ * <p>
+ * Cada lista é montada uma vez e guardada, já serializada em cada formato pedido, até que mude: por uma alteração nos
+ * períodos do {@link OccupancyIndex} ou nos hóspedes, ou pela próxima entrada ou saída prevista nos check-ins. Pedidos
+ * simultâneos sem lista válida aguardam a mesma montagem, de modo que a quantidade de consultas ao banco não depende da
+ * quantidade de terminais. Um pedido feito depois de uma alteração confirmada nunca recebe uma lista anterior a ela.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class OccupancySnapshot {
+
+	@Autowired
+	OccupancyIndex occupancyIndex;
+
+	@Autowired
+	MappingJackson2HttpMessageConverter jsonConverter;
+
+	@Autowired
+	MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	@Autowired
+	MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	/*
+	 * Relógio que define o instante das listas e o vencimento das guardadas.
+	 */
+	Clock clock = Clock.systemUTC();
+
+	/*
+	 * Alterações de hóspedes confirmadas, somadas à versão do índice na versão das listas.
+	 */
+	private final AtomicLong guestChanges = new AtomicLong();
+
+	/*
+	 * Formatos das respostas, com o JSON primeiro: é o escolhido quando o cliente aceita qualquer um.
+	 */
+	private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+	private final Slot inHouse = new Slot("atuais", instant -> occupancyIndex.nextInHouseChange(instant),
+			instant -> occupancyIndex.findInHouse(instant));
+	private final Slot checkedOut = new Slot("passado", instant -> occupancyIndex.nextCheckedOutChange(instant),
+			instant -> occupancyIndex.findCheckedOut(instant));
+
+	@PostConstruct
+	void start() {
+		mappers.put(MediaType.APPLICATION_JSON, jsonConverter.getObjectMapper());
+		mappers.put(WireFormatConfig.SMILE, smileConverter.getObjectMapper());
+		mappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+	}
+
+	/**
+	 * Método responsável por retornar a lista atual de hóspedes no hotel, serializada.
+	 * @param mediaType Formato escolhido por {@link #negotiate(String)}.
+	 * @return Conteúdo da resposta, que não deve ser alterado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public byte[] inHouse(MediaType mediaType) {
+		return inHouse.get().body(mediaType);
+	}
+
+	/**
+	 * Método responsável por retornar a lista atual de hóspedes que já saíram do hotel, serializada.
+	 * @param mediaType Formato escolhido por {@link #negotiate(String)}.
+	 * @return Conteúdo da resposta, que não deve ser alterado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public byte[] checkedOut(MediaType mediaType) {
+		return checkedOut.get().body(mediaType);
+	}
+
+	/**
+	 * Método responsável por escolher, pelo cabeçalho <code>Accept</code>, entre JSON, Smile e CBOR.
+	 * @param accept Cabeçalho <code>Accept</code> da requisição, ou null.
+	 * @return Formato da resposta, JSON quando o cliente aceita qualquer um.
+	 * @throws HttpMediaTypeNotAcceptableException Caso o cliente não aceite nenhum dos três.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public MediaType negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+		if(!StringUtils.hasText(accept))
+			return MediaType.APPLICATION_JSON;
+		List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+		MediaType.sortBySpecificityAndQuality(accepted);
+		for(MediaType mediaType : accepted) {
+			for(MediaType supported : mappers.keySet()) {
+				if(mediaType.isCompatibleWith(supported))
+					return supported;
+			}
+		}
+		throw new HttpMediaTypeNotAcceptableException(new ArrayList<>(mappers.keySet()));
+	}
+
+	/**
+	 * Método responsável por descartar as listas guardadas após a gravação de um hóspede, que pode ter mudado o nome ou os dados.
+	 * @param event Evento do hóspede salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestSaved(GuestSavedEvent event) {
+		guestChanges.incrementAndGet();
+	}
+
+	/**
+	 * Método responsável por descartar as listas guardadas após a exclusão de um hóspede.
+	 * @param event Evento do hóspede deletado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@TransactionalEventListener
+	public void onGuestDeleted(GuestDeletedEvent event) {
+		guestChanges.incrementAndGet();
+	}
+
+	/*
+	 * Soma de dois contadores que só crescem: muda sempre que um deles muda.
+	 */
+	private long version() {
+		return occupancyIndex.version() + guestChanges.get();
+	}
+
+	private void count(String list, String result) {
+		if(meterRegistry != null)
+			Counter.builder("hotel.occupancy.snapshot").description("Pedidos das listas de ocupação, por origem da resposta")
+					.tag("lista", list).tag("resultado", result).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Uma das listas: a versão guardada e a montagem em andamento.
+	 */
+	private final class Slot {
+
+		private final String name;
+		private final LongUnaryOperator nextChange;
+		private final Function<Timestamp, List<Guest>> find;
+		private final AtomicReference<Build> building = new AtomicReference<>();
+		private volatile Snapshot current;
+
+		private Slot(String name, LongUnaryOperator nextChange, Function<Timestamp, List<Guest>> find) {
+			this.name = name;
+			this.nextChange = nextChange;
+			this.find = find;
+		}
+
+		private Snapshot get() {
+			long version = version();
+			Snapshot snapshot = current;
+			if(snapshot != null && snapshot.version == version && clock.millis() < snapshot.validUntil) {
+				count(name, "guardada");
+				return snapshot;
+			}
+			while(true) {
+				Build build = building.get();
+				if(build != null && build.version == version) {								//MONTAGEM JÁ INICIADA COM OS MESMOS DADOS.
+					count(name, "compartilhada");
+					return build.await();
+				}
+				Build mine = new Build(version);
+				if(!building.compareAndSet(build, mine))
+					continue;
+				count(name, "montada");
+				try {
+					long instant = clock.millis();
+					long validUntil = nextChange.applyAsLong(instant);
+					List<Guest> guests = ReplicaRoutingDataSource.onPrimary(() -> find.apply(new Timestamp(instant)));
+					snapshot = new Snapshot(version, validUntil, guests);
+					current = snapshot;
+					mine.result.complete(snapshot);
+					return snapshot;
+				}catch (RuntimeException e) {
+					mine.result.completeExceptionally(e);
+					throw e;
+				}finally {
+					building.compareAndSet(mine, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Montagem de uma lista, aguardada pelos pedidos que chegam durante ela.
+	 */
+	private static final class Build {
+
+		private final long version;
+		private final CompletableFuture<Snapshot> result = new CompletableFuture<>();
+
+		private Build(long version) {
+			this.version = version;
+		}
+
+		private Snapshot await() {
+			try {
+				return result.join();
+			}catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+	}
+
+	/**
+	 * Lista montada em um instante, válida enquanto a versão não muda e até a próxima entrada ou saída prevista.
+	 */
+	private final class Snapshot {
+
+		private final long version, validUntil;
+		private final List<Guest> guests;
+		private final Map<MediaType, byte[]> bodies = new ConcurrentHashMap<>();
+
+		private Snapshot(long version, long validUntil, List<Guest> guests) {
+			this.version = version;
+			this.validUntil = validUntil;
+			this.guests = guests;
+		}
+
+		private byte[] body(MediaType mediaType) {
+			return bodies.computeIfAbsent(mediaType, type -> {
+				try {
+					return mappers.get(type).writeValueAsBytes(guests);
+				}catch (JsonProcessingException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+	}
+}
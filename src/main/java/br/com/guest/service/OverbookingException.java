@@ -0,0 +1,39 @@
+package br.com.guest.service;
+
+import java.time.LocalDate;
+
+/**
+ * Exceção lançada quando um check-in ocupa uma noite sem quartos livres e a verificação de disponibilidade está ativa.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class OverbookingException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LocalDate night;
+
+	/**
+	 * Construtor da exceção.
+	 * @param night Primeira noite sem quartos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public OverbookingException(LocalDate night) {
+		super("Sem quartos livres na noite de " + night + ".");
+		this.night = night;
+	}
+
+	/**
+	 * Método responsável por retornar a primeira noite sem quartos livres.
+	 * @return Noite sem quartos livres.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public LocalDate getNight() {
+		return night;
+	}
+}
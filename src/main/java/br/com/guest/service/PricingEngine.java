@@ -0,0 +1,331 @@
+package br.com.guest.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Classe responsável por calcular o custo das diárias de uma hospedagem.
+ * <p>
+ * A contagem de diárias em dias úteis e finais de semana é feita em tempo constante a partir das datas de entrada e saída,
+ * sem percorrer a hospedagem dia a dia, seguindo as mesmas regras do cálculo original (inclusive a regra de saída após as 16:30).
+ * Os valores vêm da {@link RateTable} vigente, cujas somas pré-calculadas permitem obter o valor da hospedagem sem avaliar regras.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Component
+public class PricingEngine {
+
+	/**
+	 * Horário máximo de saída, após o qual é cobrada uma diária adicional.
+	 */
+	public static final LocalTime LATE_CHECKOUT = LocalTime.of(16, 30);
+
+	private final Supplier<RateTable> rateTables;
+	private final ZoneId zone;
+
+	/*
+	 * Registro de métricas da aplicação; ausente quando o cálculo é criado diretamente (testes e benchmarks).
+	 */
+	@Autowired(required = false)
+	MeterRegistry meterRegistry;
+
+	private Timer timer;
+	private Counter allocatedBytes;
+	private com.sun.management.ThreadMXBean threads;
+
+	/**
+	 * Construtor responsável por usar a tabela de tarifas vigente e o fuso horário do sistema.
+	 * @param rateTableService Serviço que disponibiliza a tabela de tarifas vigente.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Autowired
+	public PricingEngine(RateTableService rateTableService) {
+		this(rateTableService, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Construtor responsável por definir a origem da tabela de tarifas e o fuso horário.
+	 * @param rateTables Origem da tabela de tarifas, consultada a cada cálculo.
+	 * @param zone Fuso horário usado para definir o dia de cada data.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public PricingEngine(Supplier<RateTable> rateTables, ZoneId zone) {
+		this.rateTables = rateTables;
+		this.zone = zone;
+	}
+
+	/**
+	 * Método responsável por registrar o tempo de cada cálculo e os bytes alocados pela thread durante o cálculo,
+	 * cuja taxa é a alocação atribuída ao cálculo de tarifas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostConstruct
+	void registerMeters() {
+		if(meterRegistry == null)
+			return;
+		timer = Timer.builder("hotel.pricing").description("Cálculo do custo das diárias").register(meterRegistry);
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if(threadMXBean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled()) {
+			threads = (com.sun.management.ThreadMXBean) threadMXBean;
+			allocatedBytes = Counter.builder("hotel.pricing.allocated").baseUnit("bytes")
+					.description("Bytes alocados durante o cálculo do custo das diárias").register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Método responsável por retornar o custo das diárias de um check-in.
+	 * @param checkIn check-in que será calculado o custo.
+	 * @return Custo total da hospedagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal dailyTotals(CheckIn checkIn) {
+		return dailyTotals(checkIn.getEntryDate(), checkIn.getDepartureDate(), checkIn.isAdditionalVehicle());
+	}
+
+	/**
+	 * Método responsável por retornar o custo das diárias de uma hospedagem.
+	 * @param entryDate Data/hora de entrada.
+	 * @param departureDate Data/hora de saída.
+	 * @param additionalVehicle <code>true</code> caso tenha adicional de veículos e <code>false</code> caso contrário.
+	 * @return Custo total da hospedagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal dailyTotals(Timestamp entryDate, Timestamp departureDate, boolean additionalVehicle) {
+		if(timer == null)
+			return calculate(entryDate, departureDate, additionalVehicle);
+		long threadId = Thread.currentThread().getId();
+		long allocated = allocatedBytes == null ? 0 : threads.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		BigDecimal total = calculate(entryDate, departureDate, additionalVehicle);
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		if(allocatedBytes != null)
+			allocatedBytes.increment(threads.getThreadAllocatedBytes(threadId) - allocated);
+		return total;
+	}
+
+	/**
+	 * Método responsável por calcular o custo das diárias de uma hospedagem, sem medições.
+	 * @param entryDate Data/hora de entrada.
+	 * @param departureDate Data/hora de saída.
+	 * @param additionalVehicle <code>true</code> caso tenha adicional de veículos e <code>false</code> caso contrário.
+	 * @return Custo total da hospedagem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private BigDecimal calculate(Timestamp entryDate, Timestamp departureDate, boolean additionalVehicle) {
+		RateTable rates = rateTables.get();													//VERSÃO DA TABELA USADA EM TODO O CÁLCULO.
+		LocalDateTime entry = LocalDateTime.ofInstant(entryDate.toInstant(), zone);
+		LocalDateTime departure = LocalDateTime.ofInstant(departureDate.toInstant(), zone);
+		long entryDay = entry.toLocalDate().toEpochDay();
+		long nights = nights(entryDay, departure);
+
+		long total = rates.total(entryDay, entryDay + nights, additionalVehicle);
+		if(isLateCheckout(departure)) {
+			long extraDay = entryDay + nights + 1;											//A DIÁRIA EXTRA É CONTADA NO DIA SEGUINTE AO ÚLTIMO DIA DO LOOP ORIGINAL.
+			total += rates.total(extraDay, extraDay + 1, additionalVehicle);
+		}
+		return rates.toBigDecimal(total);
+	}
+
+	/**
+	 * Interface que recebe, uma a uma, as diárias cobradas de uma hospedagem.
+	 */
+	@FunctionalInterface
+	public interface NightConsumer {
+
+		/**
+		 * Método responsável por receber uma diária cobrada.
+		 * @param epochDay Dia da diária, em dias desde 01/01/1970.
+		 * @param weekend <code>true</code> caso seja sábado ou domingo e <code>false</code> caso contrário.
+		 * @param room Valor da diária do quarto.
+		 * @param vehicle Valor da garagem, zero quando não há adicional de veículos.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		void accept(long epochDay, boolean weekend, BigDecimal room, BigDecimal vehicle);
+	}
+
+	/**
+	 * Método responsável por percorrer as diárias cobradas de um check-in, com os mesmos dias usados em {@link #dailyTotals(CheckIn)}
+	 * (inclusive a diária extra de saída tardia) e os valores da tabela de tarifas vigente.
+	 * @param checkIn Check-in cujas diárias serão percorridas.
+	 * @param consumer Quem receberá cada diária.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void forEachNight(CheckIn checkIn, NightConsumer consumer) {
+		RateTable rates = rateTables.get();
+		LocalDateTime entry = LocalDateTime.ofInstant(checkIn.getEntryDate().toInstant(), zone);
+		LocalDateTime departure = LocalDateTime.ofInstant(checkIn.getDepartureDate().toInstant(), zone);
+		long entryDay = entry.toLocalDate().toEpochDay();
+		long nights = nights(entryDay, departure);
+
+		for(long day = entryDay; day < entryDay + nights; day++)
+			night(rates, day, checkIn.isAdditionalVehicle(), consumer);
+		if(isLateCheckout(departure))
+			night(rates, entryDay + nights + 1, checkIn.isAdditionalVehicle(), consumer);
+	}
+
+	/*
+	 * Entrega o valor do quarto e da garagem de um único dia.
+	 */
+	private static void night(RateTable rates, long day, boolean additionalVehicle, NightConsumer consumer) {
+		BigDecimal room = rates.toBigDecimal(rates.roomWorkingDays(day, day + 1) + rates.roomWeekends(day, day + 1));
+		BigDecimal vehicle = rates.toBigDecimal(additionalVehicle ? rates.garageWorkingDays(day, day + 1) + rates.garageWeekends(day, day + 1) : 0);
+		consumer.accept(day, isWeekend(day), room, vehicle);
+	}
+
+	/**
+	 * Método responsável por contar as diárias em dias úteis e em finais de semana de uma hospedagem.
+	 * @param entryDate Data/hora de entrada.
+	 * @param departureDate Data/hora de saída.
+	 * @return Quantidade de diárias compactada, sendo os 32 bits mais altos os dias úteis e os mais baixos os finais de semana.
+	 * @see #workingDays(long)
+	 * @see #weekends(long)
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long countNights(Timestamp entryDate, Timestamp departureDate) {
+		LocalDateTime entry = LocalDateTime.ofInstant(entryDate.toInstant(), zone);
+		LocalDateTime departure = LocalDateTime.ofInstant(departureDate.toInstant(), zone);
+		long entryDay = entry.toLocalDate().toEpochDay();
+		long nights = nights(entryDay, departure);
+
+		int weekends = countWeekends(entryDay, nights);
+		int workingDays = (int) nights - weekends;
+
+		if(isLateCheckout(departure)) {
+			if(isWeekend(entryDay + nights + 1))											//A DIÁRIA EXTRA É CONTADA NO DIA SEGUINTE AO ÚLTIMO DIA DO LOOP ORIGINAL.
+				weekends++;
+			else
+				workingDays++;
+		}
+		return ((long) workingDays << 32) | (weekends & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Método responsável por retornar a quantidade de dias da hospedagem, sem a diária extra de saída tardia.
+	 * @param entryDay Dia de entrada, em dias desde 01/01/1970.
+	 * @param departure Data/hora de saída.
+	 * @return Quantidade de dias, sendo no mínimo um.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static long nights(long entryDay, LocalDateTime departure) {
+		return Math.max(1, departure.toLocalDate().toEpochDay() - entryDay);				//O LOOP ORIGINAL SEMPRE CONTA AO MENOS UM DIA.
+	}
+
+	/**
+	 * Método responsável por verificar se a saída ocorre após o horário máximo.
+	 * @param departure Data/hora de saída.
+	 * @return <code>true</code> caso seja cobrada uma diária extra e <code>false</code> caso contrário.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static boolean isLateCheckout(LocalDateTime departure) {
+		return departure.toLocalTime().isAfter(LATE_CHECKOUT);
+	}
+
+	/**
+	 * Método responsável por extrair a quantidade de diárias em dias úteis.
+	 * @param nights Valor retornado por {@link #countNights(Timestamp, Timestamp)}.
+	 * @return Quantidade de diárias em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static int workingDays(long nights) {
+		return (int) (nights >>> 32);
+	}
+
+	/**
+	 * Método responsável por extrair a quantidade de diárias em finais de semana.
+	 * @param nights Valor retornado por {@link #countNights(Timestamp, Timestamp)}.
+	 * @return Quantidade de diárias em finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static int weekends(long nights) {
+		return (int) nights;
+	}
+
+	/**
+	 * Método responsável por contar os sábados e domingos de um intervalo de dias.
+	 * @param firstDay Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param days Quantidade de dias do intervalo.
+	 * @return Quantidade de dias de finais de semana.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static int countWeekends(long firstDay, long days) {
+		int weekends = (int) (days / 7) * 2;												//CADA SEMANA COMPLETA TEM DOIS DIAS DE FINAL DE SEMANA.
+		int dayWeek = dayOfWeek(firstDay);
+		for(int i = 0; i < days % 7; i++) {													//NO MÁXIMO SEIS DIAS RESTANTES.
+			if((dayWeek + i) % 7 >= 5)
+				weekends++;
+		}
+		return weekends;
+	}
+
+	/**
+	 * Método responsável por verificar se um dia é sábado ou domingo.
+	 * @param epochDay Dia, em dias desde 01/01/1970.
+	 * @return <code>true</code> caso seja final de semana e <code>false</code> caso contrário.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static boolean isWeekend(long epochDay) {
+		return dayOfWeek(epochDay) >= 5;
+	}
+
+	/**
+	 * Método responsável por retornar o dia da semana de um dia.
+	 * @param epochDay Dia, em dias desde 01/01/1970.
+	 * @return Dia da semana, sendo 0 segunda-feira e 6 domingo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	static int dayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + 3, 7L);										//01/01/1970 FOI UMA QUINTA-FEIRA.
+	}
+}
@@ -0,0 +1,98 @@
+package br.com.guest.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Classe responsável por cotar hospedagens em lote, sem persistir nada no banco de dados.
+ * <p>
+ * As hospedagens são lidas da entrada em blocos, cada bloco é cotado em paralelo no pool comum de fork-join
+ * e escrito na saída antes da leitura do próximo, mantendo a memória limitada ao tamanho do bloco.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class QuoteService {
+
+	/*
+	 * Quantidade de hospedagens cotadas por bloco.
+	 */
+	static final int CHUNK_SIZE = 1024;
+
+	@Autowired
+	PricingEngine pricingEngine;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Método responsável por cotar as hospedagens lidas da entrada e escrevê-las na saída com o custo total preenchido.
+	 * @param input Entrada contendo um array JSON ou uma sequência de objetos JSON (NDJSON) de {@link CheckIn}.
+	 * @param output Saída onde será escrito o array JSON de {@link CheckIn} cotados, na mesma ordem da entrada.
+	 * @throws IOException Caso ocorra erro na leitura ou escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void quote(InputStream input, OutputStream output) throws IOException {
+		try (MappingIterator<CheckIn> iterator = objectMapper.readerFor(CheckIn.class).readValues(input);
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+			List<CheckIn> chunk = new ArrayList<>(CHUNK_SIZE);
+			generator.writeStartArray();
+			while(iterator.hasNextValue()) {
+				chunk.add(iterator.nextValue());
+				if(chunk.size() == CHUNK_SIZE) {
+					writeChunk(chunk, generator);
+				}
+			}
+			writeChunk(chunk, generator);
+			generator.writeEndArray();
+		}
+	}
+
+	/**
+	 * Método responsável por cotar um bloco em paralelo e escrevê-lo na saída.
+	 * @param chunk Bloco de hospedagens, que será esvaziado ao final.
+	 * @param generator Gerador JSON da saída.
+	 * @throws IOException Caso ocorra erro na escrita.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void writeChunk(List<CheckIn> chunk, JsonGenerator generator) throws IOException {
+		chunk.parallelStream().forEach(this::quote);
+		for(CheckIn checkIn : chunk) {
+			generator.writeObject(checkIn);
+		}
+		generator.flush();
+		chunk.clear();
+	}
+
+	/**
+	 * Método responsável por cotar uma hospedagem, deixando o custo vazio quando as datas não forem informadas.
+	 * @param checkIn Hospedagem que será cotada.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void quote(CheckIn checkIn) {
+		if(checkIn.getEntryDate() == null || checkIn.getDepartureDate() == null)
+			checkIn.setTotalCost(null);
+		else
+			checkIn.setTotalCost(pricingEngine.dailyTotals(checkIn));
+	}
+}
@@ -0,0 +1,364 @@
+package br.com.guest.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import br.com.guest.service.RateTableDefinition.DateOverride;
+import br.com.guest.service.RateTableDefinition.Season;
+
+/**
+ * Classe imutável responsável por guardar uma versão pré-calculada da tabela de tarifas.
+ * <p>
+ * Dentro do horizonte calculado, o valor de cada dia já considera temporadas, feriados e datas específicas, e é guardado
+ * em somas acumuladas separadas por dias úteis e finais de semana do calendário. Assim, o valor de qualquer intervalo de dias
+ * é obtido com duas leituras de array. Fora do horizonte, os dias que têm alguma regra configurada são calculados a cada
+ * consulta com as mesmas regras, e os demais usam os valores base da tabela.
+ * <p>
+ * Os valores são guardados como inteiros na escala da tabela (a maior escala entre os valores configurados).
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public final class RateTable {
+
+	/*
+	 * Limite do horizonte pré-calculado e do período coberto pelas regras, em dias.
+	 */
+	private static final int MAX_HORIZON_DAYS = 100 * 366;
+
+	private final RateTableDefinition definition;
+	private final int scale;
+	private final long dailyWorkingDays, dailyWeekends, garageWorkingDays, garageWeekends;
+	private final long firstDay, lastDay;
+	private final long rulesFirstDay, rulesLastDay;
+	private final long[] roomWorkingDaysSum, roomWeekendsSum, garageWorkingDaysSum, garageWeekendsSum;
+
+	private RateTable(RateTableDefinition definition, int scale, long firstDay, long lastDay, long rulesFirstDay, long rulesLastDay) {
+		this.definition = definition;
+		this.scale = scale;
+		this.dailyWorkingDays = unscaled(definition.getDailyWorkingDays(), scale);
+		this.dailyWeekends = unscaled(definition.getDailyWeekends(), scale);
+		this.garageWorkingDays = unscaled(definition.getGarageWorkingDays(), scale);
+		this.garageWeekends = unscaled(definition.getGarageWeekends(), scale);
+		this.firstDay = firstDay;
+		this.lastDay = lastDay;
+		this.rulesFirstDay = rulesFirstDay;
+		this.rulesLastDay = rulesLastDay;
+		int days = (int) (lastDay - firstDay);
+		this.roomWorkingDaysSum = new long[days + 1];
+		this.roomWeekendsSum = new long[days + 1];
+		this.garageWorkingDaysSum = new long[days + 1];
+		this.garageWeekendsSum = new long[days + 1];
+	}
+
+	/**
+	 * Método responsável por montar a tabela de tarifas a partir da sua definição.
+	 * @param definition Definição da tabela de tarifas.
+	 * @param today Data de referência do horizonte.
+	 * @param pastDays Quantidade de dias antes da data de referência que serão pré-calculados.
+	 * @param futureDays Quantidade de dias a partir da data de referência que serão pré-calculados.
+	 * @return {@link RateTable} pré-calculada.
+	 * @throws IllegalArgumentException Caso a definição seja inválida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static RateTable of(RateTableDefinition definition, LocalDate today, int pastDays, int futureDays) {
+		validate(definition);
+
+		long firstDay = today.toEpochDay() - pastDays;
+		long lastDay = today.toEpochDay() + futureDays;
+		long rulesFirstDay = Long.MAX_VALUE, rulesLastDay = Long.MIN_VALUE;						//PERÍODO COM ALGUMA REGRA, DENTRO OU FORA DO HORIZONTE.
+		int scale = Math.max(0, maxScale(definition.getDailyWorkingDays(), definition.getDailyWeekends(),
+				definition.getGarageWorkingDays(), definition.getGarageWeekends()));
+		for(Season season : definition.getSeasons()) {
+			rulesFirstDay = Math.min(rulesFirstDay, season.getStart().toEpochDay());
+			rulesLastDay = Math.max(rulesLastDay, season.getEnd().toEpochDay() + 1);
+			scale = Math.max(scale, maxScale(season.getDailyWorkingDays(), season.getDailyWeekends(),
+					season.getGarageWorkingDays(), season.getGarageWeekends()));
+		}
+		for(LocalDate holiday : definition.getHolidays()) {
+			rulesFirstDay = Math.min(rulesFirstDay, holiday.toEpochDay());
+			rulesLastDay = Math.max(rulesLastDay, holiday.toEpochDay() + 1);
+		}
+		for(DateOverride override : definition.getOverrides()) {
+			rulesFirstDay = Math.min(rulesFirstDay, override.getDate().toEpochDay());
+			rulesLastDay = Math.max(rulesLastDay, override.getDate().toEpochDay() + 1);
+			scale = Math.max(scale, maxScale(override.getDaily(), override.getGarage()));
+		}
+		if(lastDay - firstDay > MAX_HORIZON_DAYS || rulesLastDay - rulesFirstDay > MAX_HORIZON_DAYS)
+			throw new IllegalArgumentException("A tabela de tarifas cobre mais de " + MAX_HORIZON_DAYS + " dias.");
+
+		RateTable table = new RateTable(definition, scale, firstDay, lastDay, rulesFirstDay, rulesLastDay);
+		table.precompute();
+		return table;
+	}
+
+	/**
+	 * Método responsável por calcular o valor de cada dia do horizonte e acumular as somas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void precompute() {
+		int days = (int) (lastDay - firstDay);
+		long[] room = new long[days];
+		long[] garage = new long[days];
+		rates(firstDay, room, garage);
+
+		for(int i = 0; i < days; i++) {
+			boolean weekend = PricingEngine.isWeekend(firstDay + i);
+			roomWorkingDaysSum[i + 1] = roomWorkingDaysSum[i] + (weekend ? 0 : room[i]);
+			roomWeekendsSum[i + 1] = roomWeekendsSum[i] + (weekend ? room[i] : 0);
+			garageWorkingDaysSum[i + 1] = garageWorkingDaysSum[i] + (weekend ? 0 : garage[i]);
+			garageWeekendsSum[i + 1] = garageWeekendsSum[i] + (weekend ? garage[i] : 0);
+		}
+	}
+
+	/**
+	 * Método responsável por calcular o valor do quarto e da garagem de cada dia de um período, com temporadas, feriados
+	 * e datas específicas.
+	 * @param from Primeiro dia do período, em dias desde 01/01/1970.
+	 * @param room Valores do quarto, preenchidos a partir do primeiro dia; o tamanho define o período.
+	 * @param garage Valores da garagem, do mesmo tamanho.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private void rates(long from, long[] room, long[] garage) {
+		int days = room.length;
+		long to = from + days;
+		boolean[] weekendRate = new boolean[days];
+
+		for(int i = 0; i < days; i++) {
+			weekendRate[i] = PricingEngine.isWeekend(from + i);
+			room[i] = weekendRate[i] ? dailyWeekends : dailyWorkingDays;
+			garage[i] = weekendRate[i] ? garageWeekends : garageWorkingDays;
+		}
+		for(LocalDate holiday : definition.getHolidays()) {									//FERIADOS SÃO COBRADOS COMO FINAIS DE SEMANA.
+			long day = holiday.toEpochDay();
+			if(day < from || day >= to)
+				continue;
+			int i = (int) (day - from);
+			weekendRate[i] = true;
+			room[i] = dailyWeekends;
+			garage[i] = garageWeekends;
+		}
+		for(Season season : definition.getSeasons()) {										//A ÚLTIMA TEMPORADA DEFINIDA PREVALECE.
+			long end = Math.min(season.getEnd().toEpochDay() + 1, to);
+			for(long day = Math.max(season.getStart().toEpochDay(), from); day < end; day++) {
+				int i = (int) (day - from);
+				BigDecimal seasonRoom = weekendRate[i] ? season.getDailyWeekends() : season.getDailyWorkingDays();
+				BigDecimal seasonGarage = weekendRate[i] ? season.getGarageWeekends() : season.getGarageWorkingDays();
+				if(seasonRoom != null)
+					room[i] = unscaled(seasonRoom, scale);
+				if(seasonGarage != null)
+					garage[i] = unscaled(seasonGarage, scale);
+			}
+		}
+		for(DateOverride override : definition.getOverrides()) {							//DATAS ESPECÍFICAS PREVALECEM SOBRE AS DEMAIS REGRAS.
+			long day = override.getDate().toEpochDay();
+			if(day < from || day >= to)
+				continue;
+			int i = (int) (day - from);
+			if(override.getDaily() != null)
+				room[i] = unscaled(override.getDaily(), scale);
+			if(override.getGarage() != null)
+				garage[i] = unscaled(override.getGarage(), scale);
+		}
+	}
+
+	/**
+	 * Método responsável por retornar o valor das diárias nos dias úteis de um intervalo.
+	 * @param from Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param to Dia seguinte ao último dia do intervalo, em dias desde 01/01/1970.
+	 * @return Valor na escala da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long roomWorkingDays(long from, long to) {
+		return sum(roomWorkingDaysSum, dailyWorkingDays, false, false, from, to);
+	}
+
+	/**
+	 * Método responsável por retornar o valor das diárias nos finais de semana de um intervalo.
+	 * @param from Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param to Dia seguinte ao último dia do intervalo, em dias desde 01/01/1970.
+	 * @return Valor na escala da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long roomWeekends(long from, long to) {
+		return sum(roomWeekendsSum, dailyWeekends, false, true, from, to);
+	}
+
+	/**
+	 * Método responsável por retornar o valor da garagem nos dias úteis de um intervalo.
+	 * @param from Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param to Dia seguinte ao último dia do intervalo, em dias desde 01/01/1970.
+	 * @return Valor na escala da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long garageWorkingDays(long from, long to) {
+		return sum(garageWorkingDaysSum, garageWorkingDays, true, false, from, to);
+	}
+
+	/**
+	 * Método responsável por retornar o valor da garagem nos finais de semana de um intervalo.
+	 * @param from Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param to Dia seguinte ao último dia do intervalo, em dias desde 01/01/1970.
+	 * @return Valor na escala da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long garageWeekends(long from, long to) {
+		return sum(garageWeekendsSum, garageWeekends, true, true, from, to);
+	}
+
+	/**
+	 * Método responsável por retornar o valor total de um intervalo, com ou sem garagem.
+	 * @param from Primeiro dia do intervalo, em dias desde 01/01/1970.
+	 * @param to Dia seguinte ao último dia do intervalo, em dias desde 01/01/1970.
+	 * @param additionalVehicle <code>true</code> caso inclua a garagem e <code>false</code> caso contrário.
+	 * @return Valor na escala da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public long total(long from, long to, boolean additionalVehicle) {
+		long total = roomWorkingDays(from, to) + roomWeekends(from, to);
+		if(additionalVehicle)
+			total += garageWorkingDays(from, to) + garageWeekends(from, to);
+		return total;
+	}
+
+	/**
+	 * Método responsável por converter um valor na escala da tabela para {@link BigDecimal}.
+	 * @param unscaled Valor na escala da tabela.
+	 * @return Valor convertido.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal toBigDecimal(long unscaled) {
+		return BigDecimal.valueOf(unscaled, scale);
+	}
+
+	/**
+	 * Método responsável por retornar a definição que originou a tabela.
+	 * @return {@link RateTableDefinition} da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public RateTableDefinition getDefinition() {
+		return definition;
+	}
+
+	/**
+	 * Método responsável por somar um intervalo, usando as somas acumuladas dentro do horizonte e as regras da definição fora dele.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private long sum(long[] prefix, long baseRate, boolean garage, boolean weekend, long from, long to) {
+		if(to <= from)
+			return 0;
+		long total = 0;
+		long start = Math.max(from, firstDay);
+		long end = Math.min(to, lastDay);
+		if(start < end)
+			total += prefix[(int) (end - firstDay)] - prefix[(int) (start - firstDay)];
+		if(from < firstDay)
+			total += outside(baseRate, garage, weekend, from, Math.min(to, firstDay));
+		if(to > lastDay)
+			total += outside(baseRate, garage, weekend, Math.max(from, lastDay), to);
+		return total;
+	}
+
+	/**
+	 * Método responsável por somar um intervalo fora do horizonte: os dias com alguma regra são calculados pela definição,
+	 * e os demais usam o valor base.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private long outside(long baseRate, boolean garage, boolean weekend, long from, long to) {
+		long start = Math.max(from, rulesFirstDay);
+		long end = Math.min(to, rulesLastDay);
+		if(start >= end)
+			return baseRate * countDays(weekend, from, to);
+		long total = baseRate * (countDays(weekend, from, start) + countDays(weekend, end, to));
+		long[] room = new long[(int) (end - start)];
+		long[] garageRates = new long[room.length];
+		rates(start, room, garageRates);
+		for(int i = 0; i < room.length; i++) {
+			if(PricingEngine.isWeekend(start + i) == weekend)
+				total += garage ? garageRates[i] : room[i];
+		}
+		return total;
+	}
+
+	private static long countDays(boolean weekend, long from, long to) {
+		if(to <= from)
+			return 0;
+		int weekends = PricingEngine.countWeekends(from, to - from);
+		return weekend ? weekends : (to - from) - weekends;
+	}
+
+	private static long unscaled(BigDecimal value, int scale) {
+		return value.setScale(scale).unscaledValue().longValueExact();
+	}
+
+	private static int maxScale(BigDecimal... values) {
+		int scale = 0;
+		for(BigDecimal value : values) {
+			if(value != null)
+				scale = Math.max(scale, value.scale());
+		}
+		return scale;
+	}
+
+	/**
+	 * Método responsável por validar a definição da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static void validate(RateTableDefinition definition) {
+		requirePositive("dailyWorkingDays", definition.getDailyWorkingDays(), true);
+		requirePositive("dailyWeekends", definition.getDailyWeekends(), true);
+		requirePositive("garageWorkingDays", definition.getGarageWorkingDays(), true);
+		requirePositive("garageWeekends", definition.getGarageWeekends(), true);
+		for(Season season : definition.getSeasons()) {
+			if(season.getStart() == null || season.getEnd() == null || season.getEnd().isBefore(season.getStart()))
+				throw new IllegalArgumentException("Temporada com período inválido: " + season.getName());
+			requirePositive("seasons.dailyWorkingDays", season.getDailyWorkingDays(), false);
+			requirePositive("seasons.dailyWeekends", season.getDailyWeekends(), false);
+			requirePositive("seasons.garageWorkingDays", season.getGarageWorkingDays(), false);
+			requirePositive("seasons.garageWeekends", season.getGarageWeekends(), false);
+		}
+		for(LocalDate holiday : definition.getHolidays()) {
+			if(holiday == null)
+				throw new IllegalArgumentException("Feriado sem data.");
+		}
+		for(DateOverride override : definition.getOverrides()) {
+			if(override.getDate() == null)
+				throw new IllegalArgumentException("Valor específico sem data.");
+			requirePositive("overrides.daily", override.getDaily(), false);
+			requirePositive("overrides.garage", override.getGarage(), false);
+		}
+	}
+
+	private static void requirePositive(String field, BigDecimal value, boolean required) {
+		if(value == null && required)
+			throw new IllegalArgumentException("Valor não informado: " + field);
+		if(value != null && value.signum() < 0)
+			throw new IllegalArgumentException("Valor negativo: " + field);
+	}
+}
@@ -0,0 +1,433 @@
+package br.com.guest.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe responsável por representar o arquivo de configuração da tabela de tarifas.
+ * <p>
+ * Exemplo:
+ * <pre>
+ * {
+ *   "dailyWorkingDays": 120, "dailyWeekends": 150, "garageWorkingDays": 15, "garageWeekends": 20,
+ *   "seasons": [{ "name": "Alta temporada", "start": "2021-12-15", "end": "2022-02-28", "dailyWorkingDays": 180, "dailyWeekends": 220 }],
+ *   "holidays": ["2021-12-25", "2022-01-01"],
+ *   "overrides": [{ "date": "2021-12-31", "daily": 400, "garage": 40 }]
+ * }
+ * </pre>
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+public class RateTableDefinition {
+
+	private BigDecimal dailyWorkingDays = new BigDecimal("120");
+	private BigDecimal dailyWeekends = new BigDecimal("150");
+	private BigDecimal garageWorkingDays = new BigDecimal("15");
+	private BigDecimal garageWeekends = new BigDecimal("20");
+	private List<Season> seasons = new ArrayList<>();
+	private List<LocalDate> holidays = new ArrayList<>();
+	private List<DateOverride> overrides = new ArrayList<>();
+
+	/**
+	 * Método responsável por retornar o valor da diária em dias úteis.
+	 * @return Valor da diária em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getDailyWorkingDays() {
+		return dailyWorkingDays;
+	}
+
+	/**
+	 * Método responsável por definir o valor da diária em dias úteis.
+	 * @param dailyWorkingDays Valor da diária em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setDailyWorkingDays(BigDecimal dailyWorkingDays) {
+		this.dailyWorkingDays = dailyWorkingDays;
+	}
+
+	/**
+	 * Método responsável por retornar o valor da diária em finais de semana e feriados.
+	 * @return Valor da diária em finais de semana e feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getDailyWeekends() {
+		return dailyWeekends;
+	}
+
+	/**
+	 * Método responsável por definir o valor da diária em finais de semana e feriados.
+	 * @param dailyWeekends Valor da diária em finais de semana e feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setDailyWeekends(BigDecimal dailyWeekends) {
+		this.dailyWeekends = dailyWeekends;
+	}
+
+	/**
+	 * Método responsável por retornar o valor da garagem em dias úteis.
+	 * @return Valor da garagem em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getGarageWorkingDays() {
+		return garageWorkingDays;
+	}
+
+	/**
+	 * Método responsável por definir o valor da garagem em dias úteis.
+	 * @param garageWorkingDays Valor da garagem em dias úteis.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setGarageWorkingDays(BigDecimal garageWorkingDays) {
+		this.garageWorkingDays = garageWorkingDays;
+	}
+
+	/**
+	 * Método responsável por retornar o valor da garagem em finais de semana e feriados.
+	 * @return Valor da garagem em finais de semana e feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public BigDecimal getGarageWeekends() {
+		return garageWeekends;
+	}
+
+	/**
+	 * Método responsável por definir o valor da garagem em finais de semana e feriados.
+	 * @param garageWeekends Valor da garagem em finais de semana e feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setGarageWeekends(BigDecimal garageWeekends) {
+		this.garageWeekends = garageWeekends;
+	}
+
+	/**
+	 * Método responsável por retornar as temporadas.
+	 * @return Lista de {@link Season}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<Season> getSeasons() {
+		return seasons;
+	}
+
+	/**
+	 * Método responsável por definir as temporadas.
+	 * @param seasons Lista de {@link Season}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setSeasons(List<Season> seasons) {
+		this.seasons = seasons;
+	}
+
+	/**
+	 * Método responsável por retornar os feriados, cobrados com os valores de final de semana.
+	 * @return Lista de feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<LocalDate> getHolidays() {
+		return holidays;
+	}
+
+	/**
+	 * Método responsável por definir os feriados, cobrados com os valores de final de semana.
+	 * @param holidays Lista de feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setHolidays(List<LocalDate> holidays) {
+		this.holidays = holidays;
+	}
+
+	/**
+	 * Método responsável por retornar os valores definidos para datas específicas.
+	 * @return Lista de {@link DateOverride}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<DateOverride> getOverrides() {
+		return overrides;
+	}
+
+	/**
+	 * Método responsável por definir os valores para datas específicas.
+	 * @param overrides Lista de {@link DateOverride}.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public void setOverrides(List<DateOverride> overrides) {
+		this.overrides = overrides;
+	}
+
+	/**
+	 * Classe responsável por representar uma temporada, com início e fim inclusivos.
+	 * Os valores não informados são herdados da tabela.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static class Season {
+
+		private String name;
+		private LocalDate start, end;
+		private BigDecimal dailyWorkingDays, dailyWeekends, garageWorkingDays, garageWeekends;
+
+		/**
+		 * Método responsável por retornar o nome da temporada.
+		 * @return Nome da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Método responsável por definir o nome da temporada.
+		 * @param name Nome da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Método responsável por retornar o primeiro dia da temporada.
+		 * @return Primeiro dia da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public LocalDate getStart() {
+			return start;
+		}
+
+		/**
+		 * Método responsável por definir o primeiro dia da temporada.
+		 * @param start Primeiro dia da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setStart(LocalDate start) {
+			this.start = start;
+		}
+
+		/**
+		 * Método responsável por retornar o último dia da temporada.
+		 * @return Último dia da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public LocalDate getEnd() {
+			return end;
+		}
+
+		/**
+		 * Método responsável por definir o último dia da temporada.
+		 * @param end Último dia da temporada.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setEnd(LocalDate end) {
+			this.end = end;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da diária em dias úteis na temporada.
+		 * @return Valor da diária em dias úteis, <code>null</code> caso herde da tabela.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getDailyWorkingDays() {
+			return dailyWorkingDays;
+		}
+
+		/**
+		 * Método responsável por definir o valor da diária em dias úteis na temporada.
+		 * @param dailyWorkingDays Valor da diária em dias úteis.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setDailyWorkingDays(BigDecimal dailyWorkingDays) {
+			this.dailyWorkingDays = dailyWorkingDays;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da diária em finais de semana na temporada.
+		 * @return Valor da diária em finais de semana, <code>null</code> caso herde da tabela.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getDailyWeekends() {
+			return dailyWeekends;
+		}
+
+		/**
+		 * Método responsável por definir o valor da diária em finais de semana na temporada.
+		 * @param dailyWeekends Valor da diária em finais de semana.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setDailyWeekends(BigDecimal dailyWeekends) {
+			this.dailyWeekends = dailyWeekends;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da garagem em dias úteis na temporada.
+		 * @return Valor da garagem em dias úteis, <code>null</code> caso herde da tabela.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getGarageWorkingDays() {
+			return garageWorkingDays;
+		}
+
+		/**
+		 * Método responsável por definir o valor da garagem em dias úteis na temporada.
+		 * @param garageWorkingDays Valor da garagem em dias úteis.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setGarageWorkingDays(BigDecimal garageWorkingDays) {
+			this.garageWorkingDays = garageWorkingDays;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da garagem em finais de semana na temporada.
+		 * @return Valor da garagem em finais de semana, <code>null</code> caso herde da tabela.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getGarageWeekends() {
+			return garageWeekends;
+		}
+
+		/**
+		 * Método responsável por definir o valor da garagem em finais de semana na temporada.
+		 * @param garageWeekends Valor da garagem em finais de semana.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setGarageWeekends(BigDecimal garageWeekends) {
+			this.garageWeekends = garageWeekends;
+		}
+	}
+
+	/**
+	 * Classe responsável por representar os valores fixos de uma data específica, que têm prioridade sobre temporadas e feriados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public static class DateOverride {
+
+		private LocalDate date;
+		private BigDecimal daily, garage;
+
+		/**
+		 * Método responsável por retornar a data.
+		 * @return Data com valores fixos.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public LocalDate getDate() {
+			return date;
+		}
+
+		/**
+		 * Método responsável por definir a data.
+		 * @param date Data com valores fixos.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setDate(LocalDate date) {
+			this.date = date;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da diária na data.
+		 * @return Valor da diária, <code>null</code> caso siga as demais regras.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getDaily() {
+			return daily;
+		}
+
+		/**
+		 * Método responsável por definir o valor da diária na data.
+		 * @param daily Valor da diária.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setDaily(BigDecimal daily) {
+			this.daily = daily;
+		}
+
+		/**
+		 * Método responsável por retornar o valor da garagem na data.
+		 * @return Valor da garagem, <code>null</code> caso siga as demais regras.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public BigDecimal getGarage() {
+			return garage;
+		}
+
+		/**
+		 * Método responsável por definir o valor da garagem na data.
+		 * @param garage Valor da garagem.
+		 * @author Alysson Júnio da Silva Tostes
+		 * @version 1
+		 * @since 1.0.0
+		 */
+		public void setGarage(BigDecimal garage) {
+			this.garage = garage;
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package br.com.guest.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Classe responsável por carregar a tabela de tarifas e disponibilizar a versão atual para o cálculo das diárias.
+ * <p>
+ * A tabela é lida do arquivo definido em <code>hotel.rates.location</code> (ou usa os valores padrão do hotel, caso não
+ * seja informado) e publicada como uma {@link RateTable} imutável, trocada atomicamente a cada recarga. Quem calcula
+ * diárias apenas lê a referência atual, sem nenhum bloqueio.
+ * <p>
+ * O horizonte pré-calculado é centrado no dia da publicação; uma vez por dia, a mesma definição é publicada de novo com
+ * o horizonte centrado no dia atual, para que uma instância sem recargas não passe a calcular fora dele.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class RateTableService implements Supplier<RateTable> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RateTableService.class);
+
+	private final AtomicReference<RateTable> current = new AtomicReference<>();
+	private volatile long lastModified;
+	private volatile LocalDate anchor;
+
+	@Value("${hotel.rates.location:}")
+	String location;
+
+	@Value("${hotel.rates.horizon-past-days:366}")
+	int pastDays;
+
+	@Value("${hotel.rates.horizon-future-days:731}")
+	int futureDays;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Método responsável por carregar a tabela na inicialização.
+	 * @throws IOException Caso o arquivo configurado não possa ser lido.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		reload();
+	}
+
+	/**
+	 * Método responsável por retornar a versão atual da tabela de tarifas.
+	 * @return {@link RateTable} atual.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Override
+	public RateTable get() {
+		return current.get();
+	}
+
+	/**
+	 * Método responsável por recarregar a tabela de tarifas. Caso a nova definição seja inválida, a tabela atual é mantida.
+	 * @return {@link RateTable} carregada.
+	 * @throws IOException Caso o arquivo configurado não possa ser lido.
+	 * @throws IllegalArgumentException Caso a definição seja inválida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public synchronized RateTable reload() throws IOException {
+		RateTableDefinition definition = new RateTableDefinition();
+		if(!location.isEmpty()) {
+			File file = new File(location);
+			lastModified = file.lastModified();
+			definition = objectMapper.readValue(file, RateTableDefinition.class);
+		}
+		return publish(definition);
+	}
+
+	/**
+	 * Método responsável por publicar uma nova definição de tarifas.
+	 * @param definition Definição que será usada a partir de agora.
+	 * @return {@link RateTable} publicada.
+	 * @throws IllegalArgumentException Caso a definição seja inválida.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public synchronized RateTable publish(RateTableDefinition definition) {
+		LocalDate today = LocalDate.now();
+		RateTable table = RateTable.of(definition, today, pastDays, futureDays);				//MONTA A TABELA FORA DA REFERÊNCIA ATUAL.
+		current.set(table);																	//TROCA ATÔMICA, SEM BLOQUEAR O CÁLCULO DAS DIÁRIAS.
+		anchor = today;
+		LOGGER.info("Tabela de tarifas carregada: {} temporada(s), {} feriado(s), {} data(s) específica(s).",
+				definition.getSeasons().size(), definition.getHolidays().size(), definition.getOverrides().size());
+		return table;
+	}
+
+	/**
+	 * Método responsável por centrar o horizonte da tabela vigente no dia atual, publicando de novo a mesma definição.
+	 * @return <code>true</code> caso a tabela tenha sido publicada de novo e <code>false</code> caso já estivesse centrada no dia atual.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(cron = "${hotel.rates.reanchor-cron:0 0 0 * * *}")
+	public synchronized boolean reanchor() {
+		if(LocalDate.now().equals(anchor))
+			return false;
+		publish(current.get().getDefinition());
+		return true;
+	}
+
+	/**
+	 * Método responsável por recarregar a tabela quando o arquivo for alterado.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(fixedDelayString = "${hotel.rates.reload-interval:60000}")
+	public void reloadIfModified() {
+		if(location.isEmpty() || new File(location).lastModified() == lastModified)
+			return;
+		try {
+			reload();
+		}catch (IOException | IllegalArgumentException e) {
+			LOGGER.error("Não foi possível recarregar a tabela de tarifas de {}, mantendo a versão atual.", location, e);
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package br.com.guest.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.event.CheckInsImportedEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInNight;
+import br.com.guest.model.RevenueRollup;
+import br.com.guest.model.RevenueRollup.Granularity;
+import br.com.guest.repository.CheckInNightRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.repository.RevenueRollupRepository;
+import br.com.guest.repository.RevenueRollupWriter;
+
+/**
+ * Classe responsável pelos relatórios de receita, diárias e adicionais de veículo por dia, semana e mês.
+ * <p>
+ * Cada check-in salvo soma suas diárias (e subtrai as da versão anterior) aos totais dos períodos, na mesma transação,
+ * com os mesmos dias e a mesma separação entre dias úteis e finais de semana de {@link PricingEngine}. A receita de cada
+ * diária vem da tabela de tarifas vigente, com a diferença para o custo gravado no check-in somada à última diária,
+ * para que a receita do período sempre feche com os custos gravados. As consultas leem somente os totais dos períodos.
+ * <p>
+ * As diárias somadas de cada check-in são gravadas ({@link CheckInNight}); na alteração, são elas que saem dos totais,
+ * e não as diárias da versão anterior recalculadas, que dariam outros valores por período depois de uma nova tabela de tarifas.
+ * @author Alysson Júnio da Silva Tostes
+ * @version 1
+ * @since 1.0.0
+ */
+@Service
+public class RevenueReportService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RevenueReportService.class);
+	private static final Granularity[] GRANULARITIES = Granularity.values();
+	private static final int NIGHTS_BATCH = 1000;
+
+	@Autowired
+	PricingEngine pricingEngine;
+
+	@Autowired
+	RevenueRollupRepository rollupRepository;
+
+	@Autowired
+	RevenueRollupWriter rollupWriter;
+
+	@Autowired
+	CheckInNightRepository nightRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	/**
+	 * Método responsável por trocar as diárias gravadas da versão anterior do check-in pelas atuais, dentro da transação que o gravou.
+	 * @param event Evento do check-in salvo.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInSaved(CheckInSavedEvent event) {
+		SortedMap<RevenueRollup.Key, RevenueRollup> deltas = new TreeMap<>();
+		long id = event.getCheckIn().getId();
+		if(event.getPrevious() != null) {
+			addNights(nightRepository.findByCheckIn(id), -1, deltas);							//OS VALORES SOMADOS, COM AS TARIFAS DA ÉPOCA.
+			rollupWriter.removeNights(id);
+		}
+		List<CheckInNight> nights = nights(event.getCheckIn());
+		addNights(nights, 1, deltas);
+		rollupWriter.add(deltas);																//SEM ALTERAÇÃO DE DATAS, VALOR OU TARIFAS, AS DIFERENÇAS SE ANULAM.
+		rollupWriter.addNights(nights);
+	}
+
+	/**
+	 * Método responsável por somar as diárias dos check-ins importados, dentro da transação que os gravou.
+	 * @param event Evento dos check-ins importados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener
+	public void onCheckInsImported(CheckInsImportedEvent event) {
+		SortedMap<RevenueRollup.Key, RevenueRollup> deltas = new TreeMap<>();
+		List<CheckInNight> nights = new ArrayList<>();
+		event.getCheckIns().forEach(checkIn -> nights.addAll(nights(checkIn)));
+		addNights(nights, 1, deltas);
+		rollupWriter.add(deltas);
+		rollupWriter.addNights(nights);
+	}
+
+	/**
+	 * Método responsável por montar os totais na primeira execução, quando já existem check-ins cadastrados, ou quando os
+	 * totais foram montados antes da gravação das diárias de cada check-in.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void initialize() {
+		if((rollupRepository.count() == 0 || nightRepository.count() == 0) && checkInRepository.findMaxId() > 0)
+			rebuild();
+	}
+
+	/**
+	 * Método responsável por recalcular todos os totais a partir da tabela de check-ins, em uma única transação.
+	 * <p>
+	 * Usado após alterações feitas fora da aplicação; a receita de cada diária passa a seguir a tabela de tarifas vigente.
+	 * @return Quantidade de períodos gravados.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	@Scheduled(cron = "${hotel.revenue.rebuild-cron:-}")
+	public synchronized int rebuild() {
+		long start = System.currentTimeMillis();
+		int total = transactionTemplate.execute(status -> {
+			rollupRepository.deleteAllInBatch();												//BLOQUEIA OS PERÍODOS EXISTENTES ATÉ O COMMIT.
+			rollupWriter.removeAllNights();
+			SortedMap<RevenueRollup.Key, RevenueRollup> rollups = new TreeMap<>();
+			List<CheckInNight> nights = new ArrayList<>();
+			cursorRepository.forEachCheckIn(0, Long.MAX_VALUE, checkIn -> {
+				List<CheckInNight> checkInNights = nights(checkIn);
+				addNights(checkInNights, 1, rollups);
+				nights.addAll(checkInNights);
+				if(nights.size() >= NIGHTS_BATCH) {
+					rollupWriter.addNights(nights);
+					nights.clear();
+				}
+			});
+			rollupWriter.addNights(nights);
+			rollupWriter.add(rollups);
+			return rollups.size();
+		});
+		LOGGER.info("Totais de receita recalculados com {} período(s) em {} ms.", total, System.currentTimeMillis() - start);
+		return total;
+	}
+
+	/**
+	 * Método responsável por listar os totais de um agrupamento em um intervalo.
+	 * @param granularity Agrupamento dos totais.
+	 * @param from Primeiro dia do intervalo; o período que o contém é incluído inteiro.
+	 * @param to Último dia do intervalo.
+	 * @return Lista de {@link RevenueRollup} dos períodos com diárias, em ordem.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public List<RevenueRollup> find(Granularity granularity, LocalDate from, LocalDate to) {
+		return rollupRepository.findByGranularityAndPeriodStartBetweenOrderByPeriodStart(granularity, granularity.periodStart(from), to);
+	}
+
+	/**
+	 * Método responsável por somar os totais de um intervalo qualquer de dias.
+	 * <p>
+	 * Os meses inteiros do intervalo são lidos do total mensal e somente os dias antes do primeiro e depois do último
+	 * mês inteiro são lidos do total diário, ou seja, no máximo 62 dias além dos meses.
+	 * @param from Primeiro dia do intervalo.
+	 * @param to Último dia do intervalo.
+	 * @return {@link RevenueRollup} com a soma do intervalo, sem agrupamento.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	public RevenueRollup total(LocalDate from, LocalDate to) {
+		RevenueRollup total = new RevenueRollup(null, from);
+		LocalDate firstMonth = from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+		LocalDate monthsEnd = to.plusDays(1).withDayOfMonth(1);								//PRIMEIRO DIA APÓS O ÚLTIMO MÊS INTEIRO.
+		if(firstMonth.isBefore(monthsEnd)) {
+			sum(total, Granularity.DAY, from, firstMonth.minusDays(1));
+			sum(total, Granularity.MONTH, firstMonth, monthsEnd.minusDays(1));
+			sum(total, Granularity.DAY, monthsEnd, to);
+		}else {
+			sum(total, Granularity.DAY, from, to);
+		}
+		return total;
+	}
+
+	/*
+	 * Soma ao total os períodos que começam no intervalo.
+	 */
+	private void sum(RevenueRollup total, Granularity granularity, LocalDate from, LocalDate to) {
+		if(!from.isAfter(to))
+			rollupRepository.findByGranularityAndPeriodStartBetweenOrderByPeriodStart(granularity, from, to).forEach(total::add);
+	}
+
+	/**
+	 * Método responsável por calcular as diárias de um check-in somadas aos totais: a receita de cada diária vem da tabela
+	 * de tarifas vigente, e a diferença para o custo gravado vai para a última.
+	 * @param checkIn Check-in cujas diárias serão calculadas.
+	 * @return Lista de {@link CheckInNight}, vazia caso o check-in não tenha datas.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private List<CheckInNight> nights(CheckIn checkIn) {
+		List<CheckInNight> nights = new ArrayList<>();
+		if(checkIn.getEntryDate() == null || checkIn.getDepartureDate() == null)
+			return nights;
+		BigDecimal[] priced = {BigDecimal.ZERO};
+		pricingEngine.forEachNight(checkIn, (epochDay, weekend, room, vehicle) -> {
+			nights.add(new CheckInNight(checkIn.getId(), LocalDate.ofEpochDay(epochDay), weekend, checkIn.isAdditionalVehicle(), room, vehicle));
+			priced[0] = priced[0].add(room).add(vehicle);
+		});
+		if(!nights.isEmpty() && checkIn.getTotalCost() != null && checkIn.getTotalCost().compareTo(priced[0]) != 0)
+			nights.get(nights.size() - 1).addRoom(checkIn.getTotalCost().subtract(priced[0]));	//TARIFAS ALTERADAS DEPOIS DO CÁLCULO DO CHECK-IN.
+		return nights;
+	}
+
+	/**
+	 * Método responsável por somar (ou subtrair) diárias aos totais do dia, da semana e do mês de cada uma.
+	 * @param nights Diárias somadas.
+	 * @param sign 1 para somar e -1 para subtrair.
+	 * @param rollups Totais por período.
+	 * @author Alysson Júnio da Silva Tostes
+	 * @version 1
+	 * @since 1.0.0
+	 */
+	private static void addNights(List<CheckInNight> nights, int sign, SortedMap<RevenueRollup.Key, RevenueRollup> rollups) {
+		for(CheckInNight night : nights) {
+			for(Granularity granularity : GRANULARITIES)
+				rollup(rollups, granularity, night.getNight()).addNight(night.isWeekend(), sign, night.getRoom(), night.getVehicle(),
+						night.isAdditionalVehicle());
+		}
+	}
+
+	/*
+	 * Total do período que contém o dia, criado vazio na primeira diária.
+	 */
+	private static RevenueRollup rollup(SortedMap<RevenueRollup.Key, RevenueRollup> rollups, Granularity granularity, LocalDate day) {
+		LocalDate periodStart = granularity.periodStart(day);
+		return rollups.computeIfAbsent(new RevenueRollup.Key(granularity, periodStart), key -> new RevenueRollup(granularity, periodStart));
+	}
+}
@@ -0,0 +1,66 @@
+-- Esquema das tabelas criadas até então pelo ddl-auto (PostgreSQL). Bancos já existentes recebem a versão 0 como base
+-- (spring.flyway.baseline-version) e passam por esta migração como atualização: os comandos ignoram o que já existe, e
+-- as colunas acrescentadas depois do esquema original são criadas nas tabelas antigas. As sequências são posicionadas
+-- após os códigos existentes pelo SequenceAligner, na inicialização.
+
+CREATE SEQUENCE IF NOT EXISTS sq_guest START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sq_check_in START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_guest (
+	id bigint NOT NULL,
+	name varchar(255),
+	document varchar(255),
+	telephone varchar(255),
+	name_search varchar(255),
+	version bigint DEFAULT 0 NOT NULL,
+	PRIMARY KEY (id)
+);
+
+ALTER TABLE tb_guest ADD COLUMN IF NOT EXISTS name_search varchar(255);
+ALTER TABLE tb_guest ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_guest_document ON tb_guest (document);
+CREATE INDEX IF NOT EXISTS ix_guest_telephone ON tb_guest (telephone);
+CREATE INDEX IF NOT EXISTS ix_guest_name_search ON tb_guest (name_search);
+
+CREATE TABLE IF NOT EXISTS tb_check_in (
+	id bigint NOT NULL,
+	guest bigint,
+	entry_date timestamp,
+	departure_date timestamp,
+	additional_vehicle boolean NOT NULL,
+	total_cost numeric(19, 2),
+	version bigint DEFAULT 0 NOT NULL,
+	PRIMARY KEY (id),
+	CONSTRAINT fk_check_in_guest FOREIGN KEY (guest) REFERENCES tb_guest (id)
+);
+
+ALTER TABLE tb_check_in ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_check_in_guest ON tb_check_in (guest);
+CREATE INDEX IF NOT EXISTS ix_check_in_entry_departure ON tb_check_in (entry_date, departure_date);
+CREATE INDEX IF NOT EXISTS ix_check_in_departure ON tb_check_in (departure_date);
+
+CREATE TABLE IF NOT EXISTS tb_guest_booking_summary (
+	guest bigint NOT NULL,
+	last_check_in bigint,
+	last_booking_amount numeric(19, 2),
+	total_amount numeric(19, 2),
+	stay_count bigint NOT NULL,
+	version bigint,
+	PRIMARY KEY (guest)
+);
+
+CREATE TABLE IF NOT EXISTS tb_revenue_rollup (
+	granularity varchar(5) NOT NULL,
+	period_start date NOT NULL,
+	room_nights_weekday bigint NOT NULL,
+	room_nights_weekend bigint NOT NULL,
+	vehicle_nights_weekday bigint NOT NULL,
+	vehicle_nights_weekend bigint NOT NULL,
+	room_revenue_weekday numeric(19, 2) DEFAULT 0 NOT NULL,
+	room_revenue_weekend numeric(19, 2) DEFAULT 0 NOT NULL,
+	vehicle_revenue_weekday numeric(19, 2) DEFAULT 0 NOT NULL,
+	vehicle_revenue_weekend numeric(19, 2) DEFAULT 0 NOT NULL,
+	PRIMARY KEY (granularity, period_start)
+);
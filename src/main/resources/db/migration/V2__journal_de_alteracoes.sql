@@ -0,0 +1,23 @@
+-- Journal de alterações de hóspedes e check-ins (outbox), numerado pelo relay, e posição entregue a cada assinante.
+
+CREATE SEQUENCE IF NOT EXISTS sq_change_event START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_change_event (
+	id bigint NOT NULL,
+	feed_position bigint,
+	entity_type varchar(20) NOT NULL,
+	entity_id bigint NOT NULL,
+	operation varchar(10) NOT NULL,
+	payload varchar(4000),
+	created_at timestamp,
+	PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_change_event_position ON tb_change_event (feed_position);
+
+CREATE TABLE IF NOT EXISTS tb_change_subscription (
+	name varchar(50) NOT NULL,
+	feed_position bigint NOT NULL,
+	updated_at timestamp,
+	PRIMARY KEY (name)
+);
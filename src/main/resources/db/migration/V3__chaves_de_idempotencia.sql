@@ -0,0 +1,11 @@
+-- Chaves de idempotência usadas, compartilhadas entre as instâncias: a chave primária impede a execução em duplicidade.
+
+CREATE TABLE IF NOT EXISTS tb_idempotency_key (
+	id varchar(44) NOT NULL,
+	fingerprint varchar(44) NOT NULL,
+	result varchar(4000),
+	created_at timestamp NOT NULL,
+	PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_key_created_at ON tb_idempotency_key (created_at);
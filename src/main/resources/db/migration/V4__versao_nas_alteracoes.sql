@@ -0,0 +1,3 @@
+-- Versão da entidade em cada alteração do journal, para que os consumidores descartem alterações recebidas fora de ordem.
+
+ALTER TABLE tb_change_event ADD COLUMN IF NOT EXISTS entity_version bigint;
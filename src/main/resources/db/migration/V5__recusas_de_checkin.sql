@@ -0,0 +1,9 @@
+-- Check-ins aceitos sem gravação imediata e recusados depois pelo banco, consultados pelo código entregue ao cliente.
+
+CREATE TABLE IF NOT EXISTS tb_check_in_rejection (
+	id bigint NOT NULL,
+	guest_id bigint NOT NULL,
+	reason varchar(1000) NOT NULL,
+	rejected_at timestamp NOT NULL,
+	PRIMARY KEY (id)
+);
@@ -0,0 +1,11 @@
+-- Diárias de cada check-in como foram somadas aos totais de receita, subtraídas sem recálculo quando o check-in é alterado.
+
+CREATE TABLE IF NOT EXISTS tb_check_in_night (
+	check_in bigint NOT NULL,
+	night date NOT NULL,
+	weekend boolean NOT NULL,
+	additional_vehicle boolean NOT NULL,
+	room numeric(19, 2) NOT NULL,
+	vehicle numeric(19, 2) NOT NULL,
+	PRIMARY KEY (check_in, night)
+);
@@ -0,0 +1,30 @@
+package br.com.guest;
+
+import java.sql.Timestamp;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Check-ins usados pelos testes, ainda não gravados.
+ */
+public final class CheckInFixtures {
+
+	private CheckInFixtures() {
+	}
+
+	/*
+	 * Estadia padrão de duas noites: entrada em 01/06/2021 às 14h e saída em 03/06/2021 às 12h.
+	 */
+	public static CheckIn checkIn(Guest guest) {
+		return checkIn(guest, "2021-06-01 14:00:00", "2021-06-03 12:00:00");
+	}
+
+	public static CheckIn checkIn(Guest guest, String entry, String departure) {
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf(entry));
+		checkIn.setDepartureDate(Timestamp.valueOf(departure));
+		return checkIn;
+	}
+}
@@ -0,0 +1,52 @@
+package br.com.guest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Teste das métricas publicadas em <code>/actuator/prometheus</code> após chamadas aos endpoints, em um banco H2.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+@AutoConfigureMetrics
+class MetricsConfigTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void exposesEndpointRepositoryPoolAndPricingMetrics() {
+		Guest guest = new Guest();
+		guest.setName("Ana");
+		guest = restTemplate.postForObject("/api/hospede", guest, Guest.class);
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf("2021-06-01 14:00:00"));
+		checkIn.setDepartureDate(Timestamp.valueOf("2021-06-03 12:00:00"));
+		restTemplate.postForObject("/api/checkin", checkIn, CheckIn.class);
+		assertEquals("Ana", restTemplate.getForObject("/api/hospede/" + guest.getId(), Guest.class).getName());
+
+		String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+		assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "Histograma dos endpoints");
+		assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "Histograma dos repositórios");
+		assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"), "Espera por conexão");
+		assertTrue(scrape.contains("hotel_http_statements_count{method=\"POST\",uri=\"/api/checkin\",}"), "Comandos SQL por requisição");
+		assertTrue(scrape.contains("hotel_pricing_seconds_count"), "Tempo do cálculo de tarifas");
+		assertTrue(scrape.contains("hotel_pricing_allocated_bytes_total"), "Alocação do cálculo de tarifas");
+		assertTrue(scrape.contains("cache_gets_total{cache=\"hospedes\""), "Métricas do cache");
+	}
+}
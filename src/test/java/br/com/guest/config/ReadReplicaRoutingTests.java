@@ -0,0 +1,141 @@
+package br.com.guest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.guest.model.Guest;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do direcionamento das leituras com dois bancos H2 em memória, um principal e uma réplica. A replicação é
+ * simulada copiando o principal para a réplica (<code>SCRIPT</code>), e o atraso da réplica é lido de uma tabela dela.
+ */
+@DataJpaTest(properties = { "spring.datasource.url=jdbc:h2:mem:principal;DB_CLOSE_DELAY=-1",
+		"hotel.datasource.replicas=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "hotel.datasource.max-staleness=1000",
+		"hotel.datasource.replica-lag-query=SELECT lag_ms FROM replica_lag", "spring.jpa.open-in-view=false" })
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ReadReplicaConfig.class)
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	ReplicaRoutingDataSource routing;
+
+	@Autowired
+	OncePerRequestFilter readYourWritesFilter;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		replica = new JdbcTemplate((DataSource) routing.getResolvedDataSources().get("replica-1"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void readsFromReplicaUntilClientWrites() throws Exception {
+		guestRepository.save(guest("Ana"));
+		replicate();
+		guestRepository.save(guest("Bruno"));													//AINDA NÃO REPLICADO.
+
+		assertEquals(2, page().size());															//FORA DE REQUISIÇÕES: PRINCIPAL.
+		assertNull(request(null, () -> assertEquals(1, page().size())).getCookie(ReplicaRoutingDataSource.COOKIE));
+
+		Cookie written = request(null, () -> {
+			guestRepository.save(guest("Carla"));
+			assertEquals(3, page().size());
+		}).getCookie(ReplicaRoutingDataSource.COOKIE);
+		assertNotNull(written);
+		request(written, () -> assertEquals(3, page().size()));
+		Cookie expired = new Cookie(ReplicaRoutingDataSource.COOKIE, String.valueOf(System.currentTimeMillis() - 5000));
+		request(expired, () -> assertEquals(1, page().size()));
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaLags() throws Exception {
+		guestRepository.save(guest("Daniel"));
+		replicate();
+		guestRepository.save(guest("Eva"));
+		request(null, () -> assertEquals(1, page().size()));
+
+		replica.update("UPDATE replica_lag SET lag_ms = 5000");
+		routing.check();
+		request(null, () -> assertEquals(2, page().size()));
+
+		replica.execute("DROP TABLE replica_lag");												//RÉPLICA SEM RESPONDER À MEDIÇÃO.
+		routing.check();
+		request(null, () -> assertEquals(2, page().size()));
+
+		replica.execute("CREATE TABLE replica_lag(lag_ms BIGINT)");
+		replica.update("INSERT INTO replica_lag VALUES (200)");
+		routing.check();
+		request(null, () -> assertEquals(1, page().size()));
+	}
+
+	private List<Guest> page() {
+		return guestRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 10));
+	}
+
+	private MockHttpServletResponse request(Cookie cookie, Runnable body) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hospedes");
+		if(cookie != null)
+			request.setCookies(cookie);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		readYourWritesFilter.doFilter(request, response, (req, res) -> body.run());
+		return response;
+	}
+
+	/*
+	 * Substitui o conteúdo da réplica por uma cópia do principal, em dia.
+	 */
+	private void replicate() {
+		replica.execute("DROP ALL OBJECTS");
+		for(String statement : jdbcTemplate.queryForList("SCRIPT", String.class)) {
+			if(!statement.startsWith("--"))
+				replica.execute(statement);
+		}
+		replica.execute("CREATE TABLE replica_lag(lag_ms BIGINT)");
+		replica.update("INSERT INTO replica_lag VALUES (0)");
+		routing.check();
+	}
+
+	private static Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guest;
+	}
+}
@@ -0,0 +1,112 @@
+package br.com.guest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.guest.model.Guest;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do direcionamento entre o principal e a réplica em uma requisição completa, com os filtros e interceptadores
+ * do Spring MVC, em dois bancos H2: uma leitura seguida de uma gravação na mesma requisição.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:principal-web;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa", "spring.datasource.password=",
+		"hotel.datasource.replicas=jdbc:h2:mem:replica-web;DB_CLOSE_DELAY=-1", "hotel.datasource.max-staleness=1000",
+		"hotel.datasource.replica-lag-query=SELECT lag_ms FROM replica_lag", "spring.jpa.open-in-view=false" })
+@AutoConfigureMockMvc
+@Import(ReadReplicaWebTests.ReadThenWriteResource.class)
+class ReadReplicaWebTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ReplicaRoutingDataSource routing;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	/**
+	 * Lê os hóspedes e grava um novo, em transações separadas da mesma requisição.
+	 */
+	@RestController
+	static class ReadThenWriteResource {
+
+		@Autowired
+		GuestRepository guestRepository;
+
+		@PostMapping("/teste/ler-e-gravar")
+		public int readThenWrite(@RequestParam String name) {
+			int read = guestRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 10)).size();
+			Guest guest = new Guest();
+			guest.setName(name);
+			guestRepository.save(guest);
+			return read;
+		}
+	}
+
+	@Test
+	void writeAfterReplicaReadGoesToPrimary() throws Exception {
+		guestRepository.deleteAllInBatch();
+		guestRepository.save(guest("Ana"));
+		JdbcTemplate replica = replicate();
+		guestRepository.save(guest("Bruno"));													//AINDA NÃO REPLICADO.
+
+		mockMvc.perform(post("/teste/ler-e-gravar").param("name", "Carla")).andExpect(status().isOk())
+				.andExpect(content().string("1")).andExpect(cookie().exists(ReplicaRoutingDataSource.COOKIE));
+
+		assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_guest", Integer.class));
+		assertEquals(Integer.valueOf(1), replica.queryForObject("SELECT COUNT(*) FROM tb_guest", Integer.class));
+	}
+
+	@Test
+	void refusesOpenInView() {
+		ReadReplicaConfig config = new ReadReplicaConfig();
+		config.openInView = true;
+		assertThrows(IllegalStateException.class, config::start);
+	}
+
+	/*
+	 * Substitui o conteúdo da réplica por uma cópia do principal, em dia.
+	 */
+	private JdbcTemplate replicate() {
+		JdbcTemplate replica = new JdbcTemplate((DataSource) routing.getResolvedDataSources().get("replica-1"));
+		replica.execute("DROP ALL OBJECTS");
+		for(String statement : jdbcTemplate.queryForList("SCRIPT", String.class)) {
+			if(!statement.startsWith("--"))
+				replica.execute(statement);
+		}
+		replica.execute("CREATE TABLE replica_lag(lag_ms BIGINT)");
+		replica.update("INSERT INTO replica_lag VALUES (0)");
+		routing.check();
+		return replica;
+	}
+
+	private static Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guest;
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.guest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Teste do perfil <code>prod</code> em um banco H2 vazio: o esquema criado pelas migrações é validado contra as entidades,
+ * e os tempos de inicialização são registrados com os beans criados sob demanda. Os metadados JDBC ficam ativos porque o H2,
+ * ao contrário do PostgreSQL, guarda os nomes em maiúsculas.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:prod;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=validate", "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=true" })
+@ActiveProfiles("prod")
+@AutoConfigureMetrics
+class StartupReportTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	void migratedSchemaServesFirstRequest() {
+		Guest guest = new Guest();
+		guest.setName("Ana");
+		guest = restTemplate.postForObject("/api/hospede", guest, Guest.class);
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf("2021-06-01 14:00:00"));
+		checkIn.setDepartureDate(Timestamp.valueOf("2021-06-03 12:00:00"));
+		assertEquals(0, restTemplate.postForObject("/api/checkin", checkIn, CheckIn.class).getVersion());
+
+		double ready = meterRegistry.get("hotel.startup.ready").timeGauge().value();
+		double firstRequest = meterRegistry.get("hotel.startup.first-request").timeGauge().value();
+		assertTrue(ready > 0);
+		assertTrue(firstRequest >= ready);
+	}
+}
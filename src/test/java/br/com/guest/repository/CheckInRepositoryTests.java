@@ -0,0 +1,104 @@
+package br.com.guest.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Testes da quantidade de comandos SQL das leituras de check-ins, incluindo a serialização JSON dos hóspedes.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CheckInRepositoryTests {
+
+	private static final int GUESTS = 3;
+	private static final int CHECK_INS_PER_GUEST = 4;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<Long> guestIds = new ArrayList<>();
+
+	@BeforeEach
+	void populate() {
+		guestIds.clear();
+		for(int g = 0; g < GUESTS; g++) {
+			Guest guest = new Guest();
+			guest.setName("Hóspede " + g);
+			guest.setDocument("0000000000" + g);
+			guest.setTelephone("3199999000" + g);
+			entityManager.persist(guest);
+			guestIds.add(guest.getId());														//CÓDIGOS DA SEQUÊNCIA, NÃO NECESSARIAMENTE CONSECUTIVOS.
+			for(int c = 0; c < CHECK_INS_PER_GUEST; c++) {
+				CheckIn checkIn = new CheckIn();
+				checkIn.setGuest(guest);
+				checkIn.setEntryDate(Timestamp.valueOf("2021-06-0" + (c + 1) + " 14:00:00"));
+				checkIn.setDepartureDate(Timestamp.valueOf("2021-06-0" + (c + 2) + " 12:00:00"));
+				checkIn.setTotalCost(new BigDecimal("120"));
+				entityManager.persist(checkIn);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void findAllLoadsGuestsInOneStatement() throws Exception {
+		assertSingleStatement(() -> checkInRepository.findAll());
+	}
+
+	@Test
+	void findByIdLoadsGuestInOneStatement() throws Exception {
+		long id = checkInRepository.findAll().get(0).getId();
+		entityManager.clear();
+		assertSingleStatement(() -> checkInRepository.findById(id));
+	}
+
+	@Test
+	void keysetPageLoadsGuestsInOneStatement() throws Exception {
+		assertSingleStatement(() -> checkInRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 5)));
+	}
+
+	@Test
+	void findByGuestLoadsGuestsInOneStatement() throws Exception {
+		assertSingleStatement(() -> checkInRepository.findByGuestIdIn(guestIds.subList(0, 2)));
+	}
+
+	/*
+	 * Executa a leitura e serializa o resultado como os endpoints fazem, contando os comandos preparados.
+	 */
+	private void assertSingleStatement(Supplier<Object> read) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		objectMapper.writeValueAsString(read.get());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,132 @@
+package br.com.guest.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Testes da leitura por cursor: ordem, limites exclusivo e inclusivo das faixas, check-ins sem hóspede e versões nulas
+ * de linhas gravadas fora da aplicação.
+ */
+@DataJpaTest(properties = "hotel.streaming.fetch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CursorRepository.class)
+class CursorRepositoryTests {
+
+	@Autowired
+	CursorRepository cursorRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void readsGuestsAfterIdInOrder() {
+		List<Guest> saved = Arrays.asList(guest("Ana"), guest("Bruno"), guest("Carla"), guest("Diana"), guest("Eduardo"));
+
+		List<Guest> read = new ArrayList<>();
+		cursorRepository.forEachGuest(saved.get(1).getId(), read::add);
+
+		assertEquals(ids(saved.subList(2, 5)), read.stream().map(Guest::getId).collect(Collectors.toList()));
+		assertEquals("Carla", read.get(0).getName());
+		assertEquals("00000000000", read.get(0).getDocument());
+
+		read.clear();
+		cursorRepository.forEachGuest(saved.get(4).getId(), read::add);							//APÓS O ÚLTIMO: NADA.
+		assertTrue(read.isEmpty());
+	}
+
+	@Test
+	void readsCheckInRangeWithGuests() {
+		Guest ana = guest("Ana");
+		List<CheckIn> saved = new ArrayList<>();
+		for(int i = 0; i < 5; i++)
+			saved.add(checkIn(i == 3 ? null : ana));
+
+		List<CheckIn> read = new ArrayList<>();
+		cursorRepository.forEachCheckIn(saved.get(0).getId(), saved.get(3).getId(), read::add);
+
+		assertEquals(Arrays.asList(saved.get(1).getId(), saved.get(2).getId(), saved.get(3).getId()),
+				read.stream().map(CheckIn::getId).collect(Collectors.toList()));
+		assertEquals(ana.getId(), read.get(0).getGuest().getId());
+		assertEquals("Ana", read.get(0).getGuest().getName());
+		assertEquals(0, new BigDecimal("120").compareTo(read.get(0).getTotalCost()));
+		assertEquals(Timestamp.valueOf("2021-06-01 14:00:00"), read.get(0).getEntryDate());
+		assertNull(read.get(2).getGuest());
+
+		read.clear();
+		cursorRepository.forEachCheckIn(saved.get(2).getId(), saved.get(2).getId(), read::add);		//FAIXA VAZIA.
+		assertTrue(read.isEmpty());
+	}
+
+	@Test
+	void keepsNullVersions() {
+		jdbcTemplate.execute("ALTER TABLE tb_check_in ALTER COLUMN version SET NULL");				//COLUNA INCLUÍDA SEM VALOR PADRÃO.
+		jdbcTemplate.execute("ALTER TABLE tb_guest ALTER COLUMN version SET NULL");
+		try {
+			CheckIn checkIn = checkIn(guest("Bruno"));
+			jdbcTemplate.update("UPDATE tb_check_in SET version = NULL");
+			jdbcTemplate.update("UPDATE tb_guest SET version = NULL");
+
+			List<CheckIn> read = new ArrayList<>();
+			cursorRepository.forEachCheckIn(checkIn.getId() - 1, checkIn.getId(), read::add);
+			assertNull(read.get(0).getVersion());
+			assertNull(read.get(0).getGuest().getVersion());
+			assertEquals(checkIn.getGuest().getId(), read.get(0).getGuest().getId());
+		}finally {
+			cleanUp();
+			jdbcTemplate.execute("ALTER TABLE tb_check_in ALTER COLUMN version SET NOT NULL");
+			jdbcTemplate.execute("ALTER TABLE tb_guest ALTER COLUMN version SET NOT NULL");
+		}
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		guest.setDocument("00000000000");
+		return guestRepository.save(guest);
+	}
+
+	private CheckIn checkIn(Guest guest) {
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf("2021-06-01 14:00:00"));
+		checkIn.setDepartureDate(Timestamp.valueOf("2021-06-03 12:00:00"));
+		checkIn.setTotalCost(new BigDecimal("120"));
+		return checkInRepository.save(checkIn);
+	}
+
+	private static List<Long> ids(List<Guest> guests) {
+		return guests.stream().map(Guest::getId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,64 @@
+package br.com.guest.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Testes das migrações do Flyway com a configuração do perfil prod, em um H2 no modo PostgreSQL: banco com o esquema
+ * original criado pelo ddl-auto e banco com o esquema atual completo, ambos sem histórico de migrações.
+ */
+class SchemaMigrationTests {
+
+	@Test
+	void upgradesOriginalSchema() throws IOException {
+		DriverManagerDataSource dataSource = dataSource("original");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE SEQUENCE hibernate_sequence START WITH 1 INCREMENT BY 1");
+		jdbcTemplate.execute("CREATE TABLE tb_guest (id bigint NOT NULL, document varchar(255), name varchar(255), "
+				+ "telephone varchar(255), PRIMARY KEY (id))");
+		jdbcTemplate.execute("CREATE TABLE tb_check_in (id bigint NOT NULL, additional_vehicle boolean NOT NULL, "
+				+ "departure_date timestamp, entry_date timestamp, total_cost numeric(19, 2), guest bigint, PRIMARY KEY (id), "
+				+ "CONSTRAINT fk3n2qxh4b1cb1k4vxbgwuftvaa FOREIGN KEY (guest) REFERENCES tb_guest (id))");
+		jdbcTemplate.update("INSERT INTO tb_guest (id, name) VALUES (1, 'Helena')");
+		jdbcTemplate.update("INSERT INTO tb_check_in (id, additional_vehicle, guest, total_cost) VALUES (2, false, 1, 120.00)");
+
+		assertEquals(6, flyway(dataSource).migrate().migrationsExecuted);
+
+		assertEquals(Long.valueOf(0), jdbcTemplate.queryForObject("SELECT version FROM tb_guest WHERE id = 1", Long.class));
+		assertEquals(Long.valueOf(0), jdbcTemplate.queryForObject("SELECT version FROM tb_check_in WHERE id = 2", Long.class));
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_change_event WHERE entity_version IS NOT NULL", Integer.class));
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_check_in_rejection", Integer.class));
+	}
+
+	@Test
+	void acceptsCurrentSchemaWithoutHistory() throws IOException {
+		DriverManagerDataSource dataSource = dataSource("atual");
+		flyway(dataSource).migrate();
+		new JdbcTemplate(dataSource).execute("DROP TABLE \"flyway_schema_history\"");				//TABELAS JÁ CRIADAS PELO ddl-auto.
+
+		assertEquals(6, flyway(dataSource).migrate().migrationsExecuted);
+	}
+
+	/*
+	 * Flyway com as propriedades de base do perfil prod.
+	 */
+	private static Flyway flyway(DriverManagerDataSource dataSource) throws IOException {
+		Properties prod = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-prod.properties"));
+		return Flyway.configure().dataSource(dataSource)
+				.baselineOnMigrate(Boolean.parseBoolean(prod.getProperty("spring.flyway.baseline-on-migrate")))
+				.baselineVersion(prod.getProperty("spring.flyway.baseline-version", "1")).load();
+	}
+
+	private static DriverManagerDataSource dataSource(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
@@ -0,0 +1,122 @@
+package br.com.guest.resource;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInRejection;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRejectionRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.service.CheckInWriteBehind;
+import br.com.guest.service.IdempotencyStore;
+
+/**
+ * Testes do aceite de check-ins sem gravação imediata pela API, em um banco H2: repetição com a mesma chave depois de a
+ * fila encher e consulta de um check-in aceito e recusado pelo banco.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:assincrono;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class AsyncCheckInTests {
+
+	private static final Path DIRECTORY = temporaryDirectory();
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	CheckInWriteBehind checkInWriteBehind;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	CheckInRejectionRepository checkInRejectionRepository;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("hotel.write-behind.directory", DIRECTORY::toString);
+	}
+
+	@AfterEach
+	void restoreQueue() {
+		ReflectionTestUtils.setField(checkInWriteBehind, "maxPending", 100000);
+	}
+
+	@Test
+	void retryAfterQueueFillsReturnsAcceptedCheckIn() throws InterruptedException {
+		CheckIn checkIn = checkIn(guest("Fábio"));
+		ResponseEntity<CheckIn> accepted = post(checkIn, "reserva-fabio");
+		assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+		long count = awaitPersisted(accepted.getBody().getId());
+
+		ReflectionTestUtils.setField(checkInWriteBehind, "maxPending", 0);					//FILA CHEIA: GRAVARIA NA REQUISIÇÃO.
+		ResponseEntity<CheckIn> retried = post(checkIn, "reserva-fabio");
+		assertEquals(HttpStatus.OK, retried.getStatusCode());
+		assertEquals(accepted.getBody().getId(), retried.getBody().getId());
+		assertEquals(count, checkInRepository.count());
+
+		CheckIn other = checkIn(guest("Gabriela"));
+		ResponseEntity<CheckIn> saved = post(other, "reserva-gabriela");						//GRAVADO NA REQUISIÇÃO.
+		assertEquals(HttpStatus.OK, saved.getStatusCode());
+		assertEquals(saved.getBody().getId(), post(other, "reserva-gabriela").getBody().getId());
+		assertEquals(count + 1, checkInRepository.count());
+	}
+
+	@Test
+	void rejectedCheckInIsGone() {
+		checkInRejectionRepository.save(new CheckInRejection(987654, 1, "hóspede excluído"));
+		ResponseEntity<String> response = restTemplate.getForEntity("/api/checkin/987654", String.class);
+		assertEquals(HttpStatus.GONE, response.getStatusCode());
+		assertTrue(response.getBody().contains("hóspede excluído"));
+	}
+
+	private ResponseEntity<CheckIn> post(CheckIn checkIn, String idempotencyKey) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(IdempotencyStore.HEADER, idempotencyKey);
+		return restTemplate.postForEntity("/api/checkin-assincrono", new HttpEntity<>(checkIn, headers), CheckIn.class);
+	}
+
+	private long awaitPersisted(long id) throws InterruptedException {
+		for(int i = 0; i < 200 && !checkInRepository.existsById(id); i++)
+			Thread.sleep(50);
+		assertTrue(checkInRepository.existsById(id));
+		return checkInRepository.count();
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+
+	private static Path temporaryDirectory() {
+		try {
+			Path directory = Files.createTempDirectory("assincrono");
+			directory.toFile().deleteOnExit();
+			return directory;
+		}catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package br.com.guest.resource;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.util.StreamUtils;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Testes da exportação de check-ins em CSV compactado, em um banco H2.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:resources;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class CheckInCsvExportTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void exportsIdRangeAsGzipCsv() throws IOException {
+		Guest guest = guest("Silva, \"Ana\"");
+		CheckIn first = restTemplate.postForObject("/api/checkin", checkIn(guest), CheckIn.class);
+		CheckIn second = restTemplate.postForObject("/api/checkin", checkIn(guest), CheckIn.class);
+
+		String[] rows = export("/api/checkins-export?apos=" + (first.getId() - 1) + "&ate=" + second.getId());
+		assertEquals(3, rows.length);
+		assertTrue(rows[0].startsWith("id,entry_date,departure_date,"));
+		assertEquals(first.getId() + ",2021-06-01T14:00:00,2021-06-03T12:00:00,false,240.00,0,"
+				+ guest.getId() + ",\"Silva, \"\"Ana\"\"\",,,0", rows[1]);
+
+		rows = export("/api/checkins-export?apos=" + first.getId() + "&ate=" + second.getId());		//RETOMADA APÓS O PRIMEIRO.
+		assertEquals(2, rows.length);
+		assertTrue(rows[1].startsWith(second.getId() + ","));
+	}
+
+	@Test
+	void neutralizesSpreadsheetFormulas() throws IOException {
+		Guest guest = new Guest();
+		guest.setName("=HYPERLINK(\"http://x\",\"abrir\")");
+		guest.setDocument("@SUM(A1)");
+		guest.setTelephone("+55 31 99999-0000");
+		guest = restTemplate.postForObject("/api/hospede", guest, Guest.class);
+		CheckIn checkIn = restTemplate.postForObject("/api/checkin", checkIn(guest), CheckIn.class);
+
+		String[] rows = export("/api/checkins-export?apos=" + (checkIn.getId() - 1) + "&ate=" + checkIn.getId());
+		assertTrue(rows[1].endsWith("," + guest.getId() + ",\"'=HYPERLINK(\"\"http://x\"\",\"\"abrir\"\")\",'@SUM(A1),'+55 31 99999-0000,0"),
+				rows[1]);
+	}
+
+	private String[] export(String url) throws IOException {
+		byte[] body = restTemplate.getForObject(url, byte[].class);
+		try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return StreamUtils.copyToString(input, StandardCharsets.UTF_8).split("\n");
+		}
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+}
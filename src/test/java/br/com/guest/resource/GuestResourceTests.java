@@ -0,0 +1,113 @@
+package br.com.guest.resource;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.guest.config.WireFormatConfig;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.service.OccupancySnapshot;
+
+/**
+ * Testes das listas de ocupação guardadas de hóspedes, em um banco H2. O relógio das listas é adiantado, em vez de
+ * aguardar a saída prevista.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:resources;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class GuestResourceTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Autowired
+	OccupancySnapshot occupancySnapshot;
+
+	@AfterEach
+	void resetClock() {
+		ReflectionTestUtils.setField(occupancySnapshot, "clock", Clock.systemUTC());
+	}
+
+	@Test
+	void occupancyListsFollowWritesAndBoundaries() throws IOException {
+		Guest guest = guest("Diana");
+		assertFalse(ids(get("/api/hospedes-passado", MediaType.APPLICATION_JSON)).contains(guest.getId()));
+		double stored = meterRegistry.counter("hotel.occupancy.snapshot", "lista", "passado", "resultado", "guardada").count();
+		get("/api/hospedes-passado", MediaType.APPLICATION_JSON);
+		assertEquals(stored + 1, meterRegistry.counter("hotel.occupancy.snapshot", "lista", "passado", "resultado", "guardada").count());
+
+		restTemplate.postForObject("/api/checkin", checkIn(guest), CheckIn.class);
+		assertTrue(ids(get("/api/hospedes-passado", MediaType.APPLICATION_JSON)).contains(guest.getId()));
+
+		guest.setName("Diana Prado");																//GRAVAÇÃO DO HÓSPEDE TAMBÉM DESCARTA A LISTA.
+		restTemplate.postForObject("/api/hospede", guest, Guest.class);
+		byte[] json = get("/api/hospedes-passado", MediaType.APPLICATION_JSON);
+		assertTrue(tree(new JsonFactory(), json).findValuesAsText("name").contains("Diana Prado"));
+		assertEquals(tree(new JsonFactory(), json), tree(new SmileFactory(), get("/api/hospedes-passado", WireFormatConfig.SMILE)));
+
+		CheckIn stay = new CheckIn();
+		stay.setGuest(guest);
+		stay.setEntryDate(new Timestamp(System.currentTimeMillis() - 60_000));
+		stay.setDepartureDate(new Timestamp(System.currentTimeMillis() + 3_600_000));
+		restTemplate.postForObject("/api/checkin", stay, CheckIn.class);
+		assertTrue(ids(get("/api/hospedes-atuais", MediaType.APPLICATION_JSON)).contains(guest.getId()));
+
+		ReflectionTestUtils.setField(occupancySnapshot, "clock", Clock.offset(Clock.systemUTC(), Duration.ofHours(2)));
+		assertFalse(ids(get("/api/hospedes-atuais", MediaType.APPLICATION_JSON)).contains(guest.getId()));	//SAÍDA SEM NENHUMA GRAVAÇÃO.
+	}
+
+	private byte[] get(String url, MediaType type) {
+		HttpHeaders accept = new HttpHeaders();
+		accept.setAccept(Collections.singletonList(type));
+		ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(accept), byte[].class);
+		assertEquals(type, response.getHeaders().getContentType());
+		return response.getBody();
+	}
+
+	private static List<Long> ids(byte[] json) throws IOException {
+		return tree(new JsonFactory(), json).findValues("id").stream().map(JsonNode::asLong).collect(Collectors.toList());
+	}
+
+	private static JsonNode tree(JsonFactory factory, byte[] content) throws IOException {
+		return new ObjectMapper(factory).readTree(content);
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+}
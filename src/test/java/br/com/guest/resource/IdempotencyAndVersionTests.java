@@ -0,0 +1,135 @@
+package br.com.guest.resource;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.IdempotencyKeyRepository;
+import br.com.guest.service.IdempotencyStore;
+
+/**
+ * Testes das gravações idempotentes, do bloqueio otimista e das buscas condicionais (ETag) de hóspedes e check-ins, em
+ * um banco H2.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:resources;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class IdempotencyAndVersionTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	IdempotencyKeyRepository idempotencyKeyRepository;
+
+	@Test
+	void retriedPostReturnsOriginalCheckIn() {
+		CheckIn checkIn = checkIn(guest("Ana"));
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(IdempotencyStore.HEADER, "reserva-ana-1");
+		long before = checkInRepository.count(), keys = idempotencyKeyRepository.count();
+
+		CheckIn first = restTemplate.postForObject("/api/checkin", new HttpEntity<>(checkIn, headers), CheckIn.class);
+		CheckIn retry = restTemplate.postForObject("/api/checkin", new HttpEntity<>(checkIn, headers), CheckIn.class);
+
+		assertEquals(first.getId(), retry.getId());
+		assertEquals(first.getTotalCost(), retry.getTotalCost());
+		assertEquals(before + 1, checkInRepository.count());
+		assertEquals(keys + 1, idempotencyKeyRepository.count());									//CHAVE NO BANCO, VISÍVEL A TODAS AS INSTÂNCIAS.
+
+		checkIn.setAdditionalVehicle(true);
+		ResponseEntity<String> reused = restTemplate.postForEntity("/api/checkin", new HttpEntity<>(checkIn, headers), String.class);
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+	}
+
+	@Test
+	void failedPostReleasesKey() {
+		CheckIn checkIn = checkIn(guest("Eva"));
+		checkIn.getGuest().setId(Long.MAX_VALUE);													//HÓSPEDE INEXISTENTE.
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(IdempotencyStore.HEADER, "reserva-eva-1");
+		long keys = idempotencyKeyRepository.count();
+
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.series(),
+				restTemplate.postForEntity("/api/checkin", new HttpEntity<>(checkIn, headers), String.class).getStatusCode().series());
+		assertEquals(keys, idempotencyKeyRepository.count());
+
+		checkIn.setGuest(guest("Eva"));
+		assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/checkin", new HttpEntity<>(checkIn, headers), CheckIn.class).getStatusCode());
+	}
+
+	@Test
+	void staleVersionIsRefusedAndETagFollowsVersion() {
+		CheckIn saved = restTemplate.postForObject("/api/checkin", checkIn(guest("Bruno")), CheckIn.class);
+		ResponseEntity<CheckIn> read = restTemplate.getForEntity("/api/checkin/" + saved.getId(), CheckIn.class);
+		String etag = read.getHeaders().getETag();
+		assertNotNull(etag);
+
+		HttpHeaders ifNoneMatch = new HttpHeaders();
+		ifNoneMatch.setIfNoneMatch(etag);
+		assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange("/api/checkin/" + saved.getId(), HttpMethod.GET,
+				new HttpEntity<>(ifNoneMatch), CheckIn.class).getStatusCode());
+
+		CheckIn update = read.getBody();
+		update.setAdditionalVehicle(true);
+		HttpHeaders ifMatch = new HttpHeaders();
+		ifMatch.setIfMatch(etag);
+		assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/checkin", new HttpEntity<>(update, ifMatch), CheckIn.class).getStatusCode());
+
+		update.setAdditionalVehicle(false);															//MESMA VERSÃO JÁ ALTERADA.
+		assertEquals(HttpStatus.CONFLICT, restTemplate.postForEntity("/api/checkin", new HttpEntity<>(update, ifMatch), String.class).getStatusCode());
+
+		assertEquals(HttpStatus.OK, restTemplate.exchange("/api/checkin/" + saved.getId(), HttpMethod.GET,
+				new HttpEntity<>(ifNoneMatch), CheckIn.class).getStatusCode());
+	}
+
+	@Test
+	void updateWithoutVersionWritesOverCurrentOne() {
+		Guest guest = guest("Carlos");
+		CheckIn saved = restTemplate.postForObject("/api/checkin", checkIn(guest), CheckIn.class);
+		Guest reference = new Guest();
+		reference.setId(guest.getId());																//HÓSPEDE APENAS PELO ID, SEM VERSÃO.
+
+		for(int i = 0; i < 3; i++) {
+			CheckIn update = checkIn(reference);
+			update.setId(saved.getId());
+			update.setAdditionalVehicle(i % 2 == 0);
+			CheckIn written = restTemplate.postForObject("/api/checkin", update, CheckIn.class);
+			assertEquals(saved.getId(), written.getId());
+			assertEquals(i + 1, written.getVersion().longValue());
+		}
+
+		Guest rename = new Guest();
+		rename.setId(guest.getId());
+		rename.setName("Carlos Lima");
+		assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/hospede", rename, Guest.class).getStatusCode());
+		rename.setName("Carlos Lima Souza");
+		Guest renamed = restTemplate.postForObject("/api/hospede", rename, Guest.class);
+		assertEquals("Carlos Lima Souza", renamed.getName());
+		assertEquals(guest.getVersion() + 2, renamed.getVersion().longValue());
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+}
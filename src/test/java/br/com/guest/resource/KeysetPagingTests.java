@@ -0,0 +1,113 @@
+package br.com.guest.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.Guest;
+import br.com.guest.service.NdjsonWriter;
+
+/**
+ * Testes da listagem de hóspedes em páginas (keyset) e em NDJSON nos limites: página vazia, última página e cursor
+ * inválido.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:resources;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class KeysetPagingTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void followsPagesUntilLastOne() throws IOException {
+		List<Long> saved = new ArrayList<>();
+		for(int i = 0; i < 5; i++)
+			saved.add(guest("Paginado " + i).getId());
+		long before = saved.get(0) - 1;
+
+		JsonNode first = page("/api/hospedes?limite=2&apos=" + before);
+		assertEquals(saved.subList(0, 2), ids(first));
+		assertEquals(saved.get(1).longValue(), first.get("next").asLong());
+
+		JsonNode last = page("/api/hospedes?limite=10&apos=" + first.get("next").asLong());		//MENOS ITENS QUE O LIMITE.
+		assertEquals(saved.subList(2, 5), ids(last));
+		assertTrue(last.get("next").isNull());
+
+		JsonNode full = page("/api/hospedes?limite=3&apos=" + saved.get(1));						//ÚLTIMA PÁGINA CHEIA: SÓ A SEGUINTE, VAZIA, ENCERRA.
+		assertEquals(saved.get(4).longValue(), full.get("next").asLong());
+		JsonNode empty = page("/api/hospedes?limite=3&apos=" + full.get("next").asLong());
+		assertEquals(0, empty.get("items").size());
+		assertTrue(empty.get("next").isNull());
+	}
+
+	@Test
+	void clampsLimit() throws IOException {
+		Guest guest = guest("Limite");
+
+		JsonNode page = page("/api/hospedes?limite=0&apos=" + (guest.getId() - 1));
+		assertEquals(1, page.get("items").size());
+		assertEquals(guest.getId(), page.get("next").asLong());
+	}
+
+	@Test
+	void refusesInvalidCursor() {
+		assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/hospedes?limite=2&apos=abc", String.class).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/checkins?limite=2&apos=abc", String.class).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/hospedes-stream?apos=abc", String.class).getStatusCode());
+	}
+
+	@Test
+	void streamsOneGuestPerLine() throws IOException {
+		Guest first = guest("Fluxo 1"), second = guest("Fluxo 2");
+
+		ResponseEntity<byte[]> response = restTemplate.getForEntity("/api/hospedes-stream?apos=" + (first.getId() - 1), byte[].class);
+		assertEquals(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE), response.getHeaders().getContentType());
+		String body = new String(response.getBody(), StandardCharsets.UTF_8);
+		assertTrue(body.endsWith("\n"));
+		String[] lines = body.split("\n");
+		assertEquals(2, lines.length);
+		assertEquals(first.getId(), objectMapper.readTree(lines[0]).get("id").asLong());
+		assertEquals(second.getId(), objectMapper.readTree(lines[1]).get("id").asLong());
+
+		response = restTemplate.getForEntity("/api/hospedes-stream?apos=" + second.getId(), byte[].class);		//APÓS O ÚLTIMO: CORPO VAZIO.
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getBody() == null || response.getBody().length == 0);
+	}
+
+	private JsonNode page(String url) throws IOException {
+		ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		return objectMapper.readTree(response.getBody());
+	}
+
+	private static List<Long> ids(JsonNode page) {
+		List<Long> ids = new ArrayList<>();
+		page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+		return ids;
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+}
@@ -0,0 +1,60 @@
+package br.com.guest.resource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.guest.service.EntityCache;
+
+/**
+ * Testes do acesso à tabela de tarifas, em um banco H2: consulta aberta a outras origens e recarga somente com o token
+ * compartilhado entre as instâncias, sem CORS.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:tarifas;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+@AutoConfigureMockMvc
+class RateTableResourceTests {
+
+	private static final String ORIGIN = "http://outro-site.com";
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	EntityCache entityCache;
+
+	@AfterEach
+	void removeToken() {
+		ReflectionTestUtils.setField(entityCache, "peerToken", "");
+	}
+
+	@Test
+	void reloadRequiresPeerToken() throws Exception {
+		mockMvc.perform(post("/api/tarifas/recarregar")).andExpect(status().isForbidden());		//SEM TOKEN CONFIGURADO, NENHUMA RECARGA.
+		ReflectionTestUtils.setField(entityCache, "peerToken", "segredo");
+		mockMvc.perform(post("/api/tarifas/recarregar")).andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/tarifas/recarregar").header(EntityCache.TOKEN_HEADER, "outro")).andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/tarifas/recarregar").header(EntityCache.TOKEN_HEADER, "segredo")).andExpect(status().isOk());
+	}
+
+	@Test
+	void onlyLookupAcceptsOtherOrigins() throws Exception {
+		mockMvc.perform(get("/api/tarifas").header(HttpHeaders.ORIGIN, ORIGIN)).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*"));
+
+		mockMvc.perform(options("/api/tarifas/recarregar").header(HttpHeaders.ORIGIN, ORIGIN)			//O TOKEN EXIGE A PRÉ-VERIFICAÇÃO DO NAVEGADOR.
+				.header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST").header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, EntityCache.TOKEN_HEADER))
+				.andExpect(status().isForbidden()).andExpect(header().doesNotExist(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+	}
+}
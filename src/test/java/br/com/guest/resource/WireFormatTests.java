@@ -0,0 +1,76 @@
+package br.com.guest.resource;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.guest.config.WireFormatConfig;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+
+/**
+ * Testes da negociação dos formatos binários (Smile e CBOR) das respostas, em um banco H2.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:resources;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+class WireFormatTests {
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void negotiatesBinaryFormats() throws IOException {
+		CheckIn saved = restTemplate.postForObject("/api/checkin", checkIn(guest("Carla")), CheckIn.class);
+		ResponseEntity<byte[]> json = restTemplate.getForEntity("/api/checkins", byte[].class);
+		assertEquals(MediaType.APPLICATION_JSON, json.getHeaders().getContentType());
+
+		for(MediaType type : new MediaType[] {WireFormatConfig.SMILE, MediaType.APPLICATION_CBOR}) {
+			HttpHeaders accept = new HttpHeaders();
+			accept.setAccept(Collections.singletonList(type));
+			ResponseEntity<byte[]> binary = restTemplate.exchange("/api/checkins", HttpMethod.GET, new HttpEntity<>(accept), byte[].class);
+			assertEquals(type, binary.getHeaders().getContentType());
+			assertTrue(binary.getBody().length < json.getBody().length);
+
+			JsonNode checkIns = tree(type.equals(WireFormatConfig.SMILE) ? new SmileFactory() : new CBORFactory(), binary.getBody());
+			assertEquals(tree(new JsonFactory(), json.getBody()), checkIns);
+			assertTrue(checkIns.findValues("id").stream().anyMatch(id -> id.asLong() == saved.getId()));
+		}
+	}
+
+	/*
+	 * Valores decimais comparados sem a escala, que o JSON não preserva.
+	 */
+	private static JsonNode tree(JsonFactory factory, byte[] content) throws IOException {
+		return new ObjectMapper(factory).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+				.setNodeFactory(JsonNodeFactory.withExactBigDecimals(false)).readTree(content);
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return restTemplate.postForObject("/api/hospede", guest, Guest.class);
+	}
+}
@@ -0,0 +1,136 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.guest.event.CheckInSavedEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+
+/**
+ * Testes dos contadores de noites ocupadas do {@link AvailabilityIndex}, com reservas concorrentes, recusa de overbooking e
+ * noites da saída tardia.
+ */
+class AvailabilityIndexTests {
+
+	private static final LocalDate ORIGIN = LocalDate.of(2021, 6, 1);
+
+	@Test
+	void concurrentReservationsNeverExceedRooms() throws Exception {
+		AvailabilityIndex index = index(5, false);
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<List<CheckIn>>> results = new ArrayList<>();
+		for(int t = 0; t < 16; t++) {
+			int seed = t;
+			results.add(executor.submit(() -> {
+				Random random = new Random(seed);
+				List<CheckIn> held = new ArrayList<>();
+				for(int i = 0; i < 2000; i++) {
+					if(!held.isEmpty() && random.nextBoolean()) {
+						index.release(held.remove(random.nextInt(held.size())));
+						continue;
+					}
+					int entry = random.nextInt(60);
+					CheckIn checkIn = checkIn(0, ORIGIN.plusDays(entry) + " 14:00:00", ORIGIN.plusDays(entry + 1 + random.nextInt(7)) + " 12:00:00");
+					if(index.reserve(checkIn, true) == AvailabilityIndex.RESERVED)
+						held.add(checkIn);
+				}
+				return held;
+			}));
+		}
+		int[] expected = new int[70];
+		for(Future<List<CheckIn>> result : results)
+			for(CheckIn checkIn : result.get())
+				for(long day = day(checkIn.getEntryDate()); day < day(checkIn.getDepartureDate()); day++)
+					expected[(int) (day - ORIGIN.toEpochDay())]++;
+		executor.shutdown();
+
+		for(int i = 0; i < expected.length; i++) {
+			assertTrue(expected[i] <= 5);
+			assertEquals(expected[i], index.occupied(ORIGIN.toEpochDay() + i));
+		}
+	}
+
+	@Test
+	void refusesOverbookingAndMovesUpdatedStays() {
+		AvailabilityIndex index = index(1, true);
+		CheckIn first = checkIn(1, "2021-06-01 14:00:00", "2021-06-03 12:00:00");
+		index.onCheckInSaved(new CheckInSavedEvent(first, null));
+
+		OverbookingException e = assertThrows(OverbookingException.class,
+				() -> index.onCheckInSaved(new CheckInSavedEvent(checkIn(2, "2021-06-02 14:00:00", "2021-06-04 12:00:00"), null)));
+		assertEquals(LocalDate.of(2021, 6, 2), e.getNight());
+		assertFalse(index.isAvailable(ORIGIN, ORIGIN.plusDays(1)));
+		assertTrue(index.isAvailable(ORIGIN.plusDays(2), ORIGIN.plusDays(2)));
+
+		CheckIn moved = checkIn(1, "2021-06-02 14:00:00", "2021-06-04 17:00:00");				//SAÍDA TARDIA OCUPA A NOITE DA SAÍDA.
+		index.onCheckInSaved(new CheckInSavedEvent(moved, first));
+
+		assertEquals(2, index.availability(ORIGIN, ORIGIN.plusDays(4)).getFreeNights());
+		assertTrue(index.isAvailable(ORIGIN, ORIGIN));
+		assertFalse(index.isAvailable(ORIGIN.plusDays(3), ORIGIN.plusDays(3)));
+		assertTrue(index.isAvailable(ORIGIN.plusDays(4), ORIGIN.plusDays(4)));
+	}
+
+	@Test
+	void lateCheckoutOccupiesDepartureNightNotBilledExtraDay() {
+		AvailabilityIndex index = index(5, false);
+		CheckIn late = checkIn(1, "2021-06-01 14:00:00", "2021-06-03 17:00:00");
+		index.onCheckInSaved(new CheckInSavedEvent(late, null));
+
+		assertEquals(1, index.occupied(ORIGIN.toEpochDay()));
+		assertEquals(1, index.occupied(ORIGIN.plusDays(1).toEpochDay()));
+		assertEquals(1, index.occupied(ORIGIN.plusDays(2).toEpochDay()));						//NOITE DA SAÍDA.
+		assertEquals(0, index.occupied(ORIGIN.plusDays(3).toEpochDay()));						//DIÁRIA EXTRA COBRADA, NOITE LIVRE.
+	}
+
+	@Test
+	void refusesToEnforceWithPeers() {
+		AvailabilityIndex index = index(5, true);
+		index.peers = new String[] { "http://app2:8080" };
+		assertThrows(IllegalStateException.class, index::start);
+
+		index.peers = new String[] { " " };
+		index.start();
+		index.enforce = false;
+		index.peers = new String[] { "http://app2:8080" };
+		index.start();
+	}
+
+	private static AvailabilityIndex index(int rooms, boolean enforce) {
+		AvailabilityIndex index = new AvailabilityIndex();
+		index.rooms = rooms;
+		index.enforce = enforce;
+		index.checkInRepository = mock(CheckInRepository.class);
+		index.cursorRepository = mock(CursorRepository.class);
+		index.build();																			//SEM CHECK-INS CADASTRADOS.
+		return index;
+	}
+
+	private static long day(Timestamp timestamp) {
+		return timestamp.toLocalDateTime().toLocalDate().toEpochDay();
+	}
+
+	private static CheckIn checkIn(long id, String entry, String departure) {
+		CheckIn checkIn = new CheckIn();
+		checkIn.setId(id);
+		checkIn.setEntryDate(Timestamp.valueOf(entry));
+		checkIn.setDepartureDate(Timestamp.valueOf(departure));
+		return checkIn;
+	}
+}
@@ -0,0 +1,208 @@
+package br.com.guest.service;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.ChangeEventRepository;
+import br.com.guest.repository.ChangePositionWriter;
+import br.com.guest.repository.ChangeSubscriptionRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do journal de alterações: gravação na transação das alterações, numeração pelo relay, leitura do feed a partir
+ * de uma posição e envio aos assinantes. O assinante é um servidor HTTP local que guarda os lotes recebidos.
+ */
+@DataJpaTest(properties = "hotel.outbox.relay-interval=3600000")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ GuestService.class, CheckInService.class, ChangeJournal.class, ChangeRelay.class, ChangePositionWriter.class,
+		PricingEngine.class, RateTableService.class })
+class ChangeJournalTests {
+
+	private static final List<JsonNode> RECEIVED = Collections.synchronizedList(new ArrayList<>());
+	private static final HttpServer SUBSCRIBER = subscriber();
+
+	@Autowired
+	GuestService guestService;
+
+	@Autowired
+	CheckInService checkInService;
+
+	@Autowired
+	ChangeJournal changeJournal;
+
+	@Autowired
+	ChangeRelay changeRelay;
+
+	@Autowired
+	ChangeEventRepository changeEventRepository;
+
+	@Autowired
+	ChangePositionWriter changePositionWriter;
+
+	@Autowired
+	ChangeSubscriptionRepository subscriptionRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("hotel.outbox.subscribers", () -> "faturamento=http://localhost:" + SUBSCRIBER.getAddress().getPort() + "/eventos");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+		changeEventRepository.deleteAllInBatch();
+		subscriptionRepository.deleteAllInBatch();
+		changeRelay.retention = 604800000;
+		RECEIVED.clear();
+	}
+
+	@AfterAll
+	static void stopSubscriber() {
+		SUBSCRIBER.stop(0);
+	}
+
+	@Test
+	void recordsCommittedChangesInFeedOrder() {
+		Guest guest = guestService.save(guest("Ana"));
+		CheckIn checkIn = checkInService.save(checkIn(guest, "2021-06-04 14:00:00", "2021-06-06 12:00:00"));
+		CheckIn stale = checkIn(guest, "2021-06-04 14:00:00", "2021-06-07 12:00:00");
+		stale.setId(checkIn.getId());
+		stale.setVersion(checkIn.getVersion() + 1);
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> checkInService.save(stale));	//DESFEITA, SEM ALTERAÇÃO.
+		checkIn.setDepartureDate(Timestamp.valueOf("2021-06-07 12:00:00"));
+		checkInService.save(checkIn);
+		Guest removed = guestService.save(guest("Bruno"));
+		guestService.delete(removed);
+		assertTrue(changeJournal.read(0, 10).isEmpty());											//AINDA NÃO PUBLICADAS PELO RELAY.
+
+		changeRelay.relay();
+		List<ChangeEvent> feed = changeJournal.read(0, 10);
+		assertEquals(5, feed.size());
+		assertEquals("hospede criado checkin criado checkin alterado hospede criado hospede excluido", describe(feed));
+		for(int i = 0; i < feed.size(); i++)
+			assertEquals(i + 1, (long) feed.get(i).getPosition());
+		assertEquals(checkIn.getId(), feed.get(2).getEntityId());
+		assertEquals(0, (long) feed.get(1).getEntityVersion());
+		assertEquals(1, (long) feed.get(2).getEntityVersion());
+		assertEquals(0, (long) feed.get(4).getEntityVersion());									//VERSÃO EXCLUÍDA.
+		assertTrue(feed.get(2).getPayload().contains("\"departureDate\":\"2021-06-07"));
+		assertEquals(2, changeJournal.read(3, 10).size());
+		assertEquals(feed.get(3).getId(), changeJournal.read(3, 10).get(0).getId());
+	}
+
+	@Test
+	void pushesBatchesAndResumesFromSubscriberPosition() {
+		Guest guest = guestService.save(guest("Carla"));
+		changeRelay.relay();
+		checkInService.save(checkIn(guest, "2021-06-04 14:00:00", "2021-06-06 12:00:00"));
+		changeRelay.relay();
+
+		assertEquals(2, RECEIVED.size());
+		assertEquals(1, RECEIVED.get(0).size());
+		assertEquals("Carla", RECEIVED.get(0).get(0).get("payload").get("name").asText());
+		assertEquals(2, RECEIVED.get(1).get(0).get("position").asLong());
+		assertEquals("checkin", RECEIVED.get(1).get(0).get("entityType").asText());
+		assertEquals(2, subscriptionRepository.findById("faturamento").get().getPosition());
+
+		changeRelay.retention = -60000;															//TODAS AS ALTERAÇÕES JÁ VENCIDAS.
+		assertEquals(1, changeRelay.prune());
+		guestService.save(guest("Daniel"));
+		changeRelay.relay();
+		assertEquals(2, (long) changeJournal.read(0, 10).get(0).getPosition());						//PRIMEIRA LEITURA, A PARTIR DA MAIS ANTIGA.
+		assertEquals(3, (long) changeJournal.read(2, 10).get(0).getPosition());
+
+		assertEquals(1, changeRelay.prune());
+		ChangeFeedExpiredException expired = assertThrows(ChangeFeedExpiredException.class, () -> changeJournal.read(1, 10));
+		assertEquals(3, expired.getOldestPosition());
+		assertEquals(3, (long) changeJournal.read(0, 10).get(0).getPosition());
+	}
+
+	@Test
+	void positionsAreAssignedOnlyOnce() {
+		guestService.save(guest("Elisa"));
+		guestService.save(guest("Fábio"));
+		List<Long> pending = changeEventRepository.findUnpublishedIds(PageRequest.of(0, 10));
+		changeRelay.relay();
+
+		Boolean assigned = transactionTemplate.execute(status -> changePositionWriter.assign(pending, 3));	//RELAY CONCORRENTE COM A MESMA LEITURA.
+		assertFalse(assigned);
+		assertEquals(2, (long) changeEventRepository.findMaxPosition());
+		assertEquals(0, changeRelay.relay());
+	}
+
+	private static String describe(List<ChangeEvent> feed) {
+		StringBuilder description = new StringBuilder();
+		feed.forEach(c -> description.append(description.length() == 0 ? "" : " ").append(c.getEntityType()).append(' ').append(c.getOperation()));
+		return description.toString();
+	}
+
+	private static HttpServer subscriber() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			ObjectMapper mapper = new ObjectMapper();
+			server.createContext("/eventos", exchange -> {
+				try (InputStream body = exchange.getRequestBody()) {
+					RECEIVED.add(mapper.readTree(body));
+				}
+				exchange.sendResponseHeaders(204, -1);
+				exchange.close();
+			});
+			server.start();
+			return server;
+		}catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guest;
+	}
+}
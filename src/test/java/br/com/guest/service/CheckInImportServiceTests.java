@@ -0,0 +1,165 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.repository.GuestBookingSummaryRepository;
+import br.com.guest.repository.GuestRepository;
+import br.com.guest.repository.SequenceAligner;
+
+/**
+ * Testes da importação de check-ins em lote: resultado por item, quantidade de comandos SQL, gravação item a item de um
+ * bloco recusado e alinhamento das sequências.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ CheckInImportService.class, CheckInService.class, GuestBookingSummaryService.class, EntityCache.class, PricingEngine.class,
+		RateTableService.class, SequenceAligner.class, AvailabilityIndex.class, CursorRepository.class })
+class CheckInImportServiceTests {
+
+	private static final int ITEMS = 1200;
+
+	@Autowired
+	CheckInImportService importService;
+
+	@Autowired
+	GuestBookingSummaryService bookingSummaryService;
+
+	@Autowired
+	SequenceAligner sequenceAligner;
+
+	@Autowired
+	AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestBookingSummaryRepository summaryRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		summaryRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void importsInBatchesAndReportsEachItem() throws Exception {
+		Guest guest = new Guest();
+		guest.setName("Grupo");
+		guest = guestRepository.save(guest);
+
+		StringBuilder ndjson = new StringBuilder();
+		for(int i = 0; i < ITEMS; i++)
+			ndjson.append(checkIn(guest.getId(), i)).append('\n');
+		ndjson.append("{\"guest\":{\"id\":").append(guest.getId()).append("}}\n");							//SEM DATAS.
+		ndjson.append(checkIn(guest.getId() + 1000, 0)).append('\n');										//HÓSPEDE INEXISTENTE.
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		importService.importCheckIns(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+		JsonNode results = objectMapper.readTree(output.toByteArray());
+		assertEquals(ITEMS + 2, results.size());
+		for(int i = 0; i < ITEMS; i++) {
+			assertEquals(i, results.get(i).get("index").asInt());
+			assertNotNull(results.get(i).get("id"));
+			assertNull(results.get(i).get("error"));
+		}
+		assertTrue(results.get(ITEMS).get("error").asText().contains("datas"));
+		assertTrue(results.get(ITEMS + 1).get("error").asText().contains("não encontrado"));
+
+		assertEquals(ITEMS, checkInRepository.count());
+		assertEquals(ITEMS, bookingSummaryService.find(guest.getId()).getStayCount());
+		assertTrue(statistics.getPrepareStatementCount() < ITEMS / 10, "Comandos preparados: " + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void rejectsOnlyOffendersOfRefusedBlock() throws Exception {
+		Guest guest = new Guest();
+		guest.setName("Grupo");
+		guest = guestRepository.save(guest);
+		String night = "{\"guest\":{\"id\":%d},\"entryDate\":\"2022-03-%02dT14:00:00\",\"departureDate\":\"2022-03-%02dT12:00:00\"}\n";
+		String ndjson = String.format(night, guest.getId(), 10, 11) + String.format(night, guest.getId(), 10, 11)
+				+ String.format(night, guest.getId(), 10, 11) + String.format(night, guest.getId(), 20, 21);	//O TERCEIRO NÃO CABE.
+
+		ReflectionTestUtils.setField(availabilityIndex, "rooms", 2);
+		ReflectionTestUtils.setField(availabilityIndex, "enforce", true);
+		try {
+			availabilityIndex.build();
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			importService.importCheckIns(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), output);
+
+			JsonNode results = objectMapper.readTree(output.toByteArray());
+			assertEquals(4, results.size());
+			for(int i : new int[] { 0, 1, 3 }) {
+				assertNotNull(results.get(i).get("id"));
+				assertNull(results.get(i).get("error"));
+			}
+			assertNotNull(results.get(2).get("error"));
+			assertEquals(3, checkInRepository.count());
+			assertEquals(3, bookingSummaryService.find(guest.getId()).getStayCount());
+		}finally {
+			ReflectionTestUtils.setField(availabilityIndex, "enforce", false);
+			ReflectionTestUtils.setField(availabilityIndex, "rooms", 50);
+		}
+	}
+
+	@Test
+	void restartsSequenceAfterExistingIds() {
+		jdbcTemplate.update("INSERT INTO tb_guest (id, name) VALUES (?, ?)", 5000L, "Legado");
+
+		sequenceAligner.align();
+
+		long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR sq_guest", Long.class);
+		assertTrue(next - 49 > 5000, "Primeiro código do bloco: " + (next - 49));						//BLOCO DO OTIMIZADOR POOLED.
+	}
+
+	private static String checkIn(long guestId, int day) {
+		return String.format("{\"guest\":{\"id\":%d},\"entryDate\":\"2021-06-01T14:00:00\",\"departureDate\":\"2021-06-%02dT12:00:00\"}",
+				guestId, 2 + day % 27);
+	}
+}
@@ -0,0 +1,213 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.CheckInRejection;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRejectionRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CheckInWriter;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do aceite de check-ins com gravação em segundo plano: gravação dos aceitos em lotes, falta de quartos recusada
+ * antes do aceite, recusa de itens pelo banco e releitura do arquivo após uma parada, com um registro final incompleto e
+ * um registro já gravado antes da parada.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ CheckInWriteBehind.class, CheckInWriter.class, EntityCache.class, PricingEngine.class, RateTableService.class,
+		AvailabilityIndex.class, CursorRepository.class })
+class CheckInWriteBehindTests {
+
+	private static final Path DIRECTORY = temporaryDirectory();
+
+	@Autowired
+	CheckInWriteBehind writeBehind;
+
+	@Autowired
+	CheckInWriter checkInWriter;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRejectionRepository checkInRejectionRepository;
+
+	@Autowired
+	AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("hotel.write-behind.directory", DIRECTORY::toString);
+		registry.add("hotel.write-behind.batch-size", () -> "4");
+		registry.add("hotel.availability.enforce", () -> "true");
+		registry.add("hotel.availability.rooms", () -> "3");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		checkInRejectionRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void persistsAcceptedCheckInsInBatches() throws InterruptedException {
+		Guest guest = guest("Ana");
+		List<CheckIn> accepted = new ArrayList<>();
+		for(int day = 1; day <= 10; day++) {
+			CheckIn checkIn = checkIn(guest.getId(), "2021-06-" + (10 + day) + " 14:00:00", "2021-06-" + (12 + day) + " 12:00:00");
+			assertEquals(null, writeBehind.validate(checkIn));
+			accepted.add(writeBehind.accept(checkIn));
+		}
+		awaitPersisted();
+
+		for(CheckIn checkIn : accepted) {
+			CheckIn stored = checkInRepository.findById(checkIn.getId());
+			assertNotNull(stored);
+			assertEquals(0, checkIn.getTotalCost().compareTo(stored.getTotalCost()));
+			assertEquals(guest.getId(), stored.getGuest().getId());
+		}
+		assertEquals("Hóspede 999999 não encontrado.", writeBehind.validate(checkIn(999999, "2021-06-01 14:00:00", "2021-06-02 12:00:00")));
+	}
+
+	@Test
+	void rejectsOnlyCheckInsRefusedByDatabase() throws InterruptedException {
+		Guest kept = guest("Bruno"), removed = guest("Carla");
+		CheckIn first = checkIn(kept.getId(), "2021-06-01 14:00:00", "2021-06-02 12:00:00");
+		CheckIn orphan = checkIn(removed.getId(), "2021-06-01 14:00:00", "2021-06-02 12:00:00");
+		writeBehind.validate(first);
+		writeBehind.validate(orphan);
+		guestRepository.deleteById(removed.getId());											//EXCLUÍDO ENTRE O ACEITE E A GRAVAÇÃO.
+		long before = ((Number) writeBehind.status().get("recusados")).longValue();
+		writeBehind.accept(first);
+		writeBehind.accept(orphan);
+		awaitPersisted();
+
+		assertNotNull(checkInRepository.findById(first.getId()));
+		assertEquals(null, checkInRepository.findById(orphan.getId()));
+		assertEquals(before + 1, ((Number) writeBehind.status().get("recusados")).longValue());
+		CheckInRejection rejection = writeBehind.findRejection(orphan.getId());
+		assertEquals(removed.getId(), rejection.getGuestId());
+		assertNotNull(rejection.getReason());
+		assertEquals(null, writeBehind.findRejection(first.getId()));
+	}
+
+	@Test
+	void refusesOverbookingBeforeAccepting() throws InterruptedException {
+		Guest guest = guest("Elisa");
+		long night = LocalDate.of(2022, 1, 10).toEpochDay();
+		for(int i = 0; i < 3; i++) {
+			CheckIn checkIn = checkIn(guest.getId(), "2022-01-10 14:00:00", "2022-01-11 12:00:00");
+			writeBehind.validate(checkIn);
+			writeBehind.accept(checkIn);
+		}
+		assertEquals(3, availabilityIndex.occupied(night));								//OCUPADAS NO ACEITE, ANTES DA GRAVAÇÃO.
+		long accepted = ((Number) writeBehind.status().get("aceitos")).longValue();
+		CheckIn refused = checkIn(guest.getId(), "2022-01-10 14:00:00", "2022-01-11 12:00:00");
+		writeBehind.validate(refused);
+		assertThrows(OverbookingException.class, () -> writeBehind.accept(refused));
+		assertEquals(accepted, ((Number) writeBehind.status().get("aceitos")).longValue());
+		awaitPersisted();
+
+		assertEquals(3, checkInRepository.count());
+		assertEquals(3, availabilityIndex.occupied(night));								//A GRAVAÇÃO NÃO CONTA DE NOVO.
+	}
+
+	@Test
+	void replaysLogAfterRestart() throws Exception {
+		Guest guest = guest("Daniel");
+		CheckIn persisted = checkIn(guest.getId(), "2021-06-01 14:00:00", "2021-06-03 12:00:00");
+		writeBehind.validate(persisted);
+		writeBehind.accept(persisted);
+		awaitPersisted();
+		writeBehind.stop();
+
+		CheckIn pending = checkIn(guest.getId(), "2021-06-05 14:00:00", "2021-06-06 12:00:00");
+		pending.setGuest(guestRepository.findById(guest.getId()));
+		pending.setId(checkInWriter.nextId());
+		pending.setTotalCost(new BigDecimal("120.00"));
+		try (CheckInLog log = new CheckInLog(DIRECTORY)) {
+			log.replay();
+			log.checkpoint(0, Long.MAX_VALUE);												//QUEDA ANTES DE REGISTRAR A POSIÇÃO GRAVADA.
+			log.append(objectMapper.writeValueAsBytes(pending));
+			log.sync(log.size());
+		}
+		Files.write(DIRECTORY.resolve("checkins.log"), new byte[] { 0, 0, 1, 0, 7 }, StandardOpenOption.APPEND);	//REGISTRO INCOMPLETO.
+
+		writeBehind.start();
+		awaitPersisted();
+		assertEquals(2, checkInRepository.count());
+		assertEquals(0, new BigDecimal("120.00").compareTo(checkInRepository.findById(pending.getId()).getTotalCost()));
+		assertTrue(writeBehind.isAccepting());
+	}
+
+	private void awaitPersisted() throws InterruptedException {
+		for(int i = 0; i < 200 && ((Number) writeBehind.status().get("pendentes")).intValue() > 0; i++)
+			Thread.sleep(50);
+		assertEquals(0, ((Number) writeBehind.status().get("pendentes")).intValue());
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guestRepository.save(guest);
+	}
+
+	private static CheckIn checkIn(long guestId, String entry, String departure) {
+		Guest guest = new Guest();
+		guest.setId(guestId);
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf(entry));
+		checkIn.setDepartureDate(Timestamp.valueOf(departure));
+		return checkIn;
+	}
+
+	private static Path temporaryDirectory() {
+		try {
+			Path directory = Files.createTempDirectory("checkins");
+			directory.toFile().deleteOnExit();
+			return directory;
+		}catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package br.com.guest.service;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CacheInvalidation;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestBookingSummaryRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do cache de hóspedes e check-ins, removido pelos eventos após o commit ou pelo aviso de outra instância, e do
+ * token exigido nos avisos.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ EntityCache.class, GuestService.class, CheckInService.class, GuestBookingSummaryService.class, PricingEngine.class, RateTableService.class })
+class EntityCacheTests {
+
+	@Autowired
+	EntityCache entityCache;
+
+	@Autowired
+	GuestService guestService;
+
+	@Autowired
+	CheckInService checkInService;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestBookingSummaryRepository summaryRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		summaryRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void savedGuestReplacesCachedGuestAndItsCheckIns() {
+		Guest guest = guest("Ana");
+		CheckIn checkIn = checkInService.save(checkIn(guest));
+		Guest cached = entityCache.findGuest(guest.getId());
+		CheckIn cachedCheckIn = entityCache.findCheckIn(checkIn.getId());
+
+		assertSame(cached, entityCache.findGuest(guest.getId()));
+		assertSame(cachedCheckIn, entityCache.findCheckIn(checkIn.getId()));
+
+		guest.setName("Ana Maria");
+		guestService.save(guest);
+
+		assertEquals("Ana Maria", entityCache.findGuest(guest.getId()).getName());
+		assertEquals("Ana Maria", entityCache.findCheckIn(checkIn.getId()).getGuest().getName());
+	}
+
+	@Test
+	void peerInvalidationDropsEntriesChangedElsewhere() {
+		Guest guest = guest("Bruno");
+		assertEquals("Bruno", entityCache.findGuest(guest.getId()).getName());
+
+		jdbcTemplate.update("UPDATE tb_guest SET name = ? WHERE id = ?", "Bruno Lima", guest.getId());	//ALTERAÇÃO FEITA EM OUTRA INSTÂNCIA.
+		assertEquals("Bruno", entityCache.findGuest(guest.getId()).getName());
+
+		CacheInvalidation invalidation = new CacheInvalidation();
+		invalidation.setGuests(Arrays.asList(guest.getId()));
+		entityCache.invalidate(invalidation);
+
+		assertEquals("Bruno Lima", entityCache.findGuest(guest.getId()).getName());
+		assertNull(entityCache.findGuest(guest.getId() + 1000));
+	}
+
+	@Test
+	void refusesPeersWithoutTokenAndUnknownTokens() {
+		EntityCache unprotected = new EntityCache();
+		unprotected.peers = new String[] { "http://app2:8080" };
+		unprotected.peerToken = "";
+		assertThrows(IllegalStateException.class, unprotected::start);
+
+		assertFalse(entityCache.acceptsToken(null));												//SEM TOKEN CONFIGURADO, NENHUM AVISO.
+		EntityCache protectedCache = new EntityCache();
+		protectedCache.peerToken = "segredo";
+		assertTrue(protectedCache.acceptsToken("segredo"));
+		assertFalse(protectedCache.acceptsToken("outro"));
+		assertFalse(protectedCache.acceptsToken(null));
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guestService.save(guest);
+	}
+}
@@ -0,0 +1,130 @@
+package br.com.guest.service;
+
+import static br.com.guest.CheckInFixtures.checkIn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.model.GuestBookingSummary;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.GuestBookingSummaryRepository;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes do resumo de reservas mantido na gravação dos check-ins, comparado ao recálculo a partir da tabela de check-ins,
+ * e do cache dos resumos, removido pelo aviso de outra instância ou pela expiração.
+ * <p>
+ * Cada gravação é confirmada, para que o cache seja atualizado pelos eventos após o commit, como na aplicação.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ CheckInService.class, GuestBookingSummaryService.class, EntityCache.class, PricingEngine.class, RateTableService.class })
+class GuestBookingSummaryServiceTests {
+
+	@Autowired
+	CheckInService checkInService;
+
+	@Autowired
+	GuestBookingSummaryService bookingSummaryService;
+
+	@Autowired
+	GuestBookingSummaryRepository summaryRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		checkInRepository.deleteAllInBatch();
+		summaryRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void keepsSummaryOnInsertAndUpdate() {
+		Guest ana = guest("Ana"), bruno = guest("Bruno");
+		CheckIn first = checkInService.save(checkIn(ana, "2021-06-01 14:00:00", "2021-06-03 12:00:00"));
+		CheckIn second = checkInService.save(checkIn(ana, "2021-06-10 14:00:00", "2021-06-11 12:00:00"));
+
+		assertSummary(ana, 2, "360", second.getTotalCost());
+
+		CheckIn moved = checkIn(bruno, "2021-06-10 14:00:00", "2021-06-12 12:00:00");			//TROCA O HÓSPEDE E O VALOR DO ÚLTIMO CHECK-IN.
+		moved.setId(second.getId());
+		checkInService.save(moved);
+
+		assertSummary(ana, 1, "240", first.getTotalCost());
+		assertSummary(bruno, 1, "240", new BigDecimal("240"));
+	}
+
+	@Test
+	void rebuildMatchesIncrementalSummary() {
+		Guest ana = guest("Ana"), bruno = guest("Bruno");
+		checkInService.save(checkIn(ana, "2021-06-01 14:00:00", "2021-06-03 12:00:00"));
+		checkInService.save(checkIn(ana, "2021-06-04 14:00:00", "2021-06-05 17:00:00"));
+		checkInService.save(checkIn(bruno, "2021-06-05 14:00:00", "2021-06-06 12:00:00"));
+		GuestBookingSummary incremental = summaryRepository.findById(ana.getId()).get();
+		summaryRepository.deleteAllInBatch();
+
+		assertEquals(2, bookingSummaryService.rebuild());
+		assertSummary(ana, 2, incremental.getTotalAmount().toPlainString(), incremental.getLastBookingAmount());
+		assertNull(bookingSummaryService.find(guest("Carla").getId()).getTotalAmount());
+	}
+
+	@Test
+	void summaryChangedElsewhereIsReloadedAfterInvalidationOrExpiry() throws InterruptedException {
+		Guest ana = guest("Ana");
+		checkInService.save(checkIn(ana, "2021-06-01 14:00:00", "2021-06-03 12:00:00"));
+		assertSummary(ana, 1, "240", new BigDecimal("240"));
+		jdbcTemplate.update("UPDATE tb_guest_booking_summary SET stay_count = 2, total_amount = 360, version = version + 1 WHERE guest = ?",
+				ana.getId());																		//GRAVAÇÃO FEITA EM OUTRA INSTÂNCIA.
+		assertEquals(1, bookingSummaryService.find(ana.getId()).getStayCount());
+
+		bookingSummaryService.invalidate(Collections.singletonList(ana.getId()));				//AVISO DA OUTRA INSTÂNCIA.
+		assertSummary(ana, 2, "360", new BigDecimal("240"));
+
+		GuestBookingSummaryService expiring = new GuestBookingSummaryService();
+		expiring.summaryRepository = summaryRepository;
+		expiring.maximumSize = 10;
+		expiring.ttl = 1;
+		expiring.start();
+		assertEquals(2, expiring.find(ana.getId()).getStayCount());
+		jdbcTemplate.update("UPDATE tb_guest_booking_summary SET stay_count = 3, version = version + 1 WHERE guest = ?", ana.getId());
+		Thread.sleep(20);
+		assertEquals(3, expiring.find(ana.getId()).getStayCount());								//AVISO PERDIDO: VALE ATÉ A EXPIRAÇÃO.
+	}
+
+	private void assertSummary(Guest guest, long stays, String total, BigDecimal last) {
+		GuestBookingSummaryService.Summary summary = bookingSummaryService.find(guest.getId());
+		assertEquals(stays, summary.getStayCount());
+		assertEquals(0, new BigDecimal(total).compareTo(summary.getTotalAmount()));
+		assertEquals(0, last.compareTo(summary.getLastBookingAmount()));
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guestRepository.save(guest);
+	}
+}
@@ -0,0 +1,94 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.Guest;
+import br.com.guest.repository.GuestRepository;
+
+/**
+ * Testes da classificação do dado buscado e das buscas pelo nome, pelo documento ou telefone e pelo documento com letras.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(GuestSearchService.class)
+class GuestSearchServiceTests {
+
+	@Autowired
+	GuestSearchService searchService;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@AfterEach
+	void cleanUp() {
+		guestRepository.deleteAllInBatch();
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "Ana Souza,NAME", "João,NAME", "12345678900,NUMBER", "'(31) 99999-0000',NUMBER", "123.456.789-00,NUMBER",
+			"MG-12.345.678,DOCUMENT", "João 2º,DOCUMENT", "'',NUMBER" })
+	void classifiesData(String data, GuestSearchService.DataType expected) {
+		assertEquals(expected, GuestSearchService.classify(data));
+	}
+
+	@Test
+	void searchesNameIgnoringCaseAndAccents() {
+		Guest joao = guest("João  da Silva", "11111111111", "3199990001");
+		guest("Joana", "22222222222", "3199990002");
+
+		assertEquals(ids(joao), ids(searchService.search("joao da silva")));
+		assertEquals(ids(joao), ids(searchService.search("JOÃO DA SILVA")));
+		assertTrue(searchService.search("joao").isEmpty());										//NOME COMPLETO, NÃO PREFIXO.
+	}
+
+	@Test
+	void searchesNumberInDocumentAndTelephone() {
+		Guest ana = guest("Ana", "12345678900", "3199990001");
+		Guest bruno = guest("Bruno", "3199990001", "3199990002");
+
+		assertEquals(ids(ana), ids(searchService.search("12345678900")));
+		assertEquals(ids(ana, bruno), ids(searchService.search("3199990001")));
+		assertTrue(searchService.search("00000000000").isEmpty());
+	}
+
+	@Test
+	void searchesDocumentWithLettersThenName() {
+		Guest carla = guest("Carla", "MG-12.345.678", "3199990001");
+		Guest joao = guest("João 2º", "33333333333", "3199990002");
+
+		assertEquals(ids(carla), ids(searchService.search("MG-12.345.678")));
+		assertEquals(ids(joao), ids(searchService.search("joao 2º")));							//SEM DOCUMENTO IGUAL: PELO NOME.
+		assertTrue(searchService.search("SP-12.345.678").isEmpty());
+	}
+
+	private Guest guest(String name, String document, String telephone) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		guest.setDocument(document);
+		guest.setTelephone(telephone);
+		return guestRepository.save(guest);
+	}
+
+	private static List<Long> ids(Guest... guests) {
+		return Arrays.stream(guests).map(Guest::getId).sorted().collect(Collectors.toList());
+	}
+
+	private static List<Long> ids(List<Guest> guests) {
+		return guests.stream().map(Guest::getId).sorted().collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.guest.event.GuestDeletedEvent;
+import br.com.guest.event.GuestSavedEvent;
+import br.com.guest.model.Guest;
+
+/**
+ * Testes das sugestões de hóspedes: ordenação entre todos os candidatos, palavras curtas, atualização e remoção pelos
+ * eventos e compactação.
+ */
+class GuestTypeaheadIndexTests {
+
+	private final GuestTypeaheadIndex index = new GuestTypeaheadIndex();
+
+	@Test
+	void ranksAllCandidatesNotOnlyTheFirstSlots() {
+		for(int i = 0; i < 1000; i++)
+			index.put(guest(i, String.format("Zuleica Maria %04d", i)));
+		index.put(guest(5000, "Maria Aparecida"));													//ÚLTIMAS POSIÇÕES, MAS PRIMEIRAS NA ORDEM.
+		index.put(guest(5001, "Mariana Souza"));
+
+		assertEquals(Arrays.asList("Maria Aparecida", "Mariana Souza", "Zuleica Maria 0000", "Zuleica Maria 0001"),
+				names(index.suggest("maria", 4)));
+		assertEquals(1002, index.suggest("maria", 2000).size());
+	}
+
+	@Test
+	void matchesEveryWordIncludingShortPrefixes() {
+		index.put(guest(1, "Ana Beatriz Souza", "MG-12.345.678", "(31) 99999-0001"));
+		index.put(guest(2, "Anabela Souza", "12345678900", "(31) 98888-0002"));
+		index.put(guest(3, "Beatriz Ana", "98765432100", "(11) 97777-0003"));
+
+		assertEquals(Arrays.asList(1L, 3L), ids(index.suggest("ana bea", 10)));
+		assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.suggest("an", 10)));
+		assertEquals(Arrays.asList(2L), ids(index.suggest("anab", 10)));
+		assertEquals(Arrays.asList(1L), ids(index.suggest("mg12", 10)));
+		assertEquals(Arrays.asList(2L), ids(index.suggest("988880", 10)));
+		assertTrue(index.suggest("carla", 10).isEmpty());
+		assertTrue(index.suggest("ana", 0).isEmpty());
+		assertTrue(index.suggest("  ", 10).isEmpty());
+	}
+
+	@Test
+	void followsSaveAndDeleteEvents() {
+		index.put(guest(1, "João da Silva"));
+		index.put(guest(2, "Joana Prado"));
+
+		index.onGuestSaved(new GuestSavedEvent(guest(1, "João Pereira")));
+		assertEquals(Arrays.asList("João Pereira"), names(index.suggest("joao", 10)));
+		assertTrue(index.suggest("silva", 10).isEmpty());
+
+		index.onGuestDeleted(new GuestDeletedEvent(2));
+		assertEquals(Arrays.asList(1L), ids(index.suggest("jo", 10)));
+		assertEquals(1, index.size());
+
+		index.onGuestDeleted(new GuestDeletedEvent(99));											//HÓSPEDE NÃO INDEXADO.
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void keepsLiveGuestsAfterCompaction() {
+		for(int i = 0; i < 1500; i++)
+			index.put(guest(i, "Hóspede " + i));
+		for(int i = 0; i < 1200; i++)
+			index.remove(i);																		//PASSA DO LIMITE DE POSIÇÕES REMOVIDAS.
+		index.put(guest(1499, "Hóspede Renomeado"));
+
+		assertEquals(300, index.size());
+		assertEquals(300, index.suggest("hospede", 1000).size());
+		assertEquals(Arrays.asList(1499L), ids(index.suggest("renomeado", 10)));
+		assertTrue(index.suggest("hospede 15", 10).isEmpty());
+	}
+
+	private static Guest guest(long id, String name) {
+		return guest(id, name, null, null);
+	}
+
+	private static Guest guest(long id, String name, String document, String telephone) {
+		Guest guest = new Guest();
+		guest.setId(id);
+		guest.setName(name);
+		guest.setDocument(document);
+		guest.setTelephone(telephone);
+		return guest;
+	}
+
+	private static List<String> names(List<Guest> guests) {
+		return guests.stream().map(Guest::getName).collect(Collectors.toList());
+	}
+
+	private static List<Long> ids(List<Guest> guests) {
+		return guests.stream().map(Guest::getId).collect(Collectors.toList());
+	}
+}
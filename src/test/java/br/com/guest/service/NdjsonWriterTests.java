@@ -0,0 +1,87 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.Guest;
+
+/**
+ * Testes do enquadramento NDJSON: um objeto por linha, sem separadores nem array ao redor.
+ */
+class NdjsonWriterTests {
+
+	private final NdjsonWriter writer = new NdjsonWriter();
+
+	NdjsonWriterTests() {
+		writer.objectMapper = new ObjectMapper();
+	}
+
+	@Test
+	void writesOneObjectPerLine() throws IOException {
+		List<Guest> guests = Arrays.asList(guest(1, "Ana"), guest(2, "Bruno\nda Silva"), guest(3, "Carla"));
+
+		String output = write(guests);
+
+		assertEquals('\n', output.charAt(output.length() - 1));
+		String[] lines = output.split("\n");
+		assertEquals(3, lines.length);
+		for(int i = 0; i < lines.length; i++) {
+			Guest read = writer.objectMapper.readValue(lines[i], Guest.class);						//QUEBRA DE LINHA NO NOME ESCAPADA.
+			assertEquals(guests.get(i).getId(), read.getId());
+			assertEquals(guests.get(i).getName(), read.getName());
+		}
+	}
+
+	@Test
+	void writesNothingForEmptySource() throws IOException {
+		assertEquals("", write(Collections.<Guest>emptyList()));
+	}
+
+	@Test
+	void propagatesWriteFailure() {
+		IOException failure = new IOException("conexão encerrada pelo cliente");
+		OutputStream broken = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw failure;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				throw failure;
+			}
+		};
+
+		IOException thrown = assertThrows(IOException.class, () -> writer.<Guest>write(broken, consumer -> {
+			for(int i = 0; i < 10_000; i++)
+				consumer.accept(guest(i, "Hóspede " + i));
+		}));
+		assertSame(failure, thrown);
+	}
+
+	private String write(List<Guest> guests) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		writer.<Guest>write(output, guests::forEach);
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static Guest guest(long id, String name) {
+		Guest guest = new Guest();
+		guest.setId(id);
+		guest.setName(name);
+		return guest;
+	}
+}
@@ -0,0 +1,189 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.guest.model.ChangeEvent;
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.repository.ChangeEventRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+
+/**
+ * Testes do {@link OccupancyIndex} comparado à varredura de todos os check-ins, com inclusões e alterações aleatórias,
+ * inclusive os instantes previstos para a próxima mudança das listas, e da leitura das alterações de outras instâncias
+ * pelo journal.
+ */
+class OccupancyIndexTests {
+
+	private static final long DAY = 24L * 60 * 60 * 1000;
+
+	@Test
+	void matchesFullScan() {
+		OccupancyIndex index = readyIndex();
+		Map<Long, CheckIn> checkIns = new HashMap<>();
+		Random random = new Random(42);
+
+		for(int i = 0; i < 20_000; i++) {
+			long id = 1 + random.nextInt(5_000);												//REPETE CÓDIGOS PARA EXERCITAR AS ALTERAÇÕES.
+			CheckIn checkIn = checkIn(id, 1 + random.nextInt(800), random.nextInt(400) * DAY + random.nextInt(1000), random.nextInt(30) * DAY);
+			checkIns.put(id, checkIn);
+			index.put(checkIn);
+
+			if(i % 500 == 0) {
+				long instant = random.nextInt(420) * DAY + random.nextInt(1000);
+				assertEquals(expectedInHouse(checkIns, instant), new TreeSet<>(index.inHouse(instant)));
+				assertEquals(expectedCheckedOut(checkIns, instant), new TreeSet<>(index.checkedOut(instant)));
+				assertEquals(expectedNextInHouseChange(checkIns, instant), index.nextInHouseChange(instant));
+				assertEquals(expectedNextCheckedOutChange(checkIns, instant), index.nextCheckedOutChange(instant));
+			}
+		}
+		assertEquals(checkIns.size(), index.size());
+	}
+
+	@Test
+	void usesStrictBoundaries() {
+		OccupancyIndex index = new OccupancyIndex();
+		index.put(checkIn(1, 7, 10 * DAY, 2 * DAY));
+
+		assertEquals(0, index.inHouse(10 * DAY).size());
+		assertEquals(1, index.inHouse(10 * DAY + 1).size());
+		assertEquals(0, index.inHouse(12 * DAY).size());
+		assertEquals(0, index.checkedOut(12 * DAY).size());
+		assertEquals(1, index.checkedOut(12 * DAY + 1).size());
+	}
+
+	@Test
+	void predictsNextChangeOnceReady() {
+		OccupancyIndex index = new OccupancyIndex();
+		index.put(checkIn(1, 7, 10 * DAY, 2 * DAY));
+		assertEquals(5 * DAY, index.nextInHouseChange(5 * DAY));									//SEM O ÍNDICE MONTADO, NADA É PREVISTO.
+
+		index = readyIndex();
+		long version = index.version();
+		index.put(checkIn(1, 7, 10 * DAY, 2 * DAY));
+		assertTrue(index.version() > version);
+		assertEquals(10 * DAY + 1, index.nextInHouseChange(5 * DAY));
+		assertEquals(12 * DAY, index.nextInHouseChange(11 * DAY));
+		assertEquals(Long.MAX_VALUE, index.nextInHouseChange(12 * DAY));
+		assertEquals(12 * DAY + 1, index.nextCheckedOutChange(5 * DAY));
+		assertEquals(Long.MAX_VALUE, index.nextCheckedOutChange(12 * DAY + 1));
+	}
+
+	@Test
+	void followsChangesFromOtherInstances() {
+		OccupancyIndex index = readyIndex();
+		index.put(checkIn(1, 7, 10 * DAY, 2 * DAY));
+		CheckIn moved = checkIn(1, 7, 20 * DAY, 2 * DAY), other = checkIn(2, 8, 10 * DAY, 3 * DAY);	//GRAVADOS EM OUTRA INSTÂNCIA.
+		when(index.changeJournal.read(eq(0L), anyInt())).thenReturn(Arrays.asList(change(1, ChangeEvent.CHECK_IN, 1),
+				change(2, ChangeEvent.CHECK_IN, 2), change(3, ChangeEvent.GUEST, 7)));
+		when(index.checkInRepository.findAllById(new TreeSet<>(Arrays.asList(1L, 2L)))).thenReturn(Arrays.asList(moved, other));
+		long version = index.version();
+
+		assertEquals(3, index.refresh());
+		assertEquals(Collections.singleton(8L), new TreeSet<>(index.inHouse(11 * DAY)));
+		assertEquals(Collections.singleton(7L), new TreeSet<>(index.inHouse(21 * DAY)));
+		assertTrue(index.version() > version);
+
+		version = index.version();
+		when(index.changeJournal.read(eq(3L), anyInt())).thenReturn(Arrays.asList(change(4, ChangeEvent.CHECK_IN, 2),
+				change(5, ChangeEvent.GUEST, 7), change(6, ChangeEvent.GUEST, 9)));
+		when(index.checkInRepository.findAllById(Collections.singleton(2L))).thenReturn(Collections.singletonList(other));
+		assertEquals(3, index.refresh());
+		assertEquals(version, index.version());													//JÁ APLICADOS, E HÓSPEDE SEM PERÍODOS.
+
+		when(index.changeJournal.read(eq(6L), anyInt())).thenThrow(new ChangeFeedExpiredException(6, 90));
+		when(index.changeEventRepository.findMaxPosition()).thenReturn(120L);
+		index.refresh();
+		when(index.changeJournal.read(eq(120L), anyInt())).thenReturn(Collections.emptyList());
+		assertEquals(0, index.refresh());
+	}
+
+	private static ChangeEvent change(long position, String entityType, long entityId) {
+		ChangeEvent change = new ChangeEvent(entityType, entityId, 1L, ChangeEvent.UPDATED, null);
+		change.setPosition(position);
+		return change;
+	}
+
+	private static OccupancyIndex readyIndex() {
+		OccupancyIndex index = new OccupancyIndex();
+		index.cursorRepository = mock(CursorRepository.class);									//SEM CHECK-INS CADASTRADOS.
+		index.checkInRepository = mock(CheckInRepository.class);
+		index.changeJournal = mock(ChangeJournal.class);
+		index.changeEventRepository = mock(ChangeEventRepository.class);
+		index.transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+		index.build();
+		return index;
+	}
+
+	private static long expectedNextInHouseChange(Map<Long, CheckIn> checkIns, long instant) {
+		long next = Long.MAX_VALUE;
+		for(CheckIn c : checkIns.values()) {
+			long entry = c.getEntryDate().getTime(), departure = c.getDepartureDate().getTime();
+			if(entry >= instant)
+				next = Math.min(next, entry + 1);
+			else if(departure > instant)
+				next = Math.min(next, departure);
+		}
+		return next;
+	}
+
+	private static long expectedNextCheckedOutChange(Map<Long, CheckIn> checkIns, long instant) {
+		Map<Long, Long> firstDepartures = new HashMap<>();
+		for(CheckIn c : checkIns.values())
+			firstDepartures.merge(c.getGuest().getId(), c.getDepartureDate().getTime(), Math::min);
+		long next = Long.MAX_VALUE;
+		for(long departure : firstDepartures.values()) {
+			if(departure >= instant)
+				next = Math.min(next, departure + 1);
+		}
+		return next;
+	}
+
+	private static Set<Long> expectedInHouse(Map<Long, CheckIn> checkIns, long instant) {
+		Set<Long> guestIds = new TreeSet<>();
+		for(CheckIn c : checkIns.values()) {
+			if(c.getEntryDate().getTime() < instant && c.getDepartureDate().getTime() > instant)
+				guestIds.add(c.getGuest().getId());
+		}
+		return guestIds;
+	}
+
+	private static Set<Long> expectedCheckedOut(Map<Long, CheckIn> checkIns, long instant) {
+		Set<Long> guestIds = new TreeSet<>();
+		for(CheckIn c : checkIns.values()) {
+			if(c.getDepartureDate().getTime() < instant)
+				guestIds.add(c.getGuest().getId());
+		}
+		return guestIds;
+	}
+
+	private static CheckIn checkIn(long id, long guestId, long entry, long length) {
+		Guest guest = new Guest();
+		guest.setId(guestId);
+		CheckIn checkIn = new CheckIn();
+		checkIn.setId(id);
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(new Timestamp(entry));
+		checkIn.setDepartureDate(new Timestamp(entry + length));
+		return checkIn;
+	}
+}
@@ -0,0 +1,160 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Testes de equivalência entre o {@link PricingEngine} e o cálculo original, que percorria a hospedagem dia a dia.
+ */
+class PricingEngineTests {
+
+	private static final int SAMPLES = 20_000;
+
+	/*
+	 * Horizonte pré-calculado no meio do período sorteado, para cobrir os dois caminhos da tabela.
+	 */
+	private static final RateTable DEFAULT_RATES = RateTable.of(new RateTableDefinition(), LocalDate.of(2027, 1, 1), 366, 731);
+
+	private final TimeZone defaultZone = TimeZone.getDefault();
+
+	@AfterEach
+	void restoreZone() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "UTC", "America/Sao_Paulo", "Asia/Tokyo" })
+	void matchesDayByDayLoop(String zoneId) {
+		TimeZone.setDefault(TimeZone.getTimeZone(zoneId));
+		PricingEngine engine = new PricingEngine(() -> DEFAULT_RATES, ZoneId.of(zoneId));
+		Random random = new Random(zoneId.hashCode());
+		LocalDateTime origin = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+		for(int i = 0; i < SAMPLES; i++) {
+			LocalDateTime entry = origin.plusMinutes(random.nextInt(15 * 365 * 24 * 60));
+			LocalDateTime departure = entry.plusMinutes(stayMinutes(random));
+			CheckIn checkIn = new CheckIn();
+			checkIn.setEntryDate(Timestamp.valueOf(entry));
+			checkIn.setDepartureDate(Timestamp.valueOf(departure));
+			checkIn.setAdditionalVehicle(random.nextBoolean());
+
+			assertEquals(legacyDailyTotals(checkIn), engine.dailyTotals(checkIn), checkIn.toString());
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "2021-06-04 16:30:00", "2021-06-04 16:30:00.000000001", "2021-06-04 16:30:00.001", "2021-06-04 23:59:59" })
+	void appliesLateCheckoutBoundaryLikeDayByDayLoop(String departure) {
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		PricingEngine engine = new PricingEngine(() -> DEFAULT_RATES, ZoneId.of("UTC"));
+		CheckIn checkIn = new CheckIn();
+		checkIn.setEntryDate(Timestamp.valueOf("2021-06-01 14:00:00"));
+		checkIn.setDepartureDate(Timestamp.valueOf(departure));
+
+		assertEquals(legacyDailyTotals(checkIn), engine.dailyTotals(checkIn));
+	}
+
+	/*
+	 * Mistura estadias curtas, longas e saídas no mesmo dia ou antes da entrada.
+	 */
+	private static int stayMinutes(Random random) {
+		switch(random.nextInt(4)) {
+		case 0:
+			return random.nextInt(24 * 60) - 12 * 60;
+		case 1:
+			return random.nextInt(7 * 24 * 60);
+		case 2:
+			return random.nextInt(60 * 24 * 60);
+		default:
+			return random.nextInt(400 * 24 * 60);
+		}
+	}
+
+	/*
+	 * Cálculo original de CheckInResource.dailyTotals, mantido como referência.
+	 */
+	private static BigDecimal legacyDailyTotals(CheckIn checkIn) {
+		BigDecimal dailyWorkingDays = new BigDecimal("120");
+		BigDecimal dailyWeekends = new BigDecimal("150");
+		BigDecimal garageWorkingDays = new BigDecimal("15");
+		BigDecimal garageWeekends = new BigDecimal("20");
+		int workingDays = 0;
+		int weekends = 0;
+
+		Timestamp startDate = cleanDate(checkIn.getEntryDate());
+		Timestamp finalDate = cleanDate(checkIn.getDepartureDate());
+
+		do {
+			int dayWeek = getDayWeek(startDate);
+			workingDays = (dayWeek >= 2 && dayWeek <= 6) ? (workingDays + 1) : workingDays;
+			weekends = (dayWeek == 1 || dayWeek == 7) ? (weekends + 1) : weekends;
+
+			startDate = addHours(startDate, 24);
+		}while(startDate.before(finalDate));
+
+		Calendar calendar = Calendar.getInstance(new Locale("pt", "BR"));
+		calendar.setTime(checkIn.getDepartureDate());
+		calendar.set(Calendar.HOUR_OF_DAY, 16);
+		calendar.set(Calendar.MINUTE, 30);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+
+		if(checkIn.getDepartureDate().after(new Timestamp(calendar.getTimeInMillis()))) {
+			startDate = addHours(startDate, 24);
+			int dayWeek = getDayWeek(startDate);
+			workingDays = (dayWeek >= 2 && dayWeek <= 6) ? (workingDays + 1) : workingDays;
+			weekends = (dayWeek == 1 || dayWeek == 7) ? (weekends + 1) : weekends;
+		}
+
+		BigDecimal totalDailyWorkingDays = dailyWorkingDays.multiply(new BigDecimal(workingDays));
+		BigDecimal totalDailyWeekends = dailyWeekends.multiply(new BigDecimal(weekends));
+		BigDecimal totalGarageWorkingDays = BigDecimal.ZERO;
+		BigDecimal totalGarageWeekends = BigDecimal.ZERO;
+
+		if(checkIn.isAdditionalVehicle()) {
+			totalGarageWorkingDays = garageWorkingDays.multiply(new BigDecimal(workingDays));
+			totalGarageWeekends = garageWeekends.multiply(new BigDecimal(weekends));
+		}
+
+		return totalDailyWorkingDays.add(totalDailyWeekends).add(totalGarageWorkingDays).add(totalGarageWeekends);
+	}
+
+	private static Timestamp cleanDate(Timestamp timestamp) {
+		Calendar calendar = Calendar.getInstance(new Locale("pt", "BR"));
+		calendar.setTime(timestamp);
+		calendar.set(Calendar.HOUR_OF_DAY, 0);
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+		return new Timestamp(calendar.getTimeInMillis());
+	}
+
+	private static int getDayWeek(Timestamp timestamp) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(timestamp);
+		return calendar.get(Calendar.DAY_OF_WEEK);
+	}
+
+	private static Timestamp addHours(Timestamp timestamp, int hours) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setLenient(false);
+		calendar.setTime(timestamp);
+		calendar.add(Calendar.HOUR, hours);
+		return new Timestamp(calendar.getTimeInMillis());
+	}
+}
@@ -0,0 +1,110 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.guest.model.CheckIn;
+
+/**
+ * Testes da cotação em lote: formatos de entrada, ordem da saída entre blocos e hospedagens sem datas.
+ */
+class QuoteServiceTests {
+
+	private static final RateTable RATES = RateTable.of(new RateTableDefinition(), LocalDate.of(2021, 1, 1), 366, 731);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final QuoteService quoteService = new QuoteService();
+
+	@BeforeEach
+	void setUp() {
+		quoteService.objectMapper = objectMapper;
+		quoteService.pricingEngine = new PricingEngine(() -> RATES, ZoneId.systemDefault());
+	}
+
+	@Test
+	void quotesJsonArrayInInputOrderAcrossChunks() throws Exception {
+		int items = QuoteService.CHUNK_SIZE * 2 + 3;
+		StringBuilder input = new StringBuilder("[");
+		for(int i = 0; i < items; i++)
+			input.append(i == 0 ? "" : ",").append(json(i));
+		input.append(']');
+
+		JsonNode output = quote(input.toString());
+
+		assertEquals(items, output.size());
+		for(int i = 0; i < items; i++)
+			assertQuoted(i, output.get(i));
+	}
+
+	@Test
+	void quotesNdjson() throws Exception {
+		JsonNode output = quote(json(0) + "\n" + json(1) + "\n" + json(2) + "\n");
+
+		assertEquals(3, output.size());
+		for(int i = 0; i < 3; i++)
+			assertQuoted(i, output.get(i));
+	}
+
+	@Test
+	void leavesCostEmptyWithoutDates() throws Exception {
+		JsonNode output = quote("[{\"entryDate\":" + entry(0).getTime() + ",\"totalCost\":10},{\"totalCost\":10}]");
+
+		assertEquals(2, output.size());
+		assertTrue(output.get(0).get("totalCost").isNull());
+		assertTrue(output.get(1).get("totalCost").isNull());
+	}
+
+	@Test
+	void writesEmptyArrayForEmptyInput() throws Exception {
+		assertEquals(0, quote("[]").size());
+		assertEquals(0, quote("").size());
+	}
+
+	private JsonNode quote(String input) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		quoteService.quote(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+		return objectMapper.readTree(output.toByteArray());
+	}
+
+	/*
+	 * A duração e o veículo variam com a posição, para que uma troca de ordem mude o custo esperado.
+	 */
+	private static String json(int i) {
+		return "{\"entryDate\":" + entry(i).getTime() + ",\"departureDate\":" + departure(i).getTime()
+				+ ",\"additionalVehicle\":" + (i % 2 == 0) + "}";
+	}
+
+	private static Timestamp entry(int i) {
+		return Timestamp.valueOf(LocalDateTime.of(2021, 6, 1, 14, 0).plusDays(i % 200));
+	}
+
+	private static Timestamp departure(int i) {
+		return Timestamp.valueOf(LocalDateTime.of(2021, 6, 1, 12, 0).plusDays(i % 200 + 1 + i % 7));
+	}
+
+	private void assertQuoted(int i, JsonNode node) {
+		CheckIn expected = new CheckIn();
+		expected.setEntryDate(entry(i));
+		expected.setDepartureDate(departure(i));
+		expected.setAdditionalVehicle(i % 2 == 0);
+		BigDecimal cost = quoteService.pricingEngine.dailyTotals(expected);
+
+		assertEquals(entry(i).getTime(), node.get("entryDate").asLong());
+		assertEquals(0, cost.compareTo(node.get("totalCost").decimalValue()), "item " + i);
+	}
+}
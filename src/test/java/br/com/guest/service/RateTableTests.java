@@ -0,0 +1,116 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.guest.service.RateTableDefinition.DateOverride;
+import br.com.guest.service.RateTableDefinition.Season;
+
+/**
+ * Testes das regras de temporadas, feriados e datas específicas da {@link RateTable}, dentro e fora do horizonte
+ * pré-calculado, e da troca diária do horizonte pelo {@link RateTableService}.
+ */
+class RateTableTests {
+
+	private static final ZoneId UTC = ZoneId.of("UTC");
+
+	@Test
+	void appliesSeasonHolidayAndOverridePrecedence() {
+		Season season = new Season();
+		season.setStart(LocalDate.of(2021, 12, 20));										//SEGUNDA-FEIRA.
+		season.setEnd(LocalDate.of(2021, 12, 31));
+		season.setDailyWorkingDays(new BigDecimal("200"));
+		season.setDailyWeekends(new BigDecimal("250"));
+
+		DateOverride override = new DateOverride();
+		override.setDate(LocalDate.of(2021, 12, 24));
+		override.setDaily(new BigDecimal("99.90"));
+
+		RateTableDefinition definition = new RateTableDefinition();
+		definition.setSeasons(Collections.singletonList(season));
+		definition.setHolidays(Arrays.asList(LocalDate.of(2021, 12, 22), LocalDate.of(2021, 11, 15)));
+		definition.setOverrides(Collections.singletonList(override));
+		RateTable table = RateTable.of(definition, LocalDate.of(2021, 6, 1), 0, 30);
+		PricingEngine engine = new PricingEngine(() -> table, UTC);
+
+		//20/12 a 24/12: 200 + 200 + 250 (feriado na temporada) + 200 + 99,90 (data específica).
+		assertEquals(new BigDecimal("949.90"), engine.dailyTotals(at("2021-12-20 14:00:00"), at("2021-12-25 12:00:00"), false));
+		//15/11 é feriado fora da temporada: valor base de final de semana, com garagem.
+		assertEquals(new BigDecimal("170.00"), engine.dailyTotals(at("2021-11-15 14:00:00"), at("2021-11-16 12:00:00"), true));
+		//Fora do horizonte e das temporadas valem os valores base.
+		assertEquals(new BigDecimal("420.00"), engine.dailyTotals(at("2030-01-04 14:00:00"), at("2030-01-07 12:00:00"), false));
+	}
+
+	@Test
+	void outsideHorizonFollowsDefinition() {
+		Season season = new Season();
+		season.setStart(LocalDate.of(2023, 3, 1));
+		season.setEnd(LocalDate.of(2023, 3, 20));
+		season.setDailyWeekends(new BigDecimal("310.50"));
+		season.setGarageWorkingDays(new BigDecimal("40"));
+		DateOverride override = new DateOverride();
+		override.setDate(LocalDate.of(2023, 3, 15));
+		override.setGarage(new BigDecimal("1.25"));
+		RateTableDefinition definition = new RateTableDefinition();
+		definition.setSeasons(Collections.singletonList(season));
+		definition.setHolidays(Collections.singletonList(LocalDate.of(2023, 3, 8)));
+		definition.setOverrides(Collections.singletonList(override));
+
+		RateTable narrow = RateTable.of(definition, LocalDate.of(2023, 1, 1), 5, 70);		//HORIZONTE ATÉ 12/03, NO MEIO DA TEMPORADA.
+		RateTable wide = RateTable.of(definition, LocalDate.of(2023, 1, 1), 400, 800);
+		long from = LocalDate.of(2022, 12, 1).toEpochDay();
+		for(long to = from; to < from + 150; to++) {
+			assertEquals(wide.total(from, to, true), narrow.total(from, to, true));
+			assertEquals(wide.roomWeekends(to - 9, to), narrow.roomWeekends(to - 9, to));
+			assertEquals(wide.garageWorkingDays(to - 9, to), narrow.garageWorkingDays(to - 9, to));
+		}
+	}
+
+	@Test
+	void reanchorsHorizonOncePerDay() {
+		RateTableService service = new RateTableService();
+		service.location = "";
+		service.pastDays = 1;
+		service.futureDays = 1;
+		RateTableDefinition definition = new RateTableDefinition();
+		definition.setDailyWorkingDays(new BigDecimal("111"));
+		service.publish(definition);
+		assertFalse(service.reanchor());
+
+		ReflectionTestUtils.setField(service, "anchor", LocalDate.now().minusDays(1));		//PUBLICADA ONTEM.
+		RateTable previous = service.get();
+		assertTrue(service.reanchor());
+		assertNotSame(previous, service.get());
+		assertEquals(new BigDecimal("111"), service.get().getDefinition().getDailyWorkingDays());
+		assertFalse(service.reanchor());
+	}
+
+	@Test
+	void rejectsInvalidSeason() {
+		Season season = new Season();
+		season.setStart(LocalDate.of(2021, 12, 31));
+		season.setEnd(LocalDate.of(2021, 12, 1));
+		RateTableDefinition definition = new RateTableDefinition();
+		definition.setSeasons(Collections.singletonList(season));
+
+		assertThrows(IllegalArgumentException.class, () -> RateTable.of(definition, LocalDate.of(2021, 6, 1), 0, 30));
+	}
+
+	private static Timestamp at(String dateTime) {
+		return Timestamp.from(LocalDateTime.parse(dateTime.replace(' ', 'T')).atZone(UTC).toInstant());
+	}
+}
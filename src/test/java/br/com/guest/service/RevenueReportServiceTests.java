@@ -0,0 +1,165 @@
+package br.com.guest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.guest.model.CheckIn;
+import br.com.guest.model.Guest;
+import br.com.guest.model.RevenueRollup;
+import br.com.guest.model.RevenueRollup.Granularity;
+import br.com.guest.repository.CheckInNightRepository;
+import br.com.guest.repository.CheckInRepository;
+import br.com.guest.repository.CursorRepository;
+import br.com.guest.repository.GuestRepository;
+import br.com.guest.repository.RevenueRollupRepository;
+import br.com.guest.repository.RevenueRollupWriter;
+
+/**
+ * Testes dos totais de receita mantidos na gravação dos check-ins, comparados aos custos gravados e ao recálculo, inclusive
+ * na alteração de um check-in depois de uma nova tabela de tarifas.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ CheckInService.class, RevenueReportService.class, RevenueRollupWriter.class, CursorRepository.class,
+	PricingEngine.class, RateTableService.class })
+class RevenueReportServiceTests {
+
+	private static final LocalDate JUNE = LocalDate.of(2021, 6, 1), JULY = LocalDate.of(2021, 7, 1);
+
+	@Autowired
+	CheckInService checkInService;
+
+	@Autowired
+	RevenueReportService revenueReportService;
+
+	@Autowired
+	RevenueRollupRepository rollupRepository;
+
+	@Autowired
+	CheckInRepository checkInRepository;
+
+	@Autowired
+	GuestRepository guestRepository;
+
+	@Autowired
+	CheckInNightRepository nightRepository;
+
+	@Autowired
+	RateTableService rateTableService;
+
+	@AfterEach
+	void cleanUp() throws IOException {
+		checkInRepository.deleteAllInBatch();
+		rollupRepository.deleteAllInBatch();
+		nightRepository.deleteAllInBatch();
+		guestRepository.deleteAllInBatch();
+		rateTableService.reload();
+	}
+
+	@Test
+	void keepsRollupsOnInsertAndUpdate() {
+		Guest guest = guest("Ana");
+		CheckIn weekend = checkInService.save(checkIn(guest, "2021-06-04 14:00:00", "2021-06-07 17:00:00", true));	//SEX A DOM, MAIS A DIÁRIA EXTRA NA TERÇA.
+		CheckIn monthEnd = checkInService.save(checkIn(guest, "2021-06-29 14:00:00", "2021-07-02 12:00:00", false));
+
+		RevenueRollup total = revenueReportService.total(JUNE, JULY.plusMonths(1).minusDays(1));
+		assertEquals(5, total.getRoomNightsWeekday());
+		assertEquals(2, total.getRoomNightsWeekend());
+		assertEquals(2, total.getVehicleNightsWeekday());
+		assertEquals(2, total.getVehicleNightsWeekend());
+		assertEquals(0, weekend.getTotalCost().add(monthEnd.getTotalCost()).compareTo(total.getRevenue()));
+
+		List<RevenueRollup> months = revenueReportService.find(Granularity.MONTH, JUNE, JULY);
+		assertEquals(6, months.get(0).getRoomNights());
+		assertEquals(1, months.get(1).getRoomNights());
+		List<RevenueRollup> weeks = revenueReportService.find(Granularity.WEEK, JUNE, JULY);
+		assertEquals(LocalDate.of(2021, 5, 31), weeks.get(0).getPeriodStart());
+		assertEquals(3, weeks.get(0).getRoomNights());
+		assertEquals(1, weeks.get(1).getRoomNights());
+		assertEquals(3, weeks.get(2).getRoomNights());
+
+		CheckIn shortened = checkIn(guest, "2021-06-04 14:00:00", "2021-06-05 12:00:00", false);
+		shortened.setId(weekend.getId());
+		shortened = checkInService.save(shortened);
+
+		total = revenueReportService.total(JUNE.plusDays(1), JULY.plusMonths(1).minusDays(1));	//DIAS DE JUNHO E MESES DE JULHO A AGOSTO.
+		assertEquals(4, total.getRoomNights());
+		assertEquals(0, total.getVehicleNightsWeekday() + total.getVehicleNightsWeekend());
+		assertEquals(0, shortened.getTotalCost().add(monthEnd.getTotalCost()).compareTo(total.getRevenue()));
+		assertEquals(1, revenueReportService.find(Granularity.DAY, JULY, JULY).get(0).getRoomNights());
+	}
+
+	@Test
+	void rebuildMatchesIncrementalRollups() {
+		Guest guest = guest("Bruno");
+		checkInService.save(checkIn(guest, "2021-06-04 14:00:00", "2021-06-07 17:00:00", true));
+		checkInService.save(checkIn(guest, "2021-06-29 14:00:00", "2021-07-02 12:00:00", false));
+		List<RevenueRollup> incremental = sorted(rollupRepository.findAll());
+
+		assertEquals(incremental.size(), revenueReportService.rebuild());
+		assertEquals(incremental.toString(), sorted(rollupRepository.findAll()).toString());
+	}
+
+	@Test
+	void updateAfterNewRatesRemovesWhatWasAdded() {
+		Guest guest = guest("Carla");
+		CheckIn weekend = checkInService.save(checkIn(guest, "2021-06-04 14:00:00", "2021-06-07 12:00:00", true));	//SEX A DOM.
+		assertEquals(3, nightRepository.findByCheckIn(weekend.getId()).size());
+
+		RateTableDefinition definition = new RateTableDefinition();
+		definition.setDailyWeekends(definition.getDailyWeekends().add(new BigDecimal("70.00")));
+		definition.setGarageWorkingDays(definition.getGarageWorkingDays().add(new BigDecimal("5.00")));
+		rateTableService.publish(definition);
+
+		CheckIn moved = checkIn(guest, "2021-08-02 14:00:00", "2021-08-03 12:00:00", false);
+		moved.setId(weekend.getId());
+		moved = checkInService.save(moved);
+
+		List<RevenueRollup> june = revenueReportService.find(Granularity.DAY, JUNE, JULY.minusDays(1));
+		assertFalse(june.isEmpty());
+		for(RevenueRollup day : june)
+			assertTrue(day.isZero(), day.toString());											//NADA SOBRA NOS DIAS ANTIGOS.
+		assertTrue(revenueReportService.find(Granularity.MONTH, JUNE, JUNE).get(0).isZero());
+		assertEquals(0, moved.getTotalCost().compareTo(revenueReportService.total(JUNE, JULY.plusMonths(1).plusDays(30)).getRevenue()));
+		assertEquals(1, nightRepository.findByCheckIn(moved.getId()).size());
+	}
+
+	private static List<RevenueRollup> sorted(List<RevenueRollup> rollups) {
+		rollups.sort(Comparator.comparing(rollup -> new RevenueRollup.Key(rollup.getGranularity(), rollup.getPeriodStart())));
+		return rollups;
+	}
+
+	private Guest guest(String name) {
+		Guest guest = new Guest();
+		guest.setName(name);
+		return guestRepository.save(guest);
+	}
+
+	private static CheckIn checkIn(Guest guest, String entry, String departure, boolean additionalVehicle) {
+		CheckIn checkIn = new CheckIn();
+		checkIn.setGuest(guest);
+		checkIn.setEntryDate(Timestamp.valueOf(entry));
+		checkIn.setDepartureDate(Timestamp.valueOf(departure));
+		checkIn.setAdditionalVehicle(additionalVehicle);
+		return checkIn;
+	}
+}